@@ -0,0 +1,181 @@
+package bio.terra.landingzone.common.utils;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Creates the executors that fan out blocking Azure, Sam and BPM calls, e.g. parallel resource
+ * steps or Sentinel alert rules, and the scheduler on which Reactor pipelines run blocking calls,
+ * e.g. resource creation and deletion.
+ *
+ * <p>By default the executors run on a fixed pool of platform threads and the scheduler is
+ * Reactor's bounded elastic one. When virtual threads are enabled with
+ * landingzone.job.virtual-threads-enabled and the service runs on a JDK which supports them (21+),
+ * every task gets its own virtual thread instead, so that tasks blocked on Azure don't hold a
+ * platform thread each. Parallelism stays bounded either way, since it protects Azure from
+ * throttling rather than the service from running out of threads: executors bound it with a
+ * semaphore, pipelines with their flatMap concurrency.
+ */
+public class BlockingTaskExecutors {
+  private static final Logger logger = LoggerFactory.getLogger(BlockingTaskExecutors.class);
+
+  private static volatile boolean virtualThreadsEnabled;
+  private static volatile Scheduler blockingScheduler = Schedulers.boundedElastic();
+
+  private BlockingTaskExecutors() {}
+
+  /**
+   * Selects the kind of threads used by executors created from now on. Called once during
+   * initialization.
+   *
+   * @param enabled whether to use virtual threads when the JDK supports them
+   */
+  public static void configure(boolean enabled) {
+    ExecutorService schedulerExecutor =
+        enabled ? newVirtualThreadPerTaskExecutor("lz-blocking") : null;
+    if (enabled && schedulerExecutor == null) {
+      logger.warn("Virtual threads are not supported by this JDK, using platform threads.");
+      enabled = false;
+    }
+    Scheduler previousScheduler = blockingScheduler;
+    blockingScheduler =
+        enabled
+            ? Schedulers.fromExecutorService(schedulerExecutor, "lz-blocking")
+            : Schedulers.boundedElastic();
+    if (previousScheduler != Schedulers.boundedElastic()) {
+      previousScheduler.dispose();
+    }
+    virtualThreadsEnabled = enabled;
+    logger.info("Blocking task executors use {} threads.", enabled ? "virtual" : "platform");
+  }
+
+  public static boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  /**
+   * Returns the scheduler for blocking calls in Reactor pipelines. Pipelines bound their own
+   * parallelism.
+   *
+   * @return scheduler shared by all pipelines
+   */
+  public static Scheduler blockingScheduler() {
+    return blockingScheduler;
+  }
+
+  /**
+   * Creates an executor which runs at most the given number of tasks at the same time. Callers own
+   * the executor and must shut it down.
+   *
+   * @param name prefix of the thread names
+   * @param parallelism maximum number of concurrently running tasks
+   * @return executor service
+   */
+  public static ExecutorService newBoundedExecutor(String name, int parallelism) {
+    if (virtualThreadsEnabled) {
+      ExecutorService threadPerTaskExecutor = newVirtualThreadPerTaskExecutor(name);
+      if (threadPerTaskExecutor != null) {
+        return new SemaphoreBoundedExecutor(threadPerTaskExecutor, Math.max(1, parallelism));
+      }
+    }
+    return Executors.newFixedThreadPool(Math.max(1, parallelism), createPlatformThreadFactory(name));
+  }
+
+  private static ThreadFactory createPlatformThreadFactory(String name) {
+    var threadCount = new AtomicInteger();
+    return r -> {
+      Thread thread = new Thread(r, name + "-" + threadCount.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  // The service is built for JDK 17, so the virtual thread API is looked up reflectively
+  private static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder =
+          builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+      var threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      return (ExecutorService)
+          Executors.class
+              .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+              .invoke(null, threadFactory);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Starts a thread per task and lets at most the given number of tasks run at the same time;
+   * the other threads wait for a permit.
+   */
+  private static class SemaphoreBoundedExecutor extends AbstractExecutorService {
+    private final ExecutorService threadPerTaskExecutor;
+    private final Semaphore permits;
+
+    SemaphoreBoundedExecutor(ExecutorService threadPerTaskExecutor, int parallelism) {
+      this.threadPerTaskExecutor = threadPerTaskExecutor;
+      this.permits = new Semaphore(parallelism);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      threadPerTaskExecutor.execute(
+          () -> {
+            try {
+              permits.acquire();
+            } catch (InterruptedException e) {
+              // shut down while waiting; a submitted task must not be left pending
+              if (command instanceof Future<?> future) {
+                future.cancel(false);
+              }
+              Thread.currentThread().interrupt();
+              return;
+            }
+            try {
+              command.run();
+            } finally {
+              permits.release();
+            }
+          });
+    }
+
+    @Override
+    public void shutdown() {
+      threadPerTaskExecutor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return threadPerTaskExecutor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return threadPerTaskExecutor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return threadPerTaskExecutor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return threadPerTaskExecutor.awaitTermination(timeout, unit);
+    }
+  }
+}
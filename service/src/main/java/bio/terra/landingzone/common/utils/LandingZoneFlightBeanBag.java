@@ -1,14 +1,19 @@
 package bio.terra.landingzone.common.utils;
 
 import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.job.JobAdmissionController;
 import bio.terra.landingzone.library.LandingZoneManagerProvider;
 import bio.terra.landingzone.library.configuration.AzureCustomerUsageConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneAzureConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneProtectedDataConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneTestingConfiguration;
 import bio.terra.landingzone.service.bpm.LandingZoneBillingProfileManagerService;
 import bio.terra.landingzone.service.iam.LandingZoneSamService;
 import bio.terra.landingzone.service.landingzone.azure.LandingZoneService;
+import bio.terra.landingzone.stairway.common.utils.StepTimingHook;
+import bio.terra.landingzone.stairway.flight.utils.AlertRuleTemplateCatalog;
+import bio.terra.landingzone.stairway.flight.utils.RegionalSkuCatalog;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -26,6 +31,11 @@ public class LandingZoneFlightBeanBag {
   private final ObjectMapper objectMapper;
   private final LandingZoneProtectedDataConfiguration landingZoneProtectedDataConfiguration;
   private final AzureCustomerUsageConfiguration azureCustomerUsageConfiguration;
+  private final LandingZoneJobConfiguration jobConfiguration;
+  private final AlertRuleTemplateCatalog alertRuleTemplateCatalog;
+  private final RegionalSkuCatalog regionalSkuCatalog;
+  private final JobAdmissionController jobAdmissionController;
+  private final StepTimingHook stepTimingHook;
 
   @Lazy
   @Autowired
@@ -39,6 +49,11 @@ public class LandingZoneFlightBeanBag {
       LandingZoneBillingProfileManagerService bpmService,
       LandingZoneProtectedDataConfiguration landingZoneProtectedDataConfiguration,
       AzureCustomerUsageConfiguration azureCustomerUsageConfiguration,
+      LandingZoneJobConfiguration jobConfiguration,
+      AlertRuleTemplateCatalog alertRuleTemplateCatalog,
+      RegionalSkuCatalog regionalSkuCatalog,
+      JobAdmissionController jobAdmissionController,
+      StepTimingHook stepTimingHook,
       ObjectMapper objectMapper) {
     this.landingZoneService = landingZoneService;
     this.landingZoneDao = landingZoneDao;
@@ -49,6 +64,11 @@ public class LandingZoneFlightBeanBag {
     this.bpmService = bpmService;
     this.landingZoneProtectedDataConfiguration = landingZoneProtectedDataConfiguration;
     this.azureCustomerUsageConfiguration = azureCustomerUsageConfiguration;
+    this.jobConfiguration = jobConfiguration;
+    this.alertRuleTemplateCatalog = alertRuleTemplateCatalog;
+    this.regionalSkuCatalog = regionalSkuCatalog;
+    this.jobAdmissionController = jobAdmissionController;
+    this.stepTimingHook = stepTimingHook;
     this.objectMapper = objectMapper;
   }
 
@@ -95,4 +115,24 @@ public class LandingZoneFlightBeanBag {
   public AzureCustomerUsageConfiguration getAzureCustomerUsageConfiguration() {
     return azureCustomerUsageConfiguration;
   }
+
+  public LandingZoneJobConfiguration getJobConfiguration() {
+    return jobConfiguration;
+  }
+
+  public AlertRuleTemplateCatalog getAlertRuleTemplateCatalog() {
+    return alertRuleTemplateCatalog;
+  }
+
+  public RegionalSkuCatalog getRegionalSkuCatalog() {
+    return regionalSkuCatalog;
+  }
+
+  public JobAdmissionController getJobAdmissionController() {
+    return jobAdmissionController;
+  }
+
+  public StepTimingHook getStepTimingHook() {
+    return stepTimingHook;
+  }
 }
@@ -0,0 +1,267 @@
+package bio.terra.landingzone.common.utils;
+
+import io.opencensus.metrics.DerivedLongGauge;
+import io.opencensus.metrics.MetricOptions;
+import io.opencensus.metrics.MetricRegistry;
+import io.opencensus.metrics.Metrics;
+import io.opencensus.stats.Aggregation;
+import io.opencensus.stats.BucketBoundaries;
+import io.opencensus.stats.Measure;
+import io.opencensus.stats.Measure.MeasureDouble;
+import io.opencensus.stats.Measure.MeasureLong;
+import io.opencensus.stats.Stats;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.stats.View;
+import io.opencensus.stats.ViewManager;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagContextBuilder;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import io.opencensus.tags.Tags;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Records landing zone service metrics with OpenCensus. Views are registered once when the class is
+ * loaded; exporting them is left to the hosting application.
+ */
+public class MetricsHelper {
+  public static final String METRICS_PREFIX = "landingzone/";
+
+  private static final ViewManager viewManager = Stats.getViewManager();
+  private static final StatsRecorder statsRecorder = Stats.getStatsRecorder();
+  private static final Tagger tagger = Tags.getTagger();
+  private static final MetricRegistry metricRegistry = Metrics.getMetricRegistry();
+
+  static final TagKey CACHE_NAME_KEY = TagKey.create("cache");
+  static final TagKey CACHE_RESULT_KEY = TagKey.create("result");
+  static final TagKey OPERATION_KEY = TagKey.create("operation");
+  static final TagKey STATUS_KEY = TagKey.create("status");
+  static final TagKey STEP_KEY = TagKey.create("step");
+  static final TagKey DIRECTION_KEY = TagKey.create("direction");
+  static final TagKey RETRY_KEY = TagKey.create("retry");
+  static final TagKey DEFINITION_KEY = TagKey.create("definition");
+  static final TagKey PRIORITY_KEY = TagKey.create("priority");
+
+  private static final String CACHE_HIT = "hit";
+  private static final String CACHE_MISS = "miss";
+  private static final String STATUS_SUCCESS = "success";
+  private static final String STATUS_FAILURE = "failure";
+
+  private static final MeasureLong CACHE_ACCESS =
+      MeasureLong.create(METRICS_PREFIX + "cache/access", "Number of cache lookups", "1");
+
+  private static final MeasureDouble BPM_LATENCY =
+      MeasureDouble.create(
+          METRICS_PREFIX + "bpm/latency", "Latency of billing profile manager calls", "ms");
+
+  private static final MeasureDouble STEP_DURATION =
+      MeasureDouble.create(
+          METRICS_PREFIX + "flight/step_duration", "Duration of a flight step attempt", "ms");
+
+  private static final MeasureDouble ADMISSION_WAIT =
+      MeasureDouble.create(
+          METRICS_PREFIX + "admission/wait_time", "Time a job waited for admission", "ms");
+
+  private static final MeasureDouble TEARDOWN_DURATION =
+      MeasureDouble.create(
+          METRICS_PREFIX + "teardown/duration",
+          "Duration of a landing zone teardown attempt",
+          "ms");
+
+  private static final MeasureDouble TEARDOWN_LAG =
+      MeasureDouble.create(
+          METRICS_PREFIX + "teardown/lag",
+          "Time from marking a landing zone as deleting until its teardown completed",
+          "ms");
+
+  private static final List<Double> LATENCY_BUCKETS_MS =
+      List.of(0.0, 25.0, 50.0, 100.0, 250.0, 500.0, 1000.0, 2500.0, 5000.0, 10000.0, 30000.0);
+
+  static final Aggregation LATENCY_DISTRIBUTION =
+      Aggregation.Distribution.create(BucketBoundaries.create(LATENCY_BUCKETS_MS));
+
+  // steps wait for Azure deployments, which take from seconds up to half an hour
+  private static final List<Double> STEP_DURATION_BUCKETS_MS =
+      List.of(0.0, 1000.0, 5000.0, 15000.0, 60000.0, 120000.0, 300000.0, 600000.0, 1800000.0);
+
+  static final Aggregation STEP_DURATION_DISTRIBUTION =
+      Aggregation.Distribution.create(BucketBoundaries.create(STEP_DURATION_BUCKETS_MS));
+
+  // teardowns wait for the reaper and for retries, which take from seconds up to a day
+  private static final List<Double> TEARDOWN_LAG_BUCKETS_MS =
+      List.of(0.0, 60000.0, 300000.0, 900000.0, 1800000.0, 3600000.0, 10800000.0, 86400000.0);
+
+  static final Aggregation TEARDOWN_LAG_DISTRIBUTION =
+      Aggregation.Distribution.create(BucketBoundaries.create(TEARDOWN_LAG_BUCKETS_MS));
+
+  static {
+    registerView(
+        "cache/access_count",
+        "Number of cache lookups by cache and result",
+        CACHE_ACCESS,
+        Aggregation.Count.create(),
+        List.of(CACHE_NAME_KEY, CACHE_RESULT_KEY));
+    registerView(
+        "bpm/latency",
+        "Distribution of billing profile manager call latencies",
+        BPM_LATENCY,
+        LATENCY_DISTRIBUTION,
+        List.of(OPERATION_KEY, STATUS_KEY));
+    registerView(
+        "flight/step_duration",
+        "Distribution of flight step attempt durations",
+        STEP_DURATION,
+        STEP_DURATION_DISTRIBUTION,
+        List.of(STEP_KEY, DIRECTION_KEY, RETRY_KEY, DEFINITION_KEY));
+    registerView(
+        "admission/wait_time",
+        "Distribution of the time jobs waited for admission",
+        ADMISSION_WAIT,
+        STEP_DURATION_DISTRIBUTION,
+        List.of(PRIORITY_KEY));
+    registerView(
+        "teardown/duration",
+        "Distribution of landing zone teardown attempt durations",
+        TEARDOWN_DURATION,
+        STEP_DURATION_DISTRIBUTION,
+        List.of(STATUS_KEY));
+    registerView(
+        "teardown/lag",
+        "Distribution of the time from soft delete until teardown of a landing zone",
+        TEARDOWN_LAG,
+        TEARDOWN_LAG_DISTRIBUTION,
+        List.of());
+  }
+
+  private MetricsHelper() {}
+
+  /**
+   * Records a lookup against one of the in-memory caches.
+   *
+   * @param cacheName name of the cache, used as a metric tag
+   * @param hit whether the value was served from the cache
+   */
+  public static void recordCacheAccess(String cacheName, boolean hit) {
+    String result = hit ? CACHE_HIT : CACHE_MISS;
+    statsRecorder
+        .newMeasureMap()
+        .put(CACHE_ACCESS, 1)
+        .record(tagContext(Map.of(CACHE_NAME_KEY, cacheName, CACHE_RESULT_KEY, result)));
+  }
+
+  /**
+   * Records the latency of a billing profile manager call.
+   *
+   * @param operation name of the BPM operation
+   * @param elapsed time spent in the call
+   * @param success whether the call succeeded
+   */
+  public static void recordBpmLatency(String operation, Duration elapsed, boolean success) {
+    String status = success ? STATUS_SUCCESS : STATUS_FAILURE;
+    statsRecorder
+        .newMeasureMap()
+        .put(BPM_LATENCY, elapsed.toMillis())
+        .record(tagContext(Map.of(OPERATION_KEY, operation, STATUS_KEY, status)));
+  }
+
+  /**
+   * Records the duration of one attempt of a flight step.
+   *
+   * @param step simple class name of the step
+   * @param direction Stairway direction of the attempt
+   * @param retry retry count of the attempt, 0 for the first attempt
+   * @param definition landing zone definition of the flight
+   * @param elapsed time spent in the attempt
+   */
+  public static void recordStepDuration(
+      String step, String direction, String retry, String definition, Duration elapsed) {
+    statsRecorder
+        .newMeasureMap()
+        .put(STEP_DURATION, elapsed.toMillis())
+        .record(
+            tagContext(
+                Map.of(
+                    STEP_KEY,
+                    step,
+                    DIRECTION_KEY,
+                    direction,
+                    RETRY_KEY,
+                    retry,
+                    DEFINITION_KEY,
+                    definition)));
+  }
+
+  /**
+   * Records how long a job waited in the admission queue.
+   *
+   * @param highPriority whether the job had high priority
+   * @param waited time between queueing and admission
+   */
+  public static void recordAdmissionWait(boolean highPriority, Duration waited) {
+    statsRecorder
+        .newMeasureMap()
+        .put(ADMISSION_WAIT, waited.toMillis())
+        .record(tagContext(Map.of(PRIORITY_KEY, highPriority ? "high" : "normal")));
+  }
+
+  /**
+   * Records an attempt to tear down the Azure resources of a soft deleted landing zone.
+   *
+   * @param success whether the teardown completed
+   * @param elapsed time spent in the attempt
+   */
+  public static void recordTeardown(boolean success, Duration elapsed) {
+    String status = success ? STATUS_SUCCESS : STATUS_FAILURE;
+    statsRecorder
+        .newMeasureMap()
+        .put(TEARDOWN_DURATION, elapsed.toMillis())
+        .record(tagContext(Map.of(STATUS_KEY, status)));
+  }
+
+  /**
+   * Records the time a soft deleted landing zone waited until its teardown completed.
+   *
+   * @param lag time between marking the landing zone as deleting and completing the teardown
+   */
+  public static void recordTeardownLag(Duration lag) {
+    statsRecorder.newMeasureMap().put(TEARDOWN_LAG, lag.toMillis()).record(tagContext(Map.of()));
+  }
+
+  /**
+   * Registers a gauge whose value is read from an object whenever metrics are exported.
+   *
+   * @param name name of the gauge, without the landing zone prefix
+   * @param description description of the gauge
+   * @param obj object the value is read from
+   * @param value function reading the value
+   */
+  public static <T> void registerGauge(
+      String name, String description, T obj, ToLongFunction<T> value) {
+    DerivedLongGauge gauge =
+        metricRegistry.addDerivedLongGauge(
+            METRICS_PREFIX + name,
+            MetricOptions.builder().setDescription(description).setUnit("1").build());
+    gauge.createTimeSeries(List.of(), obj, value);
+  }
+
+  static void registerView(
+      String name,
+      String description,
+      Measure measure,
+      Aggregation aggregation,
+      List<TagKey> columns) {
+    viewManager.registerView(
+        View.create(
+            View.Name.create(METRICS_PREFIX + name), description, measure, aggregation, columns));
+  }
+
+  static TagContext tagContext(Map<TagKey, String> tags) {
+    TagContextBuilder builder = tagger.emptyBuilder();
+    tags.forEach((key, value) -> builder.putLocal(key, TagValue.create(value)));
+    return builder.build();
+  }
+}
@@ -0,0 +1,123 @@
+package bio.terra.landingzone.db;
+
+import bio.terra.landingzone.job.model.StepTiming;
+import bio.terra.landingzone.library.configuration.LandingZoneDatabaseConfiguration;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/** FlightTimelineDao includes operations on the flight step timeline table. */
+@Component
+public class FlightTimelineDao {
+  private static final String FLIGHT_ID = "flight_id";
+  private static final String PARENT_FLIGHT_ID = "parent_flight_id";
+  private static final String STEP_INDEX = "step_index";
+  private static final String INNER_STEP_INDEX = "inner_step_index";
+  private static final String DIRECTION = "direction";
+  private static final String STEP_CLASS = "step_class";
+  private static final String STARTED_DATE = "started_date";
+  private static final String ENDED_DATE = "ended_date";
+  private static final String ATTEMPTS = "attempts";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public FlightTimelineDao(LandingZoneDatabaseConfiguration landingZoneDatabaseConfiguration) {
+    this.jdbcTemplate =
+        new NamedParameterJdbcTemplate(landingZoneDatabaseConfiguration.getDataSource());
+  }
+
+  /**
+   * Records the execution of a step. A step which runs again in the same direction, e.g. after the
+   * flight was resumed, replaces its previous end time and attempt count but keeps its start time.
+   *
+   * @param stepTiming execution of the step
+   * @param parentFlightId id of the flight whose timeline includes the step, if the step ran in a
+   *     sub-flight
+   */
+  public void upsertStepTiming(StepTiming stepTiming, @Nullable String parentFlightId) {
+    final String sql =
+        "INSERT INTO flight_step_timeline (flight_id, parent_flight_id, step_index, inner_step_index, direction, step_class, started_date, ended_date, attempts)"
+            + " VALUES (:flight_id, :parent_flight_id, :step_index, :inner_step_index, :direction, :step_class, :started_date, :ended_date, :attempts)"
+            + " ON CONFLICT (flight_id, step_index, inner_step_index, direction) DO UPDATE SET"
+            + " ended_date = EXCLUDED.ended_date,"
+            + " attempts = flight_step_timeline.attempts + EXCLUDED.attempts";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue(FLIGHT_ID, stepTiming.flightId())
+            .addValue(PARENT_FLIGHT_ID, parentFlightId)
+            .addValue(STEP_INDEX, stepTiming.stepIndex())
+            .addValue(INNER_STEP_INDEX, stepTiming.innerStepIndex())
+            .addValue(DIRECTION, stepTiming.direction())
+            .addValue(STEP_CLASS, stepTiming.stepClassName())
+            .addValue(STARTED_DATE, Timestamp.from(stepTiming.started()))
+            .addValue(ENDED_DATE, Timestamp.from(stepTiming.ended()))
+            .addValue(ATTEMPTS, stepTiming.attempts());
+    jdbcTemplate.update(sql, params);
+  }
+
+  /**
+   * Retrieves the timeline of a flight, including the steps of its sub-flights, ordered by start
+   * time.
+   *
+   * @param flightId id of the flight
+   * @return executed steps; empty if the flight has not executed any step
+   */
+  public List<StepTiming> getTimeline(String flightId) {
+    final String sql =
+        "SELECT flight_id, step_index, inner_step_index, direction, step_class, started_date,"
+            + " ended_date, attempts FROM flight_step_timeline"
+            + " WHERE flight_id = :flight_id OR parent_flight_id = :flight_id"
+            + " ORDER BY started_date, step_index, inner_step_index";
+    MapSqlParameterSource params = new MapSqlParameterSource().addValue(FLIGHT_ID, flightId);
+    return jdbcTemplate.query(sql, params, STEP_TIMING_ROW_MAPPER);
+  }
+
+  /**
+   * Removes the timeline of a flight.
+   *
+   * @param flightId id of the flight
+   * @return true if any step was removed
+   */
+  public boolean deleteTimeline(String flightId) {
+    final String sql = "DELETE FROM flight_step_timeline WHERE flight_id = :flight_id";
+    MapSqlParameterSource params = new MapSqlParameterSource().addValue(FLIGHT_ID, flightId);
+    return jdbcTemplate.update(sql, params) > 0;
+  }
+
+  /**
+   * Removes the timelines of flights whose last step ended before a cutoff, e.g. of flights which
+   * are no longer retained by Stairway.
+   *
+   * @param cutoff timelines whose steps all ended before this time are removed
+   * @return number of removed steps
+   */
+  public int deleteTimelinesEndedBefore(Instant cutoff) {
+    final String sql =
+        "DELETE FROM flight_step_timeline WHERE flight_id IN"
+            + " (SELECT flight_id FROM flight_step_timeline"
+            + " GROUP BY flight_id HAVING MAX(ended_date) < :cutoff)";
+    MapSqlParameterSource params =
+        new MapSqlParameterSource().addValue("cutoff", Timestamp.from(cutoff));
+    return jdbcTemplate.update(sql, params);
+  }
+
+  private static final RowMapper<StepTiming> STEP_TIMING_ROW_MAPPER =
+      (rs, rowNum) ->
+          new StepTiming(
+              rs.getString(FLIGHT_ID),
+              rs.getInt(STEP_INDEX),
+              rs.getInt(INNER_STEP_INDEX),
+              rs.getString(STEP_CLASS),
+              rs.getString(DIRECTION),
+              rs.getTimestamp(STARTED_DATE).toInstant(),
+              rs.getTimestamp(ENDED_DATE).toInstant(),
+              rs.getInt(ATTEMPTS));
+}
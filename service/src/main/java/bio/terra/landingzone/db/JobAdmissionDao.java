@@ -0,0 +1,169 @@
+package bio.terra.landingzone.db;
+
+import bio.terra.landingzone.db.model.JobAdmission;
+import bio.terra.landingzone.library.configuration.LandingZoneDatabaseConfiguration;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JobAdmissionDao includes operations on the job admission queue, which is shared by all nodes.
+ * Changes which depend on the state of the whole queue are serialized by a transaction level
+ * advisory lock.
+ */
+@Component
+public class JobAdmissionDao {
+  private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('job_admission'))";
+
+  private static final String JOB_ADMISSION_SELECT_SQL =
+      "SELECT job_id, billing_profile_id, subscription_id, high_priority, start_tag, finish_tag,"
+          + " queued_date, admitted_date FROM job_admission";
+
+  /** High priority jobs first, then by weighted fair queueing across billing profiles. */
+  private static final String QUEUE_ORDER =
+      " ORDER BY high_priority DESC, finish_tag, queued_date, job_id";
+
+  private final NamedParameterJdbcTemplate jdbcLandingZoneTemplate;
+
+  @Autowired
+  public JobAdmissionDao(LandingZoneDatabaseConfiguration landingZoneDatabaseConfiguration) {
+    this.jdbcLandingZoneTemplate =
+        new NamedParameterJdbcTemplate(landingZoneDatabaseConfiguration.getDataSource());
+  }
+
+  /**
+   * Adds a job to the end of its billing profile's share of the queue. A job starts at the virtual
+   * time of the queue, or after the last queued or running job of its billing profile, whichever is
+   * later. Billing profiles without jobs in the table start over, so no state is kept for them.
+   *
+   * @param jobId id of the job
+   * @param billingProfileId billing profile the job works for
+   * @param subscriptionId Azure subscription the job works on
+   * @param highPriority whether the job is admitted before normal priority jobs
+   * @param cost virtual time the job takes, the inverse of its billing profile's weight
+   * @throws org.springframework.dao.DuplicateKeyException if the job is already in the table
+   */
+  @Transactional(
+      isolation = Isolation.READ_COMMITTED,
+      propagation = Propagation.REQUIRED,
+      transactionManager = "tlzTransactionManager")
+  public void enqueueJob(
+      String jobId,
+      @Nullable UUID billingProfileId,
+      @Nullable String subscriptionId,
+      boolean highPriority,
+      double cost) {
+    final String sql =
+        "INSERT INTO job_admission (job_id, billing_profile_id, subscription_id, high_priority,"
+            + " start_tag, finish_tag, queued_date)"
+            + " SELECT :job_id, :billing_profile_id, :subscription_id, :high_priority,"
+            + " t.start_tag, t.start_tag + :cost, now() FROM (SELECT greatest("
+            + " (SELECT max(start_tag) FROM job_admission WHERE admitted_date IS NOT NULL),"
+            + " (SELECT min(start_tag) FROM job_admission WHERE admitted_date IS NULL),"
+            + " (SELECT max(finish_tag) FROM job_admission"
+            + " WHERE billing_profile_id IS NOT DISTINCT FROM cast(:billing_profile_id AS text)),"
+            + " 0) AS start_tag) t";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("job_id", jobId)
+            .addValue(
+                "billing_profile_id", billingProfileId == null ? null : billingProfileId.toString())
+            .addValue("subscription_id", subscriptionId)
+            .addValue("high_priority", highPriority)
+            .addValue("cost", cost);
+    lockQueue();
+    jdbcLandingZoneTemplate.update(sql, params);
+  }
+
+  /**
+   * Admits a queued job if the admission policy selects it. The policy sees the whole queue, and
+   * no other node changes it until the transaction ends.
+   *
+   * @param jobId id of the job
+   * @param policy selects the ids of the queued jobs which may be admitted
+   * @return the job, admitted if it was admitted now or before; empty if it is not in the table
+   */
+  @Transactional(
+      isolation = Isolation.READ_COMMITTED,
+      propagation = Propagation.REQUIRED,
+      transactionManager = "tlzTransactionManager")
+  public Optional<JobAdmission> admitJob(
+      String jobId, Function<List<JobAdmission>, Set<String>> policy) {
+    final String sql =
+        "UPDATE job_admission SET admitted_date = now() WHERE job_id = :job_id"
+            + " RETURNING job_id, billing_profile_id, subscription_id, high_priority, start_tag,"
+            + " finish_tag, queued_date, admitted_date";
+
+    lockQueue();
+    List<JobAdmission> queue = getAdmissionQueue();
+    Optional<JobAdmission> job =
+        queue.stream().filter(queuedJob -> queuedJob.jobId().equals(jobId)).findFirst();
+    if (job.isEmpty() || job.get().isAdmitted() || !policy.apply(queue).contains(jobId)) {
+      return job;
+    }
+    MapSqlParameterSource params = new MapSqlParameterSource().addValue("job_id", jobId);
+    return Optional.ofNullable(
+        DataAccessUtils.singleResult(
+            jdbcLandingZoneTemplate.query(sql, params, JOB_ADMISSION_ROW_MAPPER)));
+  }
+
+  /**
+   * Reads all queued and admitted jobs.
+   *
+   * @return jobs in queue order
+   */
+  public List<JobAdmission> getAdmissionQueue() {
+    return jdbcLandingZoneTemplate.query(
+        JOB_ADMISSION_SELECT_SQL + QUEUE_ORDER, JOB_ADMISSION_ROW_MAPPER);
+  }
+
+  /**
+   * Removes a job from the table, freeing its slot if it was admitted.
+   *
+   * @param jobId id of the job
+   * @return true if the job was in the table
+   */
+  public boolean deleteJobAdmission(String jobId) {
+    final String sql = "DELETE FROM job_admission WHERE job_id = :job_id";
+
+    MapSqlParameterSource params = new MapSqlParameterSource().addValue("job_id", jobId);
+    return jdbcLandingZoneTemplate.update(sql, params) > 0;
+  }
+
+  private void lockQueue() {
+    jdbcLandingZoneTemplate.getJdbcOperations().execute(LOCK_SQL);
+  }
+
+  private static final RowMapper<JobAdmission> JOB_ADMISSION_ROW_MAPPER =
+      (rs, rowNum) -> {
+        String billingProfileId = rs.getString("billing_profile_id");
+        Timestamp admittedDate = rs.getTimestamp("admitted_date");
+        return new JobAdmission(
+            rs.getString("job_id"),
+            billingProfileId == null ? null : UUID.fromString(billingProfileId),
+            rs.getString("subscription_id"),
+            rs.getBoolean("high_priority"),
+            rs.getDouble("start_tag"),
+            rs.getDouble("finish_tag"),
+            OffsetDateTime.ofInstant(rs.getTimestamp("queued_date").toInstant(), ZoneOffset.UTC),
+            admittedDate == null
+                ? null
+                : OffsetDateTime.ofInstant(admittedDate.toInstant(), ZoneOffset.UTC));
+      };
+}
@@ -4,10 +4,17 @@ import bio.terra.common.exception.MissingRequiredFieldException;
 import bio.terra.landingzone.db.exception.DuplicateLandingZoneException;
 import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
 import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.db.model.LandingZoneTeardown;
+import bio.terra.landingzone.db.model.LandingZoneTeardownBacklog;
+import bio.terra.landingzone.db.model.RetainedLandingZoneResources;
 import bio.terra.landingzone.library.configuration.LandingZoneDatabaseConfiguration;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +37,9 @@ public class LandingZoneDao {
       "SELECT landingzone_id, resource_group, subscription_id, tenant_id, billing_profile_id, definition_id, definition_version_id, display_name, description, created_date, properties"
           + " FROM landingzone";
 
+  /** Landing zones marked as deleting are hidden from readers until they are torn down. */
+  private static final String NOT_DELETING = " AND deleting_date IS NULL";
+
   // Landing Zones table fields
   private static final String LANDING_ZONE_ID = "landingzone_id";
   private static final String SUBSCRIPTION_ID = "subscription_id";
@@ -42,6 +52,15 @@ public class LandingZoneDao {
   private static final String DESCRIPTION = "description";
   private static final String PROPERTIES = "properties";
   private static final String CREATED_DATE = "created_date";
+  private static final String DELETING_DATE = "deleting_date";
+  private static final String TEARDOWN_ATTEMPTS = "teardown_attempts";
+
+  /** Columns of landingzone_retained_resources read by RETAINED_RESOURCES_ROW_MAPPER. */
+  private static final String RETAINED_RESOURCES_COLUMNS =
+      "landingzone_id, tenant_id, subscription_id, resource_group, request, working_map,"
+          + " failed_flight_id, repair_attempts, failed_date, repair_job_id, repair_started_date,"
+          + " cleanup_attempts";
+
   private final Logger logger = LoggerFactory.getLogger(LandingZoneDao.class);
   private final LandingZoneDatabaseConfiguration landingZoneDatabaseConfiguration;
   private final NamedParameterJdbcTemplate jdbcLandingZoneTemplate;
@@ -108,6 +127,8 @@ public class LandingZoneDao {
   }
 
   /**
+   * Deletes the record of a landing zone, together with the progress of its resource deletes.
+   *
    * @param landingZoneUuid unique identifier of the landing zone
    * @return true on successful delete, false if there's nothing to delete
    */
@@ -117,9 +138,12 @@ public class LandingZoneDao {
       transactionManager = "tlzTransactionManager")
   public boolean deleteLandingZone(UUID landingZoneUuid) {
     final String sql = "DELETE FROM landingzone WHERE landingzone_id = :id";
+    final String deletedResourcesSql =
+        "DELETE FROM landingzone_deleted_resources WHERE landingzone_id = :id";
 
     MapSqlParameterSource params =
         new MapSqlParameterSource().addValue("id", landingZoneUuid.toString());
+    jdbcLandingZoneTemplate.update(deletedResourcesSql, params);
     int rowsAffected = jdbcLandingZoneTemplate.update(sql, params);
     boolean deleted = rowsAffected > 0;
 
@@ -160,7 +184,9 @@ public class LandingZoneDao {
     }
     String sql =
         LANDINGZONE_SELECT_SQL
-            + " WHERE landingzone_id IN (:landingzone_ids) ORDER BY landingzone_id";
+            + " WHERE landingzone_id IN (:landingzone_ids)"
+            + NOT_DELETING
+            + " ORDER BY landingzone_id";
     MapSqlParameterSource params =
         new MapSqlParameterSource()
             .addValue("landingzone_ids", idList.stream().map(UUID::toString).toList());
@@ -189,7 +215,8 @@ public class LandingZoneDao {
       throw new IllegalArgumentException("Billing Profile ID is required.");
     }
 
-    String sql = LANDINGZONE_SELECT_SQL + " WHERE billing_profile_id = :billing_profile_id";
+    String sql =
+        LANDINGZONE_SELECT_SQL + " WHERE billing_profile_id = :billing_profile_id" + NOT_DELETING;
 
     MapSqlParameterSource params =
         new MapSqlParameterSource().addValue(BILLING_PROFILE_ID, billingProfileUuid.toString());
@@ -208,7 +235,7 @@ public class LandingZoneDao {
     if (uuid == null) {
       throw new MissingRequiredFieldException("Valid landing zone id is required");
     }
-    String sql = LANDINGZONE_SELECT_SQL + " WHERE landingzone_id = :id";
+    String sql = LANDINGZONE_SELECT_SQL + " WHERE landingzone_id = :id" + NOT_DELETING;
     MapSqlParameterSource params = new MapSqlParameterSource().addValue("id", uuid.toString());
     try {
       LandingZoneRecord result =
@@ -221,6 +248,353 @@ public class LandingZoneDao {
     }
   }
 
+  /**
+   * Marks a landing zone as deleting. The landing zone is hidden from readers from now on, and its
+   * teardown is due right away.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @return true if the landing zone was marked, false if it does not exist or is already deleting
+   */
+  @Transactional(
+      isolation = Isolation.SERIALIZABLE,
+      propagation = Propagation.REQUIRED,
+      transactionManager = "tlzTransactionManager")
+  public boolean markLandingZoneDeleting(UUID landingZoneUuid) {
+    final String sql =
+        "UPDATE landingzone SET deleting_date = now(), teardown_next_attempt_date = now()"
+            + " WHERE landingzone_id = :id"
+            + NOT_DELETING;
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource().addValue("id", landingZoneUuid.toString());
+    boolean marked = jdbcLandingZoneTemplate.update(sql, params) > 0;
+    if (marked) {
+      logger.info("Marked landing zone {} as deleting", landingZoneUuid);
+    } else {
+      logger.info("No live record found to mark as deleting for landing zone {}", landingZoneUuid);
+    }
+    return marked;
+  }
+
+  /**
+   * Claims deleting landing zones whose teardown is due. Each claimed landing zone counts a new
+   * attempt and is leased to the caller: it is not due again until the lease ends, unless the
+   * caller schedules a retry earlier. Rows locked by another claim are skipped, so concurrent
+   * claims by different nodes don't overlap.
+   *
+   * @param limit maximum number of landing zones to claim
+   * @param lease time the claimed landing zones are reserved for the caller
+   * @param maxAttempts landing zones with this many attempts are not claimed anymore
+   * @return claimed landing zones, oldest due first
+   */
+  @Transactional(
+      isolation = Isolation.READ_COMMITTED,
+      propagation = Propagation.REQUIRED,
+      transactionManager = "tlzTransactionManager")
+  public List<LandingZoneTeardown> claimLandingZoneTeardowns(
+      int limit, Duration lease, int maxAttempts) {
+    final String sql =
+        "UPDATE landingzone SET teardown_attempts = teardown_attempts + 1,"
+            + " teardown_next_attempt_date = now() + :lease_seconds * interval '1 second'"
+            + " WHERE landingzone_id IN (SELECT landingzone_id FROM landingzone"
+            + " WHERE deleting_date IS NOT NULL AND teardown_next_attempt_date <= now()"
+            + " AND teardown_attempts < :max_attempts"
+            + " ORDER BY teardown_next_attempt_date LIMIT :limit FOR UPDATE SKIP LOCKED)"
+            + " RETURNING landingzone_id, resource_group, subscription_id, tenant_id,"
+            + " billing_profile_id, definition_id, definition_version_id, display_name,"
+            + " description, created_date, properties, deleting_date, teardown_attempts";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("lease_seconds", lease.toSeconds())
+            .addValue("max_attempts", maxAttempts)
+            .addValue("limit", limit);
+    return jdbcLandingZoneTemplate.query(
+        sql,
+        params,
+        (rs, rowNum) ->
+            new LandingZoneTeardown(
+                LANDINGZONE_ROW_MAPPER.mapRow(rs, rowNum),
+                OffsetDateTime.ofInstant(
+                    rs.getTimestamp(DELETING_DATE).toInstant(), ZoneOffset.UTC),
+                rs.getInt(TEARDOWN_ATTEMPTS)));
+  }
+
+  /**
+   * Schedules the next teardown attempt of a deleting landing zone.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @param delay time from now until the attempt is due
+   */
+  public void scheduleLandingZoneTeardown(UUID landingZoneUuid, Duration delay) {
+    final String sql =
+        "UPDATE landingzone"
+            + " SET teardown_next_attempt_date = now() + :delay_seconds * interval '1 second'"
+            + " WHERE landingzone_id = :id AND deleting_date IS NOT NULL";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("id", landingZoneUuid.toString())
+            .addValue("delay_seconds", delay.toSeconds());
+    jdbcLandingZoneTemplate.update(sql, params);
+  }
+
+  /**
+   * Summarizes the landing zones which are marked as deleting but not torn down yet.
+   *
+   * @param maxAttempts landing zones with this many attempts are counted as exhausted
+   * @return teardown backlog
+   */
+  public LandingZoneTeardownBacklog getLandingZoneTeardownBacklog(int maxAttempts) {
+    final String sql =
+        "SELECT count(*) AS pending,"
+            + " count(*) FILTER (WHERE teardown_attempts >= :max_attempts) AS exhausted,"
+            + " min(deleting_date) AS oldest_deleting_date"
+            + " FROM landingzone WHERE deleting_date IS NOT NULL";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource().addValue("max_attempts", maxAttempts);
+    return jdbcLandingZoneTemplate.queryForObject(
+        sql,
+        params,
+        (rs, rowNum) -> {
+          Timestamp oldest = rs.getTimestamp("oldest_deleting_date");
+          return new LandingZoneTeardownBacklog(
+              rs.getLong("pending"),
+              rs.getLong("exhausted"),
+              oldest == null ? null : OffsetDateTime.ofInstant(oldest.toInstant(), ZoneOffset.UTC));
+        });
+  }
+
+  /**
+   * Saves the retained resources of a failed landing zone creation. Resources saved earlier for the
+   * same landing zone, e.g. by a failed repair, are replaced; the repair attempts are kept.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @param landingZoneTarget managed resource group holding the resources
+   * @param request creation request, as serialized in the flight input parameters
+   * @param workingMap working map entries of the completed resource steps
+   * @param failedFlightId id of the failed resources flight
+   */
+  public void retainLandingZoneResources(
+      UUID landingZoneUuid,
+      LandingZoneTarget landingZoneTarget,
+      String request,
+      Map<String, String> workingMap,
+      String failedFlightId) {
+    final String sql =
+        "INSERT INTO landingzone_retained_resources (landingzone_id, tenant_id, subscription_id, resource_group, request, working_map, failed_flight_id, failed_date)"
+            + " VALUES (:id, :tenant_id, :subscription_id, :resource_group, :request,"
+            + " cast(:working_map AS jsonb), :failed_flight_id, now())"
+            + " ON CONFLICT (landingzone_id) DO UPDATE SET"
+            + " tenant_id = EXCLUDED.tenant_id,"
+            + " subscription_id = EXCLUDED.subscription_id,"
+            + " resource_group = EXCLUDED.resource_group,"
+            + " request = EXCLUDED.request,"
+            + " working_map = EXCLUDED.working_map,"
+            + " failed_flight_id = EXCLUDED.failed_flight_id,"
+            + " failed_date = EXCLUDED.failed_date";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("id", landingZoneUuid.toString())
+            .addValue("tenant_id", landingZoneTarget.azureTenantId())
+            .addValue("subscription_id", landingZoneTarget.azureSubscriptionId())
+            .addValue("resource_group", landingZoneTarget.azureResourceGroupId())
+            .addValue("request", request)
+            .addValue("working_map", DbSerDes.propertiesToJson(workingMap))
+            .addValue("failed_flight_id", failedFlightId);
+    jdbcLandingZoneTemplate.update(sql, params);
+    logger.info(
+        "Retained {} working map entries of the failed creation of landing zone {}",
+        workingMap.size(),
+        landingZoneUuid);
+  }
+
+  /**
+   * Retrieves the retained resources of a failed landing zone creation.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @return retained resources; empty if there are none
+   */
+  public Optional<RetainedLandingZoneResources> getRetainedLandingZoneResources(
+      UUID landingZoneUuid) {
+    final String sql =
+        "SELECT "
+            + RETAINED_RESOURCES_COLUMNS
+            + " FROM landingzone_retained_resources WHERE landingzone_id = :id";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource().addValue("id", landingZoneUuid.toString());
+    return Optional.ofNullable(
+        DataAccessUtils.singleResult(
+            jdbcLandingZoneTemplate.query(sql, params, RETAINED_RESOURCES_ROW_MAPPER)));
+  }
+
+  /**
+   * Counts a new repair attempt of a failed landing zone creation and records its job. The repair
+   * is only started if the repair job started last is still the expected one, so that concurrent
+   * callers can't both start a repair, and if the cleanup of the resources has not started.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @param previousRepairJobId id of the repair job started last, as read by the caller
+   * @param repairJobId id of the new repair job
+   * @return retained resources, including the new attempt; empty if there are none, or if another
+   *     repair or the cleanup started in the meantime
+   */
+  public Optional<RetainedLandingZoneResources> startLandingZoneRepair(
+      UUID landingZoneUuid, @Nullable String previousRepairJobId, String repairJobId) {
+    final String sql =
+        "UPDATE landingzone_retained_resources SET repair_attempts = repair_attempts + 1,"
+            + " repair_job_id = :repair_job_id, repair_started_date = now()"
+            + " WHERE landingzone_id = :id AND cleanup_attempts = 0"
+            + " AND repair_job_id IS NOT DISTINCT FROM cast(:previous_repair_job_id AS text)"
+            + " RETURNING "
+            + RETAINED_RESOURCES_COLUMNS;
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("id", landingZoneUuid.toString())
+            .addValue("previous_repair_job_id", previousRepairJobId)
+            .addValue("repair_job_id", repairJobId);
+    return Optional.ofNullable(
+        DataAccessUtils.singleResult(
+            jdbcLandingZoneTemplate.query(sql, params, RETAINED_RESOURCES_ROW_MAPPER)));
+  }
+
+  /**
+   * Claims retained resources which nobody repaired for the given time, so that the caller removes
+   * them. Resources with a repair job started after their last failure are only claimed once that
+   * repair is older than the expiry as well. Claims are leased and counted like teardown claims,
+   * see {@link #claimLandingZoneTeardowns}; once claimed, the landing zone can't be repaired
+   * anymore.
+   *
+   * @param limit maximum number of retained resources to claim
+   * @param expiry time since the last failure after which retained resources are abandoned
+   * @param lease time the claimed resources are reserved for the caller
+   * @param maxAttempts resources with this many cleanup attempts are not claimed anymore
+   * @return claimed retained resources, oldest failure first
+   */
+  @Transactional(
+      isolation = Isolation.READ_COMMITTED,
+      propagation = Propagation.REQUIRED,
+      transactionManager = "tlzTransactionManager")
+  public List<RetainedLandingZoneResources> claimRetainedResourcesCleanups(
+      int limit, Duration expiry, Duration lease, int maxAttempts) {
+    final String sql =
+        "UPDATE landingzone_retained_resources SET cleanup_attempts = cleanup_attempts + 1,"
+            + " cleanup_next_attempt_date = now() + :lease_seconds * interval '1 second'"
+            + " WHERE landingzone_id IN (SELECT landingzone_id FROM landingzone_retained_resources"
+            + " WHERE resource_group IS NOT NULL"
+            + " AND failed_date < now() - :expiry_seconds * interval '1 second'"
+            + " AND (repair_started_date IS NULL OR repair_started_date < failed_date"
+            + " OR repair_started_date < now() - :expiry_seconds * interval '1 second')"
+            + " AND (cleanup_next_attempt_date IS NULL OR cleanup_next_attempt_date <= now())"
+            + " AND cleanup_attempts < :max_attempts"
+            + " ORDER BY failed_date LIMIT :limit FOR UPDATE SKIP LOCKED)"
+            + " RETURNING "
+            + RETAINED_RESOURCES_COLUMNS;
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("lease_seconds", lease.toSeconds())
+            .addValue("expiry_seconds", expiry.toSeconds())
+            .addValue("max_attempts", maxAttempts)
+            .addValue("limit", limit);
+    return jdbcLandingZoneTemplate.query(sql, params, RETAINED_RESOURCES_ROW_MAPPER);
+  }
+
+  /**
+   * Schedules the next cleanup attempt of retained resources.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @param delay time from now until the attempt is due
+   */
+  public void scheduleRetainedResourcesCleanup(UUID landingZoneUuid, Duration delay) {
+    final String sql =
+        "UPDATE landingzone_retained_resources"
+            + " SET cleanup_next_attempt_date = now() + :delay_seconds * interval '1 second'"
+            + " WHERE landingzone_id = :id";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("id", landingZoneUuid.toString())
+            .addValue("delay_seconds", delay.toSeconds());
+    jdbcLandingZoneTemplate.update(sql, params);
+  }
+
+  /**
+   * Removes the retained resources of a landing zone, once it has been created or the resources
+   * have been cleaned up.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @return true if retained resources were removed
+   */
+  public boolean deleteRetainedLandingZoneResources(UUID landingZoneUuid) {
+    final String sql = "DELETE FROM landingzone_retained_resources WHERE landingzone_id = :id";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource().addValue("id", landingZoneUuid.toString());
+    return jdbcLandingZoneTemplate.update(sql, params) > 0;
+  }
+
+  /**
+   * Records that an Azure resource of a landing zone has been deleted. Recording a resource again
+   * has no effect.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @param resourceId Azure resource id of the deleted resource
+   */
+  public void recordDeletedLandingZoneResource(UUID landingZoneUuid, String resourceId) {
+    final String sql =
+        "INSERT INTO landingzone_deleted_resources (landingzone_id, resource_id, deleted_date)"
+            + " VALUES (:id, :resource_id, now()) ON CONFLICT DO NOTHING";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("id", landingZoneUuid.toString())
+            .addValue("resource_id", resourceId);
+    jdbcLandingZoneTemplate.update(sql, params);
+  }
+
+  /**
+   * Retrieves the Azure resources of a landing zone recorded as deleted.
+   *
+   * @param landingZoneUuid unique identifier of the landing zone
+   * @return Azure resource ids, in the order they were deleted
+   */
+  public List<String> getDeletedLandingZoneResources(UUID landingZoneUuid) {
+    final String sql =
+        "SELECT resource_id FROM landingzone_deleted_resources WHERE landingzone_id = :id"
+            + " ORDER BY deleted_date, resource_id";
+
+    MapSqlParameterSource params =
+        new MapSqlParameterSource().addValue("id", landingZoneUuid.toString());
+    return jdbcLandingZoneTemplate.queryForList(sql, params, String.class);
+  }
+
+  private static final RowMapper<RetainedLandingZoneResources> RETAINED_RESOURCES_ROW_MAPPER =
+      (rs, rowNum) -> {
+        String resourceGroup = rs.getString(RESOURCE_GROUP);
+        Timestamp repairStarted = rs.getTimestamp("repair_started_date");
+        return new RetainedLandingZoneResources(
+            UUID.fromString(rs.getString(LANDING_ZONE_ID)),
+            resourceGroup == null
+                ? null
+                : new LandingZoneTarget(
+                    rs.getString(TENANT_ID), rs.getString(SUBSCRIPTION_ID), resourceGroup),
+            rs.getString("request"),
+            DbSerDes.jsonToProperties(rs.getString("working_map")),
+            rs.getString("failed_flight_id"),
+            rs.getInt("repair_attempts"),
+            OffsetDateTime.ofInstant(rs.getTimestamp("failed_date").toInstant(), ZoneOffset.UTC),
+            rs.getString("repair_job_id"),
+            repairStarted == null
+                ? null
+                : OffsetDateTime.ofInstant(repairStarted.toInstant(), ZoneOffset.UTC),
+            rs.getInt("cleanup_attempts"));
+      };
+
   private static final RowMapper<LandingZoneRecord> LANDINGZONE_ROW_MAPPER =
       (rs, rowNum) ->
           LandingZoneRecord.builder()
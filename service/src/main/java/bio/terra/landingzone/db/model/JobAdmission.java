@@ -0,0 +1,32 @@
+package bio.terra.landingzone.db.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.annotation.Nullable;
+
+/**
+ * A landing zone job in the admission queue.
+ *
+ * @param jobId id of the job and its flight
+ * @param billingProfileId billing profile the job works for
+ * @param subscriptionId Azure subscription the job works on
+ * @param highPriority whether the job is admitted before normal priority jobs
+ * @param startTag virtual time at which the job becomes eligible
+ * @param finishTag virtual time at which the job's share ends
+ * @param queuedDate time the job was queued
+ * @param admittedDate time the job was admitted, null while it is queued
+ */
+public record JobAdmission(
+    String jobId,
+    @Nullable UUID billingProfileId,
+    @Nullable String subscriptionId,
+    boolean highPriority,
+    double startTag,
+    double finishTag,
+    OffsetDateTime queuedDate,
+    @Nullable OffsetDateTime admittedDate) {
+
+  public boolean isAdmitted() {
+    return admittedDate != null;
+  }
+}
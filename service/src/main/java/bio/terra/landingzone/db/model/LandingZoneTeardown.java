@@ -0,0 +1,13 @@
+package bio.terra.landingzone.db.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A landing zone marked as deleting whose Azure resources are being torn down.
+ *
+ * @param landingZone the landing zone record
+ * @param deletingDate time the landing zone was marked as deleting
+ * @param attempts number of teardown attempts, including the current one
+ */
+public record LandingZoneTeardown(
+    LandingZoneRecord landingZone, OffsetDateTime deletingDate, int attempts) {}
@@ -0,0 +1,15 @@
+package bio.terra.landingzone.db.model;
+
+import java.time.OffsetDateTime;
+import javax.annotation.Nullable;
+
+/**
+ * Landing zones marked as deleting which are not torn down yet.
+ *
+ * @param pending number of landing zones waiting for teardown, including exhausted ones
+ * @param exhausted number of landing zones which used up their teardown attempts
+ * @param oldestDeletingDate time the oldest pending landing zone was marked as deleting, null if
+ *     there is none
+ */
+public record LandingZoneTeardownBacklog(
+    long pending, long exhausted, @Nullable OffsetDateTime oldestDeletingDate) {}
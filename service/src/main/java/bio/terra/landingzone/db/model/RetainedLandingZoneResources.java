@@ -0,0 +1,41 @@
+package bio.terra.landingzone.db.model;
+
+import bio.terra.landingzone.model.LandingZoneTarget;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import javax.annotation.Nullable;
+
+/**
+ * Resources of a failed landing zone creation which were kept in place for a repair job.
+ *
+ * @param landingZoneId id of the landing zone
+ * @param landingZoneTarget managed resource group holding the resources; null for resources
+ *     retained before it was recorded
+ * @param request creation request, as serialized in the flight input parameters
+ * @param workingMap working map entries of the completed resource steps, as serialized in the
+ *     flight working map
+ * @param failedFlightId id of the resources flight which failed last
+ * @param repairAttempts number of repair jobs started for the landing zone
+ * @param failedDate time the resources flight failed last
+ * @param repairJobId id of the repair job started last, if any
+ * @param repairStartedDate time the repair job started last was started, if any
+ * @param cleanupAttempts number of times the cleanup of the resources was started
+ */
+public record RetainedLandingZoneResources(
+    UUID landingZoneId,
+    @Nullable LandingZoneTarget landingZoneTarget,
+    String request,
+    Map<String, String> workingMap,
+    String failedFlightId,
+    int repairAttempts,
+    OffsetDateTime failedDate,
+    @Nullable String repairJobId,
+    @Nullable OffsetDateTime repairStartedDate,
+    int cleanupAttempts) {
+
+  /** Whether a repair job was started after the last failure and hasn't failed yet. */
+  public boolean isRepairStarted() {
+    return repairStartedDate != null && repairStartedDate.isAfter(failedDate);
+  }
+}
@@ -0,0 +1,53 @@
+package bio.terra.landingzone.job;
+
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import bio.terra.stairway.exception.RetryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * First step of a flight under admission control. Parks the flight with {@link
+ * StepStatus#STEP_RESULT_WAIT} until the {@link JobAdmissionController} admits its job; the flight
+ * is resumed when a slot is freed and the step is executed again.
+ */
+public class AwaitJobAdmissionStep implements Step {
+  private static final Logger logger = LoggerFactory.getLogger(AwaitJobAdmissionStep.class);
+
+  private final JobAdmissionController admissionController;
+
+  public AwaitJobAdmissionStep(JobAdmissionController admissionController) {
+    this.admissionController = admissionController;
+  }
+
+  /**
+   * Returns whether a flight was submitted under admission control and must start with this step.
+   *
+   * @param inputParameters input parameters of the flight
+   */
+  public static boolean isRequired(FlightMap inputParameters) {
+    return JobAdmissionController.isAdmissionControlled(inputParameters);
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws InterruptedException, RetryException {
+    try {
+      if (admissionController.tryAdmit(context.getFlightId())) {
+        return StepResult.getStepResultSuccess();
+      }
+    } catch (DataAccessException e) {
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY, e);
+    }
+    logger.info("Job {} is waiting for admission; parking flight", context.getFlightId());
+    return new StepResult(StepStatus.STEP_RESULT_WAIT);
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) throws InterruptedException {
+    return StepResult.getStepResultSuccess();
+  }
+}
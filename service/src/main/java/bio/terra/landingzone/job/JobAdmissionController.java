@@ -0,0 +1,361 @@
+package bio.terra.landingzone.job;
+
+import bio.terra.landingzone.common.utils.MetricsHelper;
+import bio.terra.landingzone.db.JobAdmissionDao;
+import bio.terra.landingzone.db.model.JobAdmission;
+import bio.terra.landingzone.job.exception.DuplicateJobIdException;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.HookAction;
+import bio.terra.stairway.Stairway;
+import bio.terra.stairway.StairwayHook;
+import bio.terra.stairway.exception.FlightNotFoundException;
+import bio.terra.stairway.exception.StairwayException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission control for landing zone jobs.
+ *
+ * <p>Stairway runs submitted flights in FIFO order, so one tenant bulk-creating landing zones can
+ * starve everybody else. When enabled with landingzone.job.admission-control-enabled, jobs are
+ * recorded in the job_admission table and their flights are submitted to Stairway right away.
+ * The first step of such a flight, {@link AwaitJobAdmissionStep}, parks the flight until the job
+ * fits these limits:
+ *
+ * <ul>
+ *   <li>at most max-admitted-flights jobs run in the deployment;
+ *   <li>at most max-flights-per-billing-profile jobs run for one billing profile;
+ *   <li>at most max-flights-per-subscription jobs run against one Azure subscription.
+ * </ul>
+ *
+ * <p>High priority jobs (deletes and retries) are admitted first. Within a priority, jobs are
+ * ordered by weighted fair queueing across billing profiles, so a profile with many queued jobs
+ * takes turns with the others; admission-tenant-weights gives a profile a larger share.
+ *
+ * <p>The queue is shared by all nodes and survives restarts. A slot is freed when the flight ends,
+ * and the node which frees it resumes the parked flights that can be admitted now. A periodic
+ * check frees the slots of flights that ended without the hook, and parked flights are also
+ * resumed by the {@code ParentFlightResumeHook} sweep.
+ */
+@Component
+public class JobAdmissionController implements StairwayHook {
+  private static final Logger logger = LoggerFactory.getLogger(JobAdmissionController.class);
+
+  private final LandingZoneJobConfiguration jobConfig;
+  private final JobAdmissionDao jobAdmissionDao;
+  private final Clock clock;
+  // last queue read by the periodic check, for the gauges
+  private volatile List<JobAdmission> lastQueue = List.of();
+  private ScheduledExecutorService reconcileExecutor;
+
+  @Autowired
+  public JobAdmissionController(
+      LandingZoneJobConfiguration jobConfig, JobAdmissionDao jobAdmissionDao) {
+    this(jobConfig, jobAdmissionDao, Clock.systemUTC());
+  }
+
+  JobAdmissionController(
+      LandingZoneJobConfiguration jobConfig, JobAdmissionDao jobAdmissionDao, Clock clock) {
+    this.jobConfig = jobConfig;
+    this.jobAdmissionDao = jobAdmissionDao;
+    this.clock = clock;
+  }
+
+  public boolean isEnabled() {
+    return jobConfig.isAdmissionControlEnabled();
+  }
+
+  /**
+   * Queues a job. Its flight has to be submitted right after, starting with {@link
+   * AwaitJobAdmissionStep}; if the submission fails, the job has to be removed with {@link
+   * #dequeue}.
+   *
+   * @param jobId id of the job
+   * @param keys scheduling attributes of the job
+   */
+  public void enqueue(String jobId, JobAdmissionKeys keys) {
+    try {
+      jobAdmissionDao.enqueueJob(
+          jobId,
+          keys.billingProfileId(),
+          keys.subscriptionId(),
+          keys.highPriority(),
+          1.0 / weight(keys.billingProfileId()));
+    } catch (DuplicateKeyException e) {
+      logger.warn("Received duplicate job ID: {}", jobId);
+      throw new DuplicateJobIdException(String.format("Received duplicate jobId %s", jobId), e);
+    }
+  }
+
+  /**
+   * Removes a queued job whose flight could not be submitted.
+   *
+   * @param jobId id of the job
+   */
+  public void dequeue(String jobId) {
+    jobAdmissionDao.deleteJobAdmission(jobId);
+  }
+
+  /**
+   * Admits a job if it fits the limits. Called by the job's flight, on whichever node runs it.
+   *
+   * @param jobId id of the job
+   * @return true if the job may run; jobs which are not queued, e.g. because they were queued
+   *     before admission control was turned off, may always run
+   */
+  public boolean tryAdmit(String jobId) {
+    if (!isEnabled()) {
+      return true;
+    }
+    var job = jobAdmissionDao.admitJob(jobId, this::selectAdmissible);
+    if (job.isEmpty()) {
+      return true;
+    }
+    if (!job.get().isAdmitted()) {
+      return false;
+    }
+    MetricsHelper.recordAdmissionWait(
+        job.get().highPriority(),
+        Duration.between(job.get().queuedDate(), job.get().admittedDate()));
+    return true;
+  }
+
+  /**
+   * Selects the queued jobs which can be admitted given the admitted ones, in queue order.
+   *
+   * @param queue queued and admitted jobs in queue order
+   * @return ids of the queued jobs which fit the limits
+   */
+  Set<String> selectAdmissible(List<JobAdmission> queue) {
+    Map<UUID, Integer> runningByBillingProfile = new HashMap<>();
+    Map<String, Integer> runningBySubscription = new HashMap<>();
+    int admitted = 0;
+    for (var job : queue) {
+      if (job.isAdmitted()) {
+        countRunning(job, runningByBillingProfile, runningBySubscription);
+        admitted++;
+      }
+    }
+    Set<String> admissible = new LinkedHashSet<>();
+    for (var job : queue) {
+      if (admitted >= jobConfig.getMaxAdmittedFlights()) {
+        break;
+      }
+      if (job.isAdmitted() || !fitsLimits(job, runningByBillingProfile, runningBySubscription)) {
+        continue;
+      }
+      countRunning(job, runningByBillingProfile, runningBySubscription);
+      admitted++;
+      admissible.add(job.jobId());
+    }
+    return admissible;
+  }
+
+  /**
+   * Returns the position of a job in the queue, 1 being the next job to be admitted once there is
+   * room. Jobs blocked by their billing profile or subscription limit may be passed by later ones.
+   *
+   * @param jobId id of the job
+   * @return position, or empty if the job is not queued
+   */
+  public OptionalInt getQueuePosition(String jobId) {
+    int position = 1;
+    for (var job : jobAdmissionDao.getAdmissionQueue()) {
+      if (job.isAdmitted()) {
+        continue;
+      }
+      if (job.jobId().equals(jobId)) {
+        return OptionalInt.of(position);
+      }
+      position++;
+    }
+    return OptionalInt.empty();
+  }
+
+  public int getQueueDepth() {
+    return (int) lastQueue.stream().filter(job -> !job.isAdmitted()).count();
+  }
+
+  public int getAdmittedCount() {
+    return (int) lastQueue.stream().filter(JobAdmission::isAdmitted).count();
+  }
+
+  /**
+   * Registers the queue depth and admitted job gauges. Their values are read by the periodic check.
+   * Called once during initialization.
+   */
+  public void registerMetrics() {
+    MetricsHelper.registerGauge(
+        "admission/queue_depth",
+        "Number of landing zone jobs waiting for admission",
+        this,
+        JobAdmissionController::getQueueDepth);
+    MetricsHelper.registerGauge(
+        "admission/admitted",
+        "Number of admitted landing zone jobs running in the deployment",
+        this,
+        JobAdmissionController::getAdmittedCount);
+  }
+
+  /**
+   * Starts the periodic check which removes the jobs of flights that ended without the hook, e.g.
+   * because their node stopped. Called once Stairway is initialized.
+   *
+   * @param stairway Stairway instance of this node
+   * @param interval time between checks
+   */
+  public synchronized void startReconcile(Stairway stairway, Duration interval) {
+    if (reconcileExecutor != null) {
+      return;
+    }
+    reconcileExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "lz-job-admission-reconcile");
+              thread.setDaemon(true);
+              return thread;
+            });
+    reconcileExecutor.scheduleWithFixedDelay(
+        () -> reconcile(stairway, interval),
+        interval.toMillis(),
+        interval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  // jobs queued within the grace period may not have been submitted to Stairway yet
+  void reconcile(Stairway stairway, Duration gracePeriod) {
+    List<JobAdmission> queue;
+    try {
+      queue = jobAdmissionDao.getAdmissionQueue();
+    } catch (RuntimeException e) {
+      logger.warn("Failed to read the job admission queue.", e);
+      return;
+    }
+    lastQueue = queue;
+    var cutoff = clock.instant().minus(gracePeriod);
+    boolean released = false;
+    for (var job : queue) {
+      if (job.queuedDate().toInstant().isAfter(cutoff)) {
+        continue;
+      }
+      try {
+        if (!stairway.getFlightState(job.jobId()).isActive()) {
+          released |= jobAdmissionDao.deleteJobAdmission(job.jobId());
+        }
+      } catch (FlightNotFoundException e) {
+        released |= jobAdmissionDao.deleteJobAdmission(job.jobId());
+      } catch (RuntimeException e) {
+        logger.warn("Failed to check job {} in the admission queue.", job.jobId(), e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+    if (released) {
+      resumeAdmissible(stairway);
+    }
+  }
+
+  @Override
+  public HookAction endFlight(FlightContext context) {
+    // a parked flight keeps its place or slot until it finishes
+    if (context.getFlightStatus() != FlightStatus.WAITING
+        && isAdmissionControlled(context.getInputParameters())) {
+      try {
+        release(context.getStairway(), context.getFlightId());
+      } catch (RuntimeException e) {
+        // the periodic check frees the slot
+        logger.warn("Failed to release job {}.", context.getFlightId(), e);
+      }
+    }
+    return HookAction.CONTINUE;
+  }
+
+  void release(Stairway stairway, String jobId) {
+    if (jobAdmissionDao.deleteJobAdmission(jobId)) {
+      resumeAdmissible(stairway);
+    }
+  }
+
+  // the resumed flights admit themselves, so a job resumed by several nodes is admitted once
+  private void resumeAdmissible(Stairway stairway) {
+    Set<String> admissible;
+    try {
+      admissible = selectAdmissible(jobAdmissionDao.getAdmissionQueue());
+    } catch (RuntimeException e) {
+      logger.warn("Failed to read the job admission queue.", e);
+      return;
+    }
+    for (var jobId : admissible) {
+      try {
+        stairway.resume(jobId);
+      } catch (StairwayException e) {
+        logger.warn("Failed to resume admissible job {}.", jobId, e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  static boolean isAdmissionControlled(@Nullable FlightMap inputParameters) {
+    return inputParameters != null
+        && Boolean.TRUE.equals(
+            inputParameters.get(LandingZoneFlightMapKeys.ADMISSION_CONTROLLED, Boolean.class));
+  }
+
+  private boolean fitsLimits(
+      JobAdmission job,
+      Map<UUID, Integer> runningByBillingProfile,
+      Map<String, Integer> runningBySubscription) {
+    return (job.billingProfileId() == null
+            || runningByBillingProfile.getOrDefault(job.billingProfileId(), 0)
+                < jobConfig.getMaxFlightsPerBillingProfile())
+        && (job.subscriptionId() == null
+            || runningBySubscription.getOrDefault(job.subscriptionId(), 0)
+                < jobConfig.getMaxFlightsPerSubscription());
+  }
+
+  private static void countRunning(
+      JobAdmission job,
+      Map<UUID, Integer> runningByBillingProfile,
+      Map<String, Integer> runningBySubscription) {
+    if (job.billingProfileId() != null) {
+      runningByBillingProfile.merge(job.billingProfileId(), 1, Integer::sum);
+    }
+    if (job.subscriptionId() != null) {
+      runningBySubscription.merge(job.subscriptionId(), 1, Integer::sum);
+    }
+  }
+
+  private double weight(@Nullable UUID billingProfileId) {
+    if (billingProfileId == null) {
+      return 1.0;
+    }
+    Integer weight =
+        Objects.requireNonNullElse(jobConfig.getAdmissionTenantWeights(), Map.<String, Integer>of())
+            .get(billingProfileId.toString());
+    return weight == null || weight < 1 ? 1.0 : weight;
+  }
+}
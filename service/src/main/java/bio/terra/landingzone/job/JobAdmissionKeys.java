@@ -0,0 +1,15 @@
+package bio.terra.landingzone.job;
+
+import java.util.UUID;
+import javax.annotation.Nullable;
+
+/**
+ * Scheduling attributes of a job, used by the {@link JobAdmissionController}.
+ *
+ * @param billingProfileId billing profile the job works on; jobs are queued fairly across billing
+ *     profiles, and each profile has a limit of concurrently running jobs
+ * @param subscriptionId Azure subscription the job deploys to, when known before the job starts
+ * @param highPriority whether the job is admitted before normal jobs, e.g. deletes and retries
+ */
+public record JobAdmissionKeys(
+    @Nullable UUID billingProfileId, @Nullable String subscriptionId, boolean highPriority) {}
@@ -0,0 +1,293 @@
+package bio.terra.landingzone.job;
+
+import bio.terra.landingzone.job.exception.InvalidJobParameterException;
+import bio.terra.landingzone.job.model.JobReport;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.HookAction;
+import bio.terra.stairway.Stairway;
+import bio.terra.stairway.StairwayHook;
+import bio.terra.stairway.exception.FlightNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link StairwayHook} that notifies the completion callbacks attached to a job.
+ *
+ * <p>Two kinds of callbacks are supported. In-process {@link JobCompletionListener}s are held in
+ * memory on the node that submitted the job. They fire from this hook when the flight finishes on
+ * that node, or from a periodic check of the Stairway database when it finishes elsewhere;
+ * listeners of jobs which don't complete within completion-listener-ttl-seconds are dropped. A
+ * webhook URL is
+ * stored in the flight's input parameters under {@link JobMapKeys#COMPLETION_CALLBACK_URL}, so it
+ * is called by whichever node finishes the flight. Webhook URLs must use https and a host listed in
+ * landingzone.job.completion-callback-allowed-hosts; they are validated when the job is submitted.
+ * Callbacks run on a separate thread and are best effort: a failed webhook call is logged and not
+ * retried.
+ */
+@Component
+public class JobCompletionCallbacks implements StairwayHook {
+  private static final Logger logger = LoggerFactory.getLogger(JobCompletionCallbacks.class);
+  private static final Duration WEBHOOK_TIMEOUT = Duration.ofSeconds(10);
+
+  private final Cache<String, List<JobCompletionListener>> listeners;
+  private final LandingZoneJobConfiguration jobConfig;
+  private final ObjectMapper objectMapper;
+  private final HttpClient httpClient;
+  private final Executor callbackExecutor;
+  private ScheduledExecutorService pollExecutor;
+
+  @Autowired
+  public JobCompletionCallbacks(LandingZoneJobConfiguration jobConfig, ObjectMapper objectMapper) {
+    this(
+        jobConfig,
+        objectMapper,
+        // redirects could lead the request away from the allowed hosts
+        HttpClient.newBuilder()
+            .connectTimeout(WEBHOOK_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build(),
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread thread = new Thread(r, "lz-job-completion-callbacks");
+              thread.setDaemon(true);
+              return thread;
+            }),
+        Ticker.systemTicker());
+  }
+
+  JobCompletionCallbacks(
+      LandingZoneJobConfiguration jobConfig,
+      ObjectMapper objectMapper,
+      HttpClient httpClient,
+      Executor callbackExecutor,
+      Ticker ticker) {
+    this.jobConfig = jobConfig;
+    this.objectMapper = objectMapper;
+    this.httpClient = httpClient;
+    this.callbackExecutor = callbackExecutor;
+    this.listeners =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(jobConfig.getCompletionListenerTtlSeconds()))
+            .ticker(ticker)
+            .removalListener(
+                (RemovalNotification<String, List<JobCompletionListener>> notification) -> {
+                  if (notification.getCause() == RemovalCause.EXPIRED) {
+                    logger.warn(
+                        "Dropped completion listeners of job {}, which did not complete in time.",
+                        notification.getKey());
+                  }
+                })
+            .build();
+  }
+
+  /**
+   * Attaches an in-process listener to a job. Must be called before the job is submitted, so that
+   * a fast flight can't finish before the listener is in place.
+   *
+   * @param jobId id of the job
+   * @param listener listener to call once the job completes
+   */
+  public void addListener(String jobId, JobCompletionListener listener) {
+    listeners.asMap().computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  public void removeListener(String jobId, JobCompletionListener listener) {
+    listeners
+        .asMap()
+        .computeIfPresent(
+            jobId,
+            (id, jobListeners) -> {
+              jobListeners.remove(listener);
+              return jobListeners.isEmpty() ? null : jobListeners;
+            });
+  }
+
+  /**
+   * Checks that a completion webhook URL may be called: it must be an absolute https URL whose host
+   * is in the configured allowlist.
+   *
+   * @param callbackUrl webhook URL
+   * @throws InvalidJobParameterException if the URL is not allowed
+   */
+  public void validateCallbackUrl(URI callbackUrl) {
+    if (!isAllowed(callbackUrl)) {
+      throw new InvalidJobParameterException(
+          "Completion callback URL must be an https URL of an allowed host.");
+    }
+  }
+
+  private boolean isAllowed(URI callbackUrl) {
+    String host = callbackUrl.getHost();
+    if (!"https".equalsIgnoreCase(callbackUrl.getScheme()) || host == null) {
+      return false;
+    }
+    List<String> allowedHosts =
+        Objects.requireNonNullElse(jobConfig.getCompletionCallbackAllowedHosts(), List.of());
+    return allowedHosts.stream().anyMatch(host::equalsIgnoreCase);
+  }
+
+  /** Number of jobs that currently have at least one in-process listener on this node. */
+  public int listenedJobCount() {
+    listeners.cleanUp();
+    return (int) listeners.size();
+  }
+
+  /**
+   * Starts the periodic check which notifies the listeners of jobs that completed on another node.
+   * Called once Stairway is initialized.
+   *
+   * @param stairway Stairway instance of this node
+   * @param interval time between checks
+   */
+  public synchronized void startPolling(Stairway stairway, Duration interval) {
+    if (pollExecutor != null) {
+      return;
+    }
+    pollExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "lz-job-completion-poll");
+              thread.setDaemon(true);
+              return thread;
+            });
+    pollExecutor.scheduleWithFixedDelay(
+        () -> pollListenedJobs(stairway),
+        interval.toMillis(),
+        interval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  // webhooks are left to the node which finishes the flight
+  void pollListenedJobs(Stairway stairway) {
+    listeners.cleanUp();
+    for (var jobId : List.copyOf(listeners.asMap().keySet())) {
+      FlightState flightState;
+      try {
+        flightState = stairway.getFlightState(jobId);
+      } catch (FlightNotFoundException e) {
+        // not submitted yet, or never; the listener expires in that case
+        continue;
+      } catch (RuntimeException e) {
+        logger.warn("Failed to check listened job {}.", jobId, e);
+        continue;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (flightState.isActive()) {
+        continue;
+      }
+      List<JobCompletionListener> jobListeners = listeners.asMap().remove(jobId);
+      if (jobListeners != null) {
+        FlightStatus flightStatus = flightState.getFlightStatus();
+        callbackExecutor.execute(() -> notify(jobId, flightStatus, jobListeners, null));
+      }
+    }
+  }
+
+  @Override
+  public HookAction endFlight(FlightContext context) {
+    // a flight also leaves the runner when it parks in WAITING, which is not a completion
+    FlightStatus flightStatus = context.getFlightStatus();
+    if (!JobCompletionRegistry.COMPLETED_STATUSES.contains(flightStatus)) {
+      return HookAction.CONTINUE;
+    }
+    String jobId = context.getFlightId();
+    List<JobCompletionListener> jobListeners = listeners.asMap().remove(jobId);
+    String callbackUrl =
+        context
+            .getInputParameters()
+            .get(JobMapKeys.COMPLETION_CALLBACK_URL.getKeyName(), String.class);
+    if (jobListeners != null || callbackUrl != null) {
+      callbackExecutor.execute(() -> notify(jobId, flightStatus, jobListeners, callbackUrl));
+    }
+    return HookAction.CONTINUE;
+  }
+
+  private void notify(
+      String jobId,
+      FlightStatus flightStatus,
+      List<JobCompletionListener> jobListeners,
+      String callbackUrl) {
+    if (jobListeners != null) {
+      for (var listener : jobListeners) {
+        try {
+          listener.onJobCompleted(jobId, flightStatus);
+        } catch (RuntimeException e) {
+          logger.warn("Completion listener of job {} failed.", jobId, e);
+        }
+      }
+    }
+    if (callbackUrl != null) {
+      callWebhook(jobId, flightStatus, callbackUrl);
+    }
+  }
+
+  private void callWebhook(String jobId, FlightStatus flightStatus, String callbackUrl) {
+    var uri = URI.create(callbackUrl);
+    // the allowlist may have changed since the job was submitted
+    if (!isAllowed(uri)) {
+      logger.warn("Completion webhook of job {} is not allowed, skipping it.", jobId);
+      return;
+    }
+    final String body;
+    try {
+      body =
+          objectMapper.writeValueAsString(
+              new JobCompletionNotification(
+                  jobId,
+                  flightStatus == FlightStatus.SUCCESS
+                      ? JobReport.StatusEnum.SUCCEEDED
+                      : JobReport.StatusEnum.FAILED));
+    } catch (JsonProcessingException e) {
+      logger.warn("Failed to serialize completion notification of job {}.", jobId, e);
+      return;
+    }
+    var request =
+        HttpRequest.newBuilder(uri)
+            .timeout(WEBHOOK_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    httpClient
+        .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .whenComplete(
+            (response, e) -> {
+              if (e != null) {
+                logger.warn("Completion webhook of job {} failed.", jobId, e);
+              } else if (response.statusCode() >= 300) {
+                logger.warn(
+                    "Completion webhook of job {} returned status {}.",
+                    jobId,
+                    response.statusCode());
+              }
+            });
+  }
+
+  /** Body of the POST request sent to a job's completion webhook. */
+  public record JobCompletionNotification(String jobId, JobReport.StatusEnum status) {}
+}
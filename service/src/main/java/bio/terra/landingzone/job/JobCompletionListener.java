@@ -0,0 +1,18 @@
+package bio.terra.landingzone.job;
+
+import bio.terra.stairway.FlightStatus;
+
+/**
+ * In-process callback invoked once a landing zone job finishes on this node. Attached through
+ * {@link LandingZoneJobBuilder#completionListener(JobCompletionListener)}.
+ */
+@FunctionalInterface
+public interface JobCompletionListener {
+  /**
+   * Called after the job's flight reaches a final state.
+   *
+   * @param jobId id of the job
+   * @param flightStatus final status of the flight: SUCCESS, ERROR or FATAL
+   */
+  void onJobCompleted(String jobId, FlightStatus flightStatus);
+}
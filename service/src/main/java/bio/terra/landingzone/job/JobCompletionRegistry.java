@@ -0,0 +1,91 @@
+package bio.terra.landingzone.job;
+
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.HookAction;
+import bio.terra.stairway.StairwayHook;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link StairwayHook} that lets callers wait for a flight to finish without polling the Stairway
+ * database.
+ *
+ * <p>Waiters register a future for a flight id; the future is completed with the final {@link
+ * FlightStatus} when this node sees the flight end. Flights running on other Stairway nodes never
+ * complete the future here, so waiters must keep a (slow) database poll as a fallback.
+ */
+@Component
+public class JobCompletionRegistry implements StairwayHook {
+  static final Set<FlightStatus> COMPLETED_STATUSES =
+      Set.of(FlightStatus.SUCCESS, FlightStatus.ERROR, FlightStatus.FATAL);
+
+  private final Map<String, List<CompletableFuture<FlightStatus>>> waiters =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Registers interest in the completion of a flight. Callers should check the flight state after
+   * registering, so that a flight finishing in between is not missed, and must call {@link
+   * #unregister} once they stop waiting.
+   *
+   * @param flightId id of the flight to wait for
+   * @return future completed with the final flight status
+   */
+  public CompletableFuture<FlightStatus> register(String flightId) {
+    var future = new CompletableFuture<FlightStatus>();
+    waiters.compute(
+        flightId,
+        (id, futures) -> {
+          List<CompletableFuture<FlightStatus>> result =
+              futures == null ? new ArrayList<>() : futures;
+          result.add(future);
+          return result;
+        });
+    return future;
+  }
+
+  public void unregister(String flightId, CompletableFuture<FlightStatus> future) {
+    waiters.computeIfPresent(
+        flightId,
+        (id, futures) -> {
+          futures.remove(future);
+          return futures.isEmpty() ? null : futures;
+        });
+  }
+
+  /** Number of flights that currently have at least one waiter on this node. */
+  public int waitingFlightCount() {
+    return waiters.size();
+  }
+
+  void complete(String flightId, FlightStatus flightStatus) {
+    List<CompletableFuture<FlightStatus>> futures = waiters.remove(flightId);
+    if (futures != null) {
+      futures.forEach(f -> f.complete(flightStatus));
+    }
+  }
+
+  @Override
+  public HookAction stateTransition(FlightContext context) {
+    completeIfFinished(context);
+    return HookAction.CONTINUE;
+  }
+
+  @Override
+  public HookAction endFlight(FlightContext context) {
+    // a flight also leaves the runner when it parks in WAITING, which is not a completion
+    completeIfFinished(context);
+    return HookAction.CONTINUE;
+  }
+
+  private void completeIfFinished(FlightContext context) {
+    if (COMPLETED_STATUSES.contains(context.getFlightStatus())) {
+      complete(context.getFlightId(), context.getFlightStatus());
+    }
+  }
+}
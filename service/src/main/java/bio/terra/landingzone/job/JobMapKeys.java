@@ -11,7 +11,10 @@ public enum JobMapKeys {
   RESULT_PATH("resultPath"),
 
   // parameter for the job
-  FLIGHT_CLASS("flight_class");
+  FLIGHT_CLASS("flight_class"),
+
+  // optional URL notified with a POST request once the job completes
+  COMPLETION_CALLBACK_URL("completion_callback_url");
 
   private final String keyName;
 
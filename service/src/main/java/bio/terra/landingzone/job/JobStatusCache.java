@@ -0,0 +1,104 @@
+package bio.terra.landingzone.job;
+
+import bio.terra.landingzone.common.utils.MetricsHelper;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.HookAction;
+import bio.terra.stairway.StairwayHook;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link StairwayHook} that keeps the state of flights running on this node in memory, so that
+ * clients polling a running job are answered without reading the Stairway database.
+ *
+ * <p>The hook tracks which flights are running on this node. The first poll of such a flight reads
+ * the database and its state is kept until the flight ends or parks; later polls are served from
+ * memory. Flights running on other Stairway nodes are never cached, since this node doesn't learn
+ * when they end.
+ */
+@Component
+public class JobStatusCache implements StairwayHook {
+  static final String CACHE_NAME = "jobStatus";
+
+  private final Set<String> localRunningFlights = ConcurrentHashMap.newKeySet();
+  private final Cache<String, FlightState> runningFlightStates;
+
+  @Autowired
+  public JobStatusCache(LandingZoneJobConfiguration jobConfig) {
+    this.runningFlightStates =
+        CacheBuilder.newBuilder()
+            .maximumSize(jobConfig.getJobStatusCacheMaxSize())
+            .expireAfterWrite(Duration.ofSeconds(jobConfig.getJobStatusCacheTtlSeconds()))
+            .build();
+  }
+
+  /**
+   * Returns the cached state of a flight which is running on this node.
+   *
+   * @param flightId id of the flight
+   * @return state of the flight, or empty if the database has to be read
+   */
+  public Optional<FlightState> getRunningFlightState(String flightId) {
+    FlightState flightState =
+        localRunningFlights.contains(flightId) ? runningFlightStates.getIfPresent(flightId) : null;
+    MetricsHelper.recordCacheAccess(CACHE_NAME, flightState != null);
+    return Optional.ofNullable(flightState);
+  }
+
+  /**
+   * Offers a state read from the database. It is kept only while the flight is running on this
+   * node.
+   *
+   * @param flightState state of the flight
+   */
+  public void put(FlightState flightState) {
+    if (flightState.getFlightStatus() == FlightStatus.RUNNING
+        && localRunningFlights.contains(flightState.getFlightId())) {
+      runningFlightStates.put(flightState.getFlightId(), flightState);
+      // the flight may have ended while the state was read
+      if (!localRunningFlights.contains(flightState.getFlightId())) {
+        runningFlightStates.invalidate(flightState.getFlightId());
+      }
+    }
+  }
+
+  /** Number of flights whose state is currently served from memory. */
+  public long size() {
+    return runningFlightStates.size();
+  }
+
+  @Override
+  public HookAction startFlight(FlightContext context) {
+    localRunningFlights.add(context.getFlightId());
+    return HookAction.CONTINUE;
+  }
+
+  @Override
+  public HookAction stateTransition(FlightContext context) {
+    if (context.getFlightStatus() != FlightStatus.RUNNING) {
+      evict(context.getFlightId());
+    }
+    return HookAction.CONTINUE;
+  }
+
+  @Override
+  public HookAction endFlight(FlightContext context) {
+    // a parked flight may be resumed on another node, so it is dropped as well
+    evict(context.getFlightId());
+    return HookAction.CONTINUE;
+  }
+
+  private void evict(String flightId) {
+    localRunningFlights.remove(flightId);
+    runningFlightStates.invalidate(flightId);
+  }
+}
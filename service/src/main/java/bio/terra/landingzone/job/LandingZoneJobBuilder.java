@@ -4,6 +4,7 @@ import bio.terra.common.exception.MissingRequiredFieldException;
 import bio.terra.common.iam.BearerToken;
 import bio.terra.common.stairway.MonitoringHook;
 import bio.terra.common.stairway.StairwayComponent;
+import bio.terra.landingzone.job.exception.DuplicateJobIdException;
 import bio.terra.landingzone.job.exception.InvalidJobIdException;
 import bio.terra.landingzone.job.exception.InvalidJobParameterException;
 import bio.terra.landingzone.job.model.OperationType;
@@ -13,6 +14,9 @@ import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.stairway.Flight;
 import bio.terra.stairway.FlightMap;
 import io.opencensus.contrib.spring.aop.Traced;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.UUID;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 
@@ -20,6 +24,7 @@ public class LandingZoneJobBuilder {
   private final LandingZoneJobService jobService;
   private final StairwayComponent stairwayComponent;
   private final LandingZoneMdcHook mdcHook;
+  private final JobCompletionCallbacks completionCallbacks;
   private final FlightMap jobParameterMap;
   private Class<? extends Flight> flightClass;
   @Nullable private String jobId;
@@ -27,14 +32,21 @@ public class LandingZoneJobBuilder {
   @Nullable private LandingZoneRequest landingZoneRequest;
   @Nullable private OperationType operationType;
   @Nullable private BearerToken bearerToken;
+  @Nullable private JobCompletionListener completionListener;
+  @Nullable private URI completionCallbackUrl;
+  @Nullable private UUID billingProfileId;
+  @Nullable private String subscriptionId;
+  @Nullable private Boolean highPriority;
 
   public LandingZoneJobBuilder(
       LandingZoneJobService jobService,
       StairwayComponent stairwayComponent,
-      LandingZoneMdcHook mdcHook) {
+      LandingZoneMdcHook mdcHook,
+      JobCompletionCallbacks completionCallbacks) {
     this.jobService = jobService;
     this.stairwayComponent = stairwayComponent;
     this.mdcHook = mdcHook;
+    this.completionCallbacks = completionCallbacks;
     this.jobParameterMap = new FlightMap();
   }
 
@@ -72,6 +84,45 @@ public class LandingZoneJobBuilder {
     return this;
   }
 
+  /**
+   * Attaches an in-process listener which is called once the job completes. The listener is held
+   * in memory, so it is not called if the flight finishes on another Stairway node.
+   */
+  public LandingZoneJobBuilder completionListener(@Nullable JobCompletionListener listener) {
+    this.completionListener = listener;
+    return this;
+  }
+
+  /**
+   * Attaches a webhook which receives a POST request once the job completes. The URL is stored
+   * with the flight, so it is called by whichever Stairway node finishes the job. It must be an
+   * https URL of an allowed host, see {@link JobCompletionCallbacks#validateCallbackUrl}.
+   */
+  public LandingZoneJobBuilder completionCallbackUrl(@Nullable URI completionCallbackUrl) {
+    this.completionCallbackUrl = completionCallbackUrl;
+    return this;
+  }
+
+  /**
+   * Sets the billing profile and Azure subscription the job works on, which the admission
+   * controller uses to limit concurrent jobs and to queue fairly across billing profiles.
+   */
+  public LandingZoneJobBuilder admissionScope(
+      @Nullable UUID billingProfileId, @Nullable String subscriptionId) {
+    this.billingProfileId = billingProfileId;
+    this.subscriptionId = subscriptionId;
+    return this;
+  }
+
+  /**
+   * Sets whether the job is admitted ahead of normal jobs. Defaults to true for deletes; callers
+   * retrying a failed job should set it as well.
+   */
+  public LandingZoneJobBuilder highPriority(boolean highPriority) {
+    this.highPriority = highPriority;
+    return this;
+  }
+
   public LandingZoneJobBuilder addParameter(String keyName, @Nullable Object val) {
     if (StringUtils.isBlank(keyName)) {
       throw new InvalidJobParameterException("Parameter name cannot be null or blanks.");
@@ -88,7 +139,13 @@ public class LandingZoneJobBuilder {
    */
   public String submit() {
     populateInputParams();
-    return jobService.submit(flightClass, jobParameterMap, jobId);
+    registerCompletionListener();
+    try {
+      return jobService.submit(flightClass, jobParameterMap, jobId, admissionKeys());
+    } catch (RuntimeException e) {
+      unregisterCompletionListener();
+      throw e;
+    }
   }
 
   /**
@@ -100,7 +157,32 @@ public class LandingZoneJobBuilder {
   @Traced
   public <T> T submitAndWait(Class<T> resultClass) {
     populateInputParams();
-    return jobService.submitAndWait(flightClass, jobParameterMap, resultClass, jobId);
+    registerCompletionListener();
+    try {
+      return jobService.submitAndWait(
+          flightClass, jobParameterMap, resultClass, jobId, admissionKeys());
+    } catch (DuplicateJobIdException e) {
+      unregisterCompletionListener();
+      throw e;
+    }
+  }
+
+  private JobAdmissionKeys admissionKeys() {
+    boolean priority = highPriority != null ? highPriority : operationType == OperationType.DELETE;
+    return new JobAdmissionKeys(billingProfileId, subscriptionId, priority);
+  }
+
+  // The listener is attached before submission, so that a fast flight can't finish without it
+  private void registerCompletionListener() {
+    if (completionListener != null) {
+      completionCallbacks.addListener(jobId, completionListener);
+    }
+  }
+
+  private void unregisterCompletionListener() {
+    if (completionListener != null) {
+      completionCallbacks.removeListener(jobId, completionListener);
+    }
   }
 
   // Check the inputs, supply defaults and finalize the input parameter map
@@ -141,6 +223,21 @@ public class LandingZoneJobBuilder {
     if (shouldInsert(LandingZoneFlightMapKeys.BEARER_TOKEN, bearerToken)) {
       addParameter(LandingZoneFlightMapKeys.BEARER_TOKEN, bearerToken);
     }
+
+    if (shouldInsert(JobMapKeys.COMPLETION_CALLBACK_URL, completionCallbackUrl)) {
+      addParameter(
+          JobMapKeys.COMPLETION_CALLBACK_URL.getKeyName(), completionCallbackUrl.toString());
+    }
+    // also covers a URL added with addParameter
+    String callbackUrl =
+        jobParameterMap.get(JobMapKeys.COMPLETION_CALLBACK_URL.getKeyName(), String.class);
+    if (callbackUrl != null) {
+      try {
+        completionCallbacks.validateCallbackUrl(new URI(callbackUrl));
+      } catch (URISyntaxException e) {
+        throw new InvalidJobParameterException("Completion callback URL is not a valid URL.", e);
+      }
+    }
   }
 
   private boolean shouldInsert(String mapKey, @Nullable Object value) {
@@ -19,8 +19,10 @@ import bio.terra.landingzone.job.exception.JobNotFoundException;
 import bio.terra.landingzone.job.exception.JobResponseException;
 import bio.terra.landingzone.job.model.ErrorReport;
 import bio.terra.landingzone.job.model.JobReport;
+import bio.terra.landingzone.job.model.StepTiming;
 import bio.terra.landingzone.library.configuration.LandingZoneIngressConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneStairwayProperties;
 import bio.terra.landingzone.library.configuration.stairway.LandingZoneStairwayDatabaseConfiguration;
 import bio.terra.landingzone.service.iam.LandingZoneSamService;
 import bio.terra.landingzone.service.iam.SamConstants;
@@ -28,6 +30,8 @@ import bio.terra.landingzone.service.iam.SamRethrow;
 import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
 import bio.terra.landingzone.stairway.common.utils.LandingZoneMdcHook;
+import bio.terra.landingzone.stairway.common.utils.ParentFlightResumeHook;
+import bio.terra.landingzone.stairway.common.utils.StepTimingHook;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.stairway.Flight;
 import bio.terra.stairway.FlightDebugInfo;
@@ -35,7 +39,6 @@ import bio.terra.stairway.FlightMap;
 import bio.terra.stairway.FlightState;
 import bio.terra.stairway.FlightStatus;
 import bio.terra.stairway.Stairway;
-import bio.terra.stairway.exception.DatabaseOperationException;
 import bio.terra.stairway.exception.DuplicateFlightIdException;
 import bio.terra.stairway.exception.FlightNotFoundException;
 import bio.terra.stairway.exception.StairwayException;
@@ -44,14 +47,19 @@ import com.google.common.annotations.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.opencensus.contrib.spring.aop.Traced;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,8 +74,14 @@ public class LandingZoneJobService {
   private final LandingZoneJobConfiguration jobConfig;
   private final LandingZoneIngressConfiguration ingressConfig;
   private final LandingZoneStairwayDatabaseConfiguration stairwayDatabaseConfiguration;
-  private final ScheduledExecutorService executor;
+  private final LandingZoneStairwayProperties stairwayProperties;
   private final LandingZoneMdcHook mdcHook;
+  private final JobCompletionRegistry completionRegistry;
+  private final JobStatusCache jobStatusCache;
+  private final JobCompletionCallbacks completionCallbacks;
+  private final JobAdmissionController admissionController;
+  private final ParentFlightResumeHook parentFlightResumeHook;
+  private final StepTimingHook stepTimingHook;
   private final StairwayComponent stairwayComponent;
   private final LandingZoneFlightBeanBag flightBeanBag;
   private final ObjectMapper objectMapper;
@@ -79,7 +93,14 @@ public class LandingZoneJobService {
       LandingZoneJobConfiguration jobConfig,
       LandingZoneIngressConfiguration ingressConfig,
       LandingZoneStairwayDatabaseConfiguration stairwayDatabaseConfiguration,
+      LandingZoneStairwayProperties stairwayProperties,
       LandingZoneMdcHook mdcHook,
+      JobCompletionRegistry completionRegistry,
+      JobStatusCache jobStatusCache,
+      JobCompletionCallbacks completionCallbacks,
+      JobAdmissionController admissionController,
+      ParentFlightResumeHook parentFlightResumeHook,
+      StepTimingHook stepTimingHook,
       @Qualifier("landingZoneStairwayComponent") StairwayComponent stairwayComponent,
       LandingZoneFlightBeanBag flightBeanBag,
       ObjectMapper objectMapper,
@@ -87,8 +108,14 @@ public class LandingZoneJobService {
     this.jobConfig = jobConfig;
     this.ingressConfig = ingressConfig;
     this.stairwayDatabaseConfiguration = stairwayDatabaseConfiguration;
-    this.executor = Executors.newScheduledThreadPool(jobConfig.getMaxThreads());
+    this.stairwayProperties = stairwayProperties;
     this.mdcHook = mdcHook;
+    this.completionRegistry = completionRegistry;
+    this.jobStatusCache = jobStatusCache;
+    this.completionCallbacks = completionCallbacks;
+    this.admissionController = admissionController;
+    this.parentFlightResumeHook = parentFlightResumeHook;
+    this.stepTimingHook = stepTimingHook;
     this.stairwayComponent = stairwayComponent;
     this.flightBeanBag = flightBeanBag;
     this.objectMapper = objectMapper;
@@ -97,18 +124,53 @@ public class LandingZoneJobService {
 
   // Fully fluent style of JobBuilder
   public LandingZoneJobBuilder newJob() {
-    return new LandingZoneJobBuilder(this, stairwayComponent, mdcHook);
+    return new LandingZoneJobBuilder(this, stairwayComponent, mdcHook, completionCallbacks);
   }
 
   // submit a new job to stairway
   // protected method intended to be called only from JobBuilder
   protected String submit(
       Class<? extends Flight> flightClass, FlightMap parameterMap, String jobId) {
+    return submit(flightClass, parameterMap, jobId, null);
+  }
+
+  // submit a new job under admission control when it is enabled and the job has scheduling
+  // attributes: the job is queued and its flight waits in its first step until it is admitted.
+  // Sub-flights were admitted with their parent and run right away.
+  protected String submit(
+      Class<? extends Flight> flightClass,
+      FlightMap parameterMap,
+      String jobId,
+      @Nullable JobAdmissionKeys admissionKeys) {
+    if (admissionKeys != null
+        && admissionController.isEnabled()
+        && !parameterMap.containsKey(LandingZoneFlightMapKeys.PARENT_FLIGHT_ID)) {
+      parameterMap.put(LandingZoneFlightMapKeys.ADMISSION_CONTROLLED, true);
+      admissionController.enqueue(jobId, admissionKeys);
+      try {
+        submitToStairway(flightClass, parameterMap, jobId);
+      } catch (RuntimeException e) {
+        admissionController.dequeue(jobId);
+        throw e;
+      }
+      return jobId;
+    }
+    submitToStairway(flightClass, parameterMap, jobId);
+    return jobId;
+  }
+
+  private void submitToStairway(
+      Class<? extends Flight> flightClass, FlightMap parameterMap, String jobId) {
     try {
       stairwayComponent
           .get()
           .submitWithDebugInfo(
-              jobId, flightClass, parameterMap, /* shouldQueue= */ false, flightDebugInfo);
+              jobId,
+              flightClass,
+              parameterMap,
+              // with the Postgres work queue any instance may pick up the flight
+              stairwayProperties.isPostgresWorkQueueEnabled(),
+              flightDebugInfo);
     } catch (DuplicateFlightIdException ex) {
       // DuplicateFlightIdException is a more specific StairwayException, and so needs to
       // be checked separately. Allowing duplicate FlightIds is useful for ensuring idempotent
@@ -118,7 +180,6 @@ public class LandingZoneJobService {
     } catch (StairwayException | InterruptedException stairwayEx) {
       throw new InternalStairwayException(stairwayEx);
     }
-    return jobId;
   }
 
   // Submit a new job to stairway, wait for it to finish, then return the result.
@@ -128,8 +189,9 @@ public class LandingZoneJobService {
       Class<? extends Flight> flightClass,
       FlightMap parameterMap,
       Class<T> resultClass,
-      String jobId) {
-    submit(flightClass, parameterMap, jobId);
+      String jobId,
+      @Nullable JobAdmissionKeys admissionKeys) {
+    submit(flightClass, parameterMap, jobId, admissionKeys);
     waitForJob(jobId);
 
     JobResultOrException<T> resultOrException = retrieveJobResult(jobId, resultClass);
@@ -139,42 +201,147 @@ public class LandingZoneJobService {
     return resultOrException.getResult();
   }
 
+  /**
+   * Waits for a job to complete, though not necessarily successfully.
+   *
+   * <p>Completion of flights running on this node is pushed by the {@link JobCompletionRegistry},
+   * so the caller is released as soon as the flight ends. The Stairway database is checked once up
+   * front and then only at the fallback polling interval, which covers flights that run on other
+   * Stairway nodes.
+   */
   public void waitForJob(String jobId) {
+    CompletableFuture<FlightStatus> completion = completionRegistry.register(jobId);
     try {
-      int pollSeconds = jobConfig.getPollingIntervalSeconds();
-      int pollCycles = jobConfig.getTimeoutSeconds() / jobConfig.getPollingIntervalSeconds();
-      for (int i = 0; i < pollCycles; i++) {
-        ScheduledFuture<FlightState> futureState =
-            executor.schedule(
-                new PollFlightTask(stairwayComponent.get(), jobId), pollSeconds, TimeUnit.SECONDS);
-        FlightState state = futureState.get();
-        if (state != null) {
+      Instant deadline = Instant.now().plusSeconds(jobConfig.getTimeoutSeconds());
+      while (Instant.now().isBefore(deadline)) {
+        FlightState flightState = stairwayComponent.get().getFlightState(jobId);
+        if (!flightState.isActive()) {
           // Indicates job has completed, though not necessarily successfully.
           return;
         }
-        // The job has not completed yet, continue polling
+        awaitCompletionSignal(completion, deadline);
       }
-    } catch (InterruptedException | ExecutionException stairwayEx) {
+    } catch (StairwayException | InterruptedException stairwayEx) {
       throw new InternalStairwayException(stairwayEx);
+    } finally {
+      completionRegistry.unregister(jobId, completion);
     }
     // Indicates we timed out waiting for completion, throw exception
     throw new InternalStairwayException("Flight did not complete in the allowed wait time");
   }
 
+  /**
+   * Long-polls the result of a job: returns as soon as the job completes, or with a running job
+   * report once maxWait has passed.
+   *
+   * <p>Like {@link #waitForJob}, the waiter is released by the {@link JobCompletionRegistry} when
+   * the flight ends on this node, and the state of a flight running here is read from the {@link
+   * JobStatusCache}, so waiting clients don't poll the Stairway database. Flights running on other
+   * nodes are checked at the fallback polling interval.
+   *
+   * @param jobId id of the job
+   * @param maxWait longest time to wait, capped at the configured maximum
+   * @param resultClass class of the job's result
+   * @return result of the job; without result or error report if the job is still running
+   */
+  @Traced
+  public <T> AsyncJobResult<T> awaitJobResult(
+      String jobId, Duration maxWait, Class<T> resultClass) {
+    Duration wait = maxWait;
+    Duration maxAllowedWait = Duration.ofSeconds(jobConfig.getMaxAwaitSeconds());
+    if (wait.compareTo(maxAllowedWait) > 0) {
+      wait = maxAllowedWait;
+    }
+    // register before reading the state, so that a flight finishing in between is not missed
+    CompletableFuture<FlightStatus> completion = completionRegistry.register(jobId);
+    try {
+      Instant deadline = Instant.now().plus(wait);
+      FlightState flightState = retrieveFlightState(jobId);
+      while (flightState.isActive() && Instant.now().isBefore(deadline)) {
+        awaitCompletionSignal(completion, deadline);
+        flightState = retrieveFlightState(jobId);
+      }
+      return retrieveAsyncJobResult(flightState, resultClass);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InternalStairwayException(e);
+    } finally {
+      completionRegistry.unregister(jobId, completion);
+    }
+  }
+
+  private void awaitCompletionSignal(CompletableFuture<FlightStatus> completion, Instant deadline)
+      throws InterruptedException {
+    long remainingMillis = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+    if (completion.isDone()) {
+      // The flight ended on this node, but its final state is not visible in the database yet.
+      TimeUnit.MILLISECONDS.sleep(
+          Math.min(remainingMillis, jobConfig.getPollingIntervalSeconds() * 1000L));
+      return;
+    }
+    try {
+      completion.get(
+          Math.min(remainingMillis, jobConfig.getFallbackPollingIntervalSeconds() * 1000L),
+          TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      // No signal from this node; check the database in case the flight runs elsewhere.
+    } catch (ExecutionException e) {
+      throw new InternalStairwayException(e);
+    }
+  }
+
   /**
    * This method is called from StartupInitializer as part of the sequence of migrating databases
    * and recovering any jobs; i.e., Stairway flights. It is moved here so that JobService
    * encapsulates all the Stairway interaction.
    */
   public void initialize() {
-    stairwayComponent.initialize(
+    DataSource stairwayDataSource =
+        DataSourceInitializer.initializeDataSource(stairwayDatabaseConfiguration);
+    var stairwayOptions =
         stairwayComponent
             .newStairwayOptionsBuilder()
-            .dataSource(DataSourceInitializer.initializeDataSource(stairwayDatabaseConfiguration))
+            .dataSource(stairwayDataSource)
             .context(flightBeanBag)
             .addHook(mdcHook)
+            // evict the cached state before waiters are released, so they read the final state
+            .addHook(jobStatusCache)
+            .addHook(completionRegistry)
+            .addHook(completionCallbacks)
+            .addHook(parentFlightResumeHook)
+            .addHook(admissionController)
+            .addHook(stepTimingHook)
             .addHook(new MonitoringHook())
-            .exceptionSerializer(new StairwayExceptionSerializer(objectMapper)));
+            .exceptionSerializer(new StairwayExceptionSerializer(objectMapper));
+    if (stairwayProperties.isPostgresWorkQueueEnabled()) {
+      var workQueue =
+          new PostgresWorkQueue(
+              stairwayDataSource,
+              stairwayDatabaseConfiguration,
+              stairwayProperties.getPostgresWorkQueuePollInterval());
+      workQueue.initialize();
+      stairwayOptions.workQueue(workQueue);
+    }
+    stairwayComponent.initialize(stairwayOptions);
+    parentFlightResumeHook.startSweep(
+        stairwayComponent.get(),
+        Duration.ofSeconds(jobConfig.getWaitingFlightSweepIntervalSeconds()));
+    completionCallbacks.startPolling(
+        stairwayComponent.get(),
+        Duration.ofSeconds(jobConfig.getFallbackPollingIntervalSeconds()));
+    if (stairwayProperties.getCompletedFlightRetention() != null) {
+      // timelines go away together with the flights they describe
+      stepTimingHook.startRetention(
+          stairwayProperties.getCompletedFlightRetention(),
+          Objects.requireNonNullElse(
+              stairwayProperties.getRetentionCheckInterval(), Duration.ofDays(1)));
+    }
+    if (admissionController.isEnabled()) {
+      admissionController.registerMetrics();
+      admissionController.startReconcile(
+          stairwayComponent.get(),
+          Duration.ofSeconds(jobConfig.getWaitingFlightSweepIntervalSeconds()));
+    }
   }
 
   public JobReport mapFlightStateToApiJobReport(FlightState flightState) {
@@ -248,6 +415,10 @@ public class LandingZoneJobService {
   private JobReport.StatusEnum getJobStatus(FlightStatus flightStatus) {
     switch (flightStatus) {
       case RUNNING:
+      case WAITING:
+      case QUEUED:
+        // a waiting flight is parked until it is resumed, e.g. by its sub-flight completing or
+        // by the admission of its job
         return JobReport.StatusEnum.RUNNING;
       case SUCCESS:
         return JobReport.StatusEnum.SUCCEEDED;
@@ -260,9 +431,22 @@ public class LandingZoneJobService {
 
   @Traced
   public JobReport retrieveJob(String jobId) {
+    return mapFlightStateToApiJobReport(retrieveFlightState(jobId));
+  }
+
+  /**
+   * Returns the state of a job. The state of a job running on this node is served from the {@link
+   * JobStatusCache} after the first read; everything else is read from the Stairway database.
+   */
+  public FlightState retrieveFlightState(String jobId) {
+    Optional<FlightState> runningFlightState = jobStatusCache.getRunningFlightState(jobId);
+    if (runningFlightState.isPresent()) {
+      return runningFlightState.get();
+    }
     try {
       FlightState flightState = stairwayComponent.get().getFlightState(jobId);
-      return mapFlightStateToApiJobReport(flightState);
+      jobStatusCache.put(flightState);
+      return flightState;
     } catch (FlightNotFoundException flightNotFoundException) {
       throw new JobNotFoundException(
           "The flight " + jobId + " was not found", flightNotFoundException);
@@ -271,15 +455,45 @@ public class LandingZoneJobService {
     }
   }
 
-  public FlightState retrieveFlightState(String jobId) {
-    try {
-      return stairwayComponent.get().getFlightState(jobId);
-    } catch (FlightNotFoundException flightNotFoundException) {
-      throw new JobNotFoundException(
-          "The flight " + jobId + " was not found", flightNotFoundException);
-    } catch (StairwayException | InterruptedException stairwayEx) {
-      throw new InternalStairwayException(stairwayEx);
+  public boolean isAdmissionControlEnabled() {
+    return admissionController.isEnabled();
+  }
+
+  /**
+   * Returns the position of a job in the admission queue, 1 being the next job to be admitted.
+   *
+   * @param jobId id of the job
+   * @return position, or empty if the job is not waiting for admission
+   */
+  public OptionalInt getQueuePosition(String jobId) {
+    return admissionController.getQueuePosition(jobId);
+  }
+
+  /**
+   * Returns the timeline of a job: when each step of its flight and of its sub-flights started and
+   * ended, and how many attempts it took. Steps undone after a failure appear a second time with
+   * the UNDO direction.
+   *
+   * @param bearerToken bearer token of the user request
+   * @param jobId id of the job
+   * @return executed steps ordered by start time
+   */
+  @Traced
+  public List<StepTiming> getJobTimeline(BearerToken bearerToken, String jobId) {
+    FlightState flightState = retrieveFlightState(jobId);
+    FlightMap inputParameters = flightState.getInputParameters();
+    if (inputParameters.containsKey(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS)) {
+      verifyUserAccess(bearerToken, flightState);
+    } else {
+      // delete jobs have no creation request; they are checked like the delete job endpoints do
+      UUID landingZoneId =
+          inputParameters.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+      if (landingZoneId == null) {
+        throw new JobNotFoundException("The landing zone does not exist for job");
+      }
+      verifyUserAccessForDeleteJobResult(bearerToken, landingZoneId, flightState);
     }
+    return stepTimingHook.getTimeline(jobId);
   }
 
   /**
@@ -326,26 +540,32 @@ public class LandingZoneJobService {
    * return a ApiJobReport without a result or error.
    */
   public <T> AsyncJobResult<T> retrieveAsyncJobResult(String jobId, Class<T> resultClass) {
-    try {
-      JobReport jobReport = retrieveJob(jobId);
-      if (jobReport.getStatus().equals(JobReport.StatusEnum.RUNNING)) {
-        return new AsyncJobResult<T>().jobReport(jobReport);
-      }
+    return retrieveAsyncJobResult(retrieveFlightState(jobId), resultClass);
+  }
 
-      JobResultOrException<T> resultOrException = retrieveJobResultWorker(jobId, resultClass);
-      final ErrorReport errorReport;
-      if (jobReport.getStatus().equals(JobReport.StatusEnum.FAILED)) {
-        errorReport = ErrorReportUtils.buildApiErrorReport(resultOrException.getException());
-      } else {
-        errorReport = null;
-      }
-      return new AsyncJobResult<T>()
-          .jobReport(jobReport)
-          .result(resultOrException.getResult())
-          .errorReport(errorReport);
-    } catch (StairwayException | InterruptedException stairwayEx) {
-      throw new InternalStairwayException(stairwayEx);
+  /**
+   * Same as {@link #retrieveAsyncJobResult(String, Class)}, for a flight state the caller already
+   * loaded, e.g. to check access to the job. The job report and the result are both built from the
+   * given state, so a request reads the flight from the Stairway database only once.
+   */
+  public <T> AsyncJobResult<T> retrieveAsyncJobResult(
+      FlightState flightState, Class<T> resultClass) {
+    JobReport jobReport = mapFlightStateToApiJobReport(flightState);
+    if (jobReport.getStatus().equals(JobReport.StatusEnum.RUNNING)) {
+      return new AsyncJobResult<T>().jobReport(jobReport);
     }
+
+    JobResultOrException<T> resultOrException = retrieveJobResult(flightState, resultClass);
+    final ErrorReport errorReport;
+    if (jobReport.getStatus().equals(JobReport.StatusEnum.FAILED)) {
+      errorReport = ErrorReportUtils.buildApiErrorReport(resultOrException.getException());
+    } else {
+      errorReport = null;
+    }
+    return new AsyncJobResult<T>()
+        .jobReport(jobReport)
+        .result(resultOrException.getResult())
+        .errorReport(errorReport);
   }
 
   public <T> AsyncJobResult<T> retrieveStartingAsyncJobResult(String jobId, T result) {
@@ -378,95 +598,107 @@ public class LandingZoneJobService {
    * @param jobId ID of running job
    */
   public void verifyUserAccess(BearerToken bearerToken, String jobId) {
-    try {
-      FlightState flightState = stairwayComponent.get().getFlightState(jobId);
-      FlightMap inputParameters = flightState.getInputParameters();
-      UUID landingZoneId =
-          inputParameters.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
-      if (landingZoneId == null) {
-        throw new JobNotFoundException("The landing zone does not exist for job");
-      }
-      var azureLandingZoneRequest =
-          inputParameters.get(
-              LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, LandingZoneRequest.class);
-
-      if (getJobStatus(flightState.getFlightStatus()).equals(JobReport.StatusEnum.FAILED)) {
-        // Check that the calling user has "link" permission on the billing profile resource in Sam
-        SamRethrow.onInterrupted(
-            () ->
-                samService.checkAuthz(
-                    bearerToken,
-                    SamConstants.SamResourceType.SPEND_PROFILE,
-                    azureLandingZoneRequest.billingProfileId().toString(),
-                    SamConstants.SamSpendProfileAction.LINK),
-            IS_AUTHORIZED);
-      } else {
-        // Check that the calling user has "list-resources" permission on the landing zone resource
-        // in
-        // Sam
-        SamRethrow.onInterrupted(
-            () ->
-                samService.checkAuthz(
-                    bearerToken,
-                    SamConstants.SamResourceType.LANDING_ZONE,
-                    landingZoneId.toString(),
-                    SamConstants.SamLandingZoneAction.LIST_RESOURCES),
-            "isAuthorized");
-      }
-    } catch (DatabaseOperationException | InterruptedException ex) {
-      throw new InternalStairwayException("Stairway exception looking up the job", ex);
-    } catch (FlightNotFoundException ex) {
-      throw new JobNotFoundException("Job not found", ex);
+    verifyUserAccess(bearerToken, retrieveFlightState(jobId));
+  }
+
+  /**
+   * Same as {@link #verifyUserAccess(BearerToken, String)}, for a flight state the caller already
+   * loaded.
+   *
+   * @param bearerToken bearer token of the user request
+   * @param flightState state of the job
+   */
+  public void verifyUserAccess(BearerToken bearerToken, FlightState flightState) {
+    FlightMap inputParameters = flightState.getInputParameters();
+    UUID landingZoneId = inputParameters.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+    if (landingZoneId == null) {
+      throw new JobNotFoundException("The landing zone does not exist for job");
+    }
+    var azureLandingZoneRequest =
+        inputParameters.get(
+            LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, LandingZoneRequest.class);
+
+    if (getJobStatus(flightState.getFlightStatus()).equals(JobReport.StatusEnum.FAILED)) {
+      // Check that the calling user has "link" permission on the billing profile resource in Sam
+      SamRethrow.onInterrupted(
+          () ->
+              samService.checkAuthz(
+                  bearerToken,
+                  SamConstants.SamResourceType.SPEND_PROFILE,
+                  azureLandingZoneRequest.billingProfileId().toString(),
+                  SamConstants.SamSpendProfileAction.LINK),
+          IS_AUTHORIZED);
+    } else {
+      // Check that the calling user has "list-resources" permission on the landing zone resource in
+      // Sam
+      SamRethrow.onInterrupted(
+          () ->
+              samService.checkAuthz(
+                  bearerToken,
+                  SamConstants.SamResourceType.LANDING_ZONE,
+                  landingZoneId.toString(),
+                  SamConstants.SamLandingZoneAction.LIST_RESOURCES),
+          "isAuthorized");
     }
   }
 
   public void verifyUserAccessForDeleteJobResult(
       BearerToken bearerToken, UUID landingZoneId, String jobId) {
-    try {
-      FlightState flightState = stairwayComponent.get().getFlightState(jobId);
-      FlightMap inputParameters = flightState.getInputParameters();
-      UUID flightLandingZoneId =
-          inputParameters.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
-      if (!flightLandingZoneId.equals(landingZoneId)) {
-        throw new JobNotFoundException(
-            "The landing zone does not exist for job or the landing zone id is invalid.");
-      }
+    verifyUserAccessForDeleteJobResult(bearerToken, landingZoneId, retrieveFlightState(jobId));
+  }
 
-      if (getJobStatus(flightState.getFlightStatus()).equals(JobReport.StatusEnum.SUCCEEDED)) {
-        var result = flightState.getResultMap().orElseThrow();
-        var deleted = result.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class);
-
-        // Check that the calling user has "link" permission on the billing profile resource in Sam
-        SamRethrow.onInterrupted(
-            () ->
-                samService.checkAuthz(
-                    bearerToken,
-                    SamConstants.SamResourceType.SPEND_PROFILE,
-                    deleted.billingProfileId().toString(),
-                    SamConstants.SamSpendProfileAction.LINK),
-            IS_AUTHORIZED);
-      } else {
-        // Check that the calling user has "list-delete" permission on the landing zone resource in
-        // Sam
-        SamRethrow.onInterrupted(
-            () ->
-                samService.checkAuthz(
-                    bearerToken,
-                    SamConstants.SamResourceType.LANDING_ZONE,
-                    landingZoneId.toString(),
-                    SamConstants.SamLandingZoneAction.DELETE),
-            IS_AUTHORIZED);
-      }
-    } catch (DatabaseOperationException | InterruptedException ex) {
-      throw new InternalStairwayException("Stairway exception looking up the job", ex);
-    } catch (FlightNotFoundException ex) {
-      throw new JobNotFoundException("Job not found", ex);
+  /**
+   * Ensure the user in the user request has permission to read the result of a landing zone
+   * deletion job whose flight state the caller already loaded.
+   *
+   * @param bearerToken bearer token of the user request
+   * @param landingZoneId landing zone ID the caller expects the job to be associated with
+   * @param flightState state of the job
+   */
+  public void verifyUserAccessForDeleteJobResult(
+      BearerToken bearerToken, UUID landingZoneId, FlightState flightState) {
+    FlightMap inputParameters = flightState.getInputParameters();
+    UUID flightLandingZoneId =
+        inputParameters.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+    if (!flightLandingZoneId.equals(landingZoneId)) {
+      throw new JobNotFoundException(
+          "The landing zone does not exist for job or the landing zone id is invalid.");
+    }
+
+    if (getJobStatus(flightState.getFlightStatus()).equals(JobReport.StatusEnum.SUCCEEDED)) {
+      var result = flightState.getResultMap().orElseThrow();
+      var deleted = result.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class);
+
+      // Check that the calling user has "link" permission on the billing profile resource in Sam
+      SamRethrow.onInterrupted(
+          () ->
+              samService.checkAuthz(
+                  bearerToken,
+                  SamConstants.SamResourceType.SPEND_PROFILE,
+                  deleted.billingProfileId().toString(),
+                  SamConstants.SamSpendProfileAction.LINK),
+          IS_AUTHORIZED);
+    } else {
+      // Check that the calling user has "list-delete" permission on the landing zone resource in
+      // Sam
+      SamRethrow.onInterrupted(
+          () ->
+              samService.checkAuthz(
+                  bearerToken,
+                  SamConstants.SamResourceType.LANDING_ZONE,
+                  landingZoneId.toString(),
+                  SamConstants.SamLandingZoneAction.DELETE),
+          IS_AUTHORIZED);
     }
   }
 
   private <T> JobResultOrException<T> retrieveJobResultWorker(String jobId, Class<T> resultClass)
       throws StairwayException, InterruptedException {
-    FlightState flightState = stairwayComponent.get().getFlightState(jobId);
+    return retrieveJobResult(stairwayComponent.get().getFlightState(jobId), resultClass);
+  }
+
+  private <T> JobResultOrException<T> retrieveJobResult(
+      FlightState flightState, Class<T> resultClass) {
     FlightMap resultMap = flightState.getResultMap().orElse(null);
     if (resultMap == null) {
       throw new InvalidResultStateException("No result map returned from flight");
@@ -488,6 +720,8 @@ public class LandingZoneJobService {
             .result(resultMap.get(JobMapKeys.RESPONSE.getKeyName(), resultClass));
 
       case RUNNING:
+      case WAITING:
+      case QUEUED:
         throw new JobNotCompleteException(
             "Attempt to retrieve job result before job is complete; job id: "
                 + flightState.getFlightId());
@@ -616,24 +850,4 @@ public class LandingZoneJobService {
       return this;
     }
   }
-
-  private static class PollFlightTask implements Callable<FlightState> {
-    private final Stairway stairway;
-    private final String flightId;
-
-    public PollFlightTask(Stairway stairway, String flightId) {
-      this.stairway = stairway;
-      this.flightId = flightId;
-    }
-
-    @Override
-    public FlightState call() throws Exception {
-      FlightState state = stairway.getFlightState(flightId);
-      if (!state.isActive()) {
-        return state;
-      } else {
-        return null;
-      }
-    }
-  }
 }
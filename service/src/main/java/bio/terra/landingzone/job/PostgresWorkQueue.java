@@ -0,0 +1,266 @@
+package bio.terra.landingzone.job;
+
+import bio.terra.common.db.BaseDatabaseProperties;
+import bio.terra.stairway.QueueInterface;
+import bio.terra.stairway.QueueProcessFunction;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stairway work queue kept in the Stairway Postgres database, for deployments without GCP Pub/Sub.
+ *
+ * <p>Stairway puts new flights submitted to the queue, and flights recovered from a dead instance,
+ * on the work queue; every instance takes messages from it while it has room for more flights.
+ * Instances claim messages with SELECT ... FOR UPDATE SKIP LOCKED, so each message is handed to
+ * one instance, and a message is only deleted once Stairway accepted it. A message which fails to
+ * be processed only affects itself: its attempt count is increased, and after MAX_ATTEMPTS failures
+ * it is dead-lettered, i.e. kept in the table with its dead_lettered time set and no longer
+ * dispatched. An idle instance waits on a Postgres LISTEN channel which is notified by every
+ * enqueue, and polls when it gets no notification within the poll interval.
+ */
+public class PostgresWorkQueue implements QueueInterface {
+  private static final Logger logger = LoggerFactory.getLogger(PostgresWorkQueue.class);
+  static final String QUEUE_TABLE = "lz_stairway_work_queue";
+  static final String NOTIFY_CHANNEL = "lz_stairway_work_queue";
+  static final int MAX_ATTEMPTS = 3;
+
+  private static final String CREATE_TABLE_SQL =
+      "CREATE TABLE IF NOT EXISTS "
+          + QUEUE_TABLE
+          + " (id bigserial PRIMARY KEY, message text NOT NULL,"
+          + " enqueued timestamptz NOT NULL DEFAULT now())";
+  // for tables created before messages were dead-lettered
+  private static final String ADD_FAILURE_COLUMNS_SQL =
+      "ALTER TABLE "
+          + QUEUE_TABLE
+          + " ADD COLUMN IF NOT EXISTS attempts int NOT NULL DEFAULT 0,"
+          + " ADD COLUMN IF NOT EXISTS dead_lettered timestamptz";
+  private static final String ENQUEUE_SQL = "INSERT INTO " + QUEUE_TABLE + " (message) VALUES (?)";
+  private static final String CLAIM_SQL =
+      "SELECT id, message, attempts FROM "
+          + QUEUE_TABLE
+          + " WHERE dead_lettered IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+  private static final String DELETE_SQL = "DELETE FROM " + QUEUE_TABLE + " WHERE id = ?";
+  private static final String FAILED_SQL =
+      "UPDATE "
+          + QUEUE_TABLE
+          + " SET attempts = attempts + 1,"
+          + " dead_lettered = CASE WHEN attempts + 1 >= ? THEN now() END WHERE id = ?";
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final BaseDatabaseProperties databaseProperties;
+  private final Duration pollInterval;
+  // only used by the Stairway thread which dispatches messages
+  private Connection listenConnection;
+
+  /**
+   * @param dataSource pooled data source of the Stairway database
+   * @param databaseProperties connection properties of the Stairway database, used to open the
+   *     connection which listens for notifications
+   * @param pollInterval longest time an idle instance waits before checking the queue again
+   */
+  public PostgresWorkQueue(
+      DataSource dataSource, BaseDatabaseProperties databaseProperties, Duration pollInterval) {
+    this.dataSource = dataSource;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.databaseProperties = databaseProperties;
+    this.pollInterval = pollInterval;
+  }
+
+  /** Creates the queue table if it does not exist yet. Called before Stairway is started. */
+  public void initialize() {
+    jdbcTemplate.execute(CREATE_TABLE_SQL);
+    jdbcTemplate.execute(ADD_FAILURE_COLUMNS_SQL);
+  }
+
+  @Override
+  public void enqueueMessage(String message) {
+    // the notification is only delivered to listeners once the insert is committed
+    jdbcTemplate.update(ENQUEUE_SQL, message);
+    jdbcTemplate.execute("NOTIFY " + NOTIFY_CHANNEL);
+  }
+
+  @Override
+  public void dispatchMessages(
+      int maxMessages, QueueProcessFunction<String, Boolean> processFunction)
+      throws InterruptedException {
+    int dispatched;
+    try {
+      dispatched = dispatchBatch(maxMessages, processFunction);
+    } catch (SQLException e) {
+      logger.warn("Failed to read the Stairway work queue.", e);
+      dispatched = 0;
+    }
+    if (dispatched == 0) {
+      awaitNotification();
+    }
+  }
+
+  @Override
+  public void purgeQueueForTesting() {
+    jdbcTemplate.update("DELETE FROM " + QUEUE_TABLE);
+  }
+
+  /**
+   * Hands up to maxMessages messages to Stairway in one transaction. Messages Stairway does not
+   * accept stay in the queue, and their row locks are released on commit. A message whose
+   * processing throws is counted as a failed attempt, without affecting the other messages.
+   *
+   * @return number of messages Stairway accepted
+   */
+  private int dispatchBatch(int maxMessages, QueueProcessFunction<String, Boolean> processFunction)
+      throws SQLException, InterruptedException {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        List<QueueMessage> claimed = claim(connection, maxMessages);
+        List<Long> accepted = new ArrayList<>();
+        List<QueueMessage> failed = new ArrayList<>();
+        InterruptedException interrupted = null;
+        for (var message : claimed) {
+          try {
+            if (Boolean.TRUE.equals(processFunction.apply(message.message()))) {
+              accepted.add(message.id());
+            }
+          } catch (InterruptedException e) {
+            // still remove the messages Stairway already took
+            interrupted = e;
+            break;
+          } catch (RuntimeException e) {
+            logFailure(message, e);
+            failed.add(message);
+          }
+        }
+        delete(connection, accepted);
+        recordFailures(connection, failed);
+        connection.commit();
+        if (interrupted != null) {
+          throw interrupted;
+        }
+        return accepted.size();
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      }
+    }
+  }
+
+  private static List<QueueMessage> claim(Connection connection, int maxMessages)
+      throws SQLException {
+    List<QueueMessage> claimed = new ArrayList<>();
+    try (PreparedStatement statement = connection.prepareStatement(CLAIM_SQL)) {
+      statement.setInt(1, maxMessages);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          claimed.add(
+              new QueueMessage(
+                  resultSet.getLong("id"),
+                  resultSet.getString("message"),
+                  resultSet.getInt("attempts")));
+        }
+      }
+    }
+    return claimed;
+  }
+
+  private static void delete(Connection connection, List<Long> ids) throws SQLException {
+    if (ids.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+      for (var id : ids) {
+        statement.setLong(1, id);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static void recordFailures(Connection connection, List<QueueMessage> messages)
+      throws SQLException {
+    if (messages.isEmpty()) {
+      return;
+    }
+    try (PreparedStatement statement = connection.prepareStatement(FAILED_SQL)) {
+      for (var message : messages) {
+        statement.setInt(1, MAX_ATTEMPTS);
+        statement.setLong(2, message.id());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static void logFailure(QueueMessage message, RuntimeException e) {
+    int attempt = message.attempts() + 1;
+    if (attempt >= MAX_ATTEMPTS) {
+      logger.error(
+          "Stairway work queue message {} failed {} times, dead-lettering it.",
+          message.id(),
+          attempt,
+          e);
+    } else {
+      logger.warn(
+          "Stairway work queue message {} failed, attempt {} of {}.",
+          message.id(),
+          attempt,
+          MAX_ATTEMPTS,
+          e);
+    }
+  }
+
+  private void awaitNotification() throws InterruptedException {
+    try {
+      listenConnection().getNotifications((int) pollInterval.toMillis());
+    } catch (SQLException e) {
+      logger.warn("Lost the Stairway work queue notification connection; polling instead.", e);
+      closeListenConnection();
+      TimeUnit.MILLISECONDS.sleep(pollInterval.toMillis());
+    }
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  private PGConnection listenConnection() throws SQLException {
+    if (listenConnection == null || listenConnection.isClosed()) {
+      // a pooled connection would stop receiving notifications when returned to the pool
+      listenConnection =
+          DriverManager.getConnection(
+              databaseProperties.getUri(),
+              databaseProperties.getUsername(),
+              databaseProperties.getPassword());
+      try (Statement statement = listenConnection.createStatement()) {
+        statement.execute("LISTEN " + NOTIFY_CHANNEL);
+      }
+    }
+    return listenConnection.unwrap(PGConnection.class);
+  }
+
+  private void closeListenConnection() {
+    if (listenConnection != null) {
+      try {
+        listenConnection.close();
+      } catch (SQLException e) {
+        logger.debug("Failed to close the Stairway work queue notification connection.", e);
+      }
+      listenConnection = null;
+    }
+  }
+
+  private record QueueMessage(long id, String message, int attempts) {}
+}
@@ -0,0 +1,28 @@
+package bio.terra.landingzone.job.model;
+
+import java.time.Instant;
+
+/**
+ * Execution of one step of a job's flight, or of one of its sub-flights, in one direction.
+ *
+ * @param flightId id of the flight which executed the step: the job's flight or a sub-flight
+ * @param stepIndex index of the step in the flight
+ * @param innerStepIndex {@link #STAIRWAY_STEP} for a Stairway step; for a step run inside a
+ *     ParallelStepGroup, its position in the group starting at 1
+ * @param stepClassName class name of the step
+ * @param direction Stairway direction the step was executed in: DO, UNDO or SWITCH
+ * @param started start of the first attempt
+ * @param ended end of the last attempt
+ * @param attempts number of times the step was executed, including retries
+ */
+public record StepTiming(
+    String flightId,
+    int stepIndex,
+    int innerStepIndex,
+    String stepClassName,
+    String direction,
+    Instant started,
+    Instant ended,
+    int attempts) {
+  public static final int STAIRWAY_STEP = 0;
+}
@@ -1,8 +1,14 @@
 package bio.terra.landingzone.library;
 
 import bio.terra.common.migrate.LiquibaseMigrator;
+import bio.terra.landingzone.common.utils.BlockingTaskExecutors;
 import bio.terra.landingzone.job.LandingZoneJobService;
 import bio.terra.landingzone.library.configuration.LandingZoneDatabaseConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneProtectedDataConfiguration;
+import bio.terra.landingzone.library.landingzones.definition.factories.LandingZoneDefinitionFactoryRegistry;
+import bio.terra.landingzone.service.landingzone.azure.LandingZoneTeardownReaper;
+import bio.terra.landingzone.stairway.flight.utils.AlertRuleTemplateCatalog;
 import org.springframework.context.ApplicationContext;
 
 /**
@@ -23,8 +29,27 @@ public class LandingZoneMain {
       migrateService.upgrade(CHANGELOG_PATH, landingZoneDatabaseConfiguration.getDataSource());
     }
 
+    BlockingTaskExecutors.configure(
+        applicationContext.getBean(LandingZoneJobConfiguration.class).isVirtualThreadsEnabled());
+
+    // Scan for definition factories once, before the first request needs them
+    LandingZoneDefinitionFactoryRegistry.getInstance();
+
+    // Read the Sentinel alert rule templates before the first protected data landing zone needs
+    // them, and keep them current
+    AlertRuleTemplateCatalog alertRuleTemplateCatalog =
+        applicationContext.getBean(AlertRuleTemplateCatalog.class);
+    alertRuleTemplateCatalog.warmUp();
+    alertRuleTemplateCatalog.startRefresh(
+        applicationContext
+            .getBean(LandingZoneProtectedDataConfiguration.class)
+            .getSentinelAlertRuleTemplateRefreshInterval());
+
     LandingZoneJobService landingZoneJobService =
         applicationContext.getBean("landingZoneJobService", LandingZoneJobService.class);
     landingZoneJobService.initialize();
+
+    // Tear down soft deleted landing zones in the background
+    applicationContext.getBean(LandingZoneTeardownReaper.class).start();
   }
 }
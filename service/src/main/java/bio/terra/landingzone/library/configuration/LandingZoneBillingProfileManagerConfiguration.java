@@ -1,5 +1,6 @@
 package bio.terra.landingzone.library.configuration;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +12,18 @@ public class LandingZoneBillingProfileManagerConfiguration {
   /** URL of the BPM instance */
   private String basePath;
 
+  /** Connect timeout of the shared BPM http client */
+  private Duration connectTimeout = Duration.ofSeconds(10);
+
+  /** Read timeout of the shared BPM http client */
+  private Duration readTimeout = Duration.ofSeconds(30);
+
+  /** Maximum number of billing profiles kept in memory */
+  private long profileCacheMaxSize = 1000;
+
+  /** How long a billing profile is served from memory before it is fetched from BPM again */
+  private Duration profileCacheTtl = Duration.ofMinutes(5);
+
   public String getBasePath() {
     return basePath;
   }
@@ -18,4 +31,36 @@ public class LandingZoneBillingProfileManagerConfiguration {
   public void setBasePath(String basePath) {
     this.basePath = basePath;
   }
+
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(Duration connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public Duration getReadTimeout() {
+    return readTimeout;
+  }
+
+  public void setReadTimeout(Duration readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+
+  public long getProfileCacheMaxSize() {
+    return profileCacheMaxSize;
+  }
+
+  public void setProfileCacheMaxSize(long profileCacheMaxSize) {
+    this.profileCacheMaxSize = profileCacheMaxSize;
+  }
+
+  public Duration getProfileCacheTtl() {
+    return profileCacheTtl;
+  }
+
+  public void setProfileCacheTtl(Duration profileCacheTtl) {
+    this.profileCacheTtl = profileCacheTtl;
+  }
 }
@@ -1,5 +1,9 @@
 package bio.terra.landingzone.library.configuration;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -17,6 +21,87 @@ public class LandingZoneJobConfiguration {
   /** Polling interval in seconds */
   private int pollingIntervalSeconds;
 
+  /**
+   * Interval in seconds between database checks while waiting for a job whose completion is not
+   * reported by this node, e.g. because the flight runs on another Stairway instance.
+   */
+  private int fallbackPollingIntervalSeconds = 30;
+
+  /**
+   * Interval in seconds between sweeps that resume waiting flights whose resume signal was missed,
+   * e.g. because their sub-flight finished on another Stairway instance, and between checks of the
+   * job admission queue.
+   */
+  private int waitingFlightSweepIntervalSeconds = 60;
+
+  /** Longest time in seconds a single long-poll request waits for a job to complete */
+  private int maxAwaitSeconds = 60;
+
+  /** Maximum number of independent landing zone resource steps executed at the same time */
+  private int maxParallelResourceSteps = 4;
+
+  /**
+   * Undo the steps of a stage of independent resource steps concurrently when a landing zone
+   * deployment is rolled back. Stages are still undone one after another, in reverse order.
+   */
+  private boolean parallelUndoEnabled = false;
+
+  /**
+   * Keep the resources of a failed landing zone creation in place instead of deleting them, so
+   * that a repair job can resume the creation, see LandingZoneService#startLandingZoneRepairJob.
+   * Resources nobody repairs are removed after landingzone.teardown.retained-resources-expiry.
+   */
+  private boolean retainResourcesOnFailure = false;
+
+  /**
+   * Check SKU availability, Batch account quota and global resource names before any landing zone
+   * resource is created, so that such problems fail the creation right away instead of minutes into
+   * the deployment.
+   */
+  private boolean preflightChecksEnabled = false;
+
+  /** Time in seconds the SKUs offered in a region are kept for the preflight checks */
+  private int skuCatalogTtlSeconds = 3600;
+
+  /**
+   * Run the fan-out of blocking Azure calls on virtual threads. Requires a JDK with virtual thread
+   * support (21+); ignored otherwise.
+   */
+  private boolean virtualThreadsEnabled = false;
+
+  /** Maximum number of running flights whose state is kept in memory for polling clients */
+  private int jobStatusCacheMaxSize = 1000;
+
+  /** Time in seconds a running flight's state is kept in memory without being read again */
+  private int jobStatusCacheTtlSeconds = 600;
+
+  /** Hold landing zone jobs in a fair queue shared by all nodes, see JobAdmissionController */
+  private boolean admissionControlEnabled = false;
+
+  /** Maximum number of admitted jobs running in the deployment */
+  private int maxAdmittedFlights = 20;
+
+  /** Maximum number of admitted jobs running against one Azure subscription */
+  private int maxFlightsPerSubscription = 2;
+
+  /** Maximum number of admitted jobs running for one billing profile */
+  private int maxFlightsPerBillingProfile = 2;
+
+  /** Share of admissions by billing profile id; profiles which are not listed have weight 1 */
+  private Map<String, Integer> admissionTenantWeights = new HashMap<>();
+
+  /**
+   * Hosts which may receive job completion webhooks; callback URLs must use https and one of these
+   * hosts. No webhooks are accepted when the list is empty.
+   */
+  private List<String> completionCallbackAllowedHosts = new ArrayList<>();
+
+  /**
+   * Time in seconds an in-process completion listener waits for its job before it is dropped, in
+   * case the job never completes
+   */
+  private int completionListenerTtlSeconds = 86400;
+
   /** For identifying the application to SAM */
   private String resourceId;
 
@@ -36,6 +121,134 @@ public class LandingZoneJobConfiguration {
     this.pollingIntervalSeconds = pollingIntervalSeconds;
   }
 
+  public int getFallbackPollingIntervalSeconds() {
+    return fallbackPollingIntervalSeconds;
+  }
+
+  public void setFallbackPollingIntervalSeconds(int fallbackPollingIntervalSeconds) {
+    this.fallbackPollingIntervalSeconds = fallbackPollingIntervalSeconds;
+  }
+
+  public int getWaitingFlightSweepIntervalSeconds() {
+    return waitingFlightSweepIntervalSeconds;
+  }
+
+  public void setWaitingFlightSweepIntervalSeconds(int waitingFlightSweepIntervalSeconds) {
+    this.waitingFlightSweepIntervalSeconds = waitingFlightSweepIntervalSeconds;
+  }
+
+  public int getMaxAwaitSeconds() {
+    return maxAwaitSeconds;
+  }
+
+  public void setMaxAwaitSeconds(int maxAwaitSeconds) {
+    this.maxAwaitSeconds = maxAwaitSeconds;
+  }
+
+  public int getMaxParallelResourceSteps() {
+    return maxParallelResourceSteps;
+  }
+
+  public void setMaxParallelResourceSteps(int maxParallelResourceSteps) {
+    this.maxParallelResourceSteps = maxParallelResourceSteps;
+  }
+
+  public boolean isParallelUndoEnabled() {
+    return parallelUndoEnabled;
+  }
+
+  public void setParallelUndoEnabled(boolean parallelUndoEnabled) {
+    this.parallelUndoEnabled = parallelUndoEnabled;
+  }
+
+  public boolean isPreflightChecksEnabled() {
+    return preflightChecksEnabled;
+  }
+
+  public void setPreflightChecksEnabled(boolean preflightChecksEnabled) {
+    this.preflightChecksEnabled = preflightChecksEnabled;
+  }
+
+  public int getSkuCatalogTtlSeconds() {
+    return skuCatalogTtlSeconds;
+  }
+
+  public void setSkuCatalogTtlSeconds(int skuCatalogTtlSeconds) {
+    this.skuCatalogTtlSeconds = skuCatalogTtlSeconds;
+  }
+
+  public boolean isRetainResourcesOnFailure() {
+    return retainResourcesOnFailure;
+  }
+
+  public void setRetainResourcesOnFailure(boolean retainResourcesOnFailure) {
+    this.retainResourcesOnFailure = retainResourcesOnFailure;
+  }
+
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  public int getJobStatusCacheMaxSize() {
+    return jobStatusCacheMaxSize;
+  }
+
+  public void setJobStatusCacheMaxSize(int jobStatusCacheMaxSize) {
+    this.jobStatusCacheMaxSize = jobStatusCacheMaxSize;
+  }
+
+  public int getJobStatusCacheTtlSeconds() {
+    return jobStatusCacheTtlSeconds;
+  }
+
+  public void setJobStatusCacheTtlSeconds(int jobStatusCacheTtlSeconds) {
+    this.jobStatusCacheTtlSeconds = jobStatusCacheTtlSeconds;
+  }
+
+  public boolean isAdmissionControlEnabled() {
+    return admissionControlEnabled;
+  }
+
+  public void setAdmissionControlEnabled(boolean admissionControlEnabled) {
+    this.admissionControlEnabled = admissionControlEnabled;
+  }
+
+  public int getMaxAdmittedFlights() {
+    return maxAdmittedFlights;
+  }
+
+  public void setMaxAdmittedFlights(int maxAdmittedFlights) {
+    this.maxAdmittedFlights = maxAdmittedFlights;
+  }
+
+  public int getMaxFlightsPerSubscription() {
+    return maxFlightsPerSubscription;
+  }
+
+  public void setMaxFlightsPerSubscription(int maxFlightsPerSubscription) {
+    this.maxFlightsPerSubscription = maxFlightsPerSubscription;
+  }
+
+  public int getMaxFlightsPerBillingProfile() {
+    return maxFlightsPerBillingProfile;
+  }
+
+  public void setMaxFlightsPerBillingProfile(int maxFlightsPerBillingProfile) {
+    this.maxFlightsPerBillingProfile = maxFlightsPerBillingProfile;
+  }
+
+  public Map<String, Integer> getAdmissionTenantWeights() {
+    return admissionTenantWeights;
+  }
+
+  public void setAdmissionTenantWeights(Map<String, Integer> admissionTenantWeights) {
+    this.admissionTenantWeights = admissionTenantWeights;
+  }
+
   public int getMaxThreads() {
     return maxThreads;
   }
@@ -44,6 +257,22 @@ public class LandingZoneJobConfiguration {
     this.maxThreads = maxThreads;
   }
 
+  public List<String> getCompletionCallbackAllowedHosts() {
+    return completionCallbackAllowedHosts;
+  }
+
+  public void setCompletionCallbackAllowedHosts(List<String> completionCallbackAllowedHosts) {
+    this.completionCallbackAllowedHosts = completionCallbackAllowedHosts;
+  }
+
+  public int getCompletionListenerTtlSeconds() {
+    return completionListenerTtlSeconds;
+  }
+
+  public void setCompletionListenerTtlSeconds(int completionListenerTtlSeconds) {
+    this.completionListenerTtlSeconds = completionListenerTtlSeconds;
+  }
+
   public String getResourceId() {
     return resourceId;
   }
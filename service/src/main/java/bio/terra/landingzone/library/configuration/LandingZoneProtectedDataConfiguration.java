@@ -1,5 +1,6 @@
 package bio.terra.landingzone.library.configuration;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -23,6 +24,11 @@ public class LandingZoneProtectedDataConfiguration {
   private List<String> sentinelScheduledAlertRuleTemplateIds;
   private List<String> sentinelMlRuleTemplateIds;
   private List<String> sentinelNrtRuleTemplateIds;
+  private int sentinelAlertRuleMaxConcurrency = 4;
+  private int sentinelAlertRuleMaxAttempts = 3;
+  private String sentinelAlertRuleTemplateWorkspaceId;
+  private Duration sentinelAlertRuleTemplateRefreshInterval = Duration.ofHours(6);
+  private Duration sentinelAlertRuleTemplateTtl = Duration.ofHours(24);
 
   /**
    * Returns resource identifier of an Azure LogicApp.
@@ -101,4 +107,74 @@ public class LandingZoneProtectedDataConfiguration {
   public void setSentinelNrtRuleTemplateIds(List<String> sentinelNrtRuleTemplateIds) {
     this.sentinelNrtRuleTemplateIds = sentinelNrtRuleTemplateIds;
   }
+
+  /**
+   * Maximum number of Sentinel alert rules which are created or updated at the same time.
+   *
+   * @return Number of concurrent alert rule requests.
+   */
+  public int getSentinelAlertRuleMaxConcurrency() {
+    return sentinelAlertRuleMaxConcurrency;
+  }
+
+  public void setSentinelAlertRuleMaxConcurrency(int sentinelAlertRuleMaxConcurrency) {
+    this.sentinelAlertRuleMaxConcurrency = sentinelAlertRuleMaxConcurrency;
+  }
+
+  /**
+   * Number of attempts to create or update a single Sentinel alert rule which fails with a
+   * transient error, before the whole step is retried.
+   *
+   * @return Number of attempts per alert rule.
+   */
+  public int getSentinelAlertRuleMaxAttempts() {
+    return sentinelAlertRuleMaxAttempts;
+  }
+
+  public void setSentinelAlertRuleMaxAttempts(int sentinelAlertRuleMaxAttempts) {
+    this.sentinelAlertRuleMaxAttempts = sentinelAlertRuleMaxAttempts;
+  }
+
+  /**
+   * Azure resource identifier of a Sentinel enabled log analytics workspace used to read alert rule
+   * templates at startup. Optional; without it templates are cached as flights read them.
+   *
+   * @return Azure resource identifier of a log analytics workspace.
+   */
+  public String getSentinelAlertRuleTemplateWorkspaceId() {
+    return sentinelAlertRuleTemplateWorkspaceId;
+  }
+
+  public void setSentinelAlertRuleTemplateWorkspaceId(String sentinelAlertRuleTemplateWorkspaceId) {
+    this.sentinelAlertRuleTemplateWorkspaceId = sentinelAlertRuleTemplateWorkspaceId;
+  }
+
+  /**
+   * Interval between refreshes of the cached Sentinel alert rule templates.
+   *
+   * @return Refresh interval.
+   */
+  public Duration getSentinelAlertRuleTemplateRefreshInterval() {
+    return sentinelAlertRuleTemplateRefreshInterval;
+  }
+
+  public void setSentinelAlertRuleTemplateRefreshInterval(
+      Duration sentinelAlertRuleTemplateRefreshInterval) {
+    this.sentinelAlertRuleTemplateRefreshInterval = sentinelAlertRuleTemplateRefreshInterval;
+  }
+
+  /**
+   * Time a cached Sentinel alert rule template is kept without being refreshed. After that the
+   * template is read again by the next flight which needs it, so templates don't go stale when no
+   * template workspace is configured.
+   *
+   * @return Time to live of a cached template.
+   */
+  public Duration getSentinelAlertRuleTemplateTtl() {
+    return sentinelAlertRuleTemplateTtl;
+  }
+
+  public void setSentinelAlertRuleTemplateTtl(Duration sentinelAlertRuleTemplateTtl) {
+    this.sentinelAlertRuleTemplateTtl = sentinelAlertRuleTemplateTtl;
+  }
 }
@@ -32,6 +32,15 @@ public class LandingZoneStairwayProperties {
    */
   private String gcpPubSubSubscriptionId;
 
+  /**
+   * Use a work queue in the Stairway database instead of GCP Pub/Sub, so flights are spread across
+   * all instances. The PubSub settings must not be provided when it is enabled.
+   */
+  private boolean postgresWorkQueueEnabled;
+
+  /** Longest time an idle instance waits before checking the Postgres work queue again. */
+  private Duration postgresWorkQueuePollInterval = Duration.ofSeconds(10);
+
   public boolean isForceCleanStart() {
     return forceCleanStart;
   }
@@ -119,4 +128,20 @@ public class LandingZoneStairwayProperties {
   public void setGcpPubSubSubscriptionId(String gcpPubSubSubscriptionId) {
     this.gcpPubSubSubscriptionId = gcpPubSubSubscriptionId;
   }
+
+  public boolean isPostgresWorkQueueEnabled() {
+    return postgresWorkQueueEnabled;
+  }
+
+  public void setPostgresWorkQueueEnabled(boolean postgresWorkQueueEnabled) {
+    this.postgresWorkQueueEnabled = postgresWorkQueueEnabled;
+  }
+
+  public Duration getPostgresWorkQueuePollInterval() {
+    return postgresWorkQueuePollInterval;
+  }
+
+  public void setPostgresWorkQueuePollInterval(Duration postgresWorkQueuePollInterval) {
+    this.postgresWorkQueuePollInterval = postgresWorkQueuePollInterval;
+  }
 }
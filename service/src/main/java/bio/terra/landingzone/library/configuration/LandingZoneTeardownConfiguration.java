@@ -0,0 +1,120 @@
+package bio.terra.landingzone.library.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "landingzone.teardown")
+public class LandingZoneTeardownConfiguration {
+  /**
+   * Delete jobs only mark the landing zone as deleting and remove its Sam resource; the Azure
+   * resources are torn down in the background by LandingZoneTeardownReaper.
+   */
+  private boolean softDeleteEnabled = false;
+
+  /** Run the reaper on this node. Landing zones marked as deleting stay hidden while it is off. */
+  private boolean reaperEnabled = true;
+
+  /** Time between the reaper's checks for landing zones to tear down */
+  private Duration reaperInterval = Duration.ofSeconds(30);
+
+  /** Maximum number of landing zones torn down at the same time on this node */
+  private int maxConcurrentTeardowns = 4;
+
+  /** Number of teardown attempts after which the reaper leaves a landing zone alone */
+  private int maxAttempts = 10;
+
+  /** Delay before the first retry of a failed teardown; doubled for every further attempt */
+  private Duration initialRetryDelay = Duration.ofMinutes(1);
+
+  /** Upper bound of the delay between teardown attempts */
+  private Duration maxRetryDelay = Duration.ofHours(1);
+
+  /**
+   * Time a claimed teardown is reserved for the node running it. A teardown still unfinished when
+   * its lease ends, e.g. because the node stopped, is picked up again by any node.
+   */
+  private Duration teardownLease = Duration.ofHours(1);
+
+  /**
+   * Time after the last failure of a landing zone creation after which the reaper removes the
+   * resources retained for its repair (landingzone.job.retain-resources-on-failure). Cleanups are
+   * retried and leased like teardowns.
+   */
+  private Duration retainedResourcesExpiry = Duration.ofDays(7);
+
+  public boolean isSoftDeleteEnabled() {
+    return softDeleteEnabled;
+  }
+
+  public void setSoftDeleteEnabled(boolean softDeleteEnabled) {
+    this.softDeleteEnabled = softDeleteEnabled;
+  }
+
+  public boolean isReaperEnabled() {
+    return reaperEnabled;
+  }
+
+  public void setReaperEnabled(boolean reaperEnabled) {
+    this.reaperEnabled = reaperEnabled;
+  }
+
+  public Duration getReaperInterval() {
+    return reaperInterval;
+  }
+
+  public void setReaperInterval(Duration reaperInterval) {
+    this.reaperInterval = reaperInterval;
+  }
+
+  public int getMaxConcurrentTeardowns() {
+    return maxConcurrentTeardowns;
+  }
+
+  public void setMaxConcurrentTeardowns(int maxConcurrentTeardowns) {
+    this.maxConcurrentTeardowns = maxConcurrentTeardowns;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public Duration getInitialRetryDelay() {
+    return initialRetryDelay;
+  }
+
+  public void setInitialRetryDelay(Duration initialRetryDelay) {
+    this.initialRetryDelay = initialRetryDelay;
+  }
+
+  public Duration getMaxRetryDelay() {
+    return maxRetryDelay;
+  }
+
+  public void setMaxRetryDelay(Duration maxRetryDelay) {
+    this.maxRetryDelay = maxRetryDelay;
+  }
+
+  public Duration getTeardownLease() {
+    return teardownLease;
+  }
+
+  public void setTeardownLease(Duration teardownLease) {
+    this.teardownLease = teardownLease;
+  }
+
+  public Duration getRetainedResourcesExpiry() {
+    return retainedResourcesExpiry;
+  }
+
+  public void setRetainedResourcesExpiry(Duration retainedResourcesExpiry) {
+    this.retainedResourcesExpiry = retainedResourcesExpiry;
+  }
+}
@@ -26,6 +26,12 @@ public class LandingZoneStairwayConfiguration {
       KubeService kubeService,
       KubeProperties kubeProperties,
       LandingZoneStairwayProperties landingZoneStairwayProperties) {
+    if (landingZoneStairwayProperties.isPostgresWorkQueueEnabled()
+        && (landingZoneStairwayProperties.getGcpPubSubTopicId() != null
+            || landingZoneStairwayProperties.getGcpPubSubSubscriptionId() != null)) {
+      throw new IllegalStateException(
+          "The Postgres work queue and the GCP PubSub work queue cannot both be configured");
+    }
     StairwayProperties stairwayProperties = new StairwayProperties();
     stairwayProperties.setForceCleanStart(landingZoneStairwayProperties.isForceCleanStart());
     stairwayProperties.setMigrateUpgrade(landingZoneStairwayProperties.isMigrateUpgrade());
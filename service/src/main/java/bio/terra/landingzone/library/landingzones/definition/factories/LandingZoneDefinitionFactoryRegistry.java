@@ -0,0 +1,59 @@
+package bio.terra.landingzone.library.landingzones.definition.factories;
+
+import bio.terra.landingzone.library.landingzones.definition.FactoryDefinitionInfo;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable catalog of the available {@link LandingZoneDefinitionFactory} classes and their
+ * definitions. The class path is scanned once, the first time the registry is used; {@link
+ * #getInstance()} is called during library initialization so that this happens at startup rather
+ * than on the first request.
+ */
+public class LandingZoneDefinitionFactoryRegistry {
+  private final List<FactoryDefinitionInfo> definitions;
+  private final Map<String, Class<? extends LandingZoneDefinitionFactory>> factoriesByClassName;
+
+  LandingZoneDefinitionFactoryRegistry(LandingZoneDefinitionFactoryListProvider listProvider) {
+    this.definitions = List.copyOf(listProvider.listFactories());
+    this.factoriesByClassName =
+        listProvider.listFactoriesClasses().stream()
+            .collect(
+                Collectors.toUnmodifiableMap(
+                    Class::getSimpleName, Function.identity(), (first, second) -> first));
+  }
+
+  public static LandingZoneDefinitionFactoryRegistry getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Lists definitions of all available factories.
+   *
+   * @return immutable list of factory definitions.
+   */
+  public List<FactoryDefinitionInfo> listDefinitions() {
+    return definitions;
+  }
+
+  /**
+   * Looks up a factory class by its simple name.
+   *
+   * @param className simple name of the factory class.
+   * @return factory class, if one with the given name exists.
+   */
+  public Optional<Class<? extends LandingZoneDefinitionFactory>> getFactoryClass(
+      String className) {
+    return Optional.ofNullable(factoriesByClassName.get(className));
+  }
+
+  // Lazy holder idiom; the JVM guarantees the scan runs exactly once.
+  private static class Holder {
+    private static final LandingZoneDefinitionFactoryRegistry INSTANCE =
+        new LandingZoneDefinitionFactoryRegistry(
+            new LandingZoneDefinitionFactoryListProviderImpl());
+  }
+}
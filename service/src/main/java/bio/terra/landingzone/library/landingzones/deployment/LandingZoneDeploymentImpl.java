@@ -1,5 +1,6 @@
 package bio.terra.landingzone.library.landingzones.deployment;
 
+import bio.terra.landingzone.common.utils.BlockingTaskExecutors;
 import bio.terra.landingzone.library.landingzones.deployment.LandingZoneDeployment.DefinitionStages.Deployable;
 import bio.terra.landingzone.library.landingzones.deployment.LandingZoneDeployment.DefinitionStages.WithLandingZoneResource;
 import com.azure.resourcemanager.applicationinsights.models.ApplicationInsightsComponent;
@@ -15,6 +16,7 @@ import com.azure.resourcemanager.resources.fluentcore.arm.models.Resource.Defini
 import com.azure.resourcemanager.resources.fluentcore.model.Creatable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -23,6 +25,9 @@ import reactor.core.publisher.Mono;
 public class LandingZoneDeploymentImpl
     implements LandingZoneDeployment, LandingZoneDeployment.FluentDefinition {
 
+  // resources of one kind created at the same time
+  static final int MAX_CONCURRENT_CREATES = 8;
+
   private final ResourcesTagMapWrapper resourcesTagMapWrapper;
 
   protected LandingZoneDeploymentImpl(ResourcesTagMapWrapper resourcesTagMapWrapper) {
@@ -36,62 +41,70 @@ public class LandingZoneDeploymentImpl
 
   @Override
   public Flux<DeployedResource> deployAsync() {
-    return Flux.merge(
-        deployResourcesAsync(),
-        deployLogAnalyticsWorkspaceResourcesAsync(),
-        deployDiagnosticSettingResourcesAsync(),
-        deployRelayResourcesAsync(),
-        deployBatchResourcesAsync(),
-        deployPosgresResourcesAsync(),
-        deployPrivateEndpointResourcesAsync(),
-        deployAppInsightsResourcesAsync());
+    // private endpoints, diagnostic settings and Application Insights components reference
+    // networks, workspaces and other resources by id, so they are created once those exist
+    Flux<DeployedResource> referencedResources =
+        Flux.merge(
+            deployResourcesAsync(),
+            deployLogAnalyticsWorkspaceResourcesAsync(),
+            deployRelayResourcesAsync(),
+            deployBatchResourcesAsync(),
+            deployPosgresResourcesAsync());
+    Flux<DeployedResource> referencingResources =
+        Flux.merge(
+            deployPrivateEndpointResourcesAsync(),
+            deployDiagnosticSettingResourcesAsync(),
+            deployAppInsightsResourcesAsync());
+    return referencedResources.concatWith(referencingResources);
   }
 
   private Flux<DeployedResource> deployRelayResourcesAsync() {
     Map<WithCreate, Map<String, String>> resourcesTagsMap =
         resourcesTagMapWrapper.getRelayResourcesTagsMap();
-    return Flux.fromIterable(resourcesTagsMap.entrySet()).flatMap(this::deployRelayResourceAsync);
+    return Flux.fromIterable(resourcesTagsMap.entrySet())
+        .flatMap(this::deployRelayResourceAsync, MAX_CONCURRENT_CREATES);
   }
 
   private Flux<DeployedResource> deployBatchResourcesAsync() {
     Map<BatchAccount.DefinitionStages.WithCreate, Map<String, String>> resourcesTagsMap =
         resourcesTagMapWrapper.getBatchResourcesTagsMap();
-    return Flux.fromIterable(resourcesTagsMap.entrySet()).flatMap(this::deployBatchResourceAsync);
+    return Flux.fromIterable(resourcesTagsMap.entrySet())
+        .flatMap(this::deployBatchResourceAsync, MAX_CONCURRENT_CREATES);
   }
 
   private Flux<DeployedResource> deployPosgresResourcesAsync() {
     Map<Server.DefinitionStages.WithCreate, Map<String, String>> resourcesTagsMap =
         resourcesTagMapWrapper.getPostgresResourcesTagsMap();
     return Flux.fromIterable(resourcesTagsMap.entrySet())
-        .flatMap(this::deployPostgresResourceAsync);
+        .flatMap(this::deployPostgresResourceAsync, MAX_CONCURRENT_CREATES);
   }
 
   private Flux<DeployedResource> deployPrivateEndpointResourcesAsync() {
     Map<PrivateEndpoint.DefinitionStages.WithCreate, Map<String, String>> resourcesTagsMap =
         resourcesTagMapWrapper.getPrivateEndpointResourcesTagsMap();
     return Flux.fromIterable(resourcesTagsMap.entrySet())
-        .flatMap(this::deployPrivateEndpointResourceAsync);
+        .flatMap(this::deployPrivateEndpointResourceAsync, MAX_CONCURRENT_CREATES);
   }
 
   private Flux<DeployedResource> deployLogAnalyticsWorkspaceResourcesAsync() {
     Map<Workspace.DefinitionStages.WithCreate, Map<String, String>> resourcesTagsMap =
         resourcesTagMapWrapper.getLogAnalyticsWorkspaceResourcesTagsMap();
     return Flux.fromIterable(resourcesTagsMap.entrySet())
-        .flatMap(this::deployLogAnalyticsWorkspaceResourceAsync);
+        .flatMap(this::deployLogAnalyticsWorkspaceResourceAsync, MAX_CONCURRENT_CREATES);
   }
 
   private Flux<DeployedResource> deployDiagnosticSettingResourcesAsync() {
     Map<DiagnosticSetting.DefinitionStages.WithCreate, Map<String, String>> resourcesTagsMap =
         resourcesTagMapWrapper.getDiagnosticSettingResourcesTagsMap();
     return Flux.fromIterable(resourcesTagsMap.entrySet())
-        .flatMap(this::deployDiagnosticSettingResourceAsync);
+        .flatMap(this::deployDiagnosticSettingResourceAsync, MAX_CONCURRENT_CREATES);
   }
 
   private Flux<DeployedResource> deployAppInsightsResourcesAsync() {
     Map<ApplicationInsightsComponent.DefinitionStages.WithCreate, Map<String, String>>
         resourcesTagsMap = resourcesTagMapWrapper.getAppInsightsResourcesTagsMap();
     return Flux.fromIterable(resourcesTagsMap.entrySet())
-        .flatMap(this::deployAppInsightsResourceAsync);
+        .flatMap(this::deployAppInsightsResourceAsync, MAX_CONCURRENT_CREATES);
   }
 
   private Publisher<? extends DeployedResource> deployRelayResourceAsync(
@@ -102,7 +115,7 @@ public class LandingZoneDeploymentImpl
       relayResource.withTags(resourceEntry.getValue());
     }
 
-    return Mono.just(relayResource.create())
+    return createOnBlockingScheduler(relayResource::create)
         .map(n -> new DeployedResource(n.id(), n.type(), n.tags(), n.regionName()));
   }
 
@@ -114,7 +127,7 @@ public class LandingZoneDeploymentImpl
       resource.withTags(resourceEntry.getValue());
     }
 
-    return Mono.just(resource.create())
+    return createOnBlockingScheduler(resource::create)
         .map(n -> new DeployedResource(n.id(), n.type(), n.tags(), n.regionName()));
   }
 
@@ -126,7 +139,7 @@ public class LandingZoneDeploymentImpl
       resource.withTags(resourceEntry.getValue());
     }
 
-    return Mono.just(resource.create())
+    return createOnBlockingScheduler(resource::create)
         .map(n -> new DeployedResource(n.id(), n.type(), n.tags(), n.regionName()));
   }
 
@@ -135,7 +148,7 @@ public class LandingZoneDeploymentImpl
 
     PrivateEndpoint.DefinitionStages.WithCreate resource = resourceEntry.getKey();
 
-    return Mono.just(resource.create())
+    return Mono.defer(resource::createAsync)
         .map(n -> new DeployedResource(n.id(), n.type(), n.tags(), n.regionName()));
   }
 
@@ -147,7 +160,7 @@ public class LandingZoneDeploymentImpl
       resource.withTags(resourceEntry.getValue());
     }
 
-    return Mono.just(resource.create())
+    return createOnBlockingScheduler(resource::create)
         .map(n -> new DeployedResource(n.id(), n.type(), n.tags(), n.regionName()));
   }
 
@@ -156,7 +169,7 @@ public class LandingZoneDeploymentImpl
 
     DiagnosticSetting.DefinitionStages.WithCreate resource = resourceEntry.getKey();
 
-    return Mono.just(resource.create())
+    return Mono.defer(resource::createAsync)
         .map(
             n ->
                 new DeployedResource(
@@ -172,7 +185,7 @@ public class LandingZoneDeploymentImpl
       resource.withTags(resourceEntry.getValue());
     }
 
-    return Mono.just(resource.create())
+    return createOnBlockingScheduler(resource::create)
         .map(n -> new DeployedResource(n.id(), n.type(), n.tags(), n.regionName()));
   }
 
@@ -181,7 +194,7 @@ public class LandingZoneDeploymentImpl
         resourcesTagMapWrapper.getResourcesTagsMap();
 
     return Flux.fromIterable(resourcesTagsMap.entrySet())
-        .flatMap(r -> deployResourceAsync(r.getKey(), r.getValue()));
+        .flatMap(r -> deployResourceAsync(r.getKey(), r.getValue()), MAX_CONCURRENT_CREATES);
   }
 
   private Publisher<? extends DeployedResource> deployResourceAsync(
@@ -200,8 +213,7 @@ public class LandingZoneDeploymentImpl
   }
 
   private Mono<DeployedResource> deployCreatableResourceAsync(Creatable<?> resource) {
-    return resource
-        .createAsync()
+    return Mono.defer(resource::createAsync)
         .map(
             r -> {
               Resource result = (Resource) r;
@@ -210,6 +222,15 @@ public class LandingZoneDeploymentImpl
             });
   }
 
+  /**
+   * Runs a blocking create from a client library without an asynchronous variant on the blocking
+   * task scheduler once the deployment is subscribed, so that it neither runs while the deployment
+   * is assembled nor blocks the subscribing thread.
+   */
+  private static <T> Mono<T> createOnBlockingScheduler(Callable<T> create) {
+    return Mono.fromCallable(create).subscribeOn(BlockingTaskExecutors.blockingScheduler());
+  }
+
   @Override
   public <T extends Creatable<?> & DefinitionWithTags<?>> Deployable withResourceWithPurpose(
       T resource, ResourcePurpose purpose) {
@@ -1,21 +1,29 @@
 package bio.terra.landingzone.library.landingzones.management;
 
+import bio.terra.landingzone.common.utils.BlockingTaskExecutors;
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.library.landingzones.management.deleterules.AKSAgentPoolHasMoreThanOneNode;
 import bio.terra.landingzone.library.landingzones.management.deleterules.AzureRelayHasHybridConnections;
 import bio.terra.landingzone.library.landingzones.management.deleterules.BatchAccountHasNodePools;
 import bio.terra.landingzone.library.landingzones.management.deleterules.DeleteRule;
+import bio.terra.landingzone.library.landingzones.management.deleterules.DeleteRuleContext;
 import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
 import bio.terra.landingzone.library.landingzones.management.deleterules.PostgreSQLServerHasDBs;
 import bio.terra.landingzone.library.landingzones.management.deleterules.StorageAccountHasContainers;
 import bio.terra.landingzone.library.landingzones.management.deleterules.VmsAreAttachedToVnet;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /** Contains and applies a list of rules to a resource to confirm if it can be deleted. */
 public class DeleteRulesVerifier {
+  // resources whose rules are evaluated at the same time
+  static final int MAX_CONCURRENT_VERIFICATIONS = 8;
+
   private final List<DeleteRule> deleteRules;
 
   public DeleteRulesVerifier(List<DeleteRule> deleteRules) {
@@ -33,15 +41,38 @@ public class DeleteRulesVerifier {
             new VmsAreAttachedToVnet(armManagers)));
   }
 
+  /**
+   * Applies the rules to the resources, several resources at a time, with all rules reading the
+   * landing zone state through one shared snapshot. No more resources are checked once one of them
+   * can't be deleted.
+   *
+   * @throws LandingZoneRuleDeleteException If at least one resource can't be deleted in its current
+   *     state.
+   */
   public void checkIfRulesAllowDelete(List<ResourceToDelete> landingZoneResources)
       throws LandingZoneRuleDeleteException {
     if (deleteRules == null) {
       return;
     }
+    var context = new DeleteRuleContext();
+    List<DeleteRuleResult> blockingResults =
+        Flux.fromIterable(landingZoneResources)
+            .flatMap(
+                resource ->
+                    Mono.fromCallable(
+                            () ->
+                                applyRulesToResource(resource, context)
+                                    .filter(r -> !r.isDeletable())
+                                    .toList())
+                        .subscribeOn(BlockingTaskExecutors.blockingScheduler()),
+                MAX_CONCURRENT_VERIFICATIONS)
+            .takeUntil(results -> !results.isEmpty())
+            .flatMapIterable(results -> results)
+            .collectList()
+            .block();
+
     String rulesResultsMessage =
-        landingZoneResources.stream()
-            .flatMap(this::applyRulesToResource)
-            .filter(r -> !r.isDeletable())
+        Objects.requireNonNull(blockingResults).stream()
             .map(
                 r ->
                     String.format(
@@ -56,9 +87,14 @@ public class DeleteRulesVerifier {
   }
 
   public Stream<DeleteRuleResult> applyRulesToResource(ResourceToDelete resourceToDelete) {
+    return applyRulesToResource(resourceToDelete, new DeleteRuleContext());
+  }
+
+  public Stream<DeleteRuleResult> applyRulesToResource(
+      ResourceToDelete resourceToDelete, DeleteRuleContext context) {
     if (deleteRules == null || deleteRules.isEmpty()) {
       return Stream.empty();
     }
-    return deleteRules.stream().map(r -> r.applyRule(resourceToDelete));
+    return deleteRules.stream().map(r -> r.applyRule(resourceToDelete, context));
   }
 }
@@ -6,7 +6,7 @@ import bio.terra.landingzone.library.landingzones.definition.DefinitionVersion;
 import bio.terra.landingzone.library.landingzones.definition.FactoryDefinitionInfo;
 import bio.terra.landingzone.library.landingzones.definition.ResourceNameGenerator;
 import bio.terra.landingzone.library.landingzones.definition.factories.LandingZoneDefinitionFactory;
-import bio.terra.landingzone.library.landingzones.definition.factories.LandingZoneDefinitionFactoryListProviderImpl;
+import bio.terra.landingzone.library.landingzones.definition.factories.LandingZoneDefinitionFactoryRegistry;
 import bio.terra.landingzone.library.landingzones.definition.factories.LandingZoneDefinitionProvider;
 import bio.terra.landingzone.library.landingzones.definition.factories.LandingZoneDefinitionProviderImpl;
 import bio.terra.landingzone.library.landingzones.deployment.DeployedResource;
@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
 
@@ -154,8 +155,7 @@ public class LandingZoneManager {
   }
 
   public static List<FactoryDefinitionInfo> listDefinitionFactories() {
-    var landingZoneDefinitionListProvider = new LandingZoneDefinitionFactoryListProviderImpl();
-    return landingZoneDefinitionListProvider.listFactories();
+    return LandingZoneDefinitionFactoryRegistry.getInstance().listDefinitions();
   }
 
   public List<DeployedResource> deployLandingZone(
@@ -198,13 +198,25 @@ public class LandingZoneManager {
         .toList();
   }
 
-  private Class<? extends LandingZoneDefinitionFactory> getFactoryFromClassName(String className) {
+  public ResourceDeletionPlan planResourcesDeletion(String landingZoneId)
+      throws LandingZoneRuleDeleteException {
+    return resourcesDeleteManager.planLandingZoneResourcesDeletion(
+        landingZoneId, resourceGroup.name());
+  }
 
-    return new LandingZoneDefinitionFactoryListProviderImpl()
-        .listFactoriesClasses().stream()
-            .filter(f -> f.getSimpleName().equals(className))
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("Invalid factory definition name"));
+  public List<ResourceDeleteResult> deleteResources(List<ResourceDeletion> resources) {
+    return resourcesDeleteManager.deleteResources(resources);
+  }
+
+  public List<ResourceDeleteResult> deleteResources(
+      List<ResourceDeletion> resources, Consumer<ResourceDeleteResult> onResult) {
+    return resourcesDeleteManager.deleteResources(resources, onResult);
+  }
+
+  private Class<? extends LandingZoneDefinitionFactory> getFactoryFromClassName(String className) {
+    return LandingZoneDefinitionFactoryRegistry.getInstance()
+        .getFactoryClass(className)
+        .orElseThrow(() -> new RuntimeException("Invalid factory definition name"));
   }
 
   private DefinitionContext createNewDefinitionContext(
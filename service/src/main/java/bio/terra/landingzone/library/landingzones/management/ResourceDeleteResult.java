@@ -0,0 +1,14 @@
+package bio.terra.landingzone.library.landingzones.management;
+
+/**
+ * Outcome of the delete of one landing zone resource.
+ *
+ * @param resourceId id of the resource.
+ * @param error why the resource, its private endpoint or one of its solutions could not be deleted;
+ *     null when the resource was deleted.
+ */
+public record ResourceDeleteResult(String resourceId, Exception error) {
+  public boolean isDeleted() {
+    return error == null;
+  }
+}
@@ -0,0 +1,30 @@
+package bio.terra.landingzone.library.landingzones.management;
+
+import com.azure.resourcemanager.resources.models.GenericResource;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A landing zone resource to delete, identified by id so that it can be kept in a flight's working
+ * map.
+ *
+ * @param resourceId id of the resource to delete.
+ * @param resourceType type of the resource.
+ * @param privateEndpointId id of the private endpoint of the resource, deleted before the resource,
+ *     or null.
+ * @param solutionIds ids of the solutions of the resource, deleted before the resource.
+ */
+public record ResourceDeletion(
+    String resourceId, String resourceType, String privateEndpointId, List<String> solutionIds) {
+
+  public static ResourceDeletion from(ResourceToDelete resourceToDelete) {
+    return new ResourceDeletion(
+        resourceToDelete.resource().id(),
+        resourceToDelete.resource().type(),
+        resourceToDelete.privateEndpoint() == null ? null : resourceToDelete.privateEndpoint().id(),
+        Objects.requireNonNullElse(resourceToDelete.solutions(), List.<GenericResource>of())
+            .stream()
+            .map(GenericResource::id)
+            .toList());
+  }
+}
@@ -0,0 +1,19 @@
+package bio.terra.landingzone.library.landingzones.management;
+
+import java.util.List;
+
+/**
+ * The landing zone resources to delete, in the order they must be deleted. The delete rules were
+ * verified for all of them when the plan was made.
+ *
+ * @param dependentResources resources deleted first.
+ * @param baseResources resources the other resources depend on, see {@link
+ *     LandingZoneBaseResourceType}; deleted once the dependent resources are gone.
+ */
+public record ResourceDeletionPlan(
+    List<ResourceDeletion> dependentResources, List<ResourceDeletion> baseResources) {
+
+  public static ResourceDeletionPlan empty() {
+    return new ResourceDeletionPlan(List.of(), List.of());
+  }
+}
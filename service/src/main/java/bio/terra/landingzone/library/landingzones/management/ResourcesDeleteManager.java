@@ -1,18 +1,30 @@
 package bio.terra.landingzone.library.landingzones.management;
 
 import bio.terra.landingzone.common.VirtualNetworkLinkResourceHelper;
+import bio.terra.landingzone.common.utils.BlockingTaskExecutors;
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.library.landingzones.deployment.LandingZoneTagKeys;
 import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
 import com.azure.core.util.logging.ClientLogger;
 import com.azure.resourcemanager.network.models.PrivateEndpoint;
 import com.azure.resourcemanager.resources.models.GenericResource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class ResourcesDeleteManager {
+  // resources of one tier whose deletion is awaited at the same time
+  static final int MAX_CONCURRENT_DELETES = 8;
+
   private final ArmManagers armManagers;
 
   private final DeleteRulesVerifier deleteRulesVerifier;
@@ -43,137 +55,247 @@ public class ResourcesDeleteManager {
     return deleteLandingZoneResourcesInOrder(resourcesToDelete);
   }
 
+  /**
+   * Lists the landing zone resources and verifies the delete rules, without deleting anything. The
+   * tiers of the plan are deleted with {@link #deleteResources(List)}, so that a caller can record
+   * its progress between deletes.
+   *
+   * @param landingZoneId the landing zone id.
+   * @param resourceGroupName resource group where the landing zone resources are deployed.
+   * @return the resources to delete, in the order they must be deleted.
+   * @throws LandingZoneRuleDeleteException If at least one resource can't be deleted in its current
+   *     state.
+   */
+  public ResourceDeletionPlan planLandingZoneResourcesDeletion(
+      String landingZoneId, String resourceGroupName) throws LandingZoneRuleDeleteException {
+    final List<ResourceToDelete> resourcesToDelete =
+        listLandingZoneResourcesToDelete(landingZoneId, resourceGroupName);
+
+    deleteRulesVerifier.checkIfRulesAllowDelete(resourcesToDelete);
+
+    Map<Boolean, List<ResourceToDelete>> partitions = partitionByTier(resourcesToDelete);
+    return new ResourceDeletionPlan(
+        partitions.get(false).stream().map(ResourceDeletion::from).toList(),
+        partitions.get(true).stream().map(ResourceDeletion::from).toList());
+  }
+
+  /**
+   * Deletes the resources concurrently and waits until every delete has finished. A failed delete
+   * does not cancel the others; its error is reported in the result of the resource.
+   *
+   * @param resources resources of one tier of a {@link ResourceDeletionPlan}.
+   * @return the outcome of the delete of each resource, in the order of the resources.
+   */
+  public List<ResourceDeleteResult> deleteResources(List<ResourceDeletion> resources) {
+    return deleteResources(resources, result -> {});
+  }
+
+  /**
+   * Deletes the resources like {@link #deleteResources(List)}, passing the result of each resource
+   * to a callback as soon as its delete has finished, so that the caller can record progress
+   * before the whole tier is done.
+   *
+   * @param resources resources of one tier of a {@link ResourceDeletionPlan}.
+   * @param onResult called with the result of each resource; it may block.
+   * @return the outcome of the delete of each resource, in the order of the resources.
+   */
+  public List<ResourceDeleteResult> deleteResources(
+      List<ResourceDeletion> resources, Consumer<ResourceDeleteResult> onResult) {
+    return Flux.fromIterable(resources)
+        .flatMapSequential(
+            resource ->
+                deleteResourceAsync(resource)
+                    .flatMap(
+                        result ->
+                            Mono.fromRunnable(() -> onResult.accept(result))
+                                .subscribeOn(BlockingTaskExecutors.blockingScheduler())
+                                .thenReturn(result)),
+            MAX_CONCURRENT_DELETES)
+        .collectList()
+        .block();
+  }
+
   private List<ResourceToDelete> listLandingZoneResourcesToDelete(
       String landingZoneId, String resourceGroupName) {
-    final List<PrivateEndpoint> privateEndPoints =
-        armManagers
-            .azureResourceManager()
-            .privateEndpoints()
-            .listByResourceGroup(resourceGroupName)
-            .stream()
-            .toList();
+    // resource ids and names are case-insensitive in Azure, so the indexes use lower case keys
+    final Map<String, PrivateEndpoint> privateEndpointsByLinkedResourceId = new HashMap<>();
+    armManagers
+        .azureResourceManager()
+        .privateEndpoints()
+        .listByResourceGroup(resourceGroupName)
+        .stream()
+        .forEach(
+            p ->
+                p.privateLinkServiceConnections()
+                    .values()
+                    .forEach(
+                        c ->
+                            privateEndpointsByLinkedResourceId.putIfAbsent(
+                                c.privateLinkResourceId().toLowerCase(), p)));
 
     // Deploying AKS with monitoring connected to a log analytics workspace also deploys a
-    // container insights solution named `ContainerInsights(WORKSPACE_ID)` which is untagged
-    // this code lists them all and later code figures out which to delete
-    var solutions =
-        armManagers
-            .azureResourceManager()
-            .genericResources()
-            .listByResourceGroup(resourceGroupName)
-            .stream()
-            .filter(
-                r ->
-                    AzureResourceTypeUtils.AZURE_SOLUTIONS_TYPE.equalsIgnoreCase(
-                        "%s/%s".formatted(r.resourceProviderNamespace(), r.resourceType())))
-            .toList();
-
-    return armManagers
+    // container insights solution named `ContainerInsights(WORKSPACE_NAME)` which is untagged.
+    // Solutions are collected in the same pass as the tagged resources and matched to their
+    // workspace by the name in parentheses.
+    final Map<String, List<GenericResource>> solutionsByWorkspaceName = new HashMap<>();
+    final List<GenericResource> landingZoneResources = new ArrayList<>();
+    armManagers
         .azureResourceManager()
         .genericResources()
         .listByResourceGroup(resourceGroupName)
         .stream()
-        .filter(
+        .forEach(
+            r -> {
+              if (isSolution(r)) {
+                solutionWorkspaceName(r)
+                    .ifPresent(
+                        workspaceName ->
+                            solutionsByWorkspaceName
+                                .computeIfAbsent(workspaceName, k -> new ArrayList<>())
+                                .add(r));
+              }
+              if (isLandingZoneResource(r, landingZoneId)) {
+                landingZoneResources.add(r);
+              }
+            });
+
+    return landingZoneResources.stream()
+        .map(
             r ->
-                r.tags()
-                    .getOrDefault(LandingZoneTagKeys.LANDING_ZONE_ID.toString(), "")
-                    .equals(landingZoneId))
-        .map(r -> toResourceToDelete(r, privateEndPoints, solutions))
+                new ResourceToDelete(
+                    r,
+                    privateEndpointsByLinkedResourceId.get(r.id().toLowerCase()),
+                    solutionsByWorkspaceName.getOrDefault(r.name().toLowerCase(), List.of())))
         .toList();
   }
 
-  private ResourceToDelete toResourceToDelete(
-      GenericResource genericResource,
-      List<PrivateEndpoint> privateEndPoints,
-      List<GenericResource> solutions) {
-
-    PrivateEndpoint privateEndPoint = null;
-    List<GenericResource> resourceRelatedSolutions = null;
-    if (privateEndPoints != null) {
-      privateEndPoint =
-          privateEndPoints.stream()
-              .filter(
-                  p ->
-                      p.privateLinkServiceConnections().values().stream()
-                          .anyMatch(
-                              c ->
-                                  c.privateLinkResourceId().equalsIgnoreCase(genericResource.id())))
-              .findFirst()
-              .orElse(null);
-    }
+  private static boolean isSolution(GenericResource resource) {
+    return AzureResourceTypeUtils.AZURE_SOLUTIONS_TYPE.equalsIgnoreCase(
+        "%s/%s".formatted(resource.resourceProviderNamespace(), resource.resourceType()));
+  }
 
-    if (solutions != null) {
-      resourceRelatedSolutions =
-          solutions.stream().filter(s -> s.name().contains(genericResource.name())).toList();
-    }
+  private static boolean isLandingZoneResource(GenericResource resource, String landingZoneId) {
+    return resource
+        .tags()
+        .getOrDefault(LandingZoneTagKeys.LANDING_ZONE_ID.toString(), "")
+        .equals(landingZoneId);
+  }
 
-    return new ResourceToDelete(genericResource, privateEndPoint, resourceRelatedSolutions);
+  /** Solutions are named `SolutionType(WORKSPACE_NAME)`, e.g. `ContainerInsights(lzworkspace)`. */
+  private static Optional<String> solutionWorkspaceName(GenericResource solution) {
+    String name = solution.name();
+    int open = name.indexOf('(');
+    if (open < 0 || !name.endsWith(")")) {
+      logger.warning("Solution name does not reference a workspace. id:{}", solution.id());
+      return Optional.empty();
+    }
+    return Optional.of(name.substring(open + 1, name.length() - 1).toLowerCase());
   }
 
   private List<GenericResource> deleteLandingZoneResourcesInOrder(
       List<ResourceToDelete> resourcesToDelete) {
+    Map<Boolean, List<ResourceToDelete>> partitions = partitionByTier(resourcesToDelete);
 
+    List<GenericResource> deletedResources = new ArrayList<>(deleteTier(partitions.get(false)));
+    deletedResources.addAll(deleteTier(partitions.get(true)));
+    return deletedResources;
+  }
+
+  private Map<Boolean, List<ResourceToDelete>> partitionByTier(
+      List<ResourceToDelete> resourcesToDelete) {
     // The first partition (false) contains all the resources that can be deleted first (independent
     // resources)
     // the second partition (true) contains resources that are considered foundational
     // for the landing zone (base resources) and therefore should be deleted last.
     // The enum LandingZoneDependentResourceType determines the types that are considered base
     // resources.
-
-    Map<Boolean, List<ResourceToDelete>> partitions =
-        resourcesToDelete.stream().collect(Collectors.partitioningBy(this::isBaseResource));
-
-    return Stream.concat(
-            partitions.get(false).stream().map(this::deleteResource),
-            partitions.get(true).stream().map(this::deleteResource))
-        .toList();
+    return resourcesToDelete.stream().collect(Collectors.partitioningBy(this::isBaseResource));
   }
 
-  private GenericResource deleteResource(ResourceToDelete resourceToDelete) {
-    logger.info("Deleting landing zone resource: {}", resourceToDelete.resource().id());
-
-    if (resourceToDelete.privateEndpoint() != null) {
-      logger.info(
-          "Deleting landing zone private endpoint {} for resource: {}",
-          resourceToDelete.privateEndpoint().id(),
-          resourceToDelete.resource().id());
-
-      armManagers
-          .azureResourceManager()
-          .genericResources()
-          .deleteById(resourceToDelete.privateEndpoint().id());
+  /**
+   * Deletes the resources of one tier concurrently and waits until every delete has finished, so
+   * that the next tier is only started once this one is gone. When deletes fail, the first failure
+   * is thrown after the whole tier has finished, with the other failures suppressed.
+   */
+  private List<GenericResource> deleteTier(List<ResourceToDelete> tier) {
+    List<ResourceDeleteResult> results =
+        deleteResources(tier.stream().map(ResourceDeletion::from).toList());
 
-      logger.info("Resource deleted. id:{}", resourceToDelete.privateEndpoint().id());
+    Exception failure = null;
+    for (var result : Objects.requireNonNull(results)) {
+      if (result.isDeleted()) {
+        continue;
+      }
+      if (failure == null) {
+        failure = result.error();
+      } else {
+        failure.addSuppressed(result.error());
+      }
     }
+    if (failure != null) {
+      throw Exceptions.propagate(failure);
+    }
+    return tier.stream().map(ResourceToDelete::resource).toList();
+  }
 
-    if (resourceToDelete.solutions() != null && !resourceToDelete.solutions().isEmpty()) {
-      resourceToDelete
-          .solutions()
-          .forEach(
-              solution -> {
-                logger.info(
-                    "Deleting landing zone solution {} for resource: {}",
-                    solution.id(),
-                    resourceToDelete.resource().id());
+  /**
+   * Deletes the private endpoint and the solutions of a resource before the resource itself. The
+   * result carries the error of a failed delete instead of signalling it, so that one failure does
+   * not cancel the deletes of the other resources in the tier.
+   */
+  private Mono<ResourceDeleteResult> deleteResourceAsync(ResourceDeletion resource) {
+    String resourceId = resource.resourceId();
+    Mono<Void> privateEndpointDelete =
+        resource.privateEndpointId() == null
+            ? Mono.empty()
+            : deleteRelatedResource("private endpoint", resource.privateEndpointId(), resourceId);
+    Mono<Void> solutionsDelete =
+        Flux.fromIterable(Objects.requireNonNullElse(resource.solutionIds(), List.<String>of()))
+            .flatMap(solutionId -> deleteRelatedResource("solution", solutionId, resourceId))
+            .then();
 
-                armManagers.azureResourceManager().genericResources().deleteById(solution.id());
+    return Mono.defer(
+        () -> {
+          logger.info("Deleting landing zone resource: {}", resourceId);
+          long startedNanos = System.nanoTime();
+          return privateEndpointDelete
+              .then(solutionsDelete)
+              .then(deleteById(resourceId))
+              .then(
+                  Mono.fromCallable(
+                      () -> {
+                        logger.info(
+                            "Resource deleted. id:{}, duration:{}",
+                            resourceId,
+                            Duration.ofNanos(System.nanoTime() - startedNanos));
+                        return new ResourceDeleteResult(resourceId, null);
+                      }))
+              .onErrorResume(
+                  Exception.class,
+                  e -> {
+                    logger.error("Failed to delete landing zone resource. id:{}", resourceId, e);
+                    return Mono.just(new ResourceDeleteResult(resourceId, e));
+                  });
+        });
+  }
 
-                logger.info("Resource deleted. id:{}", solution.id());
-              });
-    }
+  private Mono<Void> deleteRelatedResource(String kind, String id, String resourceId) {
+    return Mono.defer(
+            () -> {
+              logger.info("Deleting landing zone {} {} for resource: {}", kind, id, resourceId);
+              return deleteById(id);
+            })
+        .doOnSuccess(ignored -> logger.info("Resource deleted. id:{}", id));
+  }
 
-    if (resourceToDelete.resource().id().contains("virtualNetworkLinks")) {
+  private Mono<Void> deleteById(String id) {
+    if (id.contains("virtualNetworkLinks")) {
       // this is temporary solution since generic deletion is failing for this type of resource
-      VirtualNetworkLinkResourceHelper.delete(armManagers, resourceToDelete.resource().id());
-    } else {
-      armManagers
-          .azureResourceManager()
-          .genericResources()
-          .deleteById(resourceToDelete.resource().id());
+      return Mono.<Void>fromRunnable(() -> VirtualNetworkLinkResourceHelper.delete(armManagers, id))
+          .subscribeOn(BlockingTaskExecutors.blockingScheduler());
     }
-    logger.info("Resource deleted. id:{}", resourceToDelete.resource().id());
-
-    return resourceToDelete.resource();
+    return Mono.defer(
+        () -> armManagers.azureResourceManager().genericResources().deleteByIdAsync(id));
   }
 
   private boolean isBaseResource(ResourceToDelete resourceToDelete) {
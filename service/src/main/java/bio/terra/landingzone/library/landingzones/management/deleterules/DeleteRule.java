@@ -9,4 +9,12 @@ import bio.terra.landingzone.library.landingzones.management.ResourceToDelete;
  */
 public interface DeleteRule {
   DeleteRuleResult applyRule(ResourceToDelete genericResource);
+
+  /**
+   * Applies the rule as part of a verification of several resources, reading the state of the
+   * landing zone through the snapshot shared by all rules of the verification.
+   */
+  default DeleteRuleResult applyRule(ResourceToDelete genericResource, DeleteRuleContext context) {
+    return applyRule(genericResource);
+  }
 }
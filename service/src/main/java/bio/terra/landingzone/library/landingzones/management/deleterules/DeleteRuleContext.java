@@ -0,0 +1,29 @@
+package bio.terra.landingzone.library.landingzones.management.deleterules;
+
+import com.google.common.base.Suppliers;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot of the landing zone state read by the delete rules during one verification. The rules
+ * share it, so that a listing needed by several resources, like the virtual machines of the
+ * resource group, is fetched once, and each rule checks a resource at most once. It can be used by
+ * rules evaluated in parallel.
+ */
+public class DeleteRuleContext {
+  private final ConcurrentMap<String, Supplier<?>> snapshots = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the value stored under the key, loading it on first use. Concurrent callers for the
+   * same key wait for a single load; a load that fails is retried by the next caller.
+   *
+   * @param key identifies the value in this verification, e.g. the listing and its resource group.
+   * @param loader reads the value from Azure.
+   * @return the value loaded for the key.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T snapshot(String key, Supplier<T> loader) {
+    return (T) snapshots.computeIfAbsent(key, k -> Suppliers.memoize(loader::get)).get();
+  }
+}
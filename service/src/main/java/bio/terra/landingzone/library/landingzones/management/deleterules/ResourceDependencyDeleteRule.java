@@ -4,6 +4,7 @@ import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.library.landingzones.management.DeleteRuleResult;
 import bio.terra.landingzone.library.landingzones.management.ResourceToDelete;
 import com.azure.core.util.logging.ClientLogger;
+import java.util.function.Supplier;
 
 /**
  * A base rule that facilitates the implementation of rules that check for arm or functional
@@ -24,8 +25,32 @@ public abstract class ResourceDependencyDeleteRule implements DeleteRule {
 
   public abstract boolean hasDependentResources(ResourceToDelete resourceToDelete);
 
+  /**
+   * Checks the dependencies of the resource during a verification of several resources. Rules
+   * whose check lists resources shared with other landing zone resources override it to read the
+   * listing through the context.
+   */
+  public boolean hasDependentResources(
+      ResourceToDelete resourceToDelete, DeleteRuleContext context) {
+    return hasDependentResources(resourceToDelete);
+  }
+
   @Override
   public DeleteRuleResult applyRule(ResourceToDelete genericResource) {
+    return evaluate(genericResource, () -> hasDependentResources(genericResource));
+  }
+
+  @Override
+  public DeleteRuleResult applyRule(ResourceToDelete genericResource, DeleteRuleContext context) {
+    String snapshotKey =
+        getClass().getSimpleName() + ":" + genericResource.resource().id().toLowerCase();
+    return evaluate(
+        genericResource,
+        () -> context.snapshot(snapshotKey, () -> hasDependentResources(genericResource, context)));
+  }
+
+  private DeleteRuleResult evaluate(
+      ResourceToDelete genericResource, Supplier<Boolean> dependencyCheck) {
     if (!genericResource.resource().type().equalsIgnoreCase(getExpectedType())) {
       return new DeleteRuleResult(
           true,
@@ -34,15 +59,16 @@ public abstract class ResourceDependencyDeleteRule implements DeleteRule {
           genericResource.resource().type());
     }
 
-    return applyDependencyRule(genericResource);
+    return applyDependencyRule(genericResource, dependencyCheck);
   }
 
-  private DeleteRuleResult applyDependencyRule(ResourceToDelete resourceToDelete) {
+  private DeleteRuleResult applyDependencyRule(
+      ResourceToDelete resourceToDelete, Supplier<Boolean> dependencyCheck) {
     logger.info(
         "Applying delete rule. name:{} to resource:{}",
         getClass().getSimpleName(),
         resourceToDelete.resource().id());
-    if (hasDependentResources(resourceToDelete)) {
+    if (dependencyCheck.get()) {
       logger.info(
           "Resource has a dependant resource. resource:{}", resourceToDelete.resource().id());
       return new DeleteRuleResult(
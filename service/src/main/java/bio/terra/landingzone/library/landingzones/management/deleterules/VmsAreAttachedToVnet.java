@@ -4,6 +4,9 @@ import static bio.terra.landingzone.library.landingzones.management.AzureResourc
 
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.library.landingzones.management.ResourceToDelete;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class VmsAreAttachedToVnet extends ResourceDependencyDeleteRule {
 
@@ -18,18 +21,53 @@ public class VmsAreAttachedToVnet extends ResourceDependencyDeleteRule {
 
   @Override
   public boolean hasDependentResources(ResourceToDelete resourceToDelete) {
+    return hasDependentResources(resourceToDelete, new DeleteRuleContext());
+  }
+
+  @Override
+  public boolean hasDependentResources(
+      ResourceToDelete resourceToDelete, DeleteRuleContext context) {
+    String resourceGroupName = resourceToDelete.resource().resourceGroupName();
+    Set<String> vmNetworkIds =
+        context.snapshot(
+            "vmNetworkIds:" + resourceGroupName, () -> listVmNetworkIds(resourceGroupName));
+    return vmNetworkIds.contains(resourceToDelete.resource().id().toLowerCase());
+  }
+
+  /**
+   * Lists the virtual machines and the network interfaces of the resource group once, instead of
+   * resolving the primary network interface and network of every VM for every VNet.
+   *
+   * @return lower case ids of the networks of the VMs' primary network interfaces.
+   */
+  private Set<String> listVmNetworkIds(String resourceGroupName) {
+    Map<String, String> networkIdsByNicId =
+        armManagers
+            .azureResourceManager()
+            .networkInterfaces()
+            .listByResourceGroup(resourceGroupName)
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    nic -> nic.id().toLowerCase(),
+                    nic -> nic.primaryIPConfiguration().networkId(),
+                    (first, second) -> first));
 
     return armManagers
         .azureResourceManager()
         .virtualMachines()
-        .listByResourceGroup(resourceToDelete.resource().resourceGroupName())
+        .listByResourceGroup(resourceGroupName)
         .stream()
-        .anyMatch(
-            v ->
-                v.getPrimaryNetworkInterface()
-                    .primaryIPConfiguration()
-                    .getNetwork()
-                    .id()
-                    .equalsIgnoreCase(resourceToDelete.resource().id()));
+        .map(
+            vm -> {
+              String networkId =
+                  networkIdsByNicId.get(vm.primaryNetworkInterfaceId().toLowerCase());
+              // the primary network interface of a VM can be in another resource group
+              return networkId != null
+                  ? networkId
+                  : vm.getPrimaryNetworkInterface().primaryIPConfiguration().networkId();
+            })
+        .map(String::toLowerCase)
+        .collect(Collectors.toSet());
   }
 }
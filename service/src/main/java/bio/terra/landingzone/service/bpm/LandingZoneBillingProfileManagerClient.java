@@ -0,0 +1,41 @@
+package bio.terra.landingzone.service.bpm;
+
+import bio.terra.landingzone.library.configuration.LandingZoneBillingProfileManagerConfiguration;
+import bio.terra.profile.api.ProfileApi;
+import bio.terra.profile.client.ApiClient;
+import javax.ws.rs.client.Client;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds BPM api objects on top of a single shared http client. The generated ApiClient keeps the
+ * access token as client state, so a lightweight ApiClient is created per call while the underlying
+ * connection pool is reused.
+ */
+@Component
+public class LandingZoneBillingProfileManagerClient {
+  private final LandingZoneBillingProfileManagerConfiguration bpmConfig;
+  private final Client httpClient;
+
+  @Autowired
+  public LandingZoneBillingProfileManagerClient(
+      LandingZoneBillingProfileManagerConfiguration bpmConfig) {
+    this.bpmConfig = bpmConfig;
+    this.httpClient =
+        new ApiClient()
+            .setConnectTimeout((int) bpmConfig.getConnectTimeout().toMillis())
+            .setReadTimeout((int) bpmConfig.getReadTimeout().toMillis())
+            .getHttpClient();
+  }
+
+  private ApiClient getApiClient(String accessToken) {
+    ApiClient apiClient =
+        new ApiClient().setHttpClient(httpClient).setBasePath(bpmConfig.getBasePath());
+    apiClient.setAccessToken(accessToken);
+    return apiClient;
+  }
+
+  ProfileApi profileApi(String accessToken) {
+    return new ProfileApi(getApiClient(accessToken));
+  }
+}
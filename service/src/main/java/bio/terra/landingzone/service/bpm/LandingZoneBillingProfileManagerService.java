@@ -1,12 +1,18 @@
 package bio.terra.landingzone.service.bpm;
 
 import bio.terra.common.iam.BearerToken;
+import bio.terra.landingzone.common.utils.MetricsHelper;
 import bio.terra.landingzone.library.configuration.LandingZoneBillingProfileManagerConfiguration;
 import bio.terra.landingzone.service.bpm.exception.BillingProfileNotFoundException;
-import bio.terra.profile.api.ProfileApi;
-import bio.terra.profile.client.ApiClient;
 import bio.terra.profile.client.ApiException;
 import bio.terra.profile.model.ProfileModel;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,37 +23,83 @@ import org.springframework.stereotype.Component;
 public class LandingZoneBillingProfileManagerService {
   private static final Logger logger =
       LoggerFactory.getLogger(LandingZoneBillingProfileManagerService.class);
-  private final LandingZoneBillingProfileManagerConfiguration bpmConfig;
+  static final String PROFILE_CACHE_NAME = "billingProfiles";
+  private static final String GET_PROFILE_OPERATION = "getProfile";
+
+  private final LandingZoneBillingProfileManagerClient bpmClient;
+  private final Cache<ProfileCacheKey, ProfileModel> profileCache;
 
   @Autowired
   public LandingZoneBillingProfileManagerService(
+      LandingZoneBillingProfileManagerClient bpmClient,
       LandingZoneBillingProfileManagerConfiguration bpmConfig) {
-    this.bpmConfig = bpmConfig;
-  }
-
-  private ApiClient getApiClient(String accessToken) {
-    ApiClient apiClient = new ApiClient().setBasePath(bpmConfig.getBasePath());
-    apiClient.setAccessToken(accessToken);
-    return apiClient;
-  }
-
-  private ProfileApi profileApi(String accessToken) {
-    return new ProfileApi(getApiClient(accessToken));
+    this.bpmClient = bpmClient;
+    this.profileCache =
+        CacheBuilder.newBuilder()
+            .maximumSize(bpmConfig.getProfileCacheMaxSize())
+            .expireAfterWrite(bpmConfig.getProfileCacheTtl())
+            .build();
   }
 
   /**
-   * Looks up a billing profile from BPM by id.
+   * Looks up a billing profile by id, serving it from the in-memory cache when possible.
+   *
+   * <p>BPM only returns a profile to callers who may read it, so profiles are cached per caller: a
+   * cached profile is only served to the bearer token it was fetched with. Other callers go to BPM,
+   * which authorizes them.
    *
    * @param bearerToken the bearer token of the caller
    * @param billingProfileId the billing profile ID
    * @return ProfileModel object
    */
   public ProfileModel getBillingProfile(BearerToken bearerToken, UUID billingProfileId) {
+    var cacheKey = new ProfileCacheKey(callerKey(bearerToken), billingProfileId);
+    ProfileModel cachedProfile = profileCache.getIfPresent(cacheKey);
+    MetricsHelper.recordCacheAccess(PROFILE_CACHE_NAME, cachedProfile != null);
+    if (cachedProfile != null) {
+      return cachedProfile;
+    }
+    ProfileModel profile = fetchBillingProfile(bearerToken, billingProfileId);
+    profileCache.put(cacheKey, profile);
+    return profile;
+  }
+
+  /**
+   * Drops a billing profile from the cache for every caller, so the next lookup goes to BPM.
+   *
+   * @param billingProfileId the billing profile ID
+   */
+  public void invalidateBillingProfile(UUID billingProfileId) {
+    profileCache.asMap().keySet().removeIf(key -> key.billingProfileId().equals(billingProfileId));
+  }
+
+  // a digest, so that the cache doesn't hold on to the tokens themselves
+  private static String callerKey(BearerToken bearerToken) {
+    return Hashing.sha256().hashString(bearerToken.getToken(), StandardCharsets.UTF_8).toString();
+  }
+
+  private ProfileModel fetchBillingProfile(BearerToken bearerToken, UUID billingProfileId) {
+    Instant start = Instant.now();
+    boolean success = false;
     try {
-      return profileApi(bearerToken.getToken()).getProfile(billingProfileId);
+      ProfileModel profile =
+          bpmClient.profileApi(bearerToken.getToken()).getProfile(billingProfileId);
+      success = true;
+      return profile;
     } catch (ApiException e) {
+      logger.warn("Failed to get billing profile {} from BPM", billingProfileId, e);
       throw new BillingProfileNotFoundException(
           String.format("Billing profile %s not found", billingProfileId.toString()), e);
+    } finally {
+      MetricsHelper.recordBpmLatency(
+          GET_PROFILE_OPERATION, Duration.between(start, Instant.now()), success);
     }
   }
+
+  @VisibleForTesting
+  long cachedProfileCount() {
+    return profileCache.size();
+  }
+
+  private record ProfileCacheKey(String caller, UUID billingProfileId) {}
 }
@@ -5,8 +5,14 @@ import bio.terra.common.exception.UnauthorizedException;
 import bio.terra.common.iam.BearerToken;
 import bio.terra.common.sam.SamRetry;
 import bio.terra.common.sam.exception.SamExceptionFactory;
+import bio.terra.landingzone.common.utils.MetricsHelper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import com.nimbusds.oauth2.sdk.util.CollectionUtils;
 import io.opencensus.contrib.spring.aop.Traced;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,8 +34,19 @@ import org.springframework.stereotype.Component;
 @Component
 public class LandingZoneSamService {
   private static final Logger logger = LoggerFactory.getLogger(LandingZoneSamService.class);
-  private final LandingZoneSamClient samClient;
   public static final String IS_AUTHORIZED = "isAuthorized";
+  static final String ENABLED_USER_CACHE_NAME = "samEnabledUsers";
+  // Short enough that a user disabled in Sam loses access quickly
+  private static final Duration ENABLED_USER_CACHE_TTL = Duration.ofMinutes(1);
+  private static final long ENABLED_USER_CACHE_MAX_SIZE = 10_000;
+
+  private final LandingZoneSamClient samClient;
+  // Digests of the tokens of users recently confirmed as enabled; disabled users are never cached
+  private final Cache<String, Boolean> enabledUserCache =
+      CacheBuilder.newBuilder()
+          .maximumSize(ENABLED_USER_CACHE_MAX_SIZE)
+          .expireAfterWrite(ENABLED_USER_CACHE_TTL)
+          .build();
 
   @Autowired
   public LandingZoneSamService(LandingZoneSamClient samClient) {
@@ -77,12 +94,28 @@ public class LandingZoneSamService {
     }
   }
 
+  /**
+   * Throws UnauthorizedException if the calling user is not enabled in Sam. A positive answer is
+   * remembered for a short time, so repeated checks for the same token do not go to Sam.
+   */
   @Traced
   public void checkUserEnabled(BearerToken bearerToken) throws InterruptedException {
+    String cacheKey = callerKey(bearerToken);
+    boolean cached = enabledUserCache.getIfPresent(cacheKey) != null;
+    MetricsHelper.recordCacheAccess(ENABLED_USER_CACHE_NAME, cached);
+    if (cached) {
+      return;
+    }
     var userInfo = getUserStatusInfo(bearerToken);
     if (!BooleanUtils.isTrue(userInfo.getEnabled())) {
       throw new UnauthorizedException("User is disabled");
     }
+    enabledUserCache.put(cacheKey, Boolean.TRUE);
+  }
+
+  // a digest, so that the cache doesn't hold on to the tokens themselves
+  private static String callerKey(BearerToken bearerToken) {
+    return Hashing.sha256().hashString(bearerToken.getToken(), StandardCharsets.UTF_8).toString();
   }
 
   /**
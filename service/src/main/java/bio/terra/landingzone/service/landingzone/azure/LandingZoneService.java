@@ -7,13 +7,17 @@ import bio.terra.common.exception.InternalServerErrorException;
 import bio.terra.common.iam.BearerToken;
 import bio.terra.landingzone.db.LandingZoneDao;
 import bio.terra.landingzone.db.exception.DuplicateLandingZoneException;
+import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
 import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.db.model.RetainedLandingZoneResources;
 import bio.terra.landingzone.job.JobMapKeys;
 import bio.terra.landingzone.job.LandingZoneJobBuilder;
 import bio.terra.landingzone.job.LandingZoneJobService;
 import bio.terra.landingzone.job.LandingZoneJobService.AsyncJobResult;
+import bio.terra.landingzone.job.exception.JobNotFoundException;
 import bio.terra.landingzone.job.model.OperationType;
 import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.configuration.LandingZoneTeardownConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneTestingConfiguration;
 import bio.terra.landingzone.library.landingzones.deployment.DeployedResource;
 import bio.terra.landingzone.library.landingzones.deployment.DeployedSubnet;
@@ -30,6 +34,7 @@ import bio.terra.landingzone.service.iam.SamConstants;
 import bio.terra.landingzone.service.iam.SamRethrow;
 import bio.terra.landingzone.service.landingzone.azure.exception.LandingZoneDefinitionNotFound;
 import bio.terra.landingzone.service.landingzone.azure.exception.LandingZoneDeleteNotImplemented;
+import bio.terra.landingzone.service.landingzone.azure.exception.LandingZoneRepairConflict;
 import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
 import bio.terra.landingzone.service.landingzone.azure.model.DeployedLandingZone;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZone;
@@ -45,18 +50,22 @@ import bio.terra.landingzone.stairway.flight.create.CreateLandingZoneFlight;
 import bio.terra.landingzone.stairway.flight.create.CreateLandingZoneResourcesFlight;
 import bio.terra.landingzone.stairway.flight.delete.DeleteLandingZoneFlight;
 import bio.terra.profile.model.ProfileModel;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.FlightStatus;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
@@ -71,6 +80,7 @@ public class LandingZoneService {
   private final LandingZoneSamService samService;
   private final LandingZoneBillingProfileManagerService bpmService;
   private final LandingZoneTestingConfiguration testingConfiguration;
+  private final LandingZoneTeardownConfiguration teardownConfiguration;
 
   @Autowired
   public LandingZoneService(
@@ -79,13 +89,15 @@ public class LandingZoneService {
       LandingZoneDao landingZoneDao,
       LandingZoneSamService samService,
       LandingZoneBillingProfileManagerService bpmService,
-      LandingZoneTestingConfiguration landingZoneTestingConfiguration) {
+      LandingZoneTestingConfiguration landingZoneTestingConfiguration,
+      LandingZoneTeardownConfiguration landingZoneTeardownConfiguration) {
     this.azureLandingZoneJobService = azureLandingZoneJobService;
     this.landingZoneManagerProvider = landingZoneManagerProvider;
     this.landingZoneDao = landingZoneDao;
     this.samService = samService;
     this.bpmService = bpmService;
     this.testingConfiguration = landingZoneTestingConfiguration;
+    this.teardownConfiguration = landingZoneTeardownConfiguration;
   }
 
   /**
@@ -97,9 +109,12 @@ public class LandingZoneService {
    */
   public AsyncJobResult<DeployedLandingZone> getAsyncJobResult(
       BearerToken bearerToken, String jobId) {
+    // Clients poll this constantly, so the flight is read once for the access check and the result
+    var flightState = azureLandingZoneJobService.retrieveFlightState(jobId);
     // Check calling user has access to the landing zone referenced by this job
-    azureLandingZoneJobService.verifyUserAccess(bearerToken, jobId);
-    return azureLandingZoneJobService.retrieveAsyncJobResult(jobId, DeployedLandingZone.class);
+    azureLandingZoneJobService.verifyUserAccess(bearerToken, flightState);
+    return azureLandingZoneJobService.retrieveAsyncJobResult(
+        flightState, DeployedLandingZone.class);
   }
 
   /**
@@ -112,10 +127,43 @@ public class LandingZoneService {
    */
   public AsyncJobResult<DeletedLandingZone> getAsyncDeletionJobResult(
       BearerToken bearerToken, UUID landingZoneId, String jobId) {
+    var flightState = azureLandingZoneJobService.retrieveFlightState(jobId);
     // Check calling user has access to the landing zone referenced by this job
+    azureLandingZoneJobService.verifyUserAccessForDeleteJobResult(
+        bearerToken, landingZoneId, flightState);
+    return azureLandingZoneJobService.retrieveAsyncJobResult(flightState, DeletedLandingZone.class);
+  }
+
+  /**
+   * Waits for an asynchronous landing zone creation job to complete and returns its result. Returns
+   * early as soon as the job completes; returns a running job report once maxWait has passed.
+   *
+   * @param bearerToken bearer token for the user request.
+   * @param jobId job identifier.
+   * @param maxWait longest time to wait for the job.
+   * @return result of asynchronous job.
+   */
+  public AsyncJobResult<DeployedLandingZone> awaitJobResult(
+      BearerToken bearerToken, String jobId, Duration maxWait) {
+    azureLandingZoneJobService.verifyUserAccess(bearerToken, jobId);
+    return azureLandingZoneJobService.awaitJobResult(jobId, maxWait, DeployedLandingZone.class);
+  }
+
+  /**
+   * Waits for an asynchronous landing zone deletion job to complete and returns its result. Returns
+   * early as soon as the job completes; returns a running job report once maxWait has passed.
+   *
+   * @param bearerToken bearer token for the user request.
+   * @param landingZoneId landing zone id associated with the job.
+   * @param jobId job identifier.
+   * @param maxWait longest time to wait for the job.
+   * @return result of asynchronous job.
+   */
+  public AsyncJobResult<DeletedLandingZone> awaitDeletionJobResult(
+      BearerToken bearerToken, UUID landingZoneId, String jobId, Duration maxWait) {
     azureLandingZoneJobService.verifyUserAccessForDeleteJobResult(
         bearerToken, landingZoneId, jobId);
-    return azureLandingZoneJobService.retrieveAsyncJobResult(jobId, DeletedLandingZone.class);
+    return azureLandingZoneJobService.awaitJobResult(jobId, maxWait, DeletedLandingZone.class);
   }
 
   /**
@@ -149,22 +197,16 @@ public class LandingZoneService {
     checkIfAttaching(azureLandingZoneRequest);
 
     final LandingZoneJobBuilder jobBuilder =
-        azureLandingZoneJobService
-            .newJob()
-            .jobId(jobId)
-            .description(
-                String.format(
-                    jobDescription,
-                    azureLandingZoneRequest.definition(),
-                    azureLandingZoneRequest.version()))
-            .flightClass(CreateLandingZoneFlight.class)
-            .landingZoneRequest(azureLandingZoneRequest)
-            .operationType(OperationType.CREATE)
-            .bearerToken(bearerToken)
-            .addParameter(
-                LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, azureLandingZoneRequest)
-            .addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId)
-            .addParameter(JobMapKeys.RESULT_PATH.getKeyName(), resultPath);
+        newCreationJob(
+            bearerToken,
+            jobId,
+            String.format(
+                jobDescription,
+                azureLandingZoneRequest.definition(),
+                azureLandingZoneRequest.version()),
+            azureLandingZoneRequest,
+            landingZoneId,
+            resultPath);
     return azureLandingZoneJobService.retrieveStartingAsyncJobResult(
         jobBuilder.submit(),
         new StartLandingZoneCreation(
@@ -173,13 +215,164 @@ public class LandingZoneService {
             azureLandingZoneRequest.version()));
   }
 
+  /**
+   * Starts the process to repair a landing zone whose creation failed while its resources were
+   * retained (landingzone.job.retain-resources-on-failure). The landing zone is created again from
+   * the original request; the resources created by the failed job are reused, and resource creation
+   * resumes from the step which failed. Only one repair of a landing zone runs at a time, and
+   * resources removed after landingzone.teardown.retained-resources-expiry can't be repaired.
+   *
+   * @param bearerToken bearer token of the user request.
+   * @param jobId job identifier.
+   * @param landingZoneId identifier of the landing zone to repair.
+   * @param resultPath API path for checking job result.
+   * @return job report
+   */
+  public AsyncJobResult<StartLandingZoneCreation> startLandingZoneRepairJob(
+      BearerToken bearerToken, String jobId, UUID landingZoneId, String resultPath) {
+    var retained =
+        landingZoneDao
+            .getRetainedLandingZoneResources(landingZoneId)
+            .orElseThrow(
+                () ->
+                    new LandingZoneNotFoundException(
+                        String.format(
+                            "No failed creation to repair for landing zone %s", landingZoneId)));
+    // the request is kept as serialized in the flight input parameters
+    var requestKey = LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS;
+    var requestMap = new FlightMap();
+    requestMap.putRaw(requestKey, retained.request());
+    var landingZoneRequest = requestMap.get(requestKey, LandingZoneRequest.class);
+
+    // repairing creates the landing zone, so it requires the same permission as creating it
+    SamRethrow.onInterrupted(
+        () ->
+            samService.checkAuthz(
+                bearerToken,
+                SamConstants.SamResourceType.SPEND_PROFILE,
+                landingZoneRequest.billingProfileId().toString(),
+                SamConstants.SamSpendProfileAction.LINK),
+        IS_AUTHORIZED);
+    checkIfLandingZoneWithIdExists(landingZoneId);
+    if (retained.cleanupAttempts() > 0) {
+      throw new LandingZoneRepairConflict(
+          String.format(
+              "The resources retained for landing zone %s expired and are being removed",
+              landingZoneId));
+    }
+    if (retained.isRepairStarted() && isJobRunning(retained.repairJobId())) {
+      throw new LandingZoneRepairConflict(
+          String.format(
+              "Repair job %s of landing zone %s is still running",
+              retained.repairJobId(), landingZoneId));
+    }
+
+    int repairAttempt =
+        landingZoneDao
+            .startLandingZoneRepair(landingZoneId, retained.repairJobId(), jobId)
+            .map(RetainedLandingZoneResources::repairAttempts)
+            .orElseThrow(
+                () ->
+                    new LandingZoneRepairConflict(
+                        String.format(
+                            "A repair or cleanup of landing zone %s started meanwhile",
+                            landingZoneId)));
+    final LandingZoneJobBuilder jobBuilder =
+        newCreationJob(
+                bearerToken,
+                jobId,
+                String.format(
+                    "Repairing Azure Landing Zone. Landing Zone ID:%s, attempt %d",
+                    landingZoneId, repairAttempt),
+                landingZoneRequest,
+                landingZoneId,
+                resultPath)
+            .addParameter(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, repairAttempt);
+    return azureLandingZoneJobService.retrieveStartingAsyncJobResult(
+        jobBuilder.submit(),
+        new StartLandingZoneCreation(
+            landingZoneId, landingZoneRequest.definition(), landingZoneRequest.version()));
+  }
+
+  // a repair job which never got to its resources flight doesn't record a failure, so the job
+  // itself tells whether it is still running
+  private boolean isJobRunning(String jobId) {
+    try {
+      var flightStatus = azureLandingZoneJobService.retrieveFlightState(jobId).getFlightStatus();
+      return flightStatus != FlightStatus.SUCCESS
+          && flightStatus != FlightStatus.ERROR
+          && flightStatus != FlightStatus.FATAL;
+    } catch (JobNotFoundException e) {
+      return false;
+    }
+  }
+
+  private LandingZoneJobBuilder newCreationJob(
+      BearerToken bearerToken,
+      String jobId,
+      String description,
+      LandingZoneRequest landingZoneRequest,
+      UUID landingZoneId,
+      String resultPath) {
+    return azureLandingZoneJobService
+        .newJob()
+        .jobId(jobId)
+        .description(description)
+        .flightClass(CreateLandingZoneFlight.class)
+        .landingZoneRequest(landingZoneRequest)
+        .operationType(OperationType.CREATE)
+        .bearerToken(bearerToken)
+        .admissionScope(
+            landingZoneRequest.billingProfileId(),
+            getAdmissionSubscriptionId(bearerToken, landingZoneRequest.billingProfileId()))
+        .addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, landingZoneRequest)
+        .addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId)
+        .addParameter(JobMapKeys.RESULT_PATH.getKeyName(), resultPath);
+  }
+
+  /**
+   * Starts the inner flight that creates the Azure resources of a landing zone. When a
+   * parentFlightId is given, that flight is resumed once the inner flight ends.
+   */
   public String startLandingZoneResourceCreationJob(
       String jobId,
       LandingZoneRequest landingZoneRequest,
       ProfileModel billingProfile,
       UUID landingZoneId,
       BearerToken bearerToken,
-      String resultPath) {
+      String resultPath,
+      @Nullable String parentFlightId) {
+    return startLandingZoneResourceCreationJob(
+        jobId,
+        landingZoneRequest,
+        billingProfile,
+        landingZoneId,
+        bearerToken,
+        resultPath,
+        parentFlightId,
+        false,
+        false,
+        null);
+  }
+
+  /**
+   * Starts the inner flight that creates the Azure resources of a landing zone. When a
+   * parentFlightId is given, that flight is resumed once the inner flight ends. With
+   * retainResourcesOnFailure, the resources are kept in place when the inner flight fails, see
+   * {@link #startLandingZoneRepairJob}; a repairAttempt resumes the inner flight which failed.
+   * With preflightChecks, the inner flight checks quotas, SKUs and names before creating anything.
+   */
+  public String startLandingZoneResourceCreationJob(
+      String jobId,
+      LandingZoneRequest landingZoneRequest,
+      ProfileModel billingProfile,
+      UUID landingZoneId,
+      BearerToken bearerToken,
+      String resultPath,
+      @Nullable String parentFlightId,
+      boolean retainResourcesOnFailure,
+      boolean preflightChecks,
+      @Nullable Integer repairAttempt) {
     var jobDescription =
         "Inner flight to create landing zone resources. definition='%s', version='%s'";
     return azureLandingZoneJobService
@@ -196,9 +389,26 @@ public class LandingZoneService {
         .addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId)
         .addParameter(JobMapKeys.RESULT_PATH.getKeyName(), resultPath)
         .addParameter(LandingZoneFlightMapKeys.BILLING_PROFILE, billingProfile)
+        .addParameter(LandingZoneFlightMapKeys.PARENT_FLIGHT_ID, parentFlightId)
+        .addParameter(
+            LandingZoneFlightMapKeys.RETAIN_RESOURCES_ON_FAILURE, retainResourcesOnFailure)
+        .addParameter(LandingZoneFlightMapKeys.PREFLIGHT_CHECKS, preflightChecks)
+        .addParameter(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, repairAttempt)
         .submit();
   }
 
+  // Resolves the subscription of a new landing zone for the admission controller. The profile is
+  // cached for the caller, so the flight reads it again from memory.
+  @Nullable
+  private String getAdmissionSubscriptionId(BearerToken bearerToken, UUID billingProfileId) {
+    if (!azureLandingZoneJobService.isAdmissionControlEnabled()) {
+      return null;
+    }
+    return LandingZoneTarget.fromBillingProfile(
+            bpmService.getBillingProfile(bearerToken, billingProfileId))
+        .azureSubscriptionId();
+  }
+
   private void checkIfLandingZoneWithIdExists(UUID landingZoneId) {
     var maybeExistingLz = landingZoneDao.getLandingZoneIfExists(landingZoneId);
     if (maybeExistingLz.isPresent()) {
@@ -215,7 +425,9 @@ public class LandingZoneService {
   }
 
   /**
-   * Starts a landing zone deletion job.
+   * Starts a landing zone deletion job. With soft delete enabled, the job only marks the landing
+   * zone as deleting and removes its Sam resource; the Azure resources are torn down later by the
+   * {@link LandingZoneTeardownReaper}.
    *
    * @param bearerToken bearer token of the user request.
    * @param jobId job identifier.
@@ -236,6 +448,11 @@ public class LandingZoneService {
         IS_AUTHORIZED);
 
     String jobDescription = "Deleting Azure Landing Zone. Landing Zone ID:%s";
+    // the admission controller limits deletes per billing profile and subscription as well
+    var landingZoneRecord =
+        azureLandingZoneJobService.isAdmissionControlEnabled()
+            ? landingZoneDao.getLandingZoneIfExists(landingZoneId)
+            : Optional.<LandingZoneRecord>empty();
     final LandingZoneJobBuilder jobBuilder =
         azureLandingZoneJobService
             .newJob()
@@ -244,19 +461,24 @@ public class LandingZoneService {
             .flightClass(DeleteLandingZoneFlight.class)
             .operationType(OperationType.DELETE)
             .bearerToken(bearerToken)
+            .admissionScope(
+                landingZoneRecord.map(LandingZoneRecord::billingProfileId).orElse(null),
+                landingZoneRecord.map(LandingZoneRecord::subscriptionId).orElse(null))
             .addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId)
+            .addParameter(
+                LandingZoneFlightMapKeys.SOFT_DELETE, teardownConfiguration.isSoftDeleteEnabled())
             .addParameter(JobMapKeys.RESULT_PATH.getKeyName(), resultPath);
     return azureLandingZoneJobService.retrieveStartingAsyncJobResult(
         jobBuilder.submit(), new StartLandingZoneDeletion(landingZoneId));
   }
 
   /**
-   * Lists available landing zone definitions.
+   * Lists available landing zone definitions. Definitions come from the catalog built at startup,
+   * so the only remote call is the (cached) user-enabled check.
    *
    * @param bearerToken bearer token of the user request.
    * @return list of landing zone definitions.
    */
-  @Cacheable("landingZoneDefinitions")
   public List<LandingZoneDefinition> listLandingZoneDefinitions(BearerToken bearerToken) {
     // Check that the calling user is enabled in Sam, but no further authz checks.
     SamRethrow.onInterrupted(() -> samService.checkUserEnabled(bearerToken), "checkUserEnabled");
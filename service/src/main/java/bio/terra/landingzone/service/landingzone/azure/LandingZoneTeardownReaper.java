@@ -0,0 +1,351 @@
+package bio.terra.landingzone.service.landingzone.azure;
+
+import bio.terra.landingzone.common.utils.BlockingTaskExecutors;
+import bio.terra.landingzone.common.utils.MetricsHelper;
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.db.model.LandingZoneTeardown;
+import bio.terra.landingzone.db.model.LandingZoneTeardownBacklog;
+import bio.terra.landingzone.db.model.RetainedLandingZoneResources;
+import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.configuration.LandingZoneTeardownConfiguration;
+import bio.terra.landingzone.library.landingzones.management.LandingZoneManager;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeleteResult;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletion;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletionPlan;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.delete.AzureDeleteErrors;
+import com.azure.core.management.exception.ManagementException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tears down the Azure resources of soft deleted landing zones in the background.
+ *
+ * <p>With landingzone.teardown.soft-delete-enabled, a delete job only marks the landing zone as
+ * deleting and removes its Sam resource, so the caller doesn't wait for Azure. The reaper
+ * periodically claims deleting landing zones whose teardown is due, deletes their resources tier by
+ * tier and finally removes their record. Claims are leased in the database, so every node may run
+ * a reaper without tearing down a landing zone twice, and a teardown interrupted by a restart is
+ * picked up again when its lease ends. A failed teardown is retried with exponential backoff until
+ * max-attempts is used up; the landing zone then stays hidden and counts as exhausted.
+ *
+ * <p>The reaper also removes the resources of failed landing zone creations which were retained
+ * for a repair (landingzone.job.retain-resources-on-failure), once nobody repaired them for
+ * retained-resources-expiry. These cleanups take the slots left over by teardowns, and are leased
+ * and retried the same way.
+ */
+@Component
+public class LandingZoneTeardownReaper {
+  private static final Logger logger = LoggerFactory.getLogger(LandingZoneTeardownReaper.class);
+
+  private final LandingZoneDao landingZoneDao;
+  private final LandingZoneManagerProvider landingZoneManagerProvider;
+  private final LandingZoneTeardownConfiguration teardownConfig;
+  private final Clock clock;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile LandingZoneTeardownBacklog backlog = new LandingZoneTeardownBacklog(0, 0, null);
+  private ScheduledExecutorService sweepExecutor;
+
+  @Autowired
+  public LandingZoneTeardownReaper(
+      LandingZoneDao landingZoneDao,
+      LandingZoneManagerProvider landingZoneManagerProvider,
+      LandingZoneTeardownConfiguration teardownConfig) {
+    this(landingZoneDao, landingZoneManagerProvider, teardownConfig, Clock.systemUTC());
+  }
+
+  LandingZoneTeardownReaper(
+      LandingZoneDao landingZoneDao,
+      LandingZoneManagerProvider landingZoneManagerProvider,
+      LandingZoneTeardownConfiguration teardownConfig,
+      Clock clock) {
+    this.landingZoneDao = landingZoneDao;
+    this.landingZoneManagerProvider = landingZoneManagerProvider;
+    this.teardownConfig = teardownConfig;
+    this.clock = clock;
+  }
+
+  /**
+   * Registers the reaper metrics and starts the periodic sweep, unless the reaper is disabled.
+   * Called once during initialization.
+   */
+  public synchronized void start() {
+    if (sweepExecutor != null || !teardownConfig.isReaperEnabled()) {
+      return;
+    }
+    registerMetrics();
+    Executor teardownExecutor =
+        BlockingTaskExecutors.newBoundedExecutor(
+            "lz-teardown", teardownConfig.getMaxConcurrentTeardowns());
+    sweepExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "lz-teardown-reaper");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long intervalMillis = teardownConfig.getReaperInterval().toMillis();
+    sweepExecutor.scheduleWithFixedDelay(
+        () -> sweep(teardownExecutor), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Refreshes the backlog and claims as many due teardowns as there are free slots on this node,
+   * followed by due cleanups of abandoned retained resources.
+   *
+   * @param teardownExecutor runs the claimed teardowns and cleanups
+   */
+  void sweep(Executor teardownExecutor) {
+    try {
+      backlog = landingZoneDao.getLandingZoneTeardownBacklog(teardownConfig.getMaxAttempts());
+      int freeSlots = teardownConfig.getMaxConcurrentTeardowns() - inFlight.get();
+      if (freeSlots <= 0) {
+        return;
+      }
+      if (backlog.pending() > 0) {
+        List<LandingZoneTeardown> claimed =
+            landingZoneDao.claimLandingZoneTeardowns(
+                freeSlots, teardownConfig.getTeardownLease(), teardownConfig.getMaxAttempts());
+        claimed.forEach(teardown -> run(teardownExecutor, () -> tearDown(teardown)));
+        freeSlots -= claimed.size();
+      }
+      if (freeSlots <= 0) {
+        return;
+      }
+      List<RetainedLandingZoneResources> cleanups =
+          landingZoneDao.claimRetainedResourcesCleanups(
+              freeSlots,
+              teardownConfig.getRetainedResourcesExpiry(),
+              teardownConfig.getTeardownLease(),
+              teardownConfig.getMaxAttempts());
+      cleanups.forEach(retained -> run(teardownExecutor, () -> cleanUp(retained)));
+    } catch (RuntimeException e) {
+      // keep the scheduled sweep alive
+      logger.warn("Unexpected failure while looking for landing zones to tear down", e);
+    }
+  }
+
+  void tearDown(LandingZoneTeardown teardown) {
+    var landingZoneId = teardown.landingZone().landingZoneId();
+    Instant started = clock.instant();
+    try {
+      deleteAzureResources(teardown.landingZone());
+      landingZoneDao.deleteLandingZone(landingZoneId);
+      Instant completed = clock.instant();
+      Duration lag = Duration.between(teardown.deletingDate().toInstant(), completed);
+      MetricsHelper.recordTeardown(true, Duration.between(started, completed));
+      MetricsHelper.recordTeardownLag(lag);
+      logger.info(
+          "Tore down landing zone {} in attempt {}, {} after it was deleted.",
+          landingZoneId,
+          teardown.attempts(),
+          lag);
+    } catch (Exception e) {
+      MetricsHelper.recordTeardown(false, Duration.between(started, clock.instant()));
+      scheduleRetry(teardown, e);
+    }
+  }
+
+  /**
+   * Removes the Azure resources of a failed landing zone creation which nobody repaired, and then
+   * the record of the retained resources.
+   */
+  void cleanUp(RetainedLandingZoneResources retained) {
+    var landingZoneId = retained.landingZoneId();
+    try {
+      // a landing zone created since with the same id owns the resources now
+      if (landingZoneDao.getLandingZoneIfExists(landingZoneId).isEmpty()) {
+        deleteAzureResources(landingZoneId, retained.landingZoneTarget());
+      }
+      landingZoneDao.deleteRetainedLandingZoneResources(landingZoneId);
+      logger.info(
+          "Removed the resources retained for landing zone {} in attempt {}, failed at {}.",
+          landingZoneId,
+          retained.cleanupAttempts(),
+          retained.failedDate());
+    } catch (Exception e) {
+      scheduleCleanupRetry(retained, e);
+    }
+  }
+
+  /**
+   * Delay before the next attempt after the given number of failed attempts.
+   *
+   * @param attempts failed attempts so far, at least 1
+   * @return the initial retry delay doubled for every further attempt, up to the maximum delay
+   */
+  Duration retryDelay(int attempts) {
+    Duration delay =
+        teardownConfig.getInitialRetryDelay().multipliedBy(1L << Math.min(attempts - 1, 20));
+    return delay.compareTo(teardownConfig.getMaxRetryDelay()) > 0
+        ? teardownConfig.getMaxRetryDelay()
+        : delay;
+  }
+
+  long getInFlight() {
+    return inFlight.get();
+  }
+
+  long getOldestPendingSeconds() {
+    var oldest = backlog.oldestDeletingDate();
+    return oldest == null ? 0 : Duration.between(oldest.toInstant(), clock.instant()).toSeconds();
+  }
+
+  private void run(Executor teardownExecutor, Runnable task) {
+    inFlight.incrementAndGet();
+    teardownExecutor.execute(
+        () -> {
+          try {
+            task.run();
+          } finally {
+            inFlight.decrementAndGet();
+          }
+        });
+  }
+
+  private void scheduleRetry(LandingZoneTeardown teardown, Exception failure) {
+    var landingZoneId = teardown.landingZone().landingZoneId();
+    if (teardown.attempts() >= teardownConfig.getMaxAttempts()) {
+      logger.error(
+          "Giving up on the teardown of landing zone {} after {} attempts. Its Azure resources"
+              + " must be removed manually.",
+          landingZoneId,
+          teardown.attempts(),
+          failure);
+      return;
+    }
+    Duration delay = retryDelay(teardown.attempts());
+    logger.warn(
+        "Teardown attempt {} of landing zone {} failed, retrying in {}.",
+        teardown.attempts(),
+        landingZoneId,
+        delay,
+        failure);
+    try {
+      landingZoneDao.scheduleLandingZoneTeardown(landingZoneId, delay);
+    } catch (RuntimeException e) {
+      // the landing zone is due again once its lease ends
+      logger.warn("Failed to schedule the teardown of landing zone {}", landingZoneId, e);
+    }
+  }
+
+  private void scheduleCleanupRetry(RetainedLandingZoneResources retained, Exception failure) {
+    var landingZoneId = retained.landingZoneId();
+    if (retained.cleanupAttempts() >= teardownConfig.getMaxAttempts()) {
+      logger.error(
+          "Giving up on the cleanup of the resources retained for landing zone {} after {}"
+              + " attempts. They must be removed manually.",
+          landingZoneId,
+          retained.cleanupAttempts(),
+          failure);
+      return;
+    }
+    Duration delay = retryDelay(retained.cleanupAttempts());
+    logger.warn(
+        "Cleanup attempt {} of the resources retained for landing zone {} failed, retrying in {}.",
+        retained.cleanupAttempts(),
+        landingZoneId,
+        delay,
+        failure);
+    try {
+      landingZoneDao.scheduleRetainedResourcesCleanup(landingZoneId, delay);
+    } catch (RuntimeException e) {
+      // the cleanup is due again once its lease ends
+      logger.warn("Failed to schedule the cleanup of landing zone {}", landingZoneId, e);
+    }
+  }
+
+  private void deleteAzureResources(LandingZoneRecord landingZone) throws Exception {
+    if (Boolean.parseBoolean(
+        landingZone.properties().getOrDefault(LandingZoneFlightMapKeys.ATTACH, "false"))) {
+      logger.info(
+          "Landing zone {} was attached, skipping Azure resource deletion",
+          landingZone.landingZoneId());
+      return;
+    }
+    deleteAzureResources(
+        landingZone.landingZoneId(),
+        new LandingZoneTarget(
+            landingZone.tenantId(), landingZone.subscriptionId(), landingZone.resourceGroupId()));
+  }
+
+  private void deleteAzureResources(UUID landingZoneId, LandingZoneTarget landingZoneTarget)
+      throws Exception {
+    try {
+      LandingZoneManager landingZoneManager =
+          landingZoneManagerProvider.createLandingZoneManager(landingZoneTarget);
+      ResourceDeletionPlan plan =
+          landingZoneManager.planResourcesDeletion(landingZoneId.toString());
+      deleteTier(landingZoneManager, plan.dependentResources());
+      deleteTier(landingZoneManager, plan.baseResources());
+    } catch (ManagementException e) {
+      if (!AzureDeleteErrors.isResourceGroupInaccessible(e)) {
+        throw e;
+      }
+      logger.warn(
+          "Landing zone MRG is either inaccessible or has been removed. id = '{}'",
+          landingZoneId,
+          e);
+    }
+  }
+
+  private void deleteTier(LandingZoneManager landingZoneManager, List<ResourceDeletion> tier)
+      throws Exception {
+    if (tier.isEmpty()) {
+      return;
+    }
+    List<Exception> failures =
+        landingZoneManager.deleteResources(tier).stream()
+            .filter(r -> !r.isDeleted())
+            .map(ResourceDeleteResult::error)
+            .toList();
+    if (failures.isEmpty()) {
+      return;
+    }
+    // an inaccessible resource group means that everything is gone already
+    Exception failure =
+        failures.stream()
+            .filter(AzureDeleteErrors::isResourceGroupInaccessible)
+            .findFirst()
+            .orElse(failures.get(0));
+    failures.stream().filter(f -> f != failure).forEach(failure::addSuppressed);
+    throw failure;
+  }
+
+  private void registerMetrics() {
+    MetricsHelper.registerGauge(
+        "teardown/pending",
+        "Number of soft deleted landing zones waiting for teardown",
+        this,
+        reaper -> reaper.backlog.pending());
+    MetricsHelper.registerGauge(
+        "teardown/exhausted",
+        "Number of soft deleted landing zones whose teardown attempts are used up",
+        this,
+        reaper -> reaper.backlog.exhausted());
+    MetricsHelper.registerGauge(
+        "teardown/in_flight",
+        "Number of landing zone teardowns running on this node",
+        this,
+        LandingZoneTeardownReaper::getInFlight);
+    MetricsHelper.registerGauge(
+        "teardown/oldest_pending_seconds",
+        "Age of the oldest soft deleted landing zone waiting for teardown, in seconds",
+        this,
+        LandingZoneTeardownReaper::getOldestPendingSeconds);
+  }
+}
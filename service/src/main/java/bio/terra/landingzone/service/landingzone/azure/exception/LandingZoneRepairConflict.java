@@ -0,0 +1,9 @@
+package bio.terra.landingzone.service.landingzone.azure.exception;
+
+import bio.terra.common.exception.ConflictException;
+
+public class LandingZoneRepairConflict extends ConflictException {
+  public LandingZoneRepairConflict(String message) {
+    super(message);
+  }
+}
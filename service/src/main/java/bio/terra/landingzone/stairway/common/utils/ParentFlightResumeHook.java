@@ -0,0 +1,110 @@
+package bio.terra.landingzone.stairway.common.utils;
+
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightFilter;
+import bio.terra.stairway.FlightFilterOp;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.HookAction;
+import bio.terra.stairway.Stairway;
+import bio.terra.stairway.StairwayHook;
+import bio.terra.stairway.exception.StairwayException;
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link StairwayHook} that resumes a parent flight once its sub-flight ends.
+ *
+ * <p>Parent flights park themselves in the WAITING state instead of holding a Stairway thread while
+ * a sub-flight runs. A sub-flight submitted with {@link LandingZoneFlightMapKeys#PARENT_FLIGHT_ID}
+ * in its input parameters wakes the parent up when it finishes on this node. A periodic sweep
+ * resumes any waiting flight whose signal was missed, e.g. because the sub-flight ran on another
+ * Stairway instance or this node restarted in between.
+ */
+@Component
+public class ParentFlightResumeHook implements StairwayHook {
+  private static final Logger logger = LoggerFactory.getLogger(ParentFlightResumeHook.class);
+  @VisibleForTesting static final int SWEEP_BATCH_SIZE = 100;
+
+  private ScheduledExecutorService sweepExecutor;
+
+  @Override
+  public HookAction endFlight(FlightContext context) {
+    if (context.getFlightStatus() == FlightStatus.WAITING) {
+      return HookAction.CONTINUE;
+    }
+    String parentFlightId =
+        context.getInputParameters().get(LandingZoneFlightMapKeys.PARENT_FLIGHT_ID, String.class);
+    if (parentFlightId != null) {
+      resume(context.getStairway(), parentFlightId);
+    }
+    return HookAction.CONTINUE;
+  }
+
+  /**
+   * Starts the periodic sweep of waiting flights. Called once Stairway is initialized.
+   *
+   * @param stairway Stairway instance of this node
+   * @param interval time between sweeps
+   */
+  public synchronized void startSweep(Stairway stairway, Duration interval) {
+    if (sweepExecutor != null) {
+      return;
+    }
+    sweepExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "lz-waiting-flight-sweep");
+              thread.setDaemon(true);
+              return thread;
+            });
+    sweepExecutor.scheduleWithFixedDelay(
+        () -> resumeWaitingFlights(stairway),
+        interval.toMillis(),
+        interval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  void resumeWaitingFlights(Stairway stairway) {
+    try {
+      FlightFilter filter =
+          new FlightFilter().addFilterFlightStatus(FlightFilterOp.EQUAL, FlightStatus.WAITING);
+      // list every page first: resumed flights leave the WAITING state and would shift the offsets
+      List<String> waitingFlightIds = new ArrayList<>();
+      List<FlightState> page;
+      do {
+        page = stairway.getFlights(waitingFlightIds.size(), SWEEP_BATCH_SIZE, filter);
+        page.forEach(flight -> waitingFlightIds.add(flight.getFlightId()));
+      } while (page.size() == SWEEP_BATCH_SIZE);
+      waitingFlightIds.forEach(flightId -> resume(stairway, flightId));
+    } catch (StairwayException e) {
+      logger.warn("Failed to list waiting flights", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      // keep the scheduled sweep alive
+      logger.warn("Unexpected failure while resuming waiting flights", e);
+    }
+  }
+
+  private void resume(Stairway stairway, String flightId) {
+    try {
+      if (stairway.resume(flightId)) {
+        logger.info("Resumed waiting flight {}", flightId);
+      }
+    } catch (StairwayException e) {
+      logger.warn("Failed to resume flight {}", flightId, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
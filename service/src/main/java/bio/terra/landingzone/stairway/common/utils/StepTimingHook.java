@@ -0,0 +1,227 @@
+package bio.terra.landingzone.stairway.common.utils;
+
+import bio.terra.landingzone.common.utils.MetricsHelper;
+import bio.terra.landingzone.db.FlightTimelineDao;
+import bio.terra.landingzone.job.model.StepTiming;
+import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.HookAction;
+import bio.terra.stairway.StairwayHook;
+import bio.terra.stairway.StepResult;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link StairwayHook} that measures how long flight steps take.
+ *
+ * <p>Every step attempt is recorded in a duration histogram tagged by step class, direction, retry
+ * count and landing zone definition, and is added to the flight's timeline in the landing zone
+ * database. The timeline keeps one row per step and direction with the first start, the last end
+ * and the number of attempts. Steps run inside a ParallelStepGroup are recorded through {@link
+ * #timeInnerStep}, with a row of their own next to the row of the group. The steps of a sub-flight
+ * started with {@link LandingZoneFlightMapKeys#PARENT_FLIGHT_ID} are part of the parent's timeline
+ * too. Recording failures are logged and never fail the flight. Timelines are removed by a periodic
+ * sweep once they are older than the completed flight retention of Stairway.
+ */
+@Component
+public class StepTimingHook implements StairwayHook {
+  private static final Logger logger = LoggerFactory.getLogger(StepTimingHook.class);
+  static final String NO_DEFINITION = "none";
+  // retries beyond this count share a tag, to keep the number of metric series bounded
+  private static final int MAX_RETRY_TAG = 3;
+
+  private final FlightTimelineDao flightTimelineDao;
+  private final Clock clock;
+  private final Map<String, String> flightDefinitions = new ConcurrentHashMap<>();
+  private final Map<String, StepAttempt> currentAttempts = new ConcurrentHashMap<>();
+  private ScheduledExecutorService retentionExecutor;
+
+  @Autowired
+  public StepTimingHook(FlightTimelineDao flightTimelineDao) {
+    this(flightTimelineDao, Clock.systemUTC());
+  }
+
+  StepTimingHook(FlightTimelineDao flightTimelineDao, Clock clock) {
+    this.flightTimelineDao = flightTimelineDao;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the recorded timeline of a flight, including the steps of its sub-flights.
+   *
+   * @param flightId id of the flight
+   * @return executed steps ordered by start time
+   */
+  public List<StepTiming> getTimeline(String flightId) {
+    return flightTimelineDao.getTimeline(flightId);
+  }
+
+  /**
+   * Starts the periodic removal of old timelines. Called once Stairway is initialized.
+   *
+   * @param retention time a timeline is kept after the last step of its flight ended
+   * @param interval time between removals
+   */
+  public synchronized void startRetention(Duration retention, Duration interval) {
+    if (retentionExecutor != null) {
+      return;
+    }
+    retentionExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "lz-flight-timeline-retention");
+              thread.setDaemon(true);
+              return thread;
+            });
+    retentionExecutor.scheduleWithFixedDelay(
+        () -> deleteExpiredTimelines(retention),
+        interval.toMillis(),
+        interval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  void deleteExpiredTimelines(Duration retention) {
+    try {
+      int deleted = flightTimelineDao.deleteTimelinesEndedBefore(clock.instant().minus(retention));
+      logger.info("Removed {} expired flight timeline steps.", deleted);
+    } catch (RuntimeException e) {
+      // keep the scheduled removal alive
+      logger.warn("Failed to remove expired flight timelines.", e);
+    }
+  }
+
+  @Override
+  public HookAction startFlight(FlightContext context) {
+    // read the definition once per flight instead of deserializing it for every step
+    var request =
+        context
+            .getInputParameters()
+            .get(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, LandingZoneRequest.class);
+    flightDefinitions.put(
+        context.getFlightId(), request != null ? request.definition() : NO_DEFINITION);
+    return HookAction.CONTINUE;
+  }
+
+  @Override
+  public HookAction startStep(FlightContext context) {
+    String direction = context.getDirection().name();
+    currentAttempts.compute(
+        context.getFlightId(),
+        (flightId, previous) -> {
+          // a step is retried when it starts again right after itself in the same direction
+          boolean retry =
+              previous != null
+                  && previous.stepIndex() == context.getStepIndex()
+                  && previous.direction().equals(direction);
+          return new StepAttempt(
+              context.getStepIndex(), direction, retry ? previous.retry() + 1 : 0, clock.instant());
+        });
+    return HookAction.CONTINUE;
+  }
+
+  @Override
+  public HookAction endStep(FlightContext context) {
+    StepAttempt attempt = currentAttempts.get(context.getFlightId());
+    if (attempt == null) {
+      return HookAction.CONTINUE;
+    }
+    record(
+        context,
+        new StepTiming(
+            context.getFlightId(),
+            attempt.stepIndex(),
+            StepTiming.STAIRWAY_STEP,
+            context.getStepClassName(),
+            attempt.direction(),
+            attempt.started(),
+            clock.instant(),
+            /* attempts= */ 1),
+        attempt.retry());
+    return HookAction.CONTINUE;
+  }
+
+  /**
+   * Runs and records one attempt of a step inside a step group, like Stairway steps are recorded by
+   * the hook.
+   *
+   * @param context context of the step running the group
+   * @param innerStepIndex position of the step in the group, starting at 1
+   * @param stepClassName class name of the step
+   * @param retry number of attempts of the step before this one
+   * @param attempt runs the step
+   * @return result of the attempt
+   */
+  public StepResult timeInnerStep(
+      FlightContext context,
+      int innerStepIndex,
+      String stepClassName,
+      int retry,
+      InnerStepAttempt attempt)
+      throws InterruptedException {
+    Instant started = clock.instant();
+    try {
+      return attempt.run();
+    } finally {
+      record(
+          context,
+          new StepTiming(
+              context.getFlightId(),
+              context.getStepIndex(),
+              innerStepIndex,
+              stepClassName,
+              context.getDirection().name(),
+              started,
+              clock.instant(),
+              /* attempts= */ 1),
+          retry);
+    }
+  }
+
+  private void record(FlightContext context, StepTiming stepTiming, int retry) {
+    String stepClassName = stepTiming.stepClassName();
+    try {
+      MetricsHelper.recordStepDuration(
+          stepClassName.substring(stepClassName.lastIndexOf('.') + 1),
+          stepTiming.direction(),
+          retry >= MAX_RETRY_TAG ? MAX_RETRY_TAG + "+" : String.valueOf(retry),
+          flightDefinitions.getOrDefault(context.getFlightId(), NO_DEFINITION),
+          Duration.between(stepTiming.started(), stepTiming.ended()));
+      String parentFlightId =
+          context.getInputParameters().get(LandingZoneFlightMapKeys.PARENT_FLIGHT_ID, String.class);
+      flightTimelineDao.upsertStepTiming(stepTiming, parentFlightId);
+    } catch (RuntimeException e) {
+      logger.warn(
+          "Failed to record timing of step {} of flight {}.",
+          stepTiming.stepIndex(),
+          context.getFlightId(),
+          e);
+    }
+  }
+
+  @Override
+  public HookAction endFlight(FlightContext context) {
+    flightDefinitions.remove(context.getFlightId());
+    currentAttempts.remove(context.getFlightId());
+    return HookAction.CONTINUE;
+  }
+
+  /** One attempt of a step inside a step group. */
+  @FunctionalInterface
+  public interface InnerStepAttempt {
+    StepResult run() throws InterruptedException;
+  }
+
+  private record StepAttempt(int stepIndex, String direction, int retry, Instant started) {}
+}
@@ -10,6 +10,14 @@ public class LandingZoneFlightMapKeys {
   public static final String STORAGE_ACCOUNT_NAME = "storageAccountName";
   public static final String CREATE_LANDING_ZONE_RESOURCES_INNER_FLIGHT_JOB_ID =
       "createLandingZoneResourcesInnerFlightJobId";
+  public static final String PARENT_FLIGHT_ID = "parentFlightId";
+  public static final String ADMISSION_CONTROLLED = "admissionControlled";
+  public static final String LANDING_ZONE_TARGET = "landingZoneTarget";
+  public static final String RESOURCE_DELETION_PLAN = "resourceDeletionPlan";
+  public static final String SOFT_DELETE = "softDelete";
+  public static final String RETAIN_RESOURCES_ON_FAILURE = "retainResourcesOnFailure";
+  public static final String REPAIR_ATTEMPT = "repairAttempt";
+  public static final String PREFLIGHT_CHECKS = "preflightChecks";
 
   private LandingZoneFlightMapKeys() {}
 }
@@ -1,12 +1,16 @@
 package bio.terra.landingzone.stairway.flight;
 
+import bio.terra.landingzone.stairway.flight.utils.AlertRuleTemplateCatalog;
+
 public class LandingZoneStepsDefinitionProviderFactory {
   private LandingZoneStepsDefinitionProviderFactory() {}
 
-  public static StepsDefinitionProvider create(StepsDefinitionFactoryType type) {
+  public static StepsDefinitionProvider create(
+      StepsDefinitionFactoryType type, AlertRuleTemplateCatalog alertRuleTemplateCatalog) {
     return switch (type) {
       case CROMWELL_BASE_DEFINITION_STEPS_PROVIDER_TYPE -> new CromwellStepsDefinitionProvider();
-      case PROTECTED_DATA_DEFINITION_STEPS_PROVIDER_NAME -> new ProtectedDataStepsDefinitionProvider();
+      case PROTECTED_DATA_DEFINITION_STEPS_PROVIDER_NAME ->
+          new ProtectedDataStepsDefinitionProvider(alertRuleTemplateCatalog);
     };
   }
 }
@@ -9,6 +9,7 @@ import bio.terra.landingzone.stairway.flight.create.resource.step.CreateAksLogSe
 import bio.terra.landingzone.stairway.flight.create.resource.step.CreateSentinelAlertRulesStep;
 import bio.terra.landingzone.stairway.flight.create.resource.step.CreateSentinelRunPlaybookAutomationRule;
 import bio.terra.landingzone.stairway.flight.create.resource.step.CreateSentinelStep;
+import bio.terra.landingzone.stairway.flight.utils.AlertRuleTemplateCatalog;
 import bio.terra.landingzone.stairway.flight.utils.AlertRulesHelper;
 import bio.terra.landingzone.stairway.flight.utils.ProtectedDataAzureStorageHelper;
 import bio.terra.stairway.RetryRule;
@@ -18,6 +19,12 @@ import java.util.List;
 import org.apache.commons.lang3.tuple.Pair;
 
 public class ProtectedDataStepsDefinitionProvider extends CromwellStepsDefinitionProvider {
+  private final AlertRuleTemplateCatalog alertRuleTemplateCatalog;
+
+  public ProtectedDataStepsDefinitionProvider(AlertRuleTemplateCatalog alertRuleTemplateCatalog) {
+    this.alertRuleTemplateCatalog = alertRuleTemplateCatalog;
+  }
+
   @Override
   public List<Pair<Step, RetryRule>> get(
       ArmManagers armManagers,
@@ -64,7 +71,8 @@ public class ProtectedDataStepsDefinitionProvider extends CromwellStepsDefinitio
                 armManagers,
                 parametersResolver,
                 resourceNameProvider,
-                new AlertRulesHelper(armManagers.securityInsightsManager()),
+                new AlertRulesHelper(
+                    armManagers.securityInsightsManager(), alertRuleTemplateCatalog),
                 landingZoneProtectedDataConfiguration),
             RetryRules.cloudLongRunning()));
     protectedDataSteps.add(
@@ -5,6 +5,7 @@ import bio.terra.landingzone.stairway.flight.create.resource.step.BaseResourceCr
 import bio.terra.landingzone.stairway.flight.exception.ResourceNameGenerationException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -47,6 +48,11 @@ public class ResourceNameProvider {
         });
   }
 
+  /** Name of a resource type, or empty when no step registered the type. */
+  public Optional<String> findName(String resourceType) {
+    return Optional.ofNullable(resourceTypeNames.get(resourceType));
+  }
+
   public String getName(String resourceType) {
     if (resourceTypeNames.containsKey(resourceType)) {
       return resourceTypeNames.get(resourceType);
@@ -0,0 +1,17 @@
+package bio.terra.landingzone.stairway.flight;
+
+import java.util.Set;
+
+/**
+ * Implemented by flight steps which declare the working map entries they read and write. Steps
+ * which do not share any entries are independent and can be executed concurrently. A step which
+ * doesn't implement this interface is treated as depending on every step before it and as a
+ * dependency of every step after it.
+ */
+public interface WorkingMapDependencies {
+  /** Keys of the working map entries which are read by the step. */
+  Set<String> getConsumedKeys();
+
+  /** Keys of the working map entries which are written by the step. */
+  Set<String> getProducedKeys();
+}
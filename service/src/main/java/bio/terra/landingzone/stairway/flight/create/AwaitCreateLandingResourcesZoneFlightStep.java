@@ -11,14 +11,28 @@ import bio.terra.stairway.Step;
 import bio.terra.stairway.StepResult;
 import bio.terra.stairway.StepStatus;
 import bio.terra.stairway.exception.RetryException;
+import java.time.Duration;
 import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Waits for the sub-flight creating the landing zone resources without holding a Stairway thread.
+ *
+ * <p>While the sub-flight runs this step returns {@link StepStatus#STEP_RESULT_WAIT}, which parks
+ * the parent flight. The sub-flight resumes the parent when it ends (see {@code
+ * ParentFlightResumeHook}) and the step is executed again to pick up the result.
+ */
 public class AwaitCreateLandingResourcesZoneFlightStep implements Step {
-  public static final int FLIGHT_POLL_SECONDS = 5;
+  private static final Logger logger =
+      LoggerFactory.getLogger(AwaitCreateLandingResourcesZoneFlightStep.class);
+
   // successful flight takes 10 min to deploy all resources,
   // in case last step failed we need to delete all the resources
   // let's limit such scenario with 30 min.
-  public static final int FLIGHT_POLL_CYCLES = 360;
+  public static final Duration SUB_FLIGHT_TIMEOUT = Duration.ofMinutes(30);
+
+  static final String WAIT_STARTED_AT_KEY = "awaitCreateLandingZoneResourcesStartedAtMillis";
 
   private final String jobIdKey;
 
@@ -29,8 +43,10 @@ public class AwaitCreateLandingResourcesZoneFlightStep implements Step {
   @Override
   public StepResult doStep(FlightContext context) throws InterruptedException, RetryException {
     var subFlightId = context.getWorkingMap().get(jobIdKey, String.class);
-    FlightState subFlightState =
-        context.getStairway().waitForFlight(subFlightId, FLIGHT_POLL_SECONDS, FLIGHT_POLL_CYCLES);
+    FlightState subFlightState = context.getStairway().getFlightState(subFlightId);
+    if (subFlightState.isActive()) {
+      return waitForSubFlight(context, subFlightId);
+    }
     if (subFlightState.getFlightStatus() != FlightStatus.SUCCESS) {
       return new StepResult(
           StepStatus.STEP_RESULT_FAILURE_FATAL,
@@ -67,6 +83,25 @@ public class AwaitCreateLandingResourcesZoneFlightStep implements Step {
     return StepResult.getStepResultSuccess();
   }
 
+  private StepResult waitForSubFlight(FlightContext context, String subFlightId) {
+    FlightMap workingMap = context.getWorkingMap();
+    Long waitStartedAt = workingMap.get(WAIT_STARTED_AT_KEY, Long.class);
+    long now = System.currentTimeMillis();
+    if (waitStartedAt == null) {
+      workingMap.put(WAIT_STARTED_AT_KEY, now);
+    } else if (now - waitStartedAt > SUB_FLIGHT_TIMEOUT.toMillis()) {
+      return new StepResult(
+          StepStatus.STEP_RESULT_FAILURE_FATAL,
+          new LandingZoneCreateException(
+              String.format(
+                  "Sub-flight with id='%s' did not complete in %s.",
+                  subFlightId, SUB_FLIGHT_TIMEOUT)));
+    }
+    logger.info(
+        "Sub-flight {} is still running; parking flight {}", subFlightId, context.getFlightId());
+    return new StepResult(StepStatus.STEP_RESULT_WAIT);
+  }
+
   @Override
   public StepResult undoStep(FlightContext context) throws InterruptedException {
     return StepResult.getStepResultSuccess();
@@ -2,13 +2,22 @@ package bio.terra.landingzone.stairway.flight.create;
 
 import bio.terra.landingzone.common.utils.LandingZoneFlightBeanBag;
 import bio.terra.landingzone.common.utils.RetryRules;
+import bio.terra.landingzone.job.AwaitJobAdmissionStep;
+import bio.terra.landingzone.library.landingzones.definition.factories.ParametersResolver;
+import bio.terra.landingzone.library.landingzones.definition.factories.validation.InputParametersValidationFactory;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
+import bio.terra.landingzone.stairway.flight.LandingZoneDefaultParameters;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.StepsDefinitionFactoryType;
+import bio.terra.landingzone.stairway.flight.create.resource.step.ValidateLandingZoneParametersStep;
 import bio.terra.landingzone.stairway.flight.exception.LandingZoneCreateException;
 import bio.terra.stairway.Flight;
 import bio.terra.stairway.FlightMap;
 import bio.terra.stairway.RetryRule;
 import bio.terra.stairway.Step;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
 
 /** Flight for creation of a Landing Zone */
 public class CreateLandingZoneFlight extends Flight {
@@ -29,6 +38,12 @@ public class CreateLandingZoneFlight extends Flight {
     final LandingZoneFlightBeanBag flightBeanBag =
         LandingZoneFlightBeanBag.getFromObject(applicationContext);
 
+    if (AwaitJobAdmissionStep.isRequired(inputParameters)) {
+      addStep(
+          new AwaitJobAdmissionStep(flightBeanBag.getJobAdmissionController()),
+          RetryRules.shortDatabase());
+    }
+
     addCreateSteps(flightBeanBag, inputParameters);
   }
 
@@ -40,18 +55,39 @@ public class CreateLandingZoneFlight extends Flight {
       throw new LandingZoneCreateException("Unable to find requested landing zone in input map");
     }
 
-    addStep(
-        new CreateSamResourceStep(flightBeanBag.getSamService()), RetryRules.shortExponential());
-
-    addStep(
-        new GetBillingProfileStep(flightBeanBag.getBpmService()), RetryRules.shortExponential());
+    // the prelude calls are independent network round trips, so they run concurrently; if any of
+    // them fails, the group undoes all of them, which deletes the Sam resource as before
+    List<Pair<Step, RetryRule>> prelude = new ArrayList<>();
+    prelude.add(
+        Pair.of(
+            new CreateSamResourceStep(flightBeanBag.getSamService()),
+            RetryRules.shortExponential()));
+    prelude.add(
+        Pair.of(
+            new GetBillingProfileStep(flightBeanBag.getBpmService()),
+            RetryRules.shortExponential()));
+    var definitionType = StepsDefinitionFactoryType.fromString(requestedLandingZone.definition());
+    // fail invalid requests before the resources flight is started; an unknown definition is
+    // reported by the resources flight
+    if (!requestedLandingZone.isAttaching() && definitionType != null) {
+      prelude.add(
+          Pair.of(
+              new ValidateLandingZoneParametersStep(
+                  InputParametersValidationFactory.buildValidators(definitionType),
+                  new ParametersResolver(
+                      requestedLandingZone.parameters(), LandingZoneDefaultParameters.get())),
+              RetryRules.shortExponential()));
+    }
+    addStep(new ParallelStepGroup(prelude, prelude.size(), flightBeanBag.getStepTimingHook()));
 
     if (!requestedLandingZone.isAttaching()) {
       addStep(
           new CreateLandingZoneResourcesFlightStep(
               flightBeanBag.getLandingZoneService(),
               requestedLandingZone,
-              LandingZoneFlightMapKeys.CREATE_LANDING_ZONE_RESOURCES_INNER_FLIGHT_JOB_ID));
+              LandingZoneFlightMapKeys.CREATE_LANDING_ZONE_RESOURCES_INNER_FLIGHT_JOB_ID,
+              flightBeanBag.getJobConfiguration().isRetainResourcesOnFailure(),
+              flightBeanBag.getJobConfiguration().isPreflightChecksEnabled()));
       addStep(
           new AwaitCreateLandingResourcesZoneFlightStep(
               LandingZoneFlightMapKeys.CREATE_LANDING_ZONE_RESOURCES_INNER_FLIGHT_JOB_ID));
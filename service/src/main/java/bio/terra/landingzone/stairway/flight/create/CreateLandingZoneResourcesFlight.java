@@ -2,6 +2,7 @@ package bio.terra.landingzone.stairway.flight.create;
 
 import bio.terra.landingzone.common.utils.LandingZoneFlightBeanBag;
 import bio.terra.landingzone.common.utils.RetryRules;
+import bio.terra.landingzone.db.LandingZoneDao;
 import bio.terra.landingzone.library.configuration.AzureCustomerUsageConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneAzureConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneProtectedDataConfiguration;
@@ -10,6 +11,7 @@ import bio.terra.landingzone.library.landingzones.definition.factories.Parameter
 import bio.terra.landingzone.library.landingzones.management.LandingZoneManager;
 import bio.terra.landingzone.model.LandingZoneTarget;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
+import bio.terra.landingzone.stairway.common.utils.StepTimingHook;
 import bio.terra.landingzone.stairway.flight.LandingZoneDefaultParameters;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.landingzone.stairway.flight.LandingZoneStepsDefinitionProviderFactory;
@@ -17,16 +19,30 @@ import bio.terra.landingzone.stairway.flight.ResourceNameProvider;
 import bio.terra.landingzone.stairway.flight.StepsDefinitionFactoryType;
 import bio.terra.landingzone.stairway.flight.StepsDefinitionProvider;
 import bio.terra.landingzone.stairway.flight.create.resource.step.AggregateLandingZoneResourcesStep;
+import bio.terra.landingzone.stairway.flight.create.resource.step.CheckBatchAccountQuotaStep;
+import bio.terra.landingzone.stairway.flight.create.resource.step.CheckResourceNameAvailabilityStep;
+import bio.terra.landingzone.stairway.flight.create.resource.step.CheckSkuAvailabilityStep;
 import bio.terra.landingzone.stairway.flight.exception.LandingZoneCreateException;
+import bio.terra.landingzone.stairway.flight.utils.RegionalSkuCatalog;
 import bio.terra.profile.model.ProfileModel;
 import bio.terra.stairway.Flight;
 import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.RetryRule;
+import bio.terra.stairway.Step;
 import com.azure.core.management.AzureEnvironment;
 import com.azure.core.management.profile.AzureProfile;
 import com.azure.identity.ClientSecretCredentialBuilder;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CreateLandingZoneResourcesFlight extends Flight {
+  private static final Logger logger =
+      LoggerFactory.getLogger(CreateLandingZoneResourcesFlight.class);
 
   private final StepsDefinitionProvider stepsDefinitionProvider;
   private final LandingZoneRequest landingZoneRequest;
@@ -34,6 +50,13 @@ public class CreateLandingZoneResourcesFlight extends Flight {
   private final ResourceNameProvider resourceNameProvider;
   private final ParametersResolver parametersResolver;
   private final LandingZoneProtectedDataConfiguration landingZoneProtectedDataConfiguration;
+  private final int maxParallelSteps;
+  private final boolean parallelUndo;
+  private final boolean retainResourcesOnFailure;
+  private final boolean preflightChecks;
+  private final LandingZoneDao landingZoneDao;
+  private final RegionalSkuCatalog regionalSkuCatalog;
+  private final StepTimingHook stepTimingHook;
 
   /**
    * All subclasses must provide a constructor with this signature.
@@ -62,7 +85,8 @@ public class CreateLandingZoneResourcesFlight extends Flight {
 
     stepsDefinitionProvider =
         LandingZoneStepsDefinitionProviderFactory.create(
-            StepsDefinitionFactoryType.fromString(landingZoneRequest.definition()));
+            StepsDefinitionFactoryType.fromString(landingZoneRequest.definition()),
+            flightBeanBag.getAlertRuleTemplateCatalog());
     armManagers =
         initializeArmManagers(
             inputParameters,
@@ -70,21 +94,90 @@ public class CreateLandingZoneResourcesFlight extends Flight {
             flightBeanBag.getAzureCustomerUsageConfiguration());
     parametersResolver =
         new ParametersResolver(landingZoneRequest.parameters(), LandingZoneDefaultParameters.get());
+    maxParallelSteps = flightBeanBag.getJobConfiguration().getMaxParallelResourceSteps();
+    parallelUndo = flightBeanBag.getJobConfiguration().isParallelUndoEnabled();
+    // part of the input, so that a recovered flight keeps its steps
+    retainResourcesOnFailure =
+        Boolean.TRUE.equals(
+            inputParameters.get(
+                LandingZoneFlightMapKeys.RETAIN_RESOURCES_ON_FAILURE, Boolean.class));
+    // a repair resumes a creation whose resources already exist, so their names are taken
+    preflightChecks =
+        Boolean.TRUE.equals(
+                inputParameters.get(LandingZoneFlightMapKeys.PREFLIGHT_CHECKS, Boolean.class))
+            && inputParameters.get(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, Integer.class) == null;
+    landingZoneDao = flightBeanBag.getLandingZoneDao();
+    regionalSkuCatalog = flightBeanBag.getRegionalSkuCatalog();
+    stepTimingHook = flightBeanBag.getStepTimingHook();
 
     addCreateSteps();
   }
 
   private void addCreateSteps() {
-    stepsDefinitionProvider
-        .get(
-            armManagers,
-            parametersResolver,
-            resourceNameProvider,
-            landingZoneProtectedDataConfiguration)
-        .forEach(pair -> addStep(pair.getLeft(), pair.getRight()));
+    var plan =
+        StepsExecutionPlan.build(
+            stepsDefinitionProvider.get(
+                armManagers,
+                parametersResolver,
+                resourceNameProvider,
+                landingZoneProtectedDataConfiguration),
+            maxParallelSteps);
+    logger.info("Landing zone resources plan: {}", plan.getReport());
+    var stages = plan.getStages();
+    if (preflightChecks) {
+      // names are registered while the resource steps are built
+      addStep(new ParallelStepGroup(preflightCheckSteps(), maxParallelSteps, stepTimingHook));
+    }
+    if (retainResourcesOnFailure) {
+      stages = stages.stream().map(CreateLandingZoneResourcesFlight::retained).toList();
+      Set<String> retainedKeys =
+          stages.stream()
+              .flatMap(List::stream)
+              .flatMap(step -> ((RetainedResourceStep) step.getLeft()).getProducedKeys().stream())
+              .collect(Collectors.toSet());
+      // undone last, after the other steps kept their resources
+      addStep(
+          new RetainLandingZoneResourcesStep(landingZoneDao, retainedKeys),
+          RetryRules.shortDatabase());
+    }
+    // independent steps are grouped into a single flight step; stages keep their relative order,
+    // so undo still runs dependents before their dependencies, even when a stage is undone
+    // concurrently
+    stages.forEach(
+        stage -> {
+          if (stage.size() == 1) {
+            addStep(stage.get(0).getLeft(), stage.get(0).getRight());
+          } else {
+            addStep(new ParallelStepGroup(stage, maxParallelSteps, parallelUndo, stepTimingHook));
+          }
+        });
 
     // last step to aggregate results
     addStep(new AggregateLandingZoneResourcesStep(), RetryRules.shortExponential());
+    if (retainResourcesOnFailure) {
+      addStep(
+          new DeleteRetainedLandingZoneResourcesStep(landingZoneDao), RetryRules.shortDatabase());
+    }
+  }
+
+  private List<Pair<Step, RetryRule>> preflightCheckSteps() {
+    return List.of(
+        Pair.of(
+            new CheckSkuAvailabilityStep(armManagers, parametersResolver, regionalSkuCatalog),
+            RetryRules.cloud()),
+        Pair.of(new CheckBatchAccountQuotaStep(armManagers), RetryRules.cloud()),
+        Pair.of(
+            new CheckResourceNameAvailabilityStep(armManagers, resourceNameProvider),
+            RetryRules.cloud()));
+  }
+
+  private static List<Pair<Step, RetryRule>> retained(List<Pair<Step, RetryRule>> stage) {
+    return stage.stream()
+        .map(
+            step ->
+                Pair.<Step, RetryRule>of(
+                    new RetainedResourceStep(step.getLeft()), step.getRight()))
+        .toList();
   }
 
   private ArmManagers initializeArmManagers(
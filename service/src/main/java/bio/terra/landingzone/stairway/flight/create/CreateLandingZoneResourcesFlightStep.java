@@ -19,14 +19,26 @@ public class CreateLandingZoneResourcesFlightStep implements Step {
   private final LandingZoneService landingZoneService;
   private final LandingZoneRequest landingZoneRequest;
   private final String jobIdKey;
+  private final boolean retainResourcesOnFailure;
+  private final boolean preflightChecks;
 
+  /**
+   * @param retainResourcesOnFailure keep the resources in place when the sub-flight fails, so that
+   *     a repair job can resume it; repair jobs always retain their resources
+   * @param preflightChecks check quotas, SKUs and names before creating any resource; repair jobs
+   *     skip the checks
+   */
   public CreateLandingZoneResourcesFlightStep(
       LandingZoneService landingZoneService,
       LandingZoneRequest landingZoneRequest,
-      String jobIdKey) {
+      String jobIdKey,
+      boolean retainResourcesOnFailure,
+      boolean preflightChecks) {
     this.landingZoneService = landingZoneService;
     this.landingZoneRequest = landingZoneRequest;
     this.jobIdKey = jobIdKey;
+    this.retainResourcesOnFailure = retainResourcesOnFailure;
+    this.preflightChecks = preflightChecks;
   }
 
   @Override
@@ -43,7 +55,9 @@ public class CreateLandingZoneResourcesFlightStep implements Step {
     var landingZoneId =
         context.getInputParameters().get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
 
-    var subflightId = getSubflightId(landingZoneId.toString());
+    var repairAttempt =
+        context.getInputParameters().get(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, Integer.class);
+    var subflightId = getSubflightId(landingZoneId.toString(), repairAttempt);
     if (isFlightAlreadyExists(context, subflightId)) {
       return StepResult.getStepResultSuccess();
     }
@@ -66,7 +80,11 @@ public class CreateLandingZoneResourcesFlightStep implements Step {
         billingProfile,
         landingZoneId,
         bearerToken,
-        resultPath + subflightId);
+        resultPath + subflightId,
+        context.getFlightId(),
+        retainResourcesOnFailure || repairAttempt != null,
+        preflightChecks && repairAttempt == null,
+        repairAttempt);
 
     return StepResult.getStepResultSuccess();
   }
@@ -91,11 +109,14 @@ public class CreateLandingZoneResourcesFlightStep implements Step {
     return flightAlreadyExists;
   }
 
-  private String getSubflightId(String landingZoneId) {
+  private String getSubflightId(String landingZoneId, Integer repairAttempt) {
     // subFlightId is limited up to 36 characters
     // use first 8 characters and last 4 characters of landingzoneId
     int len = landingZoneId.length();
-    return String.format(
-        "resFlight_%s", landingZoneId.substring(0, 8) + "_" + landingZoneId.substring(len - 4));
+    var subflightId =
+        String.format(
+            "resFlight_%s", landingZoneId.substring(0, 8) + "_" + landingZoneId.substring(len - 4));
+    // the sub-flight of the failed attempt still exists
+    return repairAttempt == null ? subflightId : subflightId + "_r" + repairAttempt;
   }
 }
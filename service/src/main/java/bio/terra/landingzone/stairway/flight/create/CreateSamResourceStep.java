@@ -4,17 +4,19 @@ import bio.terra.common.iam.BearerToken;
 import bio.terra.landingzone.service.iam.LandingZoneSamService;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
 import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.FlightMap;
 import bio.terra.stairway.Step;
 import bio.terra.stairway.StepResult;
 import bio.terra.stairway.exception.RetryException;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class CreateSamResourceStep implements Step {
+public class CreateSamResourceStep implements Step, WorkingMapDependencies {
   private static final Logger logger = LoggerFactory.getLogger(CreateSamResourceStep.class);
 
   private final LandingZoneSamService samService;
@@ -54,4 +56,14 @@ public class CreateSamResourceStep implements Step {
     samService.deleteLandingZone(bearerToken, landingZoneId);
     return StepResult.getStepResultSuccess();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
@@ -0,0 +1,34 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.exception.RetryException;
+import java.util.UUID;
+
+/**
+ * Last step of a resources flight which retains its resources on failure. Once all resources are
+ * created, nothing is left to repair.
+ */
+public class DeleteRetainedLandingZoneResourcesStep implements Step {
+  private final LandingZoneDao landingZoneDao;
+
+  public DeleteRetainedLandingZoneResourcesStep(LandingZoneDao landingZoneDao) {
+    this.landingZoneDao = landingZoneDao;
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws InterruptedException, RetryException {
+    var landingZoneId =
+        context.getInputParameters().get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+    landingZoneDao.deleteRetainedLandingZoneResources(landingZoneId);
+    return StepResult.getStepResultSuccess();
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) throws InterruptedException {
+    return StepResult.getStepResultSuccess();
+  }
+}
@@ -4,6 +4,7 @@ import bio.terra.common.iam.BearerToken;
 import bio.terra.landingzone.service.bpm.LandingZoneBillingProfileManagerService;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
 import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.FlightMap;
@@ -11,9 +12,13 @@ import bio.terra.stairway.Step;
 import bio.terra.stairway.StepResult;
 import bio.terra.stairway.StepStatus;
 import bio.terra.stairway.exception.RetryException;
+import java.util.Set;
 
-/** Resolves the billing profile in BPM for use downstream in CreateLandingZoneFlight. */
-public class GetBillingProfileStep implements Step {
+/**
+ * Resolves the billing profile in BPM for use downstream in CreateLandingZoneFlight. Lookups go
+ * through the billing profile cache of {@link LandingZoneBillingProfileManagerService}.
+ */
+public class GetBillingProfileStep implements Step, WorkingMapDependencies {
   private final LandingZoneBillingProfileManagerService bpmService;
 
   public GetBillingProfileStep(LandingZoneBillingProfileManagerService bpmService) {
@@ -47,4 +52,14 @@ public class GetBillingProfileStep implements Step {
   public StepResult undoStep(FlightContext context) throws InterruptedException {
     return StepResult.getStepResultSuccess();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(LandingZoneFlightMapKeys.BILLING_PROFILE);
+  }
 }
@@ -0,0 +1,238 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import bio.terra.landingzone.common.utils.BlockingTaskExecutors;
+import bio.terra.landingzone.stairway.common.utils.StepTimingHook;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.RetryRule;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import bio.terra.stairway.exception.RetryException;
+import com.google.common.annotations.VisibleForTesting;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Executes a stage of independent steps (see {@link StepsExecutionPlan}) as a single Stairway step.
+ *
+ * <p>Steps run concurrently with bounded parallelism, each one with its own retry rule. The flight
+ * working map is not thread safe, so every step works on a private copy which holds the entries it
+ * declared; entries written by a step are copied back into the flight working map when the step
+ * finishes. The group fails with the result of the first step that fails, after the other steps in
+ * the stage have completed.
+ *
+ * <p>Undo runs the undo of every step in reverse order. With parallel undo the undos run
+ * concurrently instead, like the steps themselves: steps of a stage don't depend on each other, and
+ * Stairway undoes the stages of a flight one after another, so resources are still deleted before
+ * the resources they depend on (e.g. private endpoints and DNS links before the vnet). Undo of
+ * every step is attempted even when another one fails.
+ *
+ * <p>Stairway only sees the group, so every attempt of a step in the group, including its retries,
+ * is recorded in the flight's timeline by the {@link StepTimingHook}.
+ */
+public class ParallelStepGroup implements Step {
+  private static final Logger logger = LoggerFactory.getLogger(ParallelStepGroup.class);
+
+  private final List<Pair<Step, RetryRule>> steps;
+  private final int maxParallelism;
+  private final boolean parallelUndo;
+  @Nullable private final StepTimingHook stepTimingHook;
+  private final Object workingMapLock = new Object();
+
+  public ParallelStepGroup(
+      List<Pair<Step, RetryRule>> steps,
+      int maxParallelism,
+      @Nullable StepTimingHook stepTimingHook) {
+    this(steps, maxParallelism, false, stepTimingHook);
+  }
+
+  public ParallelStepGroup(
+      List<Pair<Step, RetryRule>> steps,
+      int maxParallelism,
+      boolean parallelUndo,
+      @Nullable StepTimingHook stepTimingHook) {
+    for (var step : steps) {
+      if (!(step.getLeft() instanceof WorkingMapDependencies)) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Step %s must declare its working map dependencies to run in parallel",
+                step.getLeft().getClass().getSimpleName()));
+      }
+    }
+    this.steps = List.copyOf(steps);
+    this.maxParallelism = Math.max(1, maxParallelism);
+    this.parallelUndo = parallelUndo;
+    this.stepTimingHook = stepTimingHook;
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws InterruptedException, RetryException {
+    logger.info(
+        "Running steps {} in parallel (max parallelism {}).", getStepNames(), maxParallelism);
+    return runAll(context, true);
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) throws InterruptedException {
+    if (parallelUndo) {
+      logger.info(
+          "Undoing steps {} in parallel (max parallelism {}).", getStepNames(), maxParallelism);
+      return runAll(context, false);
+    }
+    StepResult result = StepResult.getStepResultSuccess();
+    for (int i = steps.size() - 1; i >= 0; i--) {
+      var stepResult = runWithRetry(i, context, false);
+      if (!stepResult.isSuccess()) {
+        result = stepResult;
+      }
+    }
+    return result;
+  }
+
+  private StepResult runAll(FlightContext context, boolean doStep) throws InterruptedException {
+    ExecutorService executor =
+        BlockingTaskExecutors.newBoundedExecutor(
+            "lz-parallel-steps", Math.min(maxParallelism, steps.size()));
+    Map<String, String> mdc = MDC.getCopyOfContextMap();
+    try {
+      List<Future<StepResult>> futures = new ArrayList<>();
+      for (int i = 0; i < steps.size(); i++) {
+        int stepIndex = i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                  }
+                  try {
+                    return runWithRetry(stepIndex, context, doStep);
+                  } finally {
+                    MDC.clear();
+                  }
+                }));
+      }
+      StepResult result = StepResult.getStepResultSuccess();
+      for (var future : futures) {
+        StepResult stepResult = getResult(future);
+        if (result.isSuccess() && !stepResult.isSuccess()) {
+          result = stepResult;
+        }
+      }
+      return result;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static StepResult getResult(Future<StepResult> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof InterruptedException interruptedException) {
+        throw interruptedException;
+      }
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, e.getCause());
+    }
+  }
+
+  private StepResult runWithRetry(int stepIndex, FlightContext context, boolean doStep)
+      throws InterruptedException {
+    Step step = steps.get(stepIndex).getLeft();
+    RetryRule retryRule = steps.get(stepIndex).getRight();
+    retryRule.initialize();
+    FlightMap stepWorkingMap = copyEntries(context.getWorkingMap(), new FlightMap(), step);
+    FlightContext stepContext = withWorkingMap(context, stepWorkingMap);
+    try {
+      for (int retry = 0; ; retry++) {
+        StepResult result = runAttempt(stepIndex, stepContext, doStep, retry);
+        if (result.getStepStatus() != StepStatus.STEP_RESULT_FAILURE_RETRY
+            || !retryRule.retryRequest(stepContext)) {
+          return result;
+        }
+        logger.info("Retrying {} of step {}", doStep ? "do" : "undo", stepName(step));
+      }
+    } finally {
+      // keep whatever the step recorded, even on failure, so that its undo can find it
+      copyEntries(stepWorkingMap, context.getWorkingMap(), step);
+    }
+  }
+
+  private StepResult runAttempt(int stepIndex, FlightContext context, boolean doStep, int retry)
+      throws InterruptedException {
+    Step step = steps.get(stepIndex).getLeft();
+    StepTimingHook.InnerStepAttempt attempt =
+        () -> {
+          try {
+            return doStep ? step.doStep(context) : step.undoStep(context);
+          } catch (RetryException e) {
+            return new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY, e);
+          }
+        };
+    if (stepTimingHook == null) {
+      return attempt.run();
+    }
+    return stepTimingHook.timeInnerStep(
+        context, stepIndex + 1, step.getClass().getName(), retry, attempt);
+  }
+
+  private FlightMap copyEntries(FlightMap from, FlightMap to, Step step) {
+    var dependencies = (WorkingMapDependencies) step;
+    Set<String> keys = new HashSet<>(dependencies.getConsumedKeys());
+    keys.addAll(dependencies.getProducedKeys());
+    // the flight working map is shared by all steps of the group
+    synchronized (workingMapLock) {
+      for (String key : keys) {
+        String value = from.getRaw(key);
+        if (value != null) {
+          to.putRaw(key, value);
+        }
+      }
+    }
+    return to;
+  }
+
+  private static FlightContext withWorkingMap(FlightContext context, FlightMap workingMap) {
+    return (FlightContext)
+        Proxy.newProxyInstance(
+            FlightContext.class.getClassLoader(),
+            new Class<?>[] {FlightContext.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getWorkingMap") && method.getParameterCount() == 0) {
+                return workingMap;
+              }
+              try {
+                return method.invoke(context, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  @VisibleForTesting
+  List<Step> getSteps() {
+    return steps.stream().map(Pair::getLeft).toList();
+  }
+
+  private List<String> getStepNames() {
+    return steps.stream().map(step -> stepName(step.getLeft())).toList();
+  }
+
+  private static String stepName(Step step) {
+    return step.getClass().getSimpleName();
+  }
+}
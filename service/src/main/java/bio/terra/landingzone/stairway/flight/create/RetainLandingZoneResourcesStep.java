@@ -0,0 +1,112 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.exception.LandingZoneCreateException;
+import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
+import bio.terra.profile.model.ProfileModel;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import bio.terra.stairway.exception.RetryException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * First step of a resources flight which retains its resources on failure.
+ *
+ * <p>The steps which create resources are wrapped in {@link RetainedResourceStep}, so their undo
+ * keeps the resources in place. This step is undone last, and saves the working map entries of the
+ * completed steps, i.e. the ids of the created resources, for a repair job. In a repair flight the
+ * step restores these entries before the resource steps run, so they pick up from the step which
+ * failed. The managed resource group is saved with the entries, so that resources nobody repairs
+ * can be removed by the LandingZoneTeardownReaper.
+ */
+public class RetainLandingZoneResourcesStep implements Step {
+  private static final Logger logger =
+      LoggerFactory.getLogger(RetainLandingZoneResourcesStep.class);
+
+  private final LandingZoneDao landingZoneDao;
+  private final Set<String> retainedKeys;
+
+  /**
+   * @param landingZoneDao landing zone DAO
+   * @param retainedKeys working map keys produced by the resource steps
+   */
+  public RetainLandingZoneResourcesStep(LandingZoneDao landingZoneDao, Set<String> retainedKeys) {
+    this.landingZoneDao = landingZoneDao;
+    this.retainedKeys = Set.copyOf(retainedKeys);
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws InterruptedException, RetryException {
+    FlightMap inputMap = context.getInputParameters();
+    FlightUtils.validateRequiredEntries(inputMap, LandingZoneFlightMapKeys.LANDING_ZONE_ID);
+    var landingZoneId = inputMap.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+    var repairAttempt = inputMap.get(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, Integer.class);
+    if (repairAttempt == null) {
+      return StepResult.getStepResultSuccess();
+    }
+
+    try {
+      var retained = landingZoneDao.getRetainedLandingZoneResources(landingZoneId);
+      if (retained.isEmpty()) {
+        return new StepResult(
+            StepStatus.STEP_RESULT_FAILURE_FATAL,
+            new LandingZoneCreateException(
+                String.format(
+                    "No retained resources found to repair landing zone %s.", landingZoneId)));
+      }
+      FlightMap workingMap = context.getWorkingMap();
+      retained.get().workingMap().entrySet().stream()
+          .filter(entry -> retainedKeys.contains(entry.getKey()))
+          .forEach(entry -> workingMap.putRaw(entry.getKey(), entry.getValue()));
+      logger.info(
+          "Repair attempt {} of landing zone {} resumes flight {}.",
+          repairAttempt,
+          landingZoneId,
+          retained.get().failedFlightId());
+    } catch (DataAccessException e) {
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY, e);
+    }
+    return StepResult.getStepResultSuccess();
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) throws InterruptedException {
+    FlightMap inputMap = context.getInputParameters();
+    var landingZoneId = inputMap.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+    var billingProfile =
+        inputMap.get(LandingZoneFlightMapKeys.BILLING_PROFILE, ProfileModel.class);
+    FlightMap workingMap = context.getWorkingMap();
+    Map<String, String> entries = new HashMap<>();
+    for (String key : retainedKeys) {
+      String value = workingMap.getRaw(key);
+      if (value != null) {
+        entries.put(key, value);
+      }
+    }
+    try {
+      landingZoneDao.retainLandingZoneResources(
+          landingZoneId,
+          LandingZoneTarget.fromBillingProfile(billingProfile),
+          inputMap.getRaw(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS),
+          entries,
+          context.getFlightId());
+    } catch (DataAccessException e) {
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY, e);
+    }
+    logger.warn(
+        "Creation of landing zone {} failed; its resources are retained for a repair job.",
+        landingZoneId);
+    return StepResult.getStepResultSuccess();
+  }
+}
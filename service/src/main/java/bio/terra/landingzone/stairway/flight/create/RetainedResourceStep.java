@@ -0,0 +1,80 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.exception.RetryException;
+import java.util.HashSet;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a landing zone resource step whose resources are retained when the flight fails.
+ *
+ * <p>Undo keeps the resources in place; {@link RetainLandingZoneResourcesStep} saves what the
+ * completed steps recorded in the working map instead. A completed step leaves a marker in the
+ * working map, so a repair flight, whose working map is restored from the failed flight, skips the
+ * steps which completed before and resumes from the step which failed.
+ */
+public class RetainedResourceStep implements Step, WorkingMapDependencies {
+  private static final Logger logger = LoggerFactory.getLogger(RetainedResourceStep.class);
+
+  static final String COMPLETED_KEY_PREFIX = "retainedStepCompleted.";
+
+  private final Step step;
+
+  public RetainedResourceStep(Step step) {
+    this.step = step;
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws InterruptedException, RetryException {
+    if (context.getWorkingMap().containsKey(getCompletedKey())) {
+      logger.info("Step {} completed in a previous attempt, skipping it.", getStepName());
+      return StepResult.getStepResultSuccess();
+    }
+    StepResult result = step.doStep(context);
+    if (result.isSuccess()) {
+      context.getWorkingMap().put(getCompletedKey(), true);
+    }
+    return result;
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) {
+    // the resources are kept for a repair job
+    return StepResult.getStepResultSuccess();
+  }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return step instanceof WorkingMapDependencies dependencies
+        ? dependencies.getConsumedKeys()
+        : Set.of();
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    Set<String> keys = new HashSet<>();
+    if (step instanceof WorkingMapDependencies dependencies) {
+      keys.addAll(dependencies.getProducedKeys());
+    }
+    keys.add(getCompletedKey());
+    return keys;
+  }
+
+  Step getStep() {
+    return step;
+  }
+
+  private String getCompletedKey() {
+    // steps of a landing zone definition are unique, and their names don't change between attempts
+    return COMPLETED_KEY_PREFIX + getStepName();
+  }
+
+  private String getStepName() {
+    return step.getClass().getSimpleName();
+  }
+}
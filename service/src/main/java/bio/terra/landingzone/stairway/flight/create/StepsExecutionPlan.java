@@ -0,0 +1,162 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
+import bio.terra.stairway.RetryRule;
+import bio.terra.stairway.Step;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Groups an ordered list of steps into stages of independent steps.
+ *
+ * <p>Dependencies are derived from {@link WorkingMapDependencies}: a step depends on an earlier
+ * step when it reads an entry the earlier step writes, or when both touch the same entry and at
+ * least one of them writes it. Steps which don't declare their entries act as barriers. Each step
+ * is placed in the stage right after the last of its dependencies, so that every stage only
+ * contains steps whose dependencies are complete once the previous stages are done. Executing the
+ * stages in order (and undoing them in reverse order) therefore preserves the semantics of the
+ * original list.
+ *
+ * <p>The plan also reports the critical path (longest dependency chain) and the expected speedup
+ * compared to running the steps one by one. Every step is counted as one unit of work.
+ */
+public class StepsExecutionPlan {
+  private final List<Pair<Step, RetryRule>> steps;
+  private final List<List<Pair<Step, RetryRule>>> stages;
+  private final List<Step> criticalPath;
+  private final int maxParallelism;
+
+  private StepsExecutionPlan(
+      List<Pair<Step, RetryRule>> steps,
+      List<List<Pair<Step, RetryRule>>> stages,
+      List<Step> criticalPath,
+      int maxParallelism) {
+    this.steps = steps;
+    this.stages = stages;
+    this.criticalPath = criticalPath;
+    this.maxParallelism = maxParallelism;
+  }
+
+  /**
+   * Builds the plan for the steps.
+   *
+   * @param steps steps in their sequential order together with their retry rules
+   * @param maxParallelism maximum number of steps executed at the same time
+   * @return execution plan
+   */
+  public static StepsExecutionPlan build(List<Pair<Step, RetryRule>> steps, int maxParallelism) {
+    int count = steps.size();
+    int[] stageIndex = new int[count];
+    int[] chainLength = new int[count];
+    int[] chainPredecessor = new int[count];
+    int stageCount = 0;
+
+    for (int current = 0; current < count; current++) {
+      stageIndex[current] = 0;
+      chainLength[current] = 1;
+      chainPredecessor[current] = -1;
+      for (int previous = 0; previous < current; previous++) {
+        if (dependsOn(steps.get(current).getLeft(), steps.get(previous).getLeft())) {
+          stageIndex[current] = Math.max(stageIndex[current], stageIndex[previous] + 1);
+          if (chainLength[previous] + 1 > chainLength[current]) {
+            chainLength[current] = chainLength[previous] + 1;
+            chainPredecessor[current] = previous;
+          }
+        }
+      }
+      stageCount = Math.max(stageCount, stageIndex[current] + 1);
+    }
+
+    List<List<Pair<Step, RetryRule>>> stages = new ArrayList<>();
+    for (int stage = 0; stage < stageCount; stage++) {
+      stages.add(new ArrayList<>());
+    }
+    for (int i = 0; i < count; i++) {
+      stages.get(stageIndex[i]).add(steps.get(i));
+    }
+
+    LinkedList<Step> criticalPath = new LinkedList<>();
+    int last = -1;
+    for (int i = 0; i < count; i++) {
+      if (last < 0 || chainLength[i] > chainLength[last]) {
+        last = i;
+      }
+    }
+    for (int i = last; i >= 0; i = chainPredecessor[i]) {
+      criticalPath.addFirst(steps.get(i).getLeft());
+    }
+
+    return new StepsExecutionPlan(
+        List.copyOf(steps),
+        stages.stream().map(List::copyOf).toList(),
+        Collections.unmodifiableList(criticalPath),
+        Math.max(1, maxParallelism));
+  }
+
+  static boolean dependsOn(Step step, Step previousStep) {
+    if (!(step instanceof WorkingMapDependencies current)
+        || !(previousStep instanceof WorkingMapDependencies previous)) {
+      return true;
+    }
+    return intersects(current.getConsumedKeys(), previous.getProducedKeys())
+        || intersects(current.getProducedKeys(), previous.getConsumedKeys())
+        || intersects(current.getProducedKeys(), previous.getProducedKeys());
+  }
+
+  private static boolean intersects(Set<String> first, Set<String> second) {
+    Set<String> common = new HashSet<>(first);
+    common.retainAll(second);
+    return !common.isEmpty();
+  }
+
+  /** Stages in execution order. Steps within a stage keep their original relative order. */
+  public List<List<Pair<Step, RetryRule>>> getStages() {
+    return stages;
+  }
+
+  public List<Step> getCriticalPath() {
+    return criticalPath;
+  }
+
+  public int getMaxParallelism() {
+    return maxParallelism;
+  }
+
+  /** Units of work when steps are executed one by one. */
+  public int getSequentialLength() {
+    return steps.size();
+  }
+
+  /** Units of work on the longest path when stages are executed with bounded parallelism. */
+  public int getParallelLength() {
+    return stages.stream()
+        .mapToInt(stage -> (stage.size() + maxParallelism - 1) / maxParallelism)
+        .sum();
+  }
+
+  public double getSpeedup() {
+    int parallelLength = getParallelLength();
+    return parallelLength == 0 ? 1.0 : (double) getSequentialLength() / parallelLength;
+  }
+
+  /** Human-readable summary of the plan, suitable for logging. */
+  public String getReport() {
+    return String.format(
+        "%d steps in %d stages (max parallelism %d), expected speedup %.2fx; critical path (%d"
+            + " steps): %s",
+        getSequentialLength(),
+        stages.size(),
+        maxParallelism,
+        getSpeedup(),
+        criticalPath.size(),
+        criticalPath.stream()
+            .map(step -> step.getClass().getSimpleName())
+            .collect(Collectors.joining(" -> ")));
+  }
+}
@@ -0,0 +1,93 @@
+package bio.terra.landingzone.stairway.flight.create.resource.step;
+
+import static bio.terra.landingzone.stairway.flight.utils.FlightUtils.maybeThrowAzureInterruptedException;
+
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
+import bio.terra.landingzone.stairway.flight.exception.LandingZoneCreateException;
+import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
+import bio.terra.profile.model.ProfileModel;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import bio.terra.stairway.exception.RetryException;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class of the checks which run before any landing zone resource is created.
+ *
+ * <p>A check looks for problems which would otherwise only surface when Azure rejects a resource
+ * minutes into the deployment, after which everything created so far has to be undone. Problems
+ * fail the flight right away. Checks are best effort: when Azure can't answer, the check is
+ * skipped and the deployment finds out the usual way.
+ */
+public abstract class BasePreflightCheckStep implements Step, WorkingMapDependencies {
+  private static final Logger logger = LoggerFactory.getLogger(BasePreflightCheckStep.class);
+
+  protected final ArmManagers armManagers;
+
+  protected BasePreflightCheckStep(ArmManagers armManagers) {
+    this.armManagers = armManagers;
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws InterruptedException, RetryException {
+    FlightUtils.validateRequiredEntries(
+        context.getInputParameters(), LandingZoneFlightMapKeys.BILLING_PROFILE);
+    var billingProfile =
+        context
+            .getInputParameters()
+            .get(LandingZoneFlightMapKeys.BILLING_PROFILE, ProfileModel.class);
+    List<String> problems;
+    try {
+      var region =
+          armManagers
+              .azureResourceManager()
+              .resourceGroups()
+              .getByName(billingProfile.getManagedResourceGroupId())
+              .regionName();
+      problems = check(LandingZoneTarget.fromBillingProfile(billingProfile), region);
+    } catch (RuntimeException maybeInterrupt) {
+      var notInterrupt = maybeThrowAzureInterruptedException(maybeInterrupt);
+      logger.warn("Preflight check {} skipped.", getClass().getSimpleName(), notInterrupt);
+      return StepResult.getStepResultSuccess();
+    }
+    if (!problems.isEmpty()) {
+      var message = String.join(" ", problems);
+      logger.error("Preflight check {} failed: {}", getClass().getSimpleName(), message);
+      return new StepResult(
+          StepStatus.STEP_RESULT_FAILURE_FATAL, new LandingZoneCreateException(message));
+    }
+    return StepResult.getStepResultSuccess();
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) throws InterruptedException {
+    return StepResult.getStepResultSuccess();
+  }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
+
+  /**
+   * Checks the landing zone against the subscription and region it is deployed to.
+   *
+   * @param landingZoneTarget tenant, subscription and managed resource group of the landing zone
+   * @param region region of the managed resource group
+   * @return human-readable problems, empty when the deployment can go ahead
+   */
+  protected abstract List<String> check(LandingZoneTarget landingZoneTarget, String region);
+}
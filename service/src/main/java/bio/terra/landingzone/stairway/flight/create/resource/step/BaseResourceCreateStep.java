@@ -8,6 +8,7 @@ import bio.terra.landingzone.stairway.common.model.TargetManagedResourceGroup;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.landingzone.stairway.flight.ResourceNameProvider;
 import bio.terra.landingzone.stairway.flight.ResourceNameRequirements;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
 import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
 import bio.terra.profile.model.ProfileModel;
 import bio.terra.stairway.FlightContext;
@@ -24,7 +25,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public abstract class BaseResourceCreateStep implements Step {
+public abstract class BaseResourceCreateStep implements Step, WorkingMapDependencies {
   private static final Logger logger = LoggerFactory.getLogger(BaseResourceCreateStep.class);
 
   protected static final String FAILED_TO_CREATE_RESOURCE =
@@ -99,7 +100,7 @@ public abstract class BaseResourceCreateStep implements Step {
         logger.info(RESOURCE_DELETED, getResourceType(), resourceId.get());
       }
     } catch (ManagementException e) {
-      if (StringUtils.equalsIgnoreCase(e.getValue().getCode(), "ResourceNotFound")) {
+      if (isNotFound(e)) {
         logger.error(RESOURCE_DELETED_OR_DOESNT_EXIST, getResourceType(), resourceId.orElse("n/a"));
         return StepResult.getStepResultSuccess();
       }
@@ -109,6 +110,19 @@ public abstract class BaseResourceCreateStep implements Step {
     return StepResult.getStepResultSuccess();
   }
 
+  /**
+   * Undo may run more than once, and concurrently with the undo of independent steps, so a
+   * resource which is already gone counts as deleted.
+   */
+  private static boolean isNotFound(ManagementException e) {
+    if (e.getResponse() != null && e.getResponse().getStatusCode() == 404) {
+      return true;
+    }
+    return e.getValue() != null
+        && (StringUtils.equalsIgnoreCase(e.getValue().getCode(), "ResourceNotFound")
+            || StringUtils.equalsIgnoreCase(e.getValue().getCode(), "NotFound"));
+  }
+
   public abstract List<ResourceNameRequirements> getResourceNameRequirements();
 
   protected abstract void createResource(FlightContext context, ArmManagers armManagers);
@@ -0,0 +1,36 @@
+package bio.terra.landingzone.stairway.flight.create.resource.step;
+
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import java.util.List;
+
+/**
+ * Checks that the subscription can have one more Batch account in the region. Without headroom the
+ * Batch account creation fails with the error recognized by BatchAccountQuotaExceedExceptionRule.
+ */
+public class CheckBatchAccountQuotaStep extends BasePreflightCheckStep {
+
+  public CheckBatchAccountQuotaStep(ArmManagers armManagers) {
+    super(armManagers);
+  }
+
+  @Override
+  protected List<String> check(LandingZoneTarget landingZoneTarget, String region) {
+    var accountQuota = armManagers.batchManager().locations().getQuotas(region).accountQuota();
+    if (accountQuota == null) {
+      return List.of();
+    }
+    long accounts =
+        armManagers.batchManager().batchAccounts().list().stream()
+            .filter(account -> region.equalsIgnoreCase(account.regionName()))
+            .count();
+    if (accounts < accountQuota) {
+      return List.of();
+    }
+    return List.of(
+        String.format(
+            "The regional Batch account quota for the subscription has been reached: %d of %d"
+                + " Batch accounts exist in region '%s'.",
+            accounts, accountQuota, region));
+  }
+}
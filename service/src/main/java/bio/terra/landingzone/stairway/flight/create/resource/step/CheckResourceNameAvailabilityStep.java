@@ -0,0 +1,56 @@
+package bio.terra.landingzone.stairway.flight.create.resource.step;
+
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.stairway.flight.ResourceNameProvider;
+import com.azure.resourcemanager.batch.models.CheckNameAvailabilityParameters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that the generated names of the resources whose names are globally unique, the storage
+ * account and the Batch account, are not taken yet.
+ */
+public class CheckResourceNameAvailabilityStep extends BasePreflightCheckStep {
+  private final ResourceNameProvider resourceNameProvider;
+
+  public CheckResourceNameAvailabilityStep(
+      ArmManagers armManagers, ResourceNameProvider resourceNameProvider) {
+    super(armManagers);
+    this.resourceNameProvider = resourceNameProvider;
+  }
+
+  @Override
+  protected List<String> check(LandingZoneTarget landingZoneTarget, String region) {
+    List<String> problems = new ArrayList<>();
+    resourceNameProvider
+        .findName(CreateStorageAccountStep.RESOURCE_TYPE)
+        .ifPresent(
+            name -> {
+              var result =
+                  armManagers.azureResourceManager().storageAccounts().checkNameAvailability(name);
+              if (!Boolean.TRUE.equals(result.isAvailable())) {
+                problems.add(
+                    String.format(
+                        "Storage account name '%s' is not available: %s", name, result.message()));
+              }
+            });
+    resourceNameProvider
+        .findName(CreateBatchAccountStep.RESOURCE_TYPE)
+        .ifPresent(
+            name -> {
+              var result =
+                  armManagers
+                      .batchManager()
+                      .locations()
+                      .checkNameAvailability(
+                          region, new CheckNameAvailabilityParameters().withName(name));
+              if (!Boolean.TRUE.equals(result.nameAvailable())) {
+                problems.add(
+                    String.format(
+                        "Batch account name '%s' is not available: %s", name, result.message()));
+              }
+            });
+    return problems;
+  }
+}
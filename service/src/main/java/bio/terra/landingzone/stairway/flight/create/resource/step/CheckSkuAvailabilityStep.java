@@ -0,0 +1,52 @@
+package bio.terra.landingzone.stairway.flight.create.resource.step;
+
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import bio.terra.landingzone.library.landingzones.definition.factories.CromwellBaseResourcesFactory;
+import bio.terra.landingzone.library.landingzones.definition.factories.ParametersResolver;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.stairway.flight.utils.RegionalSkuCatalog;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Checks that the requested AKS machine type and Postgres SKU are offered in the region. */
+public class CheckSkuAvailabilityStep extends BasePreflightCheckStep {
+  private final ParametersResolver parametersResolver;
+  private final RegionalSkuCatalog regionalSkuCatalog;
+
+  public CheckSkuAvailabilityStep(
+      ArmManagers armManagers,
+      ParametersResolver parametersResolver,
+      RegionalSkuCatalog regionalSkuCatalog) {
+    super(armManagers);
+    this.parametersResolver = parametersResolver;
+    this.regionalSkuCatalog = regionalSkuCatalog;
+  }
+
+  @Override
+  protected List<String> check(LandingZoneTarget landingZoneTarget, String region) {
+    var skus =
+        regionalSkuCatalog.getSkus(
+            landingZoneTarget.azureSubscriptionId(),
+            region,
+            RegionalSkuCatalog.SkuSource.azure(armManagers));
+    List<String> problems = new ArrayList<>();
+    var aksMachineType =
+        parametersResolver.getValue(
+            CromwellBaseResourcesFactory.ParametersNames.AKS_MACHINE_TYPE.name());
+    if (!skus.isVmSizeAvailable(aksMachineType)) {
+      problems.add(
+          String.format(
+              "AKS machine type '%s' is not available in region '%s' for this subscription.",
+              aksMachineType, region));
+    }
+    var postgresSku =
+        parametersResolver.getValue(
+            CromwellBaseResourcesFactory.ParametersNames.POSTGRES_SERVER_SKU.name());
+    if (!skus.isPostgresSkuAvailable(postgresSku)) {
+      problems.add(
+          String.format(
+              "Postgres server SKU '%s' is not available in region '%s'.", postgresSku, region));
+    }
+    return problems;
+  }
+}
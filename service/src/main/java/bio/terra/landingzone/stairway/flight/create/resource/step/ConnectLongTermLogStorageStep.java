@@ -12,6 +12,7 @@ import bio.terra.stairway.FlightContext;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -108,4 +109,16 @@ public class ConnectLongTermLogStorageStep extends BaseResourceCreateStep {
   public List<ResourceNameRequirements> getResourceNameRequirements() {
     return List.of(new ResourceNameRequirements(getResourceType(), MAX_DATA_EXPORT_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_RESOURCE_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(DATA_EXPORT_ID, DATA_EXPORT_RESOURCE_KEY);
+  }
 }
@@ -29,6 +29,7 @@ import com.azure.resourcemanager.monitor.models.SyslogDataSource;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -272,4 +273,18 @@ public class CreateAksCostOptimizationDataCollectionRulesStep extends BaseResour
   private static String getRuleName(String aksRegion, String aksName) {
     return String.format("MSCI-%s-%s", aksRegion, aksName);
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_WORKSPACE_ID,
+        CreateAksStep.AKS_ID,
+        CreateAksStep.AKS_RESOURCE_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(AKS_COST_OPTIMIZATION_DATA_COLLECTION_RULE_ID);
+  }
 }
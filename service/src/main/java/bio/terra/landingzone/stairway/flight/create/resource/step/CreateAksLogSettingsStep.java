@@ -15,6 +15,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -121,4 +122,14 @@ public class CreateAksLogSettingsStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_DIAGNOSTIC_SETTING_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY, CreateAksStep.AKS_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
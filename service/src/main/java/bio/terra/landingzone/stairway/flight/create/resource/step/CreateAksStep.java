@@ -20,6 +20,7 @@ import com.azure.resourcemanager.containerservice.models.ManagedClusterSecurityP
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,7 +83,7 @@ public class CreateAksStep extends BaseResourceCreateStep {
       aksPartial = aksPartial.withAutoScaling(min, max);
     }
 
-    var aks =
+    var aksDefinition =
         aksPartial
             .attach()
             .withDnsPrefix(resourceNameProvider.getName(getResourceType() + DNS_SUFFIX_KEY))
@@ -91,10 +92,9 @@ public class CreateAksStep extends BaseResourceCreateStep {
                     LandingZoneTagKeys.LANDING_ZONE_ID.toString(),
                     landingZoneId.toString(),
                     LandingZoneTagKeys.LANDING_ZONE_PURPOSE.toString(),
-                    ResourcePurpose.SHARED_RESOURCE.toString()))
-            .create();
-
-    enableWorkloadIdentity(aks);
+                    ResourcePurpose.SHARED_RESOURCE.toString()));
+    enableWorkloadIdentity(aksDefinition);
+    var aks = aksDefinition.create();
 
     context.getWorkingMap().put(AKS_ID, aks.id());
     context
@@ -114,21 +114,23 @@ public class CreateAksStep extends BaseResourceCreateStep {
     logger.info(RESOURCE_CREATED, getResourceType(), aks.id(), getMRGName(context));
   }
 
-  /** see https://github.com/Azure/azure-sdk-for-java/issues/31271 */
-  private static void enableWorkloadIdentity(KubernetesCluster aks) {
-    KubernetesCluster.Update update = aks.update();
-
-    var securityProfile = aks.innerModel().securityProfile();
+  /**
+   * Enables workload identity and the OIDC issuer as part of the cluster creation, so that
+   * provisioning AKS is a single long-running operation. The fluent definition doesn't expose
+   * either setting (see https://github.com/Azure/azure-sdk-for-java/issues/31271), so they are set
+   * on the model the definition sends.
+   */
+  private static void enableWorkloadIdentity(
+      KubernetesCluster.DefinitionStages.WithCreate aksDefinition) {
+    var managedCluster = ((KubernetesCluster) aksDefinition).innerModel();
+    var securityProfile = managedCluster.securityProfile();
     if (securityProfile == null) {
       securityProfile = new ManagedClusterSecurityProfile();
-      aks.innerModel().withSecurityProfile(securityProfile);
+      managedCluster.withSecurityProfile(securityProfile);
     }
     securityProfile.withWorkloadIdentity(
         new ManagedClusterSecurityProfileWorkloadIdentity().withEnabled(true));
-    aks.innerModel().withOidcIssuerProfile(new ManagedClusterOidcIssuerProfile().withEnabled(true));
-
-    update.apply();
-    aks.refresh();
+    managedCluster.withOidcIssuerProfile(new ManagedClusterOidcIssuerProfile().withEnabled(true));
   }
 
   @Override
@@ -158,4 +160,14 @@ public class CreateAksStep extends BaseResourceCreateStep {
             getResourceType() + DNS_SUFFIX_KEY,
             ResourceNameGenerator.MAX_AKS_DNS_PREFIX_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY, CreateVnetStep.VNET_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(AKS_ID, AKS_OIDC_ISSUER_URL, AKS_RESOURCE_KEY);
+  }
 }
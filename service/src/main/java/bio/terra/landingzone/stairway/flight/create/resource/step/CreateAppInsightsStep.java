@@ -13,6 +13,7 @@ import com.azure.resourcemanager.applicationinsights.models.ApplicationType;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,4 +83,16 @@ public class CreateAppInsightsStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_APP_INSIGHTS_COMPONENT_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_WORKSPACE_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(APP_INSIGHT_ID);
+  }
 }
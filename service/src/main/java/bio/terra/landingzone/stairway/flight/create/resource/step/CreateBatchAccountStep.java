@@ -13,6 +13,7 @@ import bio.terra.stairway.FlightContext;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +22,7 @@ public class CreateBatchAccountStep extends BaseResourceCreateStep {
   private static final Logger logger = LoggerFactory.getLogger(CreateBatchAccountStep.class);
   public static final String BATCH_ACCOUNT_ID = "BATCH_ACCOUNT_ID";
   public static final String BATCH_ACCOUNT_RESOURCE_KEY = "BATCH_ACCOUNT";
+  public static final String RESOURCE_TYPE = "BatchAccount";
 
   public CreateBatchAccountStep(
       ArmManagers armManagers,
@@ -72,7 +74,7 @@ public class CreateBatchAccountStep extends BaseResourceCreateStep {
 
   @Override
   protected String getResourceType() {
-    return "BatchAccount";
+    return RESOURCE_TYPE;
   }
 
   @Override
@@ -86,4 +88,14 @@ public class CreateBatchAccountStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_BATCH_ACCOUNT_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(BATCH_ACCOUNT_ID, BATCH_ACCOUNT_RESOURCE_KEY);
+  }
 }
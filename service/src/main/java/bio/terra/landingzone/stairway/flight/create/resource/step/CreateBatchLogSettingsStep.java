@@ -9,6 +9,7 @@ import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.StepResult;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,4 +76,17 @@ public class CreateBatchLogSettingsStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_DIAGNOSTIC_SETTING_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateBatchAccountStep.BATCH_ACCOUNT_ID,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_WORKSPACE_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
@@ -3,6 +3,7 @@ package bio.terra.landingzone.stairway.flight.create.resource.step;
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneResource;
 import bio.terra.landingzone.stairway.common.model.TargetManagedResourceGroup;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
 import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.Step;
@@ -17,11 +18,12 @@ import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1ServiceAccount;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 
-public class CreateLandingZoneFederatedIdentityStep implements Step {
+public class CreateLandingZoneFederatedIdentityStep implements Step, WorkingMapDependencies {
   private static final Logger logger =
       LoggerFactory.getLogger(CreateLandingZoneFederatedIdentityStep.class);
   public static final String k8sNamespace = "default";
@@ -165,4 +167,19 @@ public class CreateLandingZoneFederatedIdentityStep implements Step {
             TargetManagedResourceGroup.class)
         .name();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLandingZoneIdentityStep.LANDING_ZONE_IDENTITY_RESOURCE_KEY,
+        CreateLandingZoneIdentityStep.LANDING_ZONE_IDENTITY_CLIENT_ID,
+        CreateAksStep.AKS_OIDC_ISSUER_URL,
+        CreateAksStep.AKS_RESOURCE_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
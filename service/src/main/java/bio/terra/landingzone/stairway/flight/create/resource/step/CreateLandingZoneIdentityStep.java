@@ -13,6 +13,7 @@ import bio.terra.stairway.FlightContext;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -92,4 +93,18 @@ public class CreateLandingZoneIdentityStep extends BaseResourceCreateStep {
     return List.of(
         new ResourceNameRequirements(getResourceType(), ResourceNameGenerator.UAMI_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(
+        LANDING_ZONE_IDENTITY_ID,
+        LANDING_ZONE_IDENTITY_PRINCIPAL_ID,
+        LANDING_ZONE_IDENTITY_CLIENT_ID,
+        LANDING_ZONE_IDENTITY_RESOURCE_KEY);
+  }
 }
@@ -28,6 +28,7 @@ import com.azure.resourcemanager.monitor.models.SyslogDataSource;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -171,4 +172,16 @@ public class CreateLogAnalyticsDataCollectionRulesStep extends BaseResourceCreat
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_DATA_COLLECTION_RULE_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_WORKSPACE_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(DATA_COLLECTION_RULE_NAME);
+  }
 }
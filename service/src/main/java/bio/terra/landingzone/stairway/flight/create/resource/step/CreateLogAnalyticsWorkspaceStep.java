@@ -18,6 +18,7 @@ import com.azure.core.management.exception.ManagementException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -154,4 +155,14 @@ public class CreateLogAnalyticsWorkspaceStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_LOG_ANALYTICS_WORKSPACE_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(LOG_ANALYTICS_WORKSPACE_ID, LOG_ANALYTICS_RESOURCE_KEY);
+  }
 }
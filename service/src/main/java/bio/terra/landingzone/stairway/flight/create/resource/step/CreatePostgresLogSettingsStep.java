@@ -8,6 +8,7 @@ import bio.terra.stairway.FlightContext;
 import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,4 +71,17 @@ public class CreatePostgresLogSettingsStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_DIAGNOSTIC_SETTING_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreatePostgresqlDbStep.POSTGRESQL_ID,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_WORKSPACE_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
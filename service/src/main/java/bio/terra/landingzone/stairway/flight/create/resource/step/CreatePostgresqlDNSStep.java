@@ -12,6 +12,7 @@ import bio.terra.stairway.FlightContext;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,4 +84,14 @@ public class CreatePostgresqlDNSStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_PRIVATE_DNS_ZONE_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(POSTGRESQL_DNS_ID, POSTGRESQL_DNS_RESOURCE_KEY);
+  }
 }
@@ -30,6 +30,7 @@ import com.azure.resourcemanager.postgresqlflexibleserver.models.Storage;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -195,4 +196,21 @@ public class CreatePostgresqlDbStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_POSTGRESQL_SERVER_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    // the private DNS zone has to be linked to the vnet before the server is created
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateVnetStep.VNET_ID,
+        CreatePostgresqlDNSStep.POSTGRESQL_DNS_ID,
+        CreateVirtualNetworkLinkStep.VNET_LINK_ID,
+        CreateLandingZoneIdentityStep.LANDING_ZONE_IDENTITY_RESOURCE_KEY,
+        CreateLandingZoneIdentityStep.LANDING_ZONE_IDENTITY_PRINCIPAL_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(POSTGRESQL_ID, POSTGRESQL_RESOURCE_KEY);
+  }
 }
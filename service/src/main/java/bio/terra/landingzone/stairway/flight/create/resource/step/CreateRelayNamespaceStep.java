@@ -13,6 +13,7 @@ import bio.terra.stairway.FlightContext;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,4 +87,14 @@ public class CreateRelayNamespaceStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_RELAY_NS_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(RELAY_NAMESPACE_ID, RELAY_NAMESPACE_RESOURCE_KEY);
+  }
 }
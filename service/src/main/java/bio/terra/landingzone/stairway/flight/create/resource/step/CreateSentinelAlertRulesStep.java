@@ -1,5 +1,6 @@
 package bio.terra.landingzone.stairway.flight.create.resource.step;
 
+import bio.terra.landingzone.common.utils.BlockingTaskExecutors;
 import bio.terra.landingzone.library.configuration.LandingZoneProtectedDataConfiguration;
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.library.landingzones.definition.factories.ParametersResolver;
@@ -12,21 +13,37 @@ import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.StepResult;
 import bio.terra.stairway.StepStatus;
 import com.azure.core.management.exception.ManagementException;
+import com.azure.resourcemanager.securityinsights.fluent.models.AlertRuleInner;
 import com.azure.resourcemanager.securityinsights.models.AlertSeverity;
 import com.azure.resourcemanager.securityinsights.models.MLBehaviorAnalyticsAlertRule;
 import com.azure.resourcemanager.securityinsights.models.ScheduledAlertRule;
 import com.azure.resourcemanager.securityinsights.models.TriggerOperator;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 public class CreateSentinelAlertRulesStep extends BaseResourceCreateStep {
   private static final Logger logger = LoggerFactory.getLogger(CreateSentinelAlertRulesStep.class);
+  public static final String APPLIED_ALERT_RULES = "APPLIED_SENTINEL_ALERT_RULES";
+  private static final List<String> TRANSIENT_ERROR_CODES =
+      List.of("BadRequest", "BadArgumentError", "SemanticError");
+  private static final Duration RULE_RETRY_INTERVAL = Duration.ofSeconds(5);
+
   private final AlertRulesHelper alertRulesHelper;
   private final LandingZoneProtectedDataConfiguration landingZoneProtectedDataConfiguration;
+  private final Duration ruleRetryInterval;
 
   public CreateSentinelAlertRulesStep(
       ArmManagers armManagers,
@@ -34,9 +51,26 @@ public class CreateSentinelAlertRulesStep extends BaseResourceCreateStep {
       ResourceNameProvider resourceNameProvider,
       AlertRulesHelper alertRuleAdapter,
       LandingZoneProtectedDataConfiguration landingZoneProtectedDataConfiguration) {
+    this(
+        armManagers,
+        parametersResolver,
+        resourceNameProvider,
+        alertRuleAdapter,
+        landingZoneProtectedDataConfiguration,
+        RULE_RETRY_INTERVAL);
+  }
+
+  CreateSentinelAlertRulesStep(
+      ArmManagers armManagers,
+      ParametersResolver parametersResolver,
+      ResourceNameProvider resourceNameProvider,
+      AlertRulesHelper alertRuleAdapter,
+      LandingZoneProtectedDataConfiguration landingZoneProtectedDataConfiguration,
+      Duration ruleRetryInterval) {
     super(armManagers, parametersResolver, resourceNameProvider);
     this.alertRulesHelper = alertRuleAdapter;
     this.landingZoneProtectedDataConfiguration = landingZoneProtectedDataConfiguration;
+    this.ruleRetryInterval = ruleRetryInterval;
   }
 
   @Override
@@ -58,10 +92,12 @@ public class CreateSentinelAlertRulesStep extends BaseResourceCreateStep {
     var mrgName = getMRGName(context);
     var lawName = logAnalyticsWorkspaceResourceName.get();
 
-    createScheduledAlertRules(mrgName, lawName);
-    createMlAlertRules(mrgName, lawName);
-    createNrtAlertRules(mrgName, lawName);
-    createCustomRules(mrgName, lawName);
+    var rules = new LinkedHashMap<String, Supplier<AlertRuleInner>>();
+    addScheduledAlertRules(rules, mrgName, lawName);
+    addMlAlertRules(rules);
+    addNrtAlertRules(rules, mrgName, lawName);
+    addCustomRules(rules);
+    applyAlertRules(context, rules, mrgName, lawName);
   }
 
   @Override
@@ -98,44 +134,158 @@ public class CreateSentinelAlertRulesStep extends BaseResourceCreateStep {
     return Optional.empty();
   }
 
-  private void createScheduledAlertRules(String mrgName, String workspaceName) {
+  /**
+   * Applies the rules which have not been applied by a previous attempt of this step. Rules are
+   * applied concurrently and each rule is retried on its own when it fails with a transient error.
+   * The IDs of applied rules are recorded in the working map, so that a retry of the step only
+   * re-applies the rules that failed.
+   */
+  private void applyAlertRules(
+      FlightContext context,
+      Map<String, Supplier<AlertRuleInner>> rules,
+      String mrgName,
+      String workspaceName) {
+    Set<String> appliedRules = new LinkedHashSet<>(getAppliedRules(context));
+    var pendingRules =
+        rules.entrySet().stream().filter(rule -> !appliedRules.contains(rule.getKey())).toList();
+    if (pendingRules.isEmpty()) {
+      return;
+    }
+    logger.info(
+        "Applying {} sentinel alert rules, {} already applied.",
+        pendingRules.size(),
+        appliedRules.size());
+
+    int concurrency =
+        Math.min(
+            Math.max(1, landingZoneProtectedDataConfiguration.getSentinelAlertRuleMaxConcurrency()),
+            pendingRules.size());
+    ExecutorService executor =
+        BlockingTaskExecutors.newBoundedExecutor("lz-sentinel-alert-rules", concurrency);
+    Map<String, String> mdc = MDC.getCopyOfContextMap();
+    RuntimeException failure = null;
+    try {
+      var futures = new LinkedHashMap<String, Future<?>>();
+      pendingRules.forEach(
+          rule ->
+              futures.put(
+                  rule.getKey(),
+                  executor.submit(
+                      () -> {
+                        if (mdc != null) {
+                          MDC.setContextMap(mdc);
+                        }
+                        try {
+                          applyAlertRule(rule.getKey(), rule.getValue(), mrgName, workspaceName);
+                        } finally {
+                          MDC.clear();
+                        }
+                      })));
+      for (var future : futures.entrySet()) {
+        try {
+          future.getValue().get();
+          appliedRules.add(future.getKey());
+        } catch (ExecutionException e) {
+          logger.warn("Failed to apply sentinel alert rule {}.", future.getKey(), e.getCause());
+          if (failure == null) {
+            failure =
+                e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new RuntimeException(e.getCause());
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      executor.shutdownNow();
+      context.getWorkingMap().put(APPLIED_ALERT_RULES, appliedRules.toArray(String[]::new));
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void applyAlertRule(
+      String ruleId, Supplier<AlertRuleInner> ruleBuilder, String mrgName, String workspaceName) {
+    int maxAttempts =
+        Math.max(1, landingZoneProtectedDataConfiguration.getSentinelAlertRuleMaxAttempts());
+    for (int attempt = 1; ; attempt++) {
+      try {
+        alertRulesHelper.createAlertRule(ruleBuilder.get(), ruleId, mrgName, workspaceName);
+        return;
+      } catch (ManagementException e) {
+        if (attempt >= maxAttempts || !isTransientError(e)) {
+          throw e;
+        }
+        logger.info(
+            "Transient error {} while applying sentinel alert rule {}, attempt {} of {}.",
+            e.getValue().getCode(),
+            ruleId,
+            attempt,
+            maxAttempts);
+      }
+      try {
+        Thread.sleep(ruleRetryInterval.multipliedBy(attempt).toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  private static List<String> getAppliedRules(FlightContext context) {
+    var appliedRules = context.getWorkingMap().get(APPLIED_ALERT_RULES, String[].class);
+    return appliedRules == null ? List.of() : List.of(appliedRules);
+  }
+
+  private static boolean isTransientError(ManagementException e) {
+    return e.getValue() != null
+        && TRANSIENT_ERROR_CODES.stream()
+            .anyMatch(code -> StringUtils.equalsIgnoreCase(e.getValue().getCode(), code));
+  }
+
+  private void addScheduledAlertRules(
+      Map<String, Supplier<AlertRuleInner>> rules, String mrgName, String workspaceName) {
     landingZoneProtectedDataConfiguration
         .getSentinelScheduledAlertRuleTemplateIds()
         .forEach(
-            ruleTemplateId -> {
-              var rule =
-                  alertRulesHelper.buildScheduledAlertRuleFromTemplate(
-                      mrgName, workspaceName, ruleTemplateId);
-              alertRulesHelper.createAlertRule(rule, ruleTemplateId, mrgName, workspaceName);
-            });
+            ruleTemplateId ->
+                rules.put(
+                    ruleTemplateId,
+                    () ->
+                        alertRulesHelper.buildScheduledAlertRuleFromTemplate(
+                            mrgName, workspaceName, ruleTemplateId)));
   }
 
-  private void createMlAlertRules(String mrgName, String workspaceName) {
+  private void addMlAlertRules(Map<String, Supplier<AlertRuleInner>> rules) {
     landingZoneProtectedDataConfiguration
         .getSentinelMlRuleTemplateIds()
         .forEach(
-            ruleTemplateId -> {
-              var rule =
-                  new MLBehaviorAnalyticsAlertRule()
-                      .withAlertRuleTemplateName(ruleTemplateId)
-                      .withEnabled(true);
-              alertRulesHelper.createAlertRule(rule, ruleTemplateId, mrgName, workspaceName);
-            });
+            ruleTemplateId ->
+                rules.put(
+                    ruleTemplateId,
+                    () ->
+                        new MLBehaviorAnalyticsAlertRule()
+                            .withAlertRuleTemplateName(ruleTemplateId)
+                            .withEnabled(true)));
   }
 
-  private void createNrtAlertRules(String mrgName, String workspaceName) {
+  private void addNrtAlertRules(
+      Map<String, Supplier<AlertRuleInner>> rules, String mrgName, String workspaceName) {
     landingZoneProtectedDataConfiguration
         .getSentinelNrtRuleTemplateIds()
         .forEach(
-            ruleTemplateId -> {
-              var rule =
-                  alertRulesHelper.buildNrtAlertRuleFromTemplate(
-                      mrgName, workspaceName, ruleTemplateId);
-              alertRulesHelper.createAlertRule(rule, ruleTemplateId, mrgName, workspaceName);
-            });
+            ruleTemplateId ->
+                rules.put(
+                    ruleTemplateId,
+                    () ->
+                        alertRulesHelper.buildNrtAlertRuleFromTemplate(
+                            mrgName, workspaceName, ruleTemplateId)));
   }
 
-  private void createCustomRules(String mrgName, String workspaceName) {
+  private void addCustomRules(Map<String, Supplier<AlertRuleInner>> rules) {
     var fileAccessAttemptsRule =
         new ScheduledAlertRule()
             .withDisplayName("File access attempts by unauthorized user accounts")
@@ -159,12 +309,25 @@ public class CreateSentinelAlertRulesStep extends BaseResourceCreateStep {
             .withSeverity(AlertSeverity.INFORMATIONAL)
             .withTriggerOperator(TriggerOperator.GREATER_THAN)
             .withTriggerThreshold(0);
-    alertRulesHelper.createAlertRule(
-        fileAccessAttemptsRule, "UnauthorizedFileAccessAttempts", mrgName, workspaceName);
+    rules.put("UnauthorizedFileAccessAttempts", () -> fileAccessAttemptsRule);
   }
 
   @Override
   public List<ResourceNameRequirements> getResourceNameRequirements() {
     return List.of();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    // alert rules can only be added once Sentinel is onboarded
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_RESOURCE_KEY,
+        CreateSentinelStep.SENTINEL_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(APPLIED_ALERT_RULES);
+  }
 }
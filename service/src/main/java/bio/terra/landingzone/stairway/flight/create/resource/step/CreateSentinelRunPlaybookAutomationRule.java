@@ -15,6 +15,7 @@ import com.azure.resourcemanager.securityinsights.models.TriggersOn;
 import com.azure.resourcemanager.securityinsights.models.TriggersWhen;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -94,4 +95,18 @@ public class CreateSentinelRunPlaybookAutomationRule extends BaseResourceCreateS
   public List<ResourceNameRequirements> getResourceNameRequirements() {
     return List.of();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    // automation rules can only be added once Sentinel is onboarded
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_RESOURCE_KEY,
+        CreateSentinelStep.SENTINEL_ID);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
@@ -9,6 +9,7 @@ import bio.terra.landingzone.stairway.flight.exception.MissingRequiredFieldsExce
 import bio.terra.stairway.FlightContext;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,4 +79,16 @@ public class CreateSentinelStep extends BaseResourceCreateStep {
     // we don't generate name for sentinel. Azure accepts only 'default' as a name
     return List.of();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_RESOURCE_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(SENTINEL_ID, SENTINEL_RESOURCE_KEY);
+  }
 }
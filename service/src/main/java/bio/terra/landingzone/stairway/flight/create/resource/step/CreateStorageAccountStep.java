@@ -16,6 +16,7 @@ import com.azure.resourcemanager.storage.models.StorageAccountSkuType;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,7 @@ public class CreateStorageAccountStep extends BaseResourceCreateStep {
   private static final Logger logger = LoggerFactory.getLogger(CreateStorageAccountStep.class);
   public static final String STORAGE_ACCOUNT_ID = "STORAGE_ACCOUNT_ID";
   public static final String STORAGE_ACCOUNT_RESOURCE_KEY = "STORAGE_ACCOUNT";
+  public static final String RESOURCE_TYPE = "StorageAccount";
 
   public CreateStorageAccountStep(
       ArmManagers armManagers,
@@ -83,7 +85,7 @@ public class CreateStorageAccountStep extends BaseResourceCreateStep {
 
   @Override
   protected String getResourceType() {
-    return "StorageAccount";
+    return RESOURCE_TYPE;
   }
 
   @Override
@@ -97,4 +99,17 @@ public class CreateStorageAccountStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_STORAGE_ACCOUNT_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(
+        STORAGE_ACCOUNT_ID,
+        LandingZoneFlightMapKeys.STORAGE_ACCOUNT_NAME,
+        STORAGE_ACCOUNT_RESOURCE_KEY);
+  }
 }
@@ -15,6 +15,7 @@ import com.azure.resourcemanager.privatedns.fluent.models.VirtualNetworkLinkInne
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,4 +100,17 @@ public class CreateVirtualNetworkLinkStep extends BaseResourceCreateStep {
         new ResourceNameRequirements(
             getResourceType(), ResourceNameGenerator.MAX_PRIVATE_VNET_LINK_NAME_LENGTH));
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(
+        GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+        CreateVnetStep.VNET_ID,
+        CreatePostgresqlDNSStep.POSTGRESQL_DNS_RESOURCE_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(VNET_LINK_ID, VNET_LINK_RESOURCE_KEY);
+  }
 }
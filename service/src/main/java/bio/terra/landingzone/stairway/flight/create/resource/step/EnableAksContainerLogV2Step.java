@@ -6,6 +6,7 @@ import bio.terra.landingzone.common.utils.HttpResponseUtils;
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneResource;
 import bio.terra.landingzone.stairway.common.model.TargetManagedResourceGroup;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
 import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.Step;
@@ -15,6 +16,7 @@ import bio.terra.stairway.exception.RetryException;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,7 +26,7 @@ import org.slf4j.LoggerFactory;
  *
  * <p>https://learn.microsoft.com/en-us/azure/azure-monitor/containers/container-insights-logging-v2#enable-the-containerlogv2-schema
  */
-public class EnableAksContainerLogV2Step implements Step {
+public class EnableAksContainerLogV2Step implements Step, WorkingMapDependencies {
   public static final String CONFIG_MAP_PATH = "landingzone/aks/configmap/ContainerLogV2.yaml";
 
   private static final Logger logger = LoggerFactory.getLogger(EnableAksContainerLogV2Step.class);
@@ -101,4 +103,14 @@ public class EnableAksContainerLogV2Step implements Step {
   private boolean isK8sApiRetryableError(int httpStatusCode) {
     return HttpResponseUtils.isRetryable(httpStatusCode);
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of(GetManagedResourceGroupInfo.TARGET_MRG_KEY, CreateAksStep.AKS_RESOURCE_KEY);
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
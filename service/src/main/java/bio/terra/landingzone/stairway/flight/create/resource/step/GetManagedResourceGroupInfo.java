@@ -3,13 +3,15 @@ package bio.terra.landingzone.stairway.flight.create.resource.step;
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
 import bio.terra.landingzone.stairway.common.model.TargetManagedResourceGroup;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
 import bio.terra.profile.model.ProfileModel;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.Step;
 import bio.terra.stairway.StepResult;
 import bio.terra.stairway.exception.RetryException;
+import java.util.Set;
 
-public class GetManagedResourceGroupInfo implements Step {
+public class GetManagedResourceGroupInfo implements Step, WorkingMapDependencies {
   public static final String TARGET_MRG_KEY = "TARGET_MRG";
 
   private final ArmManagers armManagers;
@@ -44,4 +46,14 @@ public class GetManagedResourceGroupInfo implements Step {
   public StepResult undoStep(FlightContext context) throws InterruptedException {
     return StepResult.getStepResultSuccess();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of(TARGET_MRG_KEY);
+  }
 }
@@ -3,6 +3,7 @@ package bio.terra.landingzone.stairway.flight.create.resource.step;
 import bio.terra.landingzone.library.landingzones.definition.factories.ParametersResolver;
 import bio.terra.landingzone.library.landingzones.definition.factories.exception.InvalidInputParameterException;
 import bio.terra.landingzone.library.landingzones.definition.factories.validation.InputParameterValidator;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.Step;
 import bio.terra.stairway.StepResult;
@@ -10,8 +11,9 @@ import bio.terra.stairway.StepStatus;
 import bio.terra.stairway.exception.RetryException;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
-public class ValidateLandingZoneParametersStep implements Step {
+public class ValidateLandingZoneParametersStep implements Step, WorkingMapDependencies {
 
   private final ParametersResolver parametersResolver;
   private final List<InputParameterValidator> inputParameterValidators;
@@ -38,4 +40,14 @@ public class ValidateLandingZoneParametersStep implements Step {
   public StepResult undoStep(FlightContext context) throws InterruptedException {
     return StepResult.getStepResultSuccess();
   }
+
+  @Override
+  public Set<String> getConsumedKeys() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<String> getProducedKeys() {
+    return Set.of();
+  }
 }
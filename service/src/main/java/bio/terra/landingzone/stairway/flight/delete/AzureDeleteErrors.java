@@ -0,0 +1,27 @@
+package bio.terra.landingzone.stairway.flight.delete;
+
+import bio.terra.landingzone.common.utils.HttpResponseUtils;
+import com.azure.core.management.exception.ManagementException;
+
+/** Classifies the Azure errors seen while deleting landing zone resources. */
+public final class AzureDeleteErrors {
+  private AzureDeleteErrors() {}
+
+  /**
+   * Azure returns AuthorizationFailed when an MRG is deleted or otherwise inaccessible. Since the
+   * user is unable to change the IAM permissions on an MRG due to deny assignments, we infer that
+   * the MRG is gone.
+   */
+  public static boolean isResourceGroupInaccessible(Exception e) {
+    return e instanceof ManagementException managementException
+        && managementException.getValue() != null
+        && "AuthorizationFailed".equals(managementException.getValue().getCode());
+  }
+
+  /** Whether the error is a transient Azure error, which the step can retry. */
+  public static boolean isRetryable(Exception e) {
+    return e instanceof ManagementException managementException
+        && managementException.getResponse() != null
+        && HttpResponseUtils.isRetryable(managementException.getResponse().getStatusCode());
+  }
+}
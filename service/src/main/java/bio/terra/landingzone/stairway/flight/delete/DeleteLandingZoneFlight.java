@@ -2,6 +2,8 @@ package bio.terra.landingzone.stairway.flight.delete;
 
 import bio.terra.landingzone.common.utils.LandingZoneFlightBeanBag;
 import bio.terra.landingzone.common.utils.RetryRules;
+import bio.terra.landingzone.job.AwaitJobAdmissionStep;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.stairway.Flight;
 import bio.terra.stairway.FlightMap;
 import bio.terra.stairway.RetryRule;
@@ -24,15 +26,57 @@ public class DeleteLandingZoneFlight extends Flight {
     final LandingZoneFlightBeanBag flightBeanBag =
         LandingZoneFlightBeanBag.getFromObject(applicationContext);
 
-    addDeleteSteps(flightBeanBag);
+    if (AwaitJobAdmissionStep.isRequired(inputParameters)) {
+      addStep(
+          new AwaitJobAdmissionStep(flightBeanBag.getJobAdmissionController()),
+          RetryRules.shortDatabase());
+    }
+
+    if (Boolean.TRUE.equals(
+        inputParameters.get(LandingZoneFlightMapKeys.SOFT_DELETE, Boolean.class))) {
+      addSoftDeleteSteps(flightBeanBag);
+    } else {
+      addDeleteSteps(flightBeanBag);
+    }
+  }
+
+  private void addSoftDeleteSteps(LandingZoneFlightBeanBag flightBeanBag) {
+    // the delete rules are verified up front, so a blocked delete fails the caller's job instead of
+    // the background teardown
+    addStep(
+        new PlanLandingZoneResourcesDeletionStep(
+            flightBeanBag.getAzureLandingZoneManagerProvider(), flightBeanBag.getLandingZoneDao()),
+        RetryRules.shortExponential());
+
+    addStep(
+        new MarkLandingZoneDeletingStep(flightBeanBag.getLandingZoneDao()),
+        RetryRules.shortDatabase());
+
+    addStep(
+        new DeleteSamResourceStep(flightBeanBag.getSamService()), RetryRules.shortExponential());
   }
 
   private void addDeleteSteps(LandingZoneFlightBeanBag flightBeanBag) {
     addStep(
-        new DeleteLandingZoneResourcesStep(
+        new PlanLandingZoneResourcesDeletionStep(
             flightBeanBag.getAzureLandingZoneManagerProvider(), flightBeanBag.getLandingZoneDao()),
         RetryRules.shortExponential());
 
+    // each tier is its own step, so a retry or a recovered flight resumes at the tier it stopped in
+    addStep(
+        new DeleteLandingZoneResourcesStep(
+            flightBeanBag.getAzureLandingZoneManagerProvider(),
+            flightBeanBag.getLandingZoneDao(),
+            DeleteLandingZoneResourcesStep.Tier.DEPENDENT_RESOURCES),
+        RetryRules.cloudLongRunning());
+
+    addStep(
+        new DeleteLandingZoneResourcesStep(
+            flightBeanBag.getAzureLandingZoneManagerProvider(),
+            flightBeanBag.getLandingZoneDao(),
+            DeleteLandingZoneResourcesStep.Tier.BASE_RESOURCES),
+        RetryRules.cloudLongRunning());
+
     addStep(
         new DeleteAzureLandingZoneDbRecordStep(flightBeanBag.getLandingZoneDao()),
         RetryRules.shortDatabase());
@@ -3,12 +3,11 @@ package bio.terra.landingzone.stairway.flight.delete;
 import static bio.terra.landingzone.stairway.flight.utils.FlightUtils.maybeThrowAzureInterruptedException;
 
 import bio.terra.landingzone.db.LandingZoneDao;
-import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
-import bio.terra.landingzone.db.model.LandingZoneRecord;
 import bio.terra.landingzone.job.JobMapKeys;
 import bio.terra.landingzone.library.LandingZoneManagerProvider;
-import bio.terra.landingzone.library.landingzones.management.LandingZoneManager;
-import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeleteResult;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletion;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletionPlan;
 import bio.terra.landingzone.model.LandingZoneTarget;
 import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
@@ -20,86 +19,121 @@ import bio.terra.stairway.StepResult;
 import bio.terra.stairway.StepStatus;
 import bio.terra.stairway.exception.RetryException;
 import com.azure.core.management.exception.ManagementException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Deletes one tier of the {@link ResourceDeletionPlan} made by {@link
+ * PlanLandingZoneResourcesDeletionStep}. Each resource is recorded in the database as soon as its
+ * delete has finished, and the resources deleted so far are recorded in the response in the
+ * working map when the step ends. A retry of the step, or of the flight on another instance, only
+ * deletes the resources which are left, even if the step was cut short in the middle of the tier.
+ */
 public class DeleteLandingZoneResourcesStep implements Step {
 
   private static final Logger logger =
       LoggerFactory.getLogger(DeleteLandingZoneResourcesStep.class);
 
+  /** The tiers of a {@link ResourceDeletionPlan}, in the order they are deleted. */
+  public enum Tier {
+    DEPENDENT_RESOURCES(ResourceDeletionPlan::dependentResources),
+    BASE_RESOURCES(ResourceDeletionPlan::baseResources);
+
+    private final Function<ResourceDeletionPlan, List<ResourceDeletion>> resources;
+
+    Tier(Function<ResourceDeletionPlan, List<ResourceDeletion>> resources) {
+      this.resources = resources;
+    }
+
+    List<ResourceDeletion> resources(ResourceDeletionPlan plan) {
+      return resources.apply(plan);
+    }
+  }
+
   private final LandingZoneManagerProvider landingZoneManagerProvider;
   private final LandingZoneDao landingZoneDao;
+  private final Tier tier;
 
   public DeleteLandingZoneResourcesStep(
-      LandingZoneManagerProvider landingZoneManagerProvider, LandingZoneDao landingZoneDao) {
+      LandingZoneManagerProvider landingZoneManagerProvider,
+      LandingZoneDao landingZoneDao,
+      Tier tier) {
     this.landingZoneManagerProvider = landingZoneManagerProvider;
     this.landingZoneDao = landingZoneDao;
+    this.tier = tier;
   }
 
   @Override
   public StepResult doStep(FlightContext context) throws RetryException, InterruptedException {
-    // Read input parameters
-    FlightMap inputMap = context.getInputParameters();
-    FlightUtils.validateRequiredEntries(inputMap, LandingZoneFlightMapKeys.LANDING_ZONE_ID);
-    var landingZoneId = inputMap.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
-
-    LandingZoneRecord landingZoneRecord;
+    FlightMap workingMap = context.getWorkingMap();
+    FlightUtils.validateRequiredEntries(
+        workingMap,
+        LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN,
+        JobMapKeys.RESPONSE.getKeyName());
+    var plan =
+        workingMap.get(LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN, ResourceDeletionPlan.class);
+    var deletedLandingZone =
+        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class);
+
+    // resources deleted by an earlier attempt of this step are not deleted again
+    Set<String> deletedResourceIds = new LinkedHashSet<>(deletedLandingZone.deleteResources());
     try {
-      // Look up the landing zone record from the database
-      landingZoneRecord = landingZoneDao.getLandingZoneRecord(landingZoneId);
-    } catch (LandingZoneNotFoundException e) {
-      logger.error("Landing zone not found. id={}", landingZoneId, e);
-      return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, e);
+      deletedResourceIds.addAll(
+          landingZoneDao.getDeletedLandingZoneResources(deletedLandingZone.landingZoneId()));
+    } catch (DataAccessException e) {
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY, e);
     }
-
-    try {
-      LandingZoneTarget landingZoneTarget =
-          new LandingZoneTarget(
-              landingZoneRecord.tenantId(),
-              landingZoneRecord.subscriptionId(),
-              landingZoneRecord.resourceGroupId());
-
-      // Delete the landing zone resources
-      DeletedLandingZone deletedLandingZone =
-          deleteLandingZoneResources(
-              landingZoneId,
-              landingZoneRecord.billingProfileId(),
-              landingZoneManagerProvider.createLandingZoneManager(landingZoneTarget),
-              isAttached(landingZoneRecord));
-
-      persistResponse(context, deletedLandingZone);
-
-      String deletedResources = String.join(", ", deletedLandingZone.deleteResources());
+    List<ResourceDeletion> remainingResources =
+        tier.resources(plan).stream()
+            .filter(r -> !deletedResourceIds.contains(r.resourceId()))
+            .toList();
+    if (remainingResources.isEmpty()) {
+      persistDeletedResources(context, deletedLandingZone, deletedResourceIds);
       logger.info(
-          "Successfully deleted landing zone resources. id='{}', deleted resources='{}'",
+          "No landing zone resources left to delete. id='{}', tier={}",
           deletedLandingZone.landingZoneId(),
-          deletedResources);
-
+          tier);
       return StepResult.getStepResultSuccess();
-    } catch (ManagementException e) {
-      // Azure returns AuthorizationFailed when an MRG is deleted or otherwise inaccessible. Since
-      // the user is unable to change the IAM permissions on an MRG due to deny assignments, we
-      // infer that the MRG is gone and move on with the deletion process.
-      if (e.getValue().getCode().equals("AuthorizationFailed")) {
-        logger.warn(
-            "Landing zone MRG is either inaccessible or has been removed. id = '{}'",
-            landingZoneId,
-            e);
-        persistResponse(
-            context,
-            DeletedLandingZone.emptyLandingZone(
-                landingZoneId, landingZoneRecord.billingProfileId()));
+    }
+
+    try {
+      var landingZoneTarget =
+          workingMap.get(LandingZoneFlightMapKeys.LANDING_ZONE_TARGET, LandingZoneTarget.class);
+      List<ResourceDeleteResult> results =
+          landingZoneManagerProvider
+              .createLandingZoneManager(landingZoneTarget)
+              .deleteResources(
+                  remainingResources,
+                  result -> recordDeletedResource(deletedLandingZone.landingZoneId(), result));
+      results.stream()
+          .filter(ResourceDeleteResult::isDeleted)
+          .forEach(result -> deletedResourceIds.add(result.resourceId()));
+      persistDeletedResources(context, deletedLandingZone, deletedResourceIds);
+
+      List<Exception> failures =
+          results.stream()
+              .filter(r -> !r.isDeleted())
+              .map(ResourceDeleteResult::error)
+              .toList();
+      if (failures.isEmpty()) {
+        logger.info(
+            "Successfully deleted landing zone resources. id='{}', tier={}, deleted resources={}",
+            deletedLandingZone.landingZoneId(),
+            tier,
+            results.size());
         return StepResult.getStepResultSuccess();
-      } else {
-        logger.error("Failed to delete the landing zone due to Azure error.", e);
-        return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, e);
       }
-    } catch (LandingZoneRuleDeleteException e) {
-      logger.error("Failed to delete the landing zone due to delete rules.", e);
-      return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, e);
+      return handleFailures(deletedLandingZone, failures);
+    } catch (ManagementException e) {
+      return handleFailures(deletedLandingZone, List.of(e));
     } catch (RuntimeException maybeInterrupt) {
       var notInterrupt = maybeThrowAzureInterruptedException(maybeInterrupt);
       logger.error("Unexpected exception while deleting the landing zone.", notInterrupt);
@@ -112,28 +146,66 @@ public class DeleteLandingZoneResourcesStep implements Step {
     return StepResult.getStepResultSuccess();
   }
 
-  private void persistResponse(FlightContext context, DeletedLandingZone deletedLandingZone) {
-    FlightMap workingMap = context.getWorkingMap();
-    workingMap.put(JobMapKeys.RESPONSE.getKeyName(), deletedLandingZone);
+  private StepResult handleFailures(
+      DeletedLandingZone deletedLandingZone, List<Exception> allFailures) {
+    // a resource group which went away only makes the step succeed if nothing else failed
+    Map<Boolean, List<Exception>> byResourceGroupInaccessible =
+        allFailures.stream()
+            .collect(Collectors.partitioningBy(AzureDeleteErrors::isResourceGroupInaccessible));
+    List<Exception> failures = byResourceGroupInaccessible.get(false);
+    if (failures.isEmpty()) {
+      logger.warn(
+          "Landing zone MRG is either inaccessible or has been removed. id = '{}'",
+          deletedLandingZone.landingZoneId(),
+          allFailures.get(0));
+      return StepResult.getStepResultSuccess();
+    }
+    var nonRetryable =
+        failures.stream().filter(e -> !AzureDeleteErrors.isRetryable(e)).findFirst();
+    if (nonRetryable.isPresent()) {
+      logger.error("Failed to delete the landing zone due to Azure error.", nonRetryable.get());
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, nonRetryable.get());
+    }
+    logger.warn(
+        "Failed to delete {} landing zone resources, retrying the remaining ones. id='{}'",
+        failures.size(),
+        deletedLandingZone.landingZoneId(),
+        failures.get(0));
+    return new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY, failures.get(0));
   }
 
-  private DeletedLandingZone deleteLandingZoneResources(
-      UUID landingZoneId,
-      UUID billingProfileId,
-      LandingZoneManager landingZoneManager,
-      boolean isAttached)
-      throws LandingZoneRuleDeleteException {
-    if (isAttached) {
-      logger.info("Landing zone {} was attached, skipping Azure resource deletion", landingZoneId);
-      return DeletedLandingZone.emptyLandingZone(landingZoneId, billingProfileId);
+  // the step is not failed when the progress can't be recorded: the resource is gone either way,
+  // and it is recorded in the working map at the end of the step
+  private void recordDeletedResource(UUID landingZoneId, ResourceDeleteResult result) {
+    if (!result.isDeleted()) {
+      return;
+    }
+    try {
+      landingZoneDao.recordDeletedLandingZoneResource(landingZoneId, result.resourceId());
+    } catch (DataAccessException e) {
+      logger.warn(
+          "Failed to record deleted landing zone resource. id='{}', resource={}",
+          landingZoneId,
+          result.resourceId(),
+          e);
     }
-
-    List<String> deletedResources = landingZoneManager.deleteResources(landingZoneId.toString());
-    return new DeletedLandingZone(landingZoneId, deletedResources, billingProfileId);
   }
 
-  private boolean isAttached(LandingZoneRecord record) {
-    return Boolean.parseBoolean(
-        record.properties().getOrDefault(LandingZoneFlightMapKeys.ATTACH, "false"));
+  private void persistDeletedResources(
+      FlightContext context,
+      DeletedLandingZone deletedLandingZone,
+      Set<String> deletedResourceIds) {
+    if (deletedResourceIds.size() == deletedLandingZone.deleteResources().size()) {
+      return;
+    }
+    List<String> deletedResources = List.copyOf(deletedResourceIds);
+    context
+        .getWorkingMap()
+        .put(
+            JobMapKeys.RESPONSE.getKeyName(),
+            new DeletedLandingZone(
+                deletedLandingZone.landingZoneId(),
+                deletedResources,
+                deletedLandingZone.billingProfileId()));
   }
 }
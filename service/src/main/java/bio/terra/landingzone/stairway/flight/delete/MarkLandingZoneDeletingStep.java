@@ -0,0 +1,47 @@
+package bio.terra.landingzone.stairway.flight.delete;
+
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.exception.RetryException;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Soft deletes a landing zone: its record is marked as deleting, which hides the landing zone from
+ * readers, and the Azure resources are torn down later by the LandingZoneTeardownReaper.
+ */
+public class MarkLandingZoneDeletingStep implements Step {
+  private static final Logger logger = LoggerFactory.getLogger(MarkLandingZoneDeletingStep.class);
+
+  private final LandingZoneDao landingZoneDao;
+
+  public MarkLandingZoneDeletingStep(LandingZoneDao landingZoneDao) {
+    this.landingZoneDao = landingZoneDao;
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws RetryException {
+    final FlightMap inputMap = context.getInputParameters();
+    FlightUtils.validateRequiredEntries(inputMap, LandingZoneFlightMapKeys.LANDING_ZONE_ID);
+    var landingZoneId = inputMap.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+
+    // a retry finds the record already marked, which is fine
+    landingZoneDao.markLandingZoneDeleting(landingZoneId);
+    logger.info("Landing zone marked as deleting. {}", landingZoneId);
+
+    return StepResult.getStepResultSuccess();
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) {
+    // the reaper may already be tearing down the Azure resources, so the landing zone can't be
+    // brought back
+    return StepResult.getStepResultSuccess();
+  }
+}
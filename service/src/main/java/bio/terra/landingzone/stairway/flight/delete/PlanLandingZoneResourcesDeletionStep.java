@@ -0,0 +1,139 @@
+package bio.terra.landingzone.stairway.flight.delete;
+
+import static bio.terra.landingzone.stairway.flight.utils.FlightUtils.maybeThrowAzureInterruptedException;
+
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
+import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.job.JobMapKeys;
+import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletionPlan;
+import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.utils.FlightUtils;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import bio.terra.stairway.exception.RetryException;
+import com.azure.core.management.exception.ManagementException;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists the landing zone resources, verifies the delete rules and persists the resulting {@link
+ * ResourceDeletionPlan} in the working map. The resources are deleted by the {@link
+ * DeleteLandingZoneResourcesStep}s which follow, so that a retry of a delete does not list and
+ * verify the resources again.
+ */
+public class PlanLandingZoneResourcesDeletionStep implements Step {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(PlanLandingZoneResourcesDeletionStep.class);
+
+  private final LandingZoneManagerProvider landingZoneManagerProvider;
+  private final LandingZoneDao landingZoneDao;
+
+  public PlanLandingZoneResourcesDeletionStep(
+      LandingZoneManagerProvider landingZoneManagerProvider, LandingZoneDao landingZoneDao) {
+    this.landingZoneManagerProvider = landingZoneManagerProvider;
+    this.landingZoneDao = landingZoneDao;
+  }
+
+  @Override
+  public StepResult doStep(FlightContext context) throws RetryException, InterruptedException {
+    // Read input parameters
+    FlightMap inputMap = context.getInputParameters();
+    FlightUtils.validateRequiredEntries(inputMap, LandingZoneFlightMapKeys.LANDING_ZONE_ID);
+    var landingZoneId = inputMap.get(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.class);
+
+    LandingZoneRecord landingZoneRecord;
+    try {
+      // Look up the landing zone record from the database
+      landingZoneRecord = landingZoneDao.getLandingZoneRecord(landingZoneId);
+    } catch (LandingZoneNotFoundException e) {
+      logger.error("Landing zone not found. id={}", landingZoneId, e);
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, e);
+    }
+
+    LandingZoneTarget landingZoneTarget =
+        new LandingZoneTarget(
+            landingZoneRecord.tenantId(),
+            landingZoneRecord.subscriptionId(),
+            landingZoneRecord.resourceGroupId());
+    try {
+      ResourceDeletionPlan plan =
+          planDeletion(landingZoneId, landingZoneTarget, isAttached(landingZoneRecord));
+      persistPlan(context, landingZoneTarget, plan, landingZoneRecord);
+
+      logger.info(
+          "Planned the deletion of landing zone resources. id='{}', dependent resources={}, base"
+              + " resources={}",
+          landingZoneId,
+          plan.dependentResources().size(),
+          plan.baseResources().size());
+      return StepResult.getStepResultSuccess();
+    } catch (ManagementException e) {
+      if (AzureDeleteErrors.isResourceGroupInaccessible(e)) {
+        logger.warn(
+            "Landing zone MRG is either inaccessible or has been removed. id = '{}'",
+            landingZoneId,
+            e);
+        persistPlan(context, landingZoneTarget, ResourceDeletionPlan.empty(), landingZoneRecord);
+        return StepResult.getStepResultSuccess();
+      }
+      logger.error("Failed to list the landing zone resources due to Azure error.", e);
+      return AzureDeleteErrors.isRetryable(e)
+          ? new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY, e)
+          : new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, e);
+    } catch (LandingZoneRuleDeleteException e) {
+      logger.error("Failed to delete the landing zone due to delete rules.", e);
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, e);
+    } catch (RuntimeException maybeInterrupt) {
+      var notInterrupt = maybeThrowAzureInterruptedException(maybeInterrupt);
+      logger.error("Unexpected exception while deleting the landing zone.", notInterrupt);
+      return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL, notInterrupt);
+    }
+  }
+
+  @Override
+  public StepResult undoStep(FlightContext context) {
+    return StepResult.getStepResultSuccess();
+  }
+
+  private ResourceDeletionPlan planDeletion(
+      UUID landingZoneId, LandingZoneTarget landingZoneTarget, boolean isAttached)
+      throws LandingZoneRuleDeleteException {
+    if (isAttached) {
+      logger.info("Landing zone {} was attached, skipping Azure resource deletion", landingZoneId);
+      return ResourceDeletionPlan.empty();
+    }
+    return landingZoneManagerProvider
+        .createLandingZoneManager(landingZoneTarget)
+        .planResourcesDeletion(landingZoneId.toString());
+  }
+
+  private void persistPlan(
+      FlightContext context,
+      LandingZoneTarget landingZoneTarget,
+      ResourceDeletionPlan plan,
+      LandingZoneRecord landingZoneRecord) {
+    FlightMap workingMap = context.getWorkingMap();
+    workingMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_TARGET, landingZoneTarget);
+    workingMap.put(LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN, plan);
+    // the delete steps add the resources they delete to the response
+    workingMap.put(
+        JobMapKeys.RESPONSE.getKeyName(),
+        DeletedLandingZone.emptyLandingZone(
+            landingZoneRecord.landingZoneId(), landingZoneRecord.billingProfileId()));
+  }
+
+  private boolean isAttached(LandingZoneRecord record) {
+    return Boolean.parseBoolean(
+        record.properties().getOrDefault(LandingZoneFlightMapKeys.ATTACH, "false"));
+  }
+}
@@ -0,0 +1,280 @@
+package bio.terra.landingzone.stairway.flight.utils;
+
+import bio.terra.landingzone.common.utils.MetricsHelper;
+import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.configuration.AzureCustomerUsageConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneProtectedDataConfiguration;
+import bio.terra.landingzone.library.landingzones.management.LandingZoneManager;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import com.azure.core.management.ResourceId;
+import com.azure.resourcemanager.securityinsights.SecurityInsightsManager;
+import com.azure.resourcemanager.securityinsights.fluent.models.AlertRuleTemplateInner;
+import com.azure.resourcemanager.securityinsights.implementation.AlertRuleTemplateImpl;
+import com.azure.resourcemanager.securityinsights.models.NrtAlertRuleTemplate;
+import com.azure.resourcemanager.securityinsights.models.ScheduledAlertRuleTemplate;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process-wide catalog of Sentinel alert rule templates.
+ *
+ * <p>Templates are published by Microsoft and are the same for every workspace, so a template
+ * fetched while creating one protected data landing zone is reused by all following ones.
+ * Templates are stored by template ID and template version. A background refresh re-reads every
+ * known template through the configured template workspace and records new versions; a template
+ * which can't be refreshed keeps its known version until the next refresh. Every entry expires
+ * after the configured time to live, so without a template workspace templates are read again by
+ * the next flight which needs them.
+ */
+@Component
+public class AlertRuleTemplateCatalog {
+  private static final Logger logger = LoggerFactory.getLogger(AlertRuleTemplateCatalog.class);
+  static final String CACHE_NAME = "alertRuleTemplates";
+  private static final String UNVERSIONED = "";
+
+  private final LandingZoneProtectedDataConfiguration protectedDataConfiguration;
+  private final LandingZoneManagerProvider landingZoneManagerProvider;
+  private final AzureCustomerUsageConfiguration azureCustomerUsageConfiguration;
+  private final Cache<String, String> latestVersions;
+  private final Cache<TemplateKey, AlertRuleTemplateInner> templates;
+  private volatile TemplateSource configuredSource;
+  private ScheduledExecutorService refreshExecutor;
+
+  @Autowired
+  public AlertRuleTemplateCatalog(
+      LandingZoneProtectedDataConfiguration protectedDataConfiguration,
+      LandingZoneManagerProvider landingZoneManagerProvider,
+      AzureCustomerUsageConfiguration azureCustomerUsageConfiguration) {
+    this(
+        protectedDataConfiguration,
+        landingZoneManagerProvider,
+        azureCustomerUsageConfiguration,
+        Ticker.systemTicker());
+  }
+
+  AlertRuleTemplateCatalog(
+      LandingZoneProtectedDataConfiguration protectedDataConfiguration,
+      LandingZoneManagerProvider landingZoneManagerProvider,
+      AzureCustomerUsageConfiguration azureCustomerUsageConfiguration,
+      Ticker ticker) {
+    this.protectedDataConfiguration = protectedDataConfiguration;
+    this.landingZoneManagerProvider = landingZoneManagerProvider;
+    this.azureCustomerUsageConfiguration = azureCustomerUsageConfiguration;
+    var ttl = protectedDataConfiguration.getSentinelAlertRuleTemplateTtl();
+    this.latestVersions = CacheBuilder.newBuilder().expireAfterWrite(ttl).ticker(ticker).build();
+    this.templates = CacheBuilder.newBuilder().expireAfterWrite(ttl).ticker(ticker).build();
+  }
+
+  /**
+   * Returns the latest known version of a template, reading it from the source when it is not in
+   * the catalog yet.
+   *
+   * @param templateId alert rule template ID
+   * @param source source to read the template from, usually the workspace of the flight
+   * @return alert rule template
+   */
+  public AlertRuleTemplateInner getTemplate(String templateId, TemplateSource source) {
+    var version = latestVersions.getIfPresent(templateId);
+    var template =
+        version == null ? null : templates.getIfPresent(new TemplateKey(templateId, version));
+    MetricsHelper.recordCacheAccess(CACHE_NAME, template != null);
+    if (template != null) {
+      return template;
+    }
+    return load(templateId, source);
+  }
+
+  /**
+   * Returns a given version of a template, e.g. the version a flight already used. Versions which
+   * were replaced are kept until they expire; a version which is not in the catalog is read from
+   * the source, which only serves the latest version of a template.
+   *
+   * @param templateId alert rule template ID
+   * @param version version of the template
+   * @param source source to read the template from, usually the workspace of the flight
+   * @return alert rule template
+   * @throws IllegalStateException if the source serves a different version
+   */
+  public AlertRuleTemplateInner getTemplate(
+      String templateId, String version, TemplateSource source) {
+    var template = templates.getIfPresent(new TemplateKey(templateId, version));
+    MetricsHelper.recordCacheAccess(CACHE_NAME, template != null);
+    if (template != null) {
+      return template;
+    }
+    template = load(templateId, source);
+    var loadedVersion = Objects.requireNonNullElse(getVersion(template), UNVERSIONED);
+    if (!loadedVersion.equals(version)) {
+      throw new IllegalStateException(
+          String.format(
+              "Version %s of alert rule template %s is not available; the latest version is %s.",
+              version, templateId, loadedVersion));
+    }
+    return template;
+  }
+
+  /**
+   * Reads the configured scheduled and NRT templates, so that the first protected data landing
+   * zone doesn't pay for them. Does nothing unless a template workspace is configured; failures are
+   * logged and leave the catalog to be filled by flights.
+   */
+  public void warmUp() {
+    try {
+      var source = getConfiguredSource();
+      if (source == null) {
+        return;
+      }
+      var templateIds = new ArrayList<String>();
+      templateIds.addAll(
+          Objects.requireNonNullElse(
+              protectedDataConfiguration.getSentinelScheduledAlertRuleTemplateIds(), List.of()));
+      templateIds.addAll(
+          Objects.requireNonNullElse(
+              protectedDataConfiguration.getSentinelNrtRuleTemplateIds(), List.of()));
+      templateIds.forEach(templateId -> load(templateId, source));
+      logger.info(
+          "Alert rule template catalog warmed up with {} templates.", latestVersions.size());
+    } catch (RuntimeException e) {
+      logger.warn("Failed to warm up alert rule template catalog.", e);
+    }
+  }
+
+  /**
+   * Starts the periodic refresh of the catalog. Called once during initialization.
+   *
+   * @param interval time between refreshes
+   */
+  public synchronized void startRefresh(Duration interval) {
+    if (refreshExecutor != null) {
+      return;
+    }
+    refreshExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "lz-alert-rule-template-refresh");
+              thread.setDaemon(true);
+              return thread;
+            });
+    refreshExecutor.scheduleWithFixedDelay(
+        this::refresh, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  // Only the configured workspace is used: workspaces of flights may be deleted in the meantime.
+  void refresh() {
+    TemplateSource source;
+    try {
+      source = getConfiguredSource();
+    } catch (RuntimeException e) {
+      logger.warn("Failed to connect to the alert rule template workspace.", e);
+      return;
+    }
+    if (source != null) {
+      refresh(source);
+    }
+  }
+
+  void refresh(TemplateSource source) {
+    for (var templateId : List.copyOf(latestVersions.asMap().keySet())) {
+      try {
+        load(templateId, source);
+      } catch (RuntimeException e) {
+        logger.warn(
+            "Failed to refresh alert rule template {}, keeping version {}.",
+            templateId,
+            latestVersions.getIfPresent(templateId),
+            e);
+      }
+    }
+  }
+
+  @Nullable
+  private TemplateSource getConfiguredSource() {
+    var source = configuredSource;
+    if (source == null) {
+      var workspaceId = protectedDataConfiguration.getSentinelAlertRuleTemplateWorkspaceId();
+      if (StringUtils.isBlank(workspaceId)) {
+        return null;
+      }
+      source = createWorkspaceSource(ResourceId.fromString(workspaceId));
+      configuredSource = source;
+    }
+    return source;
+  }
+
+  private AlertRuleTemplateInner load(String templateId, TemplateSource source) {
+    var template = source.fetch(templateId);
+    var version = Objects.requireNonNullElse(getVersion(template), UNVERSIONED);
+    templates.put(new TemplateKey(templateId, version), template);
+    // the previous version stays available to flights which use it until it expires
+    var previousVersion = latestVersions.asMap().put(templateId, version);
+    if (previousVersion != null && !previousVersion.equals(version)) {
+      logger.info(
+          "Alert rule template {} changed from version {} to {}.",
+          templateId,
+          previousVersion,
+          version);
+    }
+    return template;
+  }
+
+  private static String getVersion(AlertRuleTemplateInner template) {
+    if (template instanceof ScheduledAlertRuleTemplate scheduledTemplate) {
+      return scheduledTemplate.version();
+    }
+    if (template instanceof NrtAlertRuleTemplate nrtTemplate) {
+      return nrtTemplate.version();
+    }
+    return null;
+  }
+
+  private TemplateSource createWorkspaceSource(ResourceId workspaceId) {
+    var target =
+        new LandingZoneTarget(
+            protectedDataConfiguration.getTenantId(),
+            workspaceId.subscriptionId(),
+            workspaceId.resourceGroupName());
+    var armManagers =
+        LandingZoneManager.createArmManagers(
+            landingZoneManagerProvider.buildTokenCredential(),
+            landingZoneManagerProvider.createAzureProfile(target),
+            azureCustomerUsageConfiguration.getUsageAttribute());
+    return TemplateSource.workspace(
+        armManagers.securityInsightsManager(),
+        workspaceId.resourceGroupName(),
+        workspaceId.name());
+  }
+
+  /** Reads alert rule templates, e.g. through a Sentinel enabled log analytics workspace. */
+  @FunctionalInterface
+  public interface TemplateSource {
+    AlertRuleTemplateInner fetch(String templateId);
+
+    static TemplateSource workspace(
+        SecurityInsightsManager securityInsightsManager,
+        String resourceGroupName,
+        String workspaceName) {
+      return templateId ->
+          ((AlertRuleTemplateImpl)
+                  securityInsightsManager
+                      .alertRuleTemplates()
+                      .get(resourceGroupName, workspaceName, templateId))
+              .innerModel();
+    }
+  }
+
+  private record TemplateKey(String templateId, String version) {}
+}
@@ -2,7 +2,7 @@ package bio.terra.landingzone.stairway.flight.utils;
 
 import com.azure.resourcemanager.securityinsights.SecurityInsightsManager;
 import com.azure.resourcemanager.securityinsights.fluent.models.AlertRuleInner;
-import com.azure.resourcemanager.securityinsights.implementation.AlertRuleTemplateImpl;
+import com.azure.resourcemanager.securityinsights.fluent.models.AlertRuleTemplateInner;
 import com.azure.resourcemanager.securityinsights.models.NrtAlertRule;
 import com.azure.resourcemanager.securityinsights.models.NrtAlertRuleTemplate;
 import com.azure.resourcemanager.securityinsights.models.ScheduledAlertRule;
@@ -11,19 +11,18 @@ import java.time.Duration;
 
 public class AlertRulesHelper {
   private final SecurityInsightsManager securityInsightsManager;
+  private final AlertRuleTemplateCatalog templateCatalog;
 
-  public AlertRulesHelper(SecurityInsightsManager securityInsightsManager) {
+  public AlertRulesHelper(
+      SecurityInsightsManager securityInsightsManager, AlertRuleTemplateCatalog templateCatalog) {
     this.securityInsightsManager = securityInsightsManager;
+    this.templateCatalog = templateCatalog;
   }
 
   public AlertRuleInner buildScheduledAlertRuleFromTemplate(
       String mrgName, String workspaceName, String ruleTemplateId) {
-    var template =
-        (AlertRuleTemplateImpl)
-            securityInsightsManager
-                .alertRuleTemplates()
-                .get(mrgName, workspaceName, ruleTemplateId);
-    var scheduledtemplate = (ScheduledAlertRuleTemplate) template.innerModel();
+    var scheduledtemplate =
+        (ScheduledAlertRuleTemplate) getTemplate(mrgName, workspaceName, ruleTemplateId);
 
     return new ScheduledAlertRule()
         .withQuery(scheduledtemplate.query())
@@ -49,12 +48,7 @@ public class AlertRulesHelper {
 
   public NrtAlertRule buildNrtAlertRuleFromTemplate(
       String mrgName, String workspaceName, String ruleTemplateId) {
-    var template =
-        (AlertRuleTemplateImpl)
-            securityInsightsManager
-                .alertRuleTemplates()
-                .get(mrgName, workspaceName, ruleTemplateId);
-    var nrtTemplate = (NrtAlertRuleTemplate) template.innerModel();
+    var nrtTemplate = (NrtAlertRuleTemplate) getTemplate(mrgName, workspaceName, ruleTemplateId);
     return new NrtAlertRule()
         .withQuery(nrtTemplate.query())
         .withDescription(nrtTemplate.description())
@@ -77,4 +71,12 @@ public class AlertRulesHelper {
       AlertRuleInner alertRule, String ruleId, String mrgName, String workspaceName) {
     securityInsightsManager.alertRules().createOrUpdate(mrgName, workspaceName, ruleId, alertRule);
   }
+
+  private AlertRuleTemplateInner getTemplate(
+      String mrgName, String workspaceName, String ruleTemplateId) {
+    return templateCatalog.getTemplate(
+        ruleTemplateId,
+        AlertRuleTemplateCatalog.TemplateSource.workspace(
+            securityInsightsManager, mrgName, workspaceName));
+  }
 }
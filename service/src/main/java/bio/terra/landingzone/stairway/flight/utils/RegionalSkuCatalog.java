@@ -0,0 +1,127 @@
+package bio.terra.landingzone.stairway.flight.utils;
+
+import bio.terra.landingzone.common.utils.MetricsHelper;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import com.azure.core.management.Region;
+import com.azure.resourcemanager.compute.models.ComputeResourceType;
+import com.azure.resourcemanager.compute.models.ResourceSkuRestrictionsType;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process-wide catalog of the SKUs offered in Azure regions.
+ *
+ * <p>Listing the SKUs of a region takes several seconds and the result rarely changes, so the
+ * preflight checks of all landing zones created in the same subscription and region share one
+ * listing. Entries are kept per subscription, since Azure restricts SKUs per subscription, and
+ * expire after landingzone.job.sku-catalog-ttl-seconds.
+ */
+@Component
+public class RegionalSkuCatalog {
+  static final String CACHE_NAME = "regionalSkus";
+
+  private final Cache<RegionKey, RegionalSkus> regionalSkus;
+
+  @Autowired
+  public RegionalSkuCatalog(LandingZoneJobConfiguration jobConfiguration) {
+    this.regionalSkus =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(jobConfiguration.getSkuCatalogTtlSeconds()))
+            .build();
+  }
+
+  /**
+   * Returns the SKUs offered to a subscription in a region, reading them from the source when they
+   * are not in the catalog.
+   *
+   * @param subscriptionId Azure subscription id
+   * @param region name of the region, e.g. eastus
+   * @param source source to read the SKUs from, usually the ARM managers of the flight
+   * @return SKUs available in the region
+   */
+  public RegionalSkus getSkus(String subscriptionId, String region, SkuSource source) {
+    var key = new RegionKey(subscriptionId, region.toLowerCase(Locale.ROOT));
+    var skus = regionalSkus.getIfPresent(key);
+    MetricsHelper.recordCacheAccess(CACHE_NAME, skus != null);
+    if (skus == null) {
+      skus = source.fetch(key.region());
+      regionalSkus.put(key, skus);
+    }
+    return skus;
+  }
+
+  /** SKUs available in a region. Names are compared case-insensitively. */
+  public record RegionalSkus(Set<String> vmSizes, Set<String> postgresSkus) {
+    public RegionalSkus {
+      vmSizes = normalize(vmSizes.stream());
+      postgresSkus = normalize(postgresSkus.stream());
+    }
+
+    public boolean isVmSizeAvailable(String vmSize) {
+      return vmSizes.contains(vmSize.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isPostgresSkuAvailable(String sku) {
+      return postgresSkus.contains(sku.toLowerCase(Locale.ROOT));
+    }
+
+    private static Set<String> normalize(Stream<String> names) {
+      return names
+          .filter(Objects::nonNull)
+          .map(name -> name.toLowerCase(Locale.ROOT))
+          .collect(Collectors.toUnmodifiableSet());
+    }
+  }
+
+  /** Reads the SKUs of a region. */
+  @FunctionalInterface
+  public interface SkuSource {
+    RegionalSkus fetch(String region);
+
+    /**
+     * Reads virtual machine sizes without a location restriction for the subscription and the
+     * Postgres flexible server SKUs offered in the region.
+     */
+    static SkuSource azure(ArmManagers armManagers) {
+      return region -> {
+        var vmSizes =
+            armManagers
+                .azureResourceManager()
+                .computeSkus()
+                .listByRegion(Region.fromName(region))
+                .stream()
+                .filter(sku -> ComputeResourceType.VIRTUALMACHINES.equals(sku.resourceType()))
+                .filter(
+                    sku ->
+                        sku.restrictions() == null
+                            || sku.restrictions().stream()
+                                .noneMatch(
+                                    r -> ResourceSkuRestrictionsType.LOCATION.equals(r.type())))
+                .map(sku -> sku.name().toString())
+                .collect(Collectors.toSet());
+        var postgresSkus =
+            armManagers.postgreSqlManager().locationBasedCapabilities().execute(region).stream()
+                .filter(capability -> capability.supportedFlexibleServerEditions() != null)
+                .flatMap(capability -> capability.supportedFlexibleServerEditions().stream())
+                .filter(edition -> edition.supportedServerVersions() != null)
+                .flatMap(edition -> edition.supportedServerVersions().stream())
+                .filter(version -> version.supportedVcores() != null)
+                .flatMap(version -> version.supportedVcores().stream())
+                .map(vcores -> vcores.name())
+                .collect(Collectors.toSet());
+        return new RegionalSkus(vmSizes, postgresSkus);
+      };
+    }
+  }
+
+  private record RegionKey(String subscriptionId, String region) {}
+}
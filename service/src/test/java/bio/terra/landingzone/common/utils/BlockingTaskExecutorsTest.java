@@ -0,0 +1,77 @@
+package bio.terra.landingzone.common.utils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Mono;
+
+@Tag("unit")
+class BlockingTaskExecutorsTest {
+  private static final int PARALLELISM = 4;
+
+  @AfterEach
+  void tearDown() {
+    BlockingTaskExecutors.configure(false);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void newBoundedExecutor_limitsConcurrentTasks(boolean virtualThreadsEnabled) throws Exception {
+    BlockingTaskExecutors.configure(virtualThreadsEnabled);
+    // virtual threads are only used when the JDK supports them
+    assertThat(
+        BlockingTaskExecutors.isVirtualThreadsEnabled(),
+        equalTo(virtualThreadsEnabled && Runtime.version().feature() >= 21));
+
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var executor = BlockingTaskExecutors.newBoundedExecutor("lz-test", PARALLELISM);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                  TimeUnit.MILLISECONDS.sleep(20);
+                  running.decrementAndGet();
+                  return Thread.currentThread().getName();
+                }));
+      }
+      for (var future : futures) {
+        assertThat(future.get(5, TimeUnit.SECONDS), startsWith("lz-test-"));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(maxRunning.get(), lessThanOrEqualTo(PARALLELISM));
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void blockingScheduler_followsConfiguration(boolean virtualThreadsEnabled) {
+    BlockingTaskExecutors.configure(virtualThreadsEnabled);
+
+    String threadName =
+        Mono.fromCallable(() -> Thread.currentThread().getName())
+            .subscribeOn(BlockingTaskExecutors.blockingScheduler())
+            .block(Duration.ofSeconds(5));
+
+    assertThat(
+        threadName,
+        startsWith(
+            BlockingTaskExecutors.isVirtualThreadsEnabled() ? "lz-blocking-" : "boundedElastic-"));
+  }
+}
@@ -0,0 +1,270 @@
+package bio.terra.landingzone.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.db.JobAdmissionDao;
+import bio.terra.landingzone.db.model.JobAdmission;
+import bio.terra.landingzone.job.exception.DuplicateJobIdException;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.Stairway;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class JobAdmissionControllerTest {
+  private static final UUID BILLING_PROFILE_A = UUID.randomUUID();
+  private static final UUID BILLING_PROFILE_B = UUID.randomUUID();
+  private static final Instant NOW = Instant.parse("2026-10-19T12:00:00Z");
+  private static final Duration GRACE_PERIOD = Duration.ofMinutes(1);
+
+  @Mock private JobAdmissionDao jobAdmissionDao;
+  @Mock private Stairway stairway;
+  @Mock private FlightContext flightContext;
+
+  private LandingZoneJobConfiguration jobConfig;
+  private JobAdmissionController admissionController;
+
+  @BeforeEach
+  void setUp() {
+    jobConfig = new LandingZoneJobConfiguration();
+    jobConfig.setAdmissionControlEnabled(true);
+    jobConfig.setMaxAdmittedFlights(1);
+    jobConfig.setMaxFlightsPerBillingProfile(1);
+    jobConfig.setMaxFlightsPerSubscription(1);
+    admissionController =
+        new JobAdmissionController(jobConfig, jobAdmissionDao, Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @Test
+  void selectAdmissible_billingProfileLimitHoldsJobBack() {
+    jobConfig.setMaxAdmittedFlights(10);
+    var queue =
+        List.of(
+            admitted("a1", BILLING_PROFILE_A, null),
+            queued("a2", BILLING_PROFILE_A, null),
+            queued("b1", BILLING_PROFILE_B, null));
+
+    assertThat(admissionController.selectAdmissible(queue), contains("b1"));
+  }
+
+  @Test
+  void selectAdmissible_subscriptionLimitHoldsJobBack() {
+    jobConfig.setMaxAdmittedFlights(10);
+    var queue =
+        List.of(
+            admitted("a1", BILLING_PROFILE_A, "subscription"),
+            queued("b1", BILLING_PROFILE_B, "subscription"),
+            queued("b2", BILLING_PROFILE_B, "other"));
+
+    assertThat(admissionController.selectAdmissible(queue), contains("b2"));
+  }
+
+  @Test
+  void selectAdmissible_admittedJobsCountAcrossTheDeployment() {
+    var queue =
+        List.of(admitted("a1", BILLING_PROFILE_A, null), queued("b1", BILLING_PROFILE_B, null));
+
+    assertThat(admissionController.selectAdmissible(queue), empty());
+  }
+
+  @Test
+  void tryAdmit_onlyJobAtTheHeadOfTheQueueIsAdmitted() {
+    var queue = List.of(queued("first", BILLING_PROFILE_B, null), queued("second", null, null));
+    stubAdmitJob(queue);
+
+    assertThat(admissionController.tryAdmit("second"), equalTo(false));
+    assertThat(admissionController.tryAdmit("first"), equalTo(true));
+  }
+
+  @Test
+  void tryAdmit_jobWhichIsNotQueuedMayRun() {
+    when(jobAdmissionDao.admitJob(eq("job1"), any())).thenReturn(Optional.empty());
+
+    assertThat(admissionController.tryAdmit("job1"), equalTo(true));
+  }
+
+  @Test
+  void tryAdmit_disabledAdmissionControlLetsJobRun() {
+    jobConfig.setAdmissionControlEnabled(false);
+
+    assertThat(admissionController.tryAdmit("job1"), equalTo(true));
+    verifyNoInteractions(jobAdmissionDao);
+  }
+
+  @Test
+  void enqueue_billingProfileWeightReducesCost() {
+    jobConfig.setAdmissionTenantWeights(Map.of(BILLING_PROFILE_A.toString(), 4));
+
+    admissionController.enqueue("job1", new JobAdmissionKeys(BILLING_PROFILE_A, "sub", true));
+    admissionController.enqueue("job2", new JobAdmissionKeys(BILLING_PROFILE_B, null, false));
+
+    verify(jobAdmissionDao).enqueueJob("job1", BILLING_PROFILE_A, "sub", true, 0.25);
+    verify(jobAdmissionDao).enqueueJob("job2", BILLING_PROFILE_B, null, false, 1.0);
+  }
+
+  @Test
+  void enqueue_duplicateJobIdIsRejected() {
+    doThrow(new DuplicateKeyException("duplicate"))
+        .when(jobAdmissionDao)
+        .enqueueJob(eq("job1"), any(), any(), anyBoolean(), anyDouble());
+
+    assertThrows(
+        DuplicateJobIdException.class,
+        () ->
+            admissionController.enqueue(
+                "job1", new JobAdmissionKeys(BILLING_PROFILE_A, null, false)));
+  }
+
+  @Test
+  void getQueuePosition_countsQueuedJobsOnly() {
+    when(jobAdmissionDao.getAdmissionQueue())
+        .thenReturn(
+            List.of(
+                admitted("running", BILLING_PROFILE_A, null),
+                queued("delete", BILLING_PROFILE_B, null),
+                queued("create", BILLING_PROFILE_B, null)));
+
+    assertThat(admissionController.getQueuePosition("create"), equalTo(OptionalInt.of(2)));
+    assertThat(admissionController.getQueuePosition("running"), equalTo(OptionalInt.empty()));
+  }
+
+  @Test
+  void endFlight_releasesSlotAndResumesAdmissibleJob() throws Exception {
+    setUpEndedFlight("job1", FlightStatus.SUCCESS);
+    when(jobAdmissionDao.deleteJobAdmission("job1")).thenReturn(true);
+    when(jobAdmissionDao.getAdmissionQueue())
+        .thenReturn(List.of(queued("job2", BILLING_PROFILE_A, null)));
+
+    admissionController.endFlight(flightContext);
+
+    verify(stairway).resume("job2");
+  }
+
+  @Test
+  void endFlight_waitingFlightKeepsItsSlot() throws Exception {
+    when(flightContext.getFlightStatus()).thenReturn(FlightStatus.WAITING);
+
+    admissionController.endFlight(flightContext);
+
+    verifyNoInteractions(jobAdmissionDao);
+    verify(stairway, never()).resume(anyString());
+  }
+
+  @Test
+  void reconcile_removesJobsWhoseFlightsEnded() throws Exception {
+    var ended = admitted("ended", BILLING_PROFILE_A, null);
+    var justQueued =
+        new JobAdmission(
+            "justQueued",
+            BILLING_PROFILE_B,
+            null,
+            false,
+            0,
+            1,
+            OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC),
+            null);
+    when(jobAdmissionDao.getAdmissionQueue())
+        .thenReturn(List.of(ended, justQueued))
+        .thenReturn(List.of(justQueued));
+    var flightState = new FlightState();
+    flightState.setFlightStatus(FlightStatus.ERROR);
+    when(stairway.getFlightState("ended")).thenReturn(flightState);
+    when(jobAdmissionDao.deleteJobAdmission("ended")).thenReturn(true);
+
+    admissionController.reconcile(stairway, GRACE_PERIOD);
+
+    // the job queued within the grace period may not have been submitted yet
+    verify(stairway, never()).getFlightState("justQueued");
+    verify(jobAdmissionDao, never()).deleteJobAdmission("justQueued");
+    verify(stairway).resume("justQueued");
+    assertThat(admissionController.getAdmittedCount(), equalTo(1));
+  }
+
+  private void setUpEndedFlight(String jobId, FlightStatus flightStatus) {
+    var inputParameters = new FlightMap();
+    inputParameters.put(LandingZoneFlightMapKeys.ADMISSION_CONTROLLED, true);
+    when(flightContext.getFlightId()).thenReturn(jobId);
+    when(flightContext.getFlightStatus()).thenReturn(flightStatus);
+    when(flightContext.getInputParameters()).thenReturn(inputParameters);
+    when(flightContext.getStairway()).thenReturn(stairway);
+  }
+
+  // answers like the DAO: the job is admitted if the policy selects it
+  @SuppressWarnings("unchecked")
+  private void stubAdmitJob(List<JobAdmission> queue) {
+    when(jobAdmissionDao.admitJob(anyString(), any()))
+        .thenAnswer(
+            invocation -> {
+              String jobId = invocation.getArgument(0);
+              var policy = (Function<List<JobAdmission>, Set<String>>) invocation.getArgument(1);
+              var job =
+                  queue.stream().filter(queued -> queued.jobId().equals(jobId)).findFirst().get();
+              return Optional.of(policy.apply(queue).contains(jobId) ? admitted(job) : job);
+            });
+  }
+
+  private static JobAdmission queued(String jobId, UUID billingProfileId, String subscriptionId) {
+    return new JobAdmission(
+        jobId,
+        billingProfileId,
+        subscriptionId,
+        false,
+        0,
+        1,
+        OffsetDateTime.ofInstant(NOW.minus(Duration.ofMinutes(5)), ZoneOffset.UTC),
+        null);
+  }
+
+  private static JobAdmission admitted(String jobId, UUID billingProfileId, String subscriptionId) {
+    return admitted(queued(jobId, billingProfileId, subscriptionId));
+  }
+
+  private static JobAdmission admitted(JobAdmission job) {
+    return new JobAdmission(
+        job.jobId(),
+        job.billingProfileId(),
+        job.subscriptionId(),
+        job.highPriority(),
+        job.startTag(),
+        job.finishTag(),
+        job.queuedDate(),
+        job.queuedDate().plusMinutes(1));
+  }
+}
@@ -0,0 +1,201 @@
+package bio.terra.landingzone.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.job.exception.InvalidJobParameterException;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.Stairway;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class JobCompletionCallbacksTest {
+  private static final String JOB_ID = "jobId";
+  private static final String CALLBACK_URL = "https://example.com/callback";
+
+  @Mock private FlightContext flightContext;
+  @Mock private HttpClient httpClient;
+  @Mock private JobCompletionListener listener;
+  @Mock private HttpResponse<Void> response;
+  @Mock private Stairway stairway;
+
+  private final FlightMap inputParameters = new FlightMap();
+  private final AtomicLong nanos = new AtomicLong();
+  private JobCompletionCallbacks completionCallbacks;
+
+  @BeforeEach
+  void setUp() {
+    // callbacks run on the calling thread
+    var jobConfig = new LandingZoneJobConfiguration();
+    jobConfig.setCompletionCallbackAllowedHosts(List.of("example.com"));
+    completionCallbacks =
+        new JobCompletionCallbacks(
+            jobConfig,
+            new ObjectMapper(),
+            httpClient,
+            Runnable::run,
+            new Ticker() {
+              @Override
+              public long read() {
+                return nanos.get();
+              }
+            });
+    lenient().when(flightContext.getFlightId()).thenReturn(JOB_ID);
+    lenient().when(flightContext.getInputParameters()).thenReturn(inputParameters);
+  }
+
+  @Test
+  void endFlight_notifiesListenerOnce() {
+    completionCallbacks.addListener(JOB_ID, listener);
+    when(flightContext.getFlightStatus()).thenReturn(FlightStatus.SUCCESS);
+
+    completionCallbacks.endFlight(flightContext);
+    completionCallbacks.endFlight(flightContext);
+
+    verify(listener).onJobCompleted(JOB_ID, FlightStatus.SUCCESS);
+    assertThat(completionCallbacks.listenedJobCount(), equalTo(0));
+    verifyNoInteractions(httpClient);
+  }
+
+  @Test
+  void endFlight_waitingFlightIsNotCompleted() {
+    completionCallbacks.addListener(JOB_ID, listener);
+    inputParameters.put(JobMapKeys.COMPLETION_CALLBACK_URL.getKeyName(), CALLBACK_URL);
+    when(flightContext.getFlightStatus()).thenReturn(FlightStatus.WAITING);
+
+    completionCallbacks.endFlight(flightContext);
+
+    verify(listener, never()).onJobCompleted(any(), any());
+    verifyNoInteractions(httpClient);
+    assertThat(completionCallbacks.listenedJobCount(), equalTo(1));
+  }
+
+  @Test
+  void endFlight_callsWebhookFromFlightParameters() {
+    inputParameters.put(JobMapKeys.COMPLETION_CALLBACK_URL.getKeyName(), CALLBACK_URL);
+    when(flightContext.getFlightStatus()).thenReturn(FlightStatus.ERROR);
+    when(response.statusCode()).thenReturn(200);
+    when(httpClient.<Void>sendAsync(any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(response));
+
+    completionCallbacks.endFlight(flightContext);
+
+    verify(httpClient)
+        .sendAsync(
+            argThat(
+                request ->
+                    request.uri().equals(URI.create(CALLBACK_URL))
+                        && request.method().equals("POST")),
+            any());
+  }
+
+  @Test
+  void endFlight_skipsWebhookOfHostWhichIsNotAllowed() {
+    inputParameters.put(
+        JobMapKeys.COMPLETION_CALLBACK_URL.getKeyName(), "https://169.254.169.254/metadata");
+    when(flightContext.getFlightStatus()).thenReturn(FlightStatus.SUCCESS);
+
+    completionCallbacks.endFlight(flightContext);
+
+    verifyNoInteractions(httpClient);
+  }
+
+  @Test
+  void validateCallbackUrl_acceptsHttpsUrlOfAllowedHost() {
+    completionCallbacks.validateCallbackUrl(URI.create("https://EXAMPLE.com:8443/callback"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "http://example.com/callback",
+        "https://example.org/callback",
+        "https://example.com.evil.org/callback",
+        "https://example.com@evil.org/callback",
+        "file:///etc/passwd"
+      })
+  void validateCallbackUrl_rejectsOtherUrls(String callbackUrl) {
+    assertThrows(
+        InvalidJobParameterException.class,
+        () -> completionCallbacks.validateCallbackUrl(URI.create(callbackUrl)));
+  }
+
+  @Test
+  void removeListener_dropsJob() {
+    completionCallbacks.addListener(JOB_ID, listener);
+
+    completionCallbacks.removeListener(JOB_ID, listener);
+
+    assertThat(completionCallbacks.listenedJobCount(), equalTo(0));
+  }
+
+  @Test
+  void pollListenedJobs_notifiesListenerOfJobCompletedElsewhere() throws Exception {
+    completionCallbacks.addListener(JOB_ID, listener);
+    when(stairway.getFlightState(JOB_ID)).thenReturn(flightState(FlightStatus.ERROR));
+
+    completionCallbacks.pollListenedJobs(stairway);
+    completionCallbacks.pollListenedJobs(stairway);
+
+    verify(listener).onJobCompleted(JOB_ID, FlightStatus.ERROR);
+    assertThat(completionCallbacks.listenedJobCount(), equalTo(0));
+  }
+
+  @Test
+  void pollListenedJobs_keepsListenerOfRunningJob() throws Exception {
+    completionCallbacks.addListener(JOB_ID, listener);
+    when(stairway.getFlightState(JOB_ID)).thenReturn(flightState(FlightStatus.RUNNING));
+
+    completionCallbacks.pollListenedJobs(stairway);
+
+    verify(listener, never()).onJobCompleted(any(), any());
+    assertThat(completionCallbacks.listenedJobCount(), equalTo(1));
+  }
+
+  @Test
+  void addListener_listenerExpires() {
+    completionCallbacks.addListener(JOB_ID, listener);
+
+    nanos.addAndGet(
+        Duration.ofSeconds(new LandingZoneJobConfiguration().getCompletionListenerTtlSeconds() + 1)
+            .toNanos());
+
+    assertThat(completionCallbacks.listenedJobCount(), equalTo(0));
+  }
+
+  private static FlightState flightState(FlightStatus flightStatus) {
+    var flightState = new FlightState();
+    flightState.setFlightId(JOB_ID);
+    flightState.setFlightStatus(flightStatus);
+    return flightState;
+  }
+}
@@ -0,0 +1,72 @@
+package bio.terra.landingzone.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit")
+class JobCompletionRegistryTest {
+  private static final String FLIGHT_ID = "flightId";
+
+  private final JobCompletionRegistry registry = new JobCompletionRegistry();
+
+  @Test
+  void endFlight_completesAllWaiters() throws Exception {
+    var first = registry.register(FLIGHT_ID);
+    var second = registry.register(FLIGHT_ID);
+
+    registry.endFlight(flightContext(FlightStatus.ERROR));
+
+    assertThat(first.get(), equalTo(FlightStatus.ERROR));
+    assertThat(second.get(), equalTo(FlightStatus.ERROR));
+    assertThat(registry.waitingFlightCount(), equalTo(0));
+  }
+
+  @Test
+  void endFlight_ignoresWaitingFlight() {
+    var future = registry.register(FLIGHT_ID);
+
+    registry.endFlight(flightContext(FlightStatus.WAITING));
+
+    assertFalse(future.isDone());
+    assertThat(registry.waitingFlightCount(), equalTo(1));
+  }
+
+  @Test
+  void stateTransition_ignoresRunningFlight() {
+    var future = registry.register(FLIGHT_ID);
+
+    registry.stateTransition(flightContext(FlightStatus.RUNNING));
+
+    assertFalse(future.isDone());
+    registry.stateTransition(flightContext(FlightStatus.SUCCESS));
+    assertTrue(future.isDone());
+  }
+
+  @Test
+  void unregister_keepsOtherWaiters() {
+    var first = registry.register(FLIGHT_ID);
+    var second = registry.register(FLIGHT_ID);
+
+    registry.unregister(FLIGHT_ID, first);
+    assertThat(registry.waitingFlightCount(), equalTo(1));
+
+    registry.unregister(FLIGHT_ID, second);
+    assertThat(registry.waitingFlightCount(), equalTo(0));
+  }
+
+  private FlightContext flightContext(FlightStatus flightStatus) {
+    var context = mock(FlightContext.class);
+    when(context.getFlightId()).thenReturn(FLIGHT_ID);
+    when(context.getFlightStatus()).thenReturn(flightStatus);
+    return context;
+  }
+}
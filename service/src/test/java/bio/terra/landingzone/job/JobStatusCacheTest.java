@@ -0,0 +1,83 @@
+package bio.terra.landingzone.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class JobStatusCacheTest {
+  private static final String FLIGHT_ID = "flightId";
+
+  @Mock private FlightContext flightContext;
+
+  private JobStatusCache jobStatusCache;
+
+  @BeforeEach
+  void setUp() {
+    var jobConfig = new LandingZoneJobConfiguration();
+    jobStatusCache = new JobStatusCache(jobConfig);
+    lenient().when(flightContext.getFlightId()).thenReturn(FLIGHT_ID);
+  }
+
+  @Test
+  void getRunningFlightState_servesLocalRunningFlight() {
+    jobStatusCache.startFlight(flightContext);
+    var flightState = flightState(FlightStatus.RUNNING);
+
+    jobStatusCache.put(flightState);
+
+    assertThat(jobStatusCache.getRunningFlightState(FLIGHT_ID), equalTo(Optional.of(flightState)));
+  }
+
+  @Test
+  void put_ignoresFlightRunningOnAnotherNode() {
+    jobStatusCache.put(flightState(FlightStatus.RUNNING));
+
+    assertThat(jobStatusCache.getRunningFlightState(FLIGHT_ID), equalTo(Optional.empty()));
+  }
+
+  @Test
+  void endFlight_evictsFlight() {
+    jobStatusCache.startFlight(flightContext);
+    jobStatusCache.put(flightState(FlightStatus.RUNNING));
+
+    jobStatusCache.endFlight(flightContext);
+
+    assertThat(jobStatusCache.getRunningFlightState(FLIGHT_ID), equalTo(Optional.empty()));
+    // a late read of the flight is not cached again
+    jobStatusCache.put(flightState(FlightStatus.RUNNING));
+    assertThat(jobStatusCache.size(), equalTo(0L));
+  }
+
+  @Test
+  void stateTransition_evictsFinishedFlight() {
+    jobStatusCache.startFlight(flightContext);
+    jobStatusCache.put(flightState(FlightStatus.RUNNING));
+    when(flightContext.getFlightStatus()).thenReturn(FlightStatus.SUCCESS);
+
+    jobStatusCache.stateTransition(flightContext);
+
+    assertThat(jobStatusCache.getRunningFlightState(FLIGHT_ID), equalTo(Optional.empty()));
+  }
+
+  private static FlightState flightState(FlightStatus flightStatus) {
+    var flightState = new FlightState();
+    flightState.setFlightId(FLIGHT_ID);
+    flightState.setFlightStatus(flightStatus);
+    return flightState;
+  }
+}
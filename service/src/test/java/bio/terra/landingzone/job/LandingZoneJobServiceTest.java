@@ -1,15 +1,18 @@
 package bio.terra.landingzone.job;
 
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import bio.terra.common.exception.ErrorReportException;
@@ -21,6 +24,7 @@ import bio.terra.landingzone.job.exception.JobNotFoundException;
 import bio.terra.landingzone.job.model.JobReport;
 import bio.terra.landingzone.library.configuration.LandingZoneIngressConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneStairwayProperties;
 import bio.terra.landingzone.library.configuration.stairway.LandingZoneStairwayDatabaseConfiguration;
 import bio.terra.landingzone.service.iam.LandingZoneSamService;
 import bio.terra.landingzone.service.iam.SamConstants;
@@ -28,16 +32,22 @@ import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
 import bio.terra.landingzone.service.landingzone.azure.model.StartLandingZoneCreation;
 import bio.terra.landingzone.stairway.common.utils.LandingZoneMdcHook;
+import bio.terra.landingzone.stairway.common.utils.ParentFlightResumeHook;
+import bio.terra.landingzone.stairway.common.utils.StepTimingHook;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.delete.DeleteLandingZoneFlight;
 import bio.terra.stairway.FlightMap;
 import bio.terra.stairway.FlightState;
 import bio.terra.stairway.FlightStatus;
 import bio.terra.stairway.Stairway;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -56,7 +66,14 @@ class LandingZoneJobServiceTest {
   @Mock private LandingZoneJobConfiguration jobConfig;
   @Mock private LandingZoneIngressConfiguration ingressConfig;
   @Mock private LandingZoneStairwayDatabaseConfiguration dbConfig;
+  @Mock private LandingZoneStairwayProperties stairwayProperties;
   @Mock private LandingZoneMdcHook mdcHook;
+  private final JobCompletionRegistry completionRegistry = new JobCompletionRegistry();
+  @Mock private JobStatusCache jobStatusCache;
+  @Mock private JobCompletionCallbacks completionCallbacks;
+  @Mock private JobAdmissionController admissionController;
+  @Mock private ParentFlightResumeHook parentFlightResumeHook;
+  @Mock private StepTimingHook stepTimingHook;
   @Mock private StairwayComponent stairwayComponent;
   @Mock private LandingZoneFlightBeanBag flightBeanBag;
   @Mock private ObjectMapper mapper;
@@ -76,7 +93,14 @@ class LandingZoneJobServiceTest {
             jobConfig,
             ingressConfig,
             dbConfig,
+            stairwayProperties,
             mdcHook,
+            completionRegistry,
+            jobStatusCache,
+            completionCallbacks,
+            admissionController,
+            parentFlightResumeHook,
+            stepTimingHook,
             stairwayComponent,
             flightBeanBag,
             mapper,
@@ -271,6 +295,219 @@ class LandingZoneJobServiceTest {
     assertThat(asyncResult.getApiErrorReport().getMessage(), equalTo(EXCEPTION_MSG));
   }
 
+  @Test
+  void asyncJobResultRequest_readsFlightStateOnce() throws InterruptedException {
+    // a job result request used to load the flight three times: for the access check, the job
+    // report and the result; each load deserializes the input and result maps
+    String jobId = "myjob";
+    var inputParameters = new FlightMap();
+    inputParameters.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.randomUUID());
+    var resultMap = new FlightMap();
+    resultMap.put(JobMapKeys.RESPONSE.getKeyName(), "result");
+    var state = new FlightState();
+    state.setFlightId(jobId);
+    state.setFlightStatus(FlightStatus.SUCCESS);
+    state.setInputParameters(inputParameters);
+    state.setResultMap(resultMap);
+    state.setSubmitted(Instant.now());
+    state.setCompleted(Instant.now());
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    when(stairwayInstance.getFlightState(jobId)).thenReturn(state);
+    when(ingressConfig.getDomainName()).thenReturn("https://foo.com");
+
+    var flightState = landingZoneJobService.retrieveFlightState(jobId);
+    landingZoneJobService.verifyUserAccess(bearerToken, flightState);
+    var asyncResult = landingZoneJobService.retrieveAsyncJobResult(flightState, String.class);
+
+    assertThat(asyncResult.getResult(), equalTo("result"));
+    assertThat(asyncResult.getJobReport().getStatus(), equalTo(JobReport.StatusEnum.SUCCEEDED));
+    verify(stairwayInstance, times(1)).getFlightState(jobId);
+  }
+
+  @Test
+  void getJobTimeline_userWithoutAccessIsRejected() throws InterruptedException {
+    String jobId = "myjob";
+    UUID landingZoneId = UUID.randomUUID();
+    var inputParameters = new FlightMap();
+    inputParameters.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId);
+    inputParameters.put(
+        LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS,
+        createDefaultLandingZoneRequestBuilder().build());
+    var state = new FlightState();
+    state.setFlightId(jobId);
+    state.setFlightStatus(FlightStatus.RUNNING);
+    state.setInputParameters(inputParameters);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    when(stairwayInstance.getFlightState(jobId)).thenReturn(state);
+    doThrow(ForbiddenException.class)
+        .when(samService)
+        .checkAuthz(
+            eq(bearerToken),
+            eq(SamConstants.SamResourceType.LANDING_ZONE),
+            eq(landingZoneId.toString()),
+            eq(SamConstants.SamLandingZoneAction.LIST_RESOURCES));
+
+    assertThrows(
+        ErrorReportException.class,
+        () -> landingZoneJobService.getJobTimeline(bearerToken, jobId));
+    verifyNoInteractions(stepTimingHook);
+  }
+
+  @Test
+  void getJobTimeline_deleteJobIsCheckedLikeDeleteJobResult() throws InterruptedException {
+    String jobId = "myjob";
+    UUID landingZoneId = UUID.randomUUID();
+    var inputParameters = new FlightMap();
+    inputParameters.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId);
+    var state = new FlightState();
+    state.setFlightId(jobId);
+    state.setFlightStatus(FlightStatus.RUNNING);
+    state.setInputParameters(inputParameters);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    when(stairwayInstance.getFlightState(jobId)).thenReturn(state);
+    doThrow(ForbiddenException.class)
+        .when(samService)
+        .checkAuthz(
+            eq(bearerToken),
+            eq(SamConstants.SamResourceType.LANDING_ZONE),
+            eq(landingZoneId.toString()),
+            eq(SamConstants.SamLandingZoneAction.DELETE));
+
+    assertThrows(
+        ErrorReportException.class,
+        () -> landingZoneJobService.getJobTimeline(bearerToken, jobId));
+    verifyNoInteractions(stepTimingHook);
+  }
+
+  @Test
+  void submit_admissionControlledJobIsQueuedAndSubmittedRightAway() throws Exception {
+    String jobId = "myjob";
+    var keys = new JobAdmissionKeys(UUID.randomUUID(), "subscription", true);
+    var parameterMap = new FlightMap();
+    when(admissionController.isEnabled()).thenReturn(true);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+
+    landingZoneJobService.submit(DeleteLandingZoneFlight.class, parameterMap, jobId, keys);
+
+    verify(admissionController).enqueue(jobId, keys);
+    verify(stairwayInstance)
+        .submitWithDebugInfo(
+            eq(jobId), eq(DeleteLandingZoneFlight.class), eq(parameterMap), eq(false), any());
+    assertThat(
+        parameterMap.get(LandingZoneFlightMapKeys.ADMISSION_CONTROLLED, Boolean.class),
+        equalTo(true));
+  }
+
+  @Test
+  void submit_failedSubmissionRemovesQueuedJob() throws Exception {
+    String jobId = "myjob";
+    var keys = new JobAdmissionKeys(UUID.randomUUID(), null, false);
+    when(admissionController.isEnabled()).thenReturn(true);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    doThrow(new IllegalStateException("stairway down"))
+        .when(stairwayInstance)
+        .submitWithDebugInfo(eq(jobId), eq(DeleteLandingZoneFlight.class), any(), eq(false), any());
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            landingZoneJobService.submit(
+                DeleteLandingZoneFlight.class, new FlightMap(), jobId, keys));
+    verify(admissionController).dequeue(jobId);
+  }
+
+  @Test
+  void waitForJob_returnsWhenCompletionIsSignalled() throws Exception {
+    String jobId = "myjob";
+    when(jobConfig.getTimeoutSeconds()).thenReturn(60);
+    when(jobConfig.getFallbackPollingIntervalSeconds()).thenReturn(60);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    when(stairwayInstance.getFlightState(jobId)).thenReturn(flightState);
+    when(flightState.isActive()).thenReturn(true, false);
+
+    var waiter = CompletableFuture.runAsync(() -> landingZoneJobService.waitForJob(jobId));
+    await().atMost(Duration.ofSeconds(5)).until(() -> completionRegistry.waitingFlightCount() == 1);
+    completionRegistry.complete(jobId, FlightStatus.SUCCESS);
+
+    // the fallback poll interval is a minute, so only the signal can release the waiter this fast
+    waiter.get(5, TimeUnit.SECONDS);
+    verify(stairwayInstance, times(2)).getFlightState(jobId);
+    assertThat(completionRegistry.waitingFlightCount(), equalTo(0));
+  }
+
+  @Test
+  void waitForJob_completedFlightDoesNotWait() throws Exception {
+    String jobId = "myjob";
+    when(jobConfig.getTimeoutSeconds()).thenReturn(60);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    when(stairwayInstance.getFlightState(jobId)).thenReturn(flightState);
+    when(flightState.isActive()).thenReturn(false);
+
+    landingZoneJobService.waitForJob(jobId);
+
+    verify(stairwayInstance, times(1)).getFlightState(jobId);
+    assertThat(completionRegistry.waitingFlightCount(), equalTo(0));
+  }
+
+  @Test
+  void awaitJobResult_returnsWhenCompletionIsSignalled() throws Exception {
+    String jobId = "myjob";
+    when(jobConfig.getMaxAwaitSeconds()).thenReturn(60);
+    when(jobConfig.getFallbackPollingIntervalSeconds()).thenReturn(60);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    when(ingressConfig.getDomainName()).thenReturn("https://foo.com");
+    var resultMap = new FlightMap();
+    resultMap.put(JobMapKeys.RESPONSE.getKeyName(), "result");
+    when(stairwayInstance.getFlightState(jobId))
+        .thenReturn(jobFlightState(jobId, FlightStatus.RUNNING, null))
+        .thenReturn(jobFlightState(jobId, FlightStatus.SUCCESS, resultMap));
+
+    var waiter =
+        CompletableFuture.supplyAsync(
+            () -> landingZoneJobService.awaitJobResult(jobId, Duration.ofMinutes(1), String.class));
+    await().atMost(Duration.ofSeconds(5)).until(() -> completionRegistry.waitingFlightCount() == 1);
+    completionRegistry.complete(jobId, FlightStatus.SUCCESS);
+
+    // the fallback poll interval is a minute, so only the signal can release the waiter this fast
+    var asyncResult = waiter.get(5, TimeUnit.SECONDS);
+    assertThat(asyncResult.getResult(), equalTo("result"));
+    assertThat(asyncResult.getJobReport().getStatus(), equalTo(JobReport.StatusEnum.SUCCEEDED));
+    verify(stairwayInstance, times(2)).getFlightState(jobId);
+    assertThat(completionRegistry.waitingFlightCount(), equalTo(0));
+  }
+
+  @Test
+  void awaitJobResult_returnsRunningJobReportAfterMaxWait() throws Exception {
+    String jobId = "myjob";
+    when(jobConfig.getMaxAwaitSeconds()).thenReturn(60);
+    when(jobConfig.getFallbackPollingIntervalSeconds()).thenReturn(60);
+    when(stairwayComponent.get()).thenReturn(stairwayInstance);
+    when(ingressConfig.getDomainName()).thenReturn("https://foo.com");
+    when(stairwayInstance.getFlightState(jobId))
+        .thenReturn(jobFlightState(jobId, FlightStatus.RUNNING, null));
+
+    var asyncResult =
+        landingZoneJobService.awaitJobResult(jobId, Duration.ofMillis(100), String.class);
+
+    assertThat(asyncResult.getJobReport().getStatus(), equalTo(JobReport.StatusEnum.RUNNING));
+    assertThat(asyncResult.getResult(), nullValue());
+    assertThat(completionRegistry.waitingFlightCount(), equalTo(0));
+  }
+
+  private static FlightState jobFlightState(
+      String jobId, FlightStatus flightStatus, FlightMap resultMap) {
+    var state = new FlightState();
+    state.setFlightId(jobId);
+    state.setFlightStatus(flightStatus);
+    state.setInputParameters(new FlightMap());
+    state.setSubmitted(Instant.now());
+    if (resultMap != null) {
+      state.setResultMap(resultMap);
+      state.setCompleted(Instant.now());
+    }
+    return state;
+  }
+
   private void setUpFailedScenarioForRetrieveStartingAsyncJobResult(
       String jobId, FlightStatus flightStatus) throws InterruptedException {
     when(stairwayComponent.get()).thenReturn(stairwayInstance);
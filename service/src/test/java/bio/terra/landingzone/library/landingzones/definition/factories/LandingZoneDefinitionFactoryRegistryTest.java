@@ -0,0 +1,66 @@
+package bio.terra.landingzone.library.landingzones.definition.factories;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.library.landingzones.definition.DefinitionVersion;
+import bio.terra.landingzone.library.landingzones.definition.FactoryDefinitionInfo;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit")
+class LandingZoneDefinitionFactoryRegistryTest {
+
+  @Test
+  void getInstance_containsTestLandingZoneDefinitionFactory() {
+    var registry = LandingZoneDefinitionFactoryRegistry.getInstance();
+
+    assertThat(
+        registry.listDefinitions(),
+        hasItem(
+            new FactoryDefinitionInfo(
+                TestLandingZoneFactory.LZ_NAME,
+                TestLandingZoneFactory.LZ_DESC,
+                TestLandingZoneFactory.class.getSimpleName(),
+                List.of(DefinitionVersion.V1))));
+    assertThat(
+        registry.getFactoryClass(TestLandingZoneFactory.class.getSimpleName()).orElseThrow(),
+        equalTo(TestLandingZoneFactory.class));
+  }
+
+  @Test
+  void getInstance_returnsSameRegistry() {
+    assertThat(
+        LandingZoneDefinitionFactoryRegistry.getInstance(),
+        sameInstance(LandingZoneDefinitionFactoryRegistry.getInstance()));
+  }
+
+  @Test
+  void lookupsDoNotScanAgain() {
+    var listProvider = mock(LandingZoneDefinitionFactoryListProvider.class);
+    when(listProvider.listFactories()).thenReturn(List.of());
+    when(listProvider.listFactoriesClasses()).thenReturn(List.of(TestLandingZoneFactory.class));
+    var registry = new LandingZoneDefinitionFactoryRegistry(listProvider);
+
+    registry.listDefinitions();
+    registry.getFactoryClass(TestLandingZoneFactory.class.getSimpleName());
+    registry.getFactoryClass(TestLandingZoneFactory.class.getSimpleName());
+
+    verify(listProvider, times(1)).listFactories();
+    verify(listProvider, times(1)).listFactoriesClasses();
+  }
+
+  @Test
+  void getFactoryClass_unknownNameIsEmpty() {
+    assertTrue(
+        LandingZoneDefinitionFactoryRegistry.getInstance().getFactoryClass("unknown").isEmpty());
+  }
+}
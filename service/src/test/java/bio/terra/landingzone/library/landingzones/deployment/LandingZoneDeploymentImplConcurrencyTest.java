@@ -0,0 +1,101 @@
+package bio.terra.landingzone.library.landingzones.deployment;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.azure.resourcemanager.batch.models.BatchAccount;
+import com.azure.resourcemanager.network.models.PrivateEndpoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+@Tag("unit")
+class LandingZoneDeploymentImplConcurrencyTest {
+  private static final int BATCH_ACCOUNTS = 3;
+
+  private LandingZoneDeploymentsImpl landingZoneDeployments;
+
+  @BeforeEach
+  void setUp() {
+    landingZoneDeployments = new LandingZoneDeploymentsImpl();
+  }
+
+  @Test
+  void deployAsync_blockingCreatesRunConcurrentlyOnSubscription() {
+    // every create waits until all of them have started, which only happens when they overlap
+    var allStarted = new CountDownLatch(BATCH_ACCOUNTS);
+    List<BatchAccount.DefinitionStages.WithCreate> batchAccounts = new ArrayList<>();
+    var deployment = landingZoneDeployments.define(UUID.randomUUID().toString());
+    for (int i = 0; i < BATCH_ACCOUNTS; i++) {
+      var batchAccount = mockBatchAccount(allStarted, new AtomicInteger());
+      batchAccounts.add(batchAccount);
+      deployment.withResourceWithPurpose(batchAccount, ResourcePurpose.SHARED_RESOURCE);
+    }
+
+    var deployedResources = deployment.withResource(mockPrivateEndpoint()).deployAsync();
+    batchAccounts.forEach(batchAccount -> verify(batchAccount, never()).create());
+
+    assertThat(deployedResources.collectList().block(), hasSize(BATCH_ACCOUNTS + 1));
+  }
+
+  @Test
+  void deployAsync_privateEndpointIsCreatedAfterReferencedResources() {
+    var created = new AtomicInteger();
+    var batchAccount = mockBatchAccount(new CountDownLatch(1), created);
+    var batchCreatedFirst = new AtomicBoolean();
+    PrivateEndpoint privateEndpoint = mock(PrivateEndpoint.class);
+    var privateEndpointDefinition = mock(PrivateEndpoint.DefinitionStages.WithCreate.class);
+    when(privateEndpointDefinition.createAsync())
+        .thenAnswer(
+            invocation -> {
+              batchCreatedFirst.set(created.get() == 1);
+              return Mono.just(privateEndpoint);
+            });
+
+    landingZoneDeployments
+        .define(UUID.randomUUID().toString())
+        .withResourceWithPurpose(privateEndpointDefinition, ResourcePurpose.SHARED_RESOURCE)
+        .withResourceWithPurpose(batchAccount, ResourcePurpose.SHARED_RESOURCE)
+        .deploy();
+
+    assertThat(batchCreatedFirst.get(), equalTo(true));
+  }
+
+  private static BatchAccount.DefinitionStages.WithCreate mockBatchAccount(
+      CountDownLatch allStarted, AtomicInteger created) {
+    BatchAccount account = mock(BatchAccount.class);
+    var definition = mock(BatchAccount.DefinitionStages.WithCreate.class);
+    when(definition.create())
+        .thenAnswer(
+            invocation -> {
+              allStarted.countDown();
+              if (!allStarted.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Batch accounts were created one by one");
+              }
+              TimeUnit.MILLISECONDS.sleep(50);
+              created.incrementAndGet();
+              return account;
+            });
+    return definition;
+  }
+
+  private static PrivateEndpoint.DefinitionStages.WithCreate mockPrivateEndpoint() {
+    var definition = mock(PrivateEndpoint.DefinitionStages.WithCreate.class);
+    PrivateEndpoint privateEndpoint = mock(PrivateEndpoint.class);
+    when(definition.createAsync()).thenReturn(Mono.just(privateEndpoint));
+    return definition;
+  }
+}
@@ -2,18 +2,26 @@ package bio.terra.landingzone.library.landingzones.management;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import bio.terra.landingzone.library.landingzones.management.deleterules.DeleteRule;
+import bio.terra.landingzone.library.landingzones.management.deleterules.DeleteRuleContext;
 import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -55,8 +63,8 @@ class DeleteRulesVerifierTest {
 
     when(deleteRuleResult1.isDeletable()).thenReturn(true);
     when(deleteRuleResult2.isDeletable()).thenReturn(true);
-    when(deleteRule1.applyRule(any())).thenReturn(deleteRuleResult1);
-    when(deleteRule2.applyRule(any())).thenReturn(deleteRuleResult2);
+    when(deleteRule1.applyRule(any(), any())).thenReturn(deleteRuleResult1);
+    when(deleteRule2.applyRule(any(), any())).thenReturn(deleteRuleResult2);
 
     deleteRulesVerifier.checkIfRulesAllowDelete(resourcesToDelete);
   }
@@ -68,8 +76,8 @@ class DeleteRulesVerifierTest {
     when(deleteRuleResult1.isDeletable()).thenReturn(true);
     when(deleteRuleResult2.isDeletable()).thenReturn(false);
     when(deleteRuleResult2.reason()).thenReturn("failed 2");
-    when(deleteRule1.applyRule(any())).thenReturn(deleteRuleResult1);
-    when(deleteRule2.applyRule(any())).thenReturn(deleteRuleResult2);
+    when(deleteRule1.applyRule(any(), any())).thenReturn(deleteRuleResult1);
+    when(deleteRule2.applyRule(any(), any())).thenReturn(deleteRuleResult2);
 
     var ex =
         assertThrows(
@@ -87,8 +95,8 @@ class DeleteRulesVerifierTest {
     when(deleteRuleResult2.isDeletable()).thenReturn(false);
     when(deleteRuleResult1.reason()).thenReturn("failed 1");
     when(deleteRuleResult2.reason()).thenReturn("failed 2");
-    when(deleteRule1.applyRule(any())).thenReturn(deleteRuleResult1);
-    when(deleteRule2.applyRule(any())).thenReturn(deleteRuleResult2);
+    when(deleteRule1.applyRule(any(), any())).thenReturn(deleteRuleResult1);
+    when(deleteRule2.applyRule(any(), any())).thenReturn(deleteRuleResult2);
 
     var ex =
         assertThrows(
@@ -98,4 +106,45 @@ class DeleteRulesVerifierTest {
     assertThat(ex.getMessage(), containsString("failed 1"));
     assertThat(ex.getMessage(), containsString("failed 2"));
   }
+
+  @Test
+  void checkIfRulesAllowDelete_rulesShareOneContext() throws LandingZoneRuleDeleteException {
+    List<ResourceToDelete> resourcesToDelete = List.of(resourceToDelete1, resourceToDelete2);
+
+    when(deleteRuleResult1.isDeletable()).thenReturn(true);
+    when(deleteRuleResult2.isDeletable()).thenReturn(true);
+    when(deleteRule1.applyRule(any(), any())).thenReturn(deleteRuleResult1);
+    when(deleteRule2.applyRule(any(), any())).thenReturn(deleteRuleResult2);
+
+    deleteRulesVerifier.checkIfRulesAllowDelete(resourcesToDelete);
+
+    var contextCaptor = ArgumentCaptor.forClass(DeleteRuleContext.class);
+    verify(deleteRule1, times(2)).applyRule(any(), contextCaptor.capture());
+    verify(deleteRule2, times(2)).applyRule(any(), contextCaptor.capture());
+    assertThat(Set.copyOf(contextCaptor.getAllValues()), hasSize(1));
+  }
+
+  @Test
+  void checkIfRulesAllowDelete_ruleFails_remainingResourcesAreNotChecked() {
+    List<ResourceToDelete> resourcesToDelete = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      resourcesToDelete.add(mock(ResourceToDelete.class));
+    }
+
+    when(deleteRuleResult1.isDeletable()).thenReturn(false);
+    when(deleteRuleResult2.isDeletable()).thenReturn(true);
+    when(deleteRuleResult1.reason()).thenReturn("failed 1");
+    when(deleteRule1.applyRule(any(), any())).thenReturn(deleteRuleResult1);
+    when(deleteRule2.applyRule(any(), any())).thenReturn(deleteRuleResult2);
+
+    var ex =
+        assertThrows(
+            LandingZoneRuleDeleteException.class,
+            () -> deleteRulesVerifier.checkIfRulesAllowDelete(resourcesToDelete));
+
+    assertThat(ex.getMessage(), containsString("failed 1"));
+    // resources whose check had already started when the first failure was found may finish
+    verify(deleteRule1, atMost(DeleteRulesVerifier.MAX_CONCURRENT_VERIFICATIONS * 2))
+        .applyRule(any(), any());
+  }
 }
@@ -0,0 +1,265 @@
+package bio.terra.landingzone.library.landingzones.management;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import bio.terra.landingzone.library.landingzones.deployment.LandingZoneTagKeys;
+import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
+import com.azure.core.http.rest.PagedIterable;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.network.models.PrivateEndpoint;
+import com.azure.resourcemanager.network.models.PrivateEndpoints;
+import com.azure.resourcemanager.resources.models.GenericResource;
+import com.azure.resourcemanager.resources.models.GenericResources;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+@Tag("unit")
+class ResourcesDeleteManagerTest {
+  private static final Logger logger = LoggerFactory.getLogger(ResourcesDeleteManagerTest.class);
+  private static final String RESOURCE_GROUP = "mrg";
+  private static final Duration DELETE_DURATION = Duration.ofMillis(200);
+  private static final int SCALE_RESOURCES = 10_000;
+
+  private final String landingZoneId = UUID.randomUUID().toString();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final AtomicInteger completed = new AtomicInteger();
+
+  private GenericResources genericResources;
+  private PrivateEndpoints privateEndpoints;
+  private ResourcesDeleteManager resourcesDeleteManager;
+
+  @BeforeEach
+  void setUp() {
+    genericResources = mock(GenericResources.class);
+    privateEndpoints = mock(PrivateEndpoints.class);
+    listPrivateEndpoints();
+    AzureResourceManager azureResourceManager = mock(AzureResourceManager.class);
+    when(azureResourceManager.genericResources()).thenReturn(genericResources);
+    when(azureResourceManager.privateEndpoints()).thenReturn(privateEndpoints);
+    ArmManagers armManagers = mock(ArmManagers.class);
+    when(armManagers.azureResourceManager()).thenReturn(azureResourceManager);
+
+    resourcesDeleteManager =
+        new ResourcesDeleteManager(armManagers, mock(DeleteRulesVerifier.class));
+  }
+
+  @Test
+  void deleteLandingZoneResources_dependentResourcesAreDeletedConcurrentlyBeforeBaseResources()
+      throws LandingZoneRuleDeleteException {
+    var storage = mockResource("storage", "Microsoft.Storage/storageAccounts");
+    var batch = mockResource("batch", "Microsoft.Batch/batchAccounts");
+    var vnet = mockResource("vnet", LandingZoneBaseResourceType.AZURE_VNET.toString());
+    var relay = mockResource("relay", "Microsoft.Relay/namespaces");
+    listResources(storage, batch, vnet, relay);
+    mockDelete(storage);
+    mockDelete(batch);
+    mockDelete(relay);
+    var completedBeforeVnet = new AtomicInteger(-1);
+    when(genericResources.deleteByIdAsync(vnet.id()))
+        .thenAnswer(
+            invocation -> {
+              completedBeforeVnet.set(completed.get());
+              return trackedDelete(Mono.empty());
+            });
+
+    var deleted = resourcesDeleteManager.deleteLandingZoneResources(landingZoneId, RESOURCE_GROUP);
+
+    assertThat(deleted, contains(storage, batch, relay, vnet));
+    assertThat(maxInFlight.get(), equalTo(3));
+    assertThat(completedBeforeVnet.get(), equalTo(3));
+  }
+
+  @Test
+  void deleteLandingZoneResources_failureIsThrownOnceTheTierHasFinished() {
+    var storage = mockResource("storage", "Microsoft.Storage/storageAccounts");
+    var batch = mockResource("batch", "Microsoft.Batch/batchAccounts");
+    var vnet = mockResource("vnet", LandingZoneBaseResourceType.AZURE_VNET.toString());
+    listResources(storage, batch, vnet);
+    var failure = new IllegalStateException("delete failed");
+    when(genericResources.deleteByIdAsync(storage.id()))
+        .thenAnswer(invocation -> Mono.error(failure));
+    mockDelete(batch);
+
+    var thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () -> resourcesDeleteManager.deleteLandingZoneResources(landingZoneId, RESOURCE_GROUP));
+
+    assertThat(thrown, sameInstance(failure));
+    // the failure did not cancel the delete of the other resource in the tier
+    assertThat(completed.get(), equalTo(1));
+    verify(genericResources, never()).deleteByIdAsync(vnet.id());
+  }
+
+  @Test
+  void deleteResources_callbackSeesEachResourceAsItsDeleteFinishes() {
+    var storage = new ResourceDeletion("storage", "storageType", null, List.of());
+    var batch = new ResourceDeletion("batch", "batchType", null, List.of());
+    when(genericResources.deleteByIdAsync(storage.resourceId()))
+        .thenAnswer(
+            invocation -> trackedDelete(Mono.delay(DELETE_DURATION.multipliedBy(5)).then()));
+    when(genericResources.deleteByIdAsync(batch.resourceId()))
+        .thenAnswer(invocation -> trackedDelete(Mono.delay(DELETE_DURATION).then()));
+    var reported = new CopyOnWriteArrayList<String>();
+
+    var results =
+        resourcesDeleteManager.deleteResources(
+            List.of(storage, batch), result -> reported.add(result.resourceId()));
+
+    // results keep the order of the resources, the callback follows the order of completion
+    assertThat(
+        results.stream().map(ResourceDeleteResult::resourceId).toList(),
+        contains(storage.resourceId(), batch.resourceId()));
+    assertThat(reported, contains(batch.resourceId(), storage.resourceId()));
+  }
+
+  @Test
+  void deleteLandingZoneResources_privateEndpointsAndSolutionsAreDeletedWithTheirResource()
+      throws LandingZoneRuleDeleteException {
+    var storage = mockResource("storage", "Microsoft.Storage/storageAccounts");
+    var workspace = mockResource("lzworkspace", "Microsoft.OperationalInsights/workspaces");
+    var containerInsights =
+        mockResource(
+            "ContainerInsights(LZWorkspace)", AzureResourceTypeUtils.AZURE_SOLUTIONS_TYPE, null);
+    var otherSolution =
+        mockResource(
+            "SecurityInsights(otherworkspace)", AzureResourceTypeUtils.AZURE_SOLUTIONS_TYPE, null);
+    listResources(storage, containerInsights, workspace, otherSolution);
+    var privateEndpoint = mockPrivateEndpoint("storage-pe", storage.id().toUpperCase());
+    listPrivateEndpoints(privateEndpoint);
+    List.of(storage.id(), workspace.id(), containerInsights.id(), privateEndpoint.id())
+        .forEach(id -> when(genericResources.deleteByIdAsync(id)).thenReturn(Mono.empty()));
+
+    var deleted = resourcesDeleteManager.deleteLandingZoneResources(landingZoneId, RESOURCE_GROUP);
+
+    assertThat(deleted, contains(storage, workspace));
+    verify(genericResources).deleteByIdAsync(privateEndpoint.id());
+    verify(genericResources).deleteByIdAsync(containerInsights.id());
+    verify(genericResources, never()).deleteByIdAsync(otherSolution.id());
+  }
+
+  @Test
+  void deleteLandingZoneResources_resourceGroupIsListedOnceAtScale() {
+    // a shared resource group with 10k resources, a tenth of them in the landing zone and each of
+    // those behind a private endpoint
+    List<GenericResource> resources = new ArrayList<>();
+    List<PrivateEndpoint> endpoints = new ArrayList<>();
+    for (int i = 0; i < SCALE_RESOURCES; i++) {
+      boolean inLandingZone = i % 10 == 0;
+      var resource =
+          mockResource(
+              "resource" + i,
+              "Microsoft.Storage/storageAccounts",
+              inLandingZone ? landingZoneId : UUID.randomUUID().toString());
+      resources.add(resource);
+      if (inLandingZone) {
+        endpoints.add(mockPrivateEndpoint("pe" + i, resource.id()));
+      }
+    }
+    listResources(resources.toArray(GenericResource[]::new));
+    listPrivateEndpoints(endpoints.toArray(PrivateEndpoint[]::new));
+    when(genericResources.deleteByIdAsync(anyString())).thenReturn(Mono.empty());
+
+    var started = System.nanoTime();
+    var deleted =
+        assertTimeoutPreemptively(
+            Duration.ofSeconds(30),
+            () -> resourcesDeleteManager.deleteLandingZoneResources(landingZoneId, RESOURCE_GROUP));
+    logger.info(
+        "Discovered and deleted {} of {} resources in {}",
+        deleted.size(),
+        SCALE_RESOURCES,
+        Duration.ofNanos(System.nanoTime() - started));
+
+    assertThat(deleted, hasSize(SCALE_RESOURCES / 10));
+    verify(genericResources).listByResourceGroup(RESOURCE_GROUP);
+    verify(genericResources, times(SCALE_RESOURCES / 5)).deleteByIdAsync(anyString());
+  }
+
+  private GenericResource mockResource(String name, String type) {
+    return mockResource(name, type, landingZoneId);
+  }
+
+  private GenericResource mockResource(String name, String type, String resourceLandingZoneId) {
+    GenericResource resource = mock(GenericResource.class);
+    when(resource.id()).thenReturn("/subscriptions/sub/resourceGroups/mrg/" + name);
+    when(resource.name()).thenReturn(name);
+    when(resource.type()).thenReturn(type);
+    when(resource.resourceProviderNamespace()).thenReturn(type.split("/")[0]);
+    when(resource.resourceType()).thenReturn(type.split("/")[1]);
+    when(resource.tags())
+        .thenReturn(
+            resourceLandingZoneId == null
+                ? Map.of()
+                : Map.of(LandingZoneTagKeys.LANDING_ZONE_ID.toString(), resourceLandingZoneId));
+    return resource;
+  }
+
+  private PrivateEndpoint mockPrivateEndpoint(String name, String linkedResourceId) {
+    var connection = mock(PrivateEndpoint.PrivateLinkServiceConnection.class);
+    when(connection.privateLinkResourceId()).thenReturn(linkedResourceId);
+    PrivateEndpoint privateEndpoint = mock(PrivateEndpoint.class);
+    when(privateEndpoint.id()).thenReturn("/subscriptions/sub/resourceGroups/mrg/" + name);
+    when(privateEndpoint.privateLinkServiceConnections()).thenReturn(Map.of(name, connection));
+    return privateEndpoint;
+  }
+
+  private void listPrivateEndpoints(PrivateEndpoint... endpoints) {
+    when(privateEndpoints.listByResourceGroup(RESOURCE_GROUP))
+        .thenAnswer(invocation -> toMockPageIterable(List.of(endpoints)));
+  }
+
+  private void listResources(GenericResource... resources) {
+    // resources are listed more than once, and each listing needs its own stream
+    when(genericResources.listByResourceGroup(RESOURCE_GROUP))
+        .thenAnswer(invocation -> toMockPageIterable(List.of(resources)));
+  }
+
+  private void mockDelete(GenericResource resource) {
+    when(genericResources.deleteByIdAsync(resource.id()))
+        .thenAnswer(invocation -> trackedDelete(Mono.delay(DELETE_DURATION).then()));
+  }
+
+  private Mono<Void> trackedDelete(Mono<Void> delete) {
+    return delete
+        .doOnSubscribe(
+            subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+        .doOnSuccess(
+            ignored -> {
+              inFlight.decrementAndGet();
+              completed.incrementAndGet();
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> PagedIterable<T> toMockPageIterable(List<T> items) {
+    var pageIterable = mock(PagedIterable.class);
+    when(pageIterable.stream()).thenReturn(items.stream());
+    return pageIterable;
+  }
+}
@@ -4,6 +4,9 @@ import static bio.terra.landingzone.library.landingzones.management.AzureResourc
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import bio.terra.landingzone.library.landingzones.management.ResourceToDelete;
@@ -25,7 +28,7 @@ class ResourceDependencyDeleteRuleTest {
 
   @BeforeEach
   void setUp() {
-    when(dependencyDeleteRule.applyRule(any())).thenCallRealMethod();
+    lenient().when(dependencyDeleteRule.applyRule(any())).thenCallRealMethod();
     when(resourceToDelete.resource()).thenReturn(genericResource);
     when(genericResource.type()).thenReturn(AZURE_VNET_TYPE);
     when(dependencyDeleteRule.getExpectedType()).thenReturn(AZURE_VNET_TYPE);
@@ -57,4 +60,19 @@ class ResourceDependencyDeleteRuleTest {
 
     assertThat(rule.isDeletable(), equalTo(true));
   }
+
+  @Test
+  void applyRule_sharedContext_dependenciesAreCheckedOncePerResource() {
+    when(dependencyDeleteRule.applyRule(any(), any())).thenCallRealMethod();
+    when(genericResource.id()).thenReturn("vnetId");
+    var context = new DeleteRuleContext();
+    when(dependencyDeleteRule.hasDependentResources(resourceToDelete, context)).thenReturn(true);
+
+    var first = dependencyDeleteRule.applyRule(resourceToDelete, context);
+    var second = dependencyDeleteRule.applyRule(resourceToDelete, context);
+
+    assertThat(first.isDeletable(), equalTo(false));
+    assertThat(second.isDeletable(), equalTo(false));
+    verify(dependencyDeleteRule, times(1)).hasDependentResources(resourceToDelete, context);
+  }
 }
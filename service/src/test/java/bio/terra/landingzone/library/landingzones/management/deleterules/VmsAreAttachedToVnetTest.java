@@ -4,25 +4,35 @@ import static bio.terra.landingzone.library.landingzones.management.AzureResourc
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import bio.terra.landingzone.library.landingzones.management.ResourceToDelete;
 import com.azure.core.http.rest.PagedIterable;
 import com.azure.resourcemanager.compute.models.VirtualMachine;
 import com.azure.resourcemanager.compute.models.VirtualMachines;
-import com.azure.resourcemanager.network.models.Network;
 import com.azure.resourcemanager.network.models.NetworkInterface;
+import com.azure.resourcemanager.network.models.NetworkInterfaces;
 import com.azure.resourcemanager.network.models.NicIpConfiguration;
+import com.azure.resourcemanager.resources.models.GenericResource;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class VmsAreAttachedToVnetTest extends BaseDependencyRuleFixture {
+  private static final String NIC_ID = "LZNicId";
 
   protected VmsAreAttachedToVnet rule;
 
+  private VirtualMachines vms;
+  private NetworkInterfaces nics;
+
   @BeforeEach
   void setUp() {
     rule = new VmsAreAttachedToVnet(armManagers);
+    vms = mock(VirtualMachines.class);
+    nics = mock(NetworkInterfaces.class);
   }
 
   @Test
@@ -34,20 +44,7 @@ class VmsAreAttachedToVnetTest extends BaseDependencyRuleFixture {
   void hasDependentResources_vmAttachedToNetwork_returnsTrue() {
     when(resource.resourceGroupName()).thenReturn(RESOURCE_GROUP);
     when(resourceToDelete.resource()).thenReturn(resource);
-
-    var vms = mock(VirtualMachines.class);
-    when(azureResourceManager.virtualMachines()).thenReturn(vms);
-    var vm = mock(VirtualMachine.class);
-    PagedIterable<VirtualMachine> vmList = toMockPageIterable(List.of(vm));
-    when(vms.listByResourceGroup(RESOURCE_GROUP)).thenReturn(vmList);
-    var nic = mock(NetworkInterface.class);
-    when(vm.getPrimaryNetworkInterface()).thenReturn(nic);
-    var nicIpConfiguration = mock(NicIpConfiguration.class);
-    when(nic.primaryIPConfiguration()).thenReturn(nicIpConfiguration);
-    var network = mock(Network.class);
-    when(nicIpConfiguration.getNetwork()).thenReturn(network);
-    var networkId = "LZNetworkId";
-    when(network.id()).thenReturn(networkId);
+    setUpVmWithNicInResourceGroup("LZNetworkId");
     // the generic resources API returns the type in lower case, so the rule must match ignoring
     // the case.
     var networkIdLowerCase = "lznetworkid";
@@ -60,25 +57,76 @@ class VmsAreAttachedToVnetTest extends BaseDependencyRuleFixture {
   void hasDependentResources_vmAttachedToAnotherNetwork_returnsFalse() {
     when(resource.resourceGroupName()).thenReturn(RESOURCE_GROUP);
     when(resourceToDelete.resource()).thenReturn(resource);
+    setUpVmWithNicInResourceGroup("Not a LZ NetworkId");
+    // the generic resources API returns the type in lower case, so the rule must match ignoring
+    // the case.
+    var networkIdLowerCase = "lznetworkid";
+    when(resource.id()).thenReturn(networkIdLowerCase);
+
+    assertThat(rule.hasDependentResources(resourceToDelete), equalTo(false));
+  }
 
-    var vms = mock(VirtualMachines.class);
+  @Test
+  void hasDependentResources_vmNicInAnotherResourceGroup_returnsTrue() {
+    when(resource.resourceGroupName()).thenReturn(RESOURCE_GROUP);
+    when(resourceToDelete.resource()).thenReturn(resource);
     when(azureResourceManager.virtualMachines()).thenReturn(vms);
+    when(azureResourceManager.networkInterfaces()).thenReturn(nics);
+    PagedIterable<NetworkInterface> nicList = toMockPageIterable(List.of());
+    when(nics.listByResourceGroup(RESOURCE_GROUP)).thenReturn(nicList);
     var vm = mock(VirtualMachine.class);
     PagedIterable<VirtualMachine> vmList = toMockPageIterable(List.of(vm));
     when(vms.listByResourceGroup(RESOURCE_GROUP)).thenReturn(vmList);
-    var nic = mock(NetworkInterface.class);
+    when(vm.primaryNetworkInterfaceId()).thenReturn(NIC_ID);
+    var nic = mockNic("LZNetworkId");
     when(vm.getPrimaryNetworkInterface()).thenReturn(nic);
+    when(resource.id()).thenReturn("lznetworkid");
+
+    assertThat(rule.hasDependentResources(resourceToDelete), equalTo(true));
+  }
+
+  @Test
+  void hasDependentResources_sharedContext_vmsAndNicsAreListedOnce() {
+    setUpVmWithNicInResourceGroup("LZNetworkId");
+    var context = new DeleteRuleContext();
+
+    var attachedVnet = mockVnetToDelete("lznetworkid");
+    var otherVnet = mockVnetToDelete("othernetworkid");
+
+    assertThat(rule.hasDependentResources(attachedVnet, context), equalTo(true));
+    assertThat(rule.hasDependentResources(otherVnet, context), equalTo(false));
+    verify(vms, times(1)).listByResourceGroup(RESOURCE_GROUP);
+    verify(nics, times(1)).listByResourceGroup(RESOURCE_GROUP);
+  }
+
+  private void setUpVmWithNicInResourceGroup(String networkId) {
+    when(azureResourceManager.virtualMachines()).thenReturn(vms);
+    when(azureResourceManager.networkInterfaces()).thenReturn(nics);
+    var nic = mockNic(networkId);
+    when(nic.id()).thenReturn(NIC_ID);
+    PagedIterable<NetworkInterface> nicList = toMockPageIterable(List.of(nic));
+    when(nics.listByResourceGroup(RESOURCE_GROUP)).thenReturn(nicList);
+    var vm = mock(VirtualMachine.class);
+    // resource ids are case-insensitive
+    when(vm.primaryNetworkInterfaceId()).thenReturn(NIC_ID.toLowerCase());
+    PagedIterable<VirtualMachine> vmList = toMockPageIterable(List.of(vm));
+    when(vms.listByResourceGroup(RESOURCE_GROUP)).thenReturn(vmList);
+  }
+
+  private NetworkInterface mockNic(String networkId) {
+    var nic = mock(NetworkInterface.class);
     var nicIpConfiguration = mock(NicIpConfiguration.class);
     when(nic.primaryIPConfiguration()).thenReturn(nicIpConfiguration);
-    var network = mock(Network.class);
-    when(nicIpConfiguration.getNetwork()).thenReturn(network);
-    var networkId = "Not a LZ NetworkId";
-    when(network.id()).thenReturn(networkId);
-    // the generic resources API returns the type in lower case, so the rule must match ignoring
-    // the case.
-    var networkIdLowerCase = "lznetworkid";
-    when(resource.id()).thenReturn(networkIdLowerCase);
+    when(nicIpConfiguration.networkId()).thenReturn(networkId);
+    return nic;
+  }
 
-    assertThat(rule.hasDependentResources(resourceToDelete), equalTo(false));
+  private ResourceToDelete mockVnetToDelete(String networkId) {
+    var vnet = mock(GenericResource.class);
+    when(vnet.resourceGroupName()).thenReturn(RESOURCE_GROUP);
+    when(vnet.id()).thenReturn(networkId);
+    var vnetToDelete = mock(ResourceToDelete.class);
+    when(vnetToDelete.resource()).thenReturn(vnet);
+    return vnetToDelete;
   }
 }
@@ -0,0 +1,98 @@
+package bio.terra.landingzone.service.bpm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.common.iam.BearerToken;
+import bio.terra.landingzone.library.configuration.LandingZoneBillingProfileManagerConfiguration;
+import bio.terra.landingzone.service.bpm.exception.BillingProfileNotFoundException;
+import bio.terra.profile.api.ProfileApi;
+import bio.terra.profile.client.ApiException;
+import bio.terra.profile.model.ProfileModel;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class LandingZoneBillingProfileManagerServiceTest {
+  private static final BearerToken BEARER_TOKEN = new BearerToken("fake-token");
+  private static final UUID BILLING_PROFILE_ID = UUID.randomUUID();
+
+  @Mock private LandingZoneBillingProfileManagerClient bpmClient;
+  @Mock private ProfileApi profileApi;
+
+  private LandingZoneBillingProfileManagerService bpmService;
+
+  @BeforeEach
+  void setup() {
+    var bpmConfig = new LandingZoneBillingProfileManagerConfiguration();
+    bpmConfig.setProfileCacheMaxSize(2);
+    bpmService = new LandingZoneBillingProfileManagerService(bpmClient, bpmConfig);
+    when(bpmClient.profileApi(anyString())).thenReturn(profileApi);
+  }
+
+  @Test
+  void getBillingProfile_servesRepeatedLookupsFromCache() throws ApiException {
+    var profile = new ProfileModel().id(BILLING_PROFILE_ID);
+    when(profileApi.getProfile(BILLING_PROFILE_ID)).thenReturn(profile);
+
+    assertSame(profile, bpmService.getBillingProfile(BEARER_TOKEN, BILLING_PROFILE_ID));
+    assertSame(profile, bpmService.getBillingProfile(BEARER_TOKEN, BILLING_PROFILE_ID));
+
+    verify(profileApi, times(1)).getProfile(BILLING_PROFILE_ID);
+    assertEquals(1, bpmService.cachedProfileCount());
+  }
+
+  @Test
+  void getBillingProfile_otherCallerIsNotServedFromCache() throws ApiException {
+    var profile = new ProfileModel().id(BILLING_PROFILE_ID);
+    when(profileApi.getProfile(BILLING_PROFILE_ID))
+        .thenReturn(profile)
+        .thenThrow(new ApiException(403, "forbidden"));
+
+    bpmService.getBillingProfile(BEARER_TOKEN, BILLING_PROFILE_ID);
+
+    // BPM decides whether the other caller may read the profile
+    assertThrows(
+        BillingProfileNotFoundException.class,
+        () -> bpmService.getBillingProfile(new BearerToken("other-token"), BILLING_PROFILE_ID));
+    verify(profileApi, times(2)).getProfile(BILLING_PROFILE_ID);
+  }
+
+  @Test
+  void getBillingProfile_invalidatedProfileIsFetchedAgain() throws ApiException {
+    var profile = new ProfileModel().id(BILLING_PROFILE_ID);
+    when(profileApi.getProfile(BILLING_PROFILE_ID)).thenReturn(profile);
+
+    bpmService.getBillingProfile(BEARER_TOKEN, BILLING_PROFILE_ID);
+    bpmService.invalidateBillingProfile(BILLING_PROFILE_ID);
+    bpmService.getBillingProfile(BEARER_TOKEN, BILLING_PROFILE_ID);
+
+    verify(profileApi, times(2)).getProfile(BILLING_PROFILE_ID);
+  }
+
+  @Test
+  void getBillingProfile_failuresAreNotCached() throws ApiException {
+    when(profileApi.getProfile(BILLING_PROFILE_ID)).thenThrow(new ApiException("not found"));
+
+    assertThrows(
+        BillingProfileNotFoundException.class,
+        () -> bpmService.getBillingProfile(BEARER_TOKEN, BILLING_PROFILE_ID));
+    assertThrows(
+        BillingProfileNotFoundException.class,
+        () -> bpmService.getBillingProfile(BEARER_TOKEN, BILLING_PROFILE_ID));
+
+    verify(profileApi, times(2)).getProfile(BILLING_PROFILE_ID);
+    assertEquals(0, bpmService.cachedProfileCount());
+  }
+}
@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -135,6 +136,33 @@ class LandingZoneSamServiceTest {
     samService.checkUserEnabled(SAM_USER.getBearerToken());
   }
 
+  @Test
+  void checkUserEnabled_enabledUserIsCached() throws ApiException, InterruptedException {
+    // Setup Mocks
+    setupSamUserInfoMock(true);
+    when(samClient.usersApi(anyString())).thenReturn(usersApi);
+    samService = new LandingZoneSamService(samClient);
+    // Test
+    samService.checkUserEnabled(SAM_USER.getBearerToken());
+    samService.checkUserEnabled(SAM_USER.getBearerToken());
+    // Verify
+    verify(usersApi, times(1)).getUserStatusInfo();
+  }
+
+  @Test
+  void checkUserEnabled_disabledUserIsNotCached() throws ApiException {
+    var token = SAM_USER.getBearerToken();
+    // Setup Mocks
+    setupSamUserInfoMock(false);
+    when(samClient.usersApi(anyString())).thenReturn(usersApi);
+    samService = new LandingZoneSamService(samClient);
+    // Test
+    Assertions.assertThrows(UnauthorizedException.class, () -> samService.checkUserEnabled(token));
+    Assertions.assertThrows(UnauthorizedException.class, () -> samService.checkUserEnabled(token));
+    // Verify
+    verify(usersApi, times(2)).getUserStatusInfo();
+  }
+
   @Test
   void checkUserEnabled_throwsUnauthorizedException() throws ApiException {
     var token = SAM_USER.getBearerToken();
@@ -23,12 +23,15 @@ import bio.terra.common.exception.InternalServerErrorException;
 import bio.terra.common.iam.BearerToken;
 import bio.terra.landingzone.db.LandingZoneDao;
 import bio.terra.landingzone.db.exception.DuplicateLandingZoneException;
+import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
 import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.db.model.RetainedLandingZoneResources;
 import bio.terra.landingzone.job.JobMapKeys;
 import bio.terra.landingzone.job.LandingZoneJobBuilder;
 import bio.terra.landingzone.job.LandingZoneJobService;
 import bio.terra.landingzone.job.model.OperationType;
 import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.configuration.LandingZoneTeardownConfiguration;
 import bio.terra.landingzone.library.configuration.LandingZoneTestingConfiguration;
 import bio.terra.landingzone.library.landingzones.definition.DefinitionVersion;
 import bio.terra.landingzone.library.landingzones.definition.FactoryDefinitionInfo;
@@ -47,6 +50,7 @@ import bio.terra.landingzone.service.iam.LandingZoneSamService;
 import bio.terra.landingzone.service.iam.SamConstants;
 import bio.terra.landingzone.service.landingzone.azure.exception.LandingZoneDefinitionNotFound;
 import bio.terra.landingzone.service.landingzone.azure.exception.LandingZoneDeleteNotImplemented;
+import bio.terra.landingzone.service.landingzone.azure.exception.LandingZoneRepairConflict;
 import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
 import bio.terra.landingzone.service.landingzone.azure.model.DeployedLandingZone;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneDefinition;
@@ -55,6 +59,9 @@ import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneResource
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneResourcesByPurpose;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.landingzone.stairway.flight.StepsDefinitionFactoryType;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
 import com.azure.core.management.Region;
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -102,8 +109,6 @@ public class LandingZoneServiceTest {
 
   @Mock private LandingZoneJobService landingZoneJobService;
 
-  @Captor ArgumentCaptor<String> jobIdCaptor;
-  @Captor ArgumentCaptor<Class<?>> classCaptor;
   @Captor ArgumentCaptor<LandingZoneTarget> landingZoneTargetCaptor;
 
   @Mock private LandingZoneManagerProvider landingZoneManagerProvider;
@@ -111,6 +116,7 @@ public class LandingZoneServiceTest {
   @Mock private LandingZoneSamService samService;
   @Mock private LandingZoneBillingProfileManagerService bpmService;
   @Mock private LandingZoneTestingConfiguration testingConfiguration;
+  @Mock private LandingZoneTeardownConfiguration teardownConfiguration;
   @Captor ArgumentCaptor<UUID> captorLandingZoneId;
 
   @BeforeEach
@@ -122,48 +128,39 @@ public class LandingZoneServiceTest {
             landingZoneDao,
             samService,
             bpmService,
-            testingConfiguration);
+            testingConfiguration,
+            teardownConfiguration);
   }
 
   @Test
   void getAsyncJobResult_success() {
     String jobId = "newJobId";
+    var flightState = new FlightState();
+    when(landingZoneJobService.retrieveFlightState(jobId)).thenReturn(flightState);
+
     landingZoneService.getAsyncJobResult(bearerToken, jobId);
 
+    // the flight state is read once and shared by the access check and the result
+    verify(landingZoneJobService, times(1)).retrieveFlightState(jobId);
+    verify(landingZoneJobService, times(1)).verifyUserAccess(bearerToken, flightState);
     verify(landingZoneJobService, times(1))
-        .retrieveAsyncJobResult(jobIdCaptor.capture(), classCaptor.capture());
-    assertEquals(jobId, jobIdCaptor.getValue());
-    assertEquals(DeployedLandingZone.class, classCaptor.getValue());
+        .retrieveAsyncJobResult(flightState, DeployedLandingZone.class);
   }
 
   @Test
   void getAsyncDeletionJobResult_success() {
     String jobId = "newJobId";
     UUID landingZoneId = UUID.randomUUID();
-    landingZoneService.getAsyncDeletionJobResult(bearerToken, landingZoneId, jobId);
-
-    verify(landingZoneJobService, times(1))
-        .retrieveAsyncJobResult(jobIdCaptor.capture(), classCaptor.capture());
-    verify(landingZoneJobService, times(1))
-        .verifyUserAccessForDeleteJobResult(bearerToken, landingZoneId, jobId);
+    var flightState = new FlightState();
+    when(landingZoneJobService.retrieveFlightState(jobId)).thenReturn(flightState);
 
-    assertEquals(jobId, jobIdCaptor.getValue());
-    assertEquals(DeletedLandingZone.class, classCaptor.getValue());
-  }
-
-  @Test
-  void getAsyncDeletionJobResult() {
-    String jobId = "newJobId";
-    UUID landingZoneId = UUID.randomUUID();
     landingZoneService.getAsyncDeletionJobResult(bearerToken, landingZoneId, jobId);
 
+    verify(landingZoneJobService, times(1)).retrieveFlightState(jobId);
     verify(landingZoneJobService, times(1))
-        .retrieveAsyncJobResult(jobIdCaptor.capture(), classCaptor.capture());
+        .verifyUserAccessForDeleteJobResult(bearerToken, landingZoneId, flightState);
     verify(landingZoneJobService, times(1))
-        .verifyUserAccessForDeleteJobResult(bearerToken, landingZoneId, jobId);
-
-    assertEquals(jobId, jobIdCaptor.getValue());
-    assertEquals(DeletedLandingZone.class, classCaptor.getValue());
+        .retrieveAsyncJobResult(flightState, DeletedLandingZone.class);
   }
 
   @Test
@@ -310,6 +307,115 @@ public class LandingZoneServiceTest {
                 bearerToken, "newJobId", landingZoneRequest, "create-result"));
   }
 
+  @Test
+  void startLandingZoneRepairJob_JobIsSubmittedWithRetainedRequest() {
+    LandingZoneRequest landingZoneRequest = repairedLandingZoneRequest();
+    var retained = retainedResources(landingZoneRequest, "previousRepairJobId", null, 0);
+    when(landingZoneDao.getRetainedLandingZoneResources(landingZoneId))
+        .thenReturn(Optional.of(retained));
+    when(landingZoneDao.startLandingZoneRepair(landingZoneId, "previousRepairJobId", "repairJobId"))
+        .thenReturn(Optional.of(retained));
+    LandingZoneJobBuilder mockJobBuilder = createMockJobBuilder(OperationType.CREATE);
+    when(mockJobBuilder.landingZoneRequest(any())).thenReturn(mockJobBuilder);
+    when(mockJobBuilder.addParameter(any(), any())).thenReturn(mockJobBuilder);
+    when(landingZoneJobService.newJob()).thenReturn(mockJobBuilder);
+
+    landingZoneService.startLandingZoneRepairJob(
+        bearerToken, "repairJobId", landingZoneId, "create-result");
+
+    verify(mockJobBuilder, times(1))
+        .addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, landingZoneRequest);
+    verify(mockJobBuilder, times(1)).addParameter(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, 2);
+    verify(mockJobBuilder, times(1)).submit();
+  }
+
+  @Test
+  void startLandingZoneRepairJob_RepairStillRunning_ThrowsConflict() {
+    var retained =
+        retainedResources(
+            repairedLandingZoneRequest(), "runningJobId", createdDate.plusMinutes(1), 0);
+    when(landingZoneDao.getRetainedLandingZoneResources(landingZoneId))
+        .thenReturn(Optional.of(retained));
+    var runningFlight = new FlightState();
+    runningFlight.setFlightStatus(FlightStatus.RUNNING);
+    when(landingZoneJobService.retrieveFlightState("runningJobId")).thenReturn(runningFlight);
+
+    Assertions.assertThrows(
+        LandingZoneRepairConflict.class,
+        () ->
+            landingZoneService.startLandingZoneRepairJob(
+                bearerToken, "repairJobId", landingZoneId, "create-result"));
+    verify(landingZoneDao, times(0)).startLandingZoneRepair(any(), any(), any());
+    verify(landingZoneJobService, times(0)).newJob();
+  }
+
+  @Test
+  void startLandingZoneRepairJob_RepairJobEnded_JobIsSubmitted() {
+    LandingZoneRequest landingZoneRequest = repairedLandingZoneRequest();
+    // the previous repair job failed before it got to its resources flight
+    var retained =
+        retainedResources(landingZoneRequest, "failedJobId", createdDate.plusMinutes(1), 0);
+    when(landingZoneDao.getRetainedLandingZoneResources(landingZoneId))
+        .thenReturn(Optional.of(retained));
+    var failedFlight = new FlightState();
+    failedFlight.setFlightStatus(FlightStatus.ERROR);
+    when(landingZoneJobService.retrieveFlightState("failedJobId")).thenReturn(failedFlight);
+    when(landingZoneDao.startLandingZoneRepair(landingZoneId, "failedJobId", "repairJobId"))
+        .thenReturn(Optional.of(retained));
+    LandingZoneJobBuilder mockJobBuilder = createMockJobBuilder(OperationType.CREATE);
+    when(mockJobBuilder.landingZoneRequest(any())).thenReturn(mockJobBuilder);
+    when(mockJobBuilder.addParameter(any(), any())).thenReturn(mockJobBuilder);
+    when(landingZoneJobService.newJob()).thenReturn(mockJobBuilder);
+
+    landingZoneService.startLandingZoneRepairJob(
+        bearerToken, "repairJobId", landingZoneId, "create-result");
+
+    verify(mockJobBuilder, times(1)).submit();
+  }
+
+  @Test
+  void startLandingZoneRepairJob_RepairStartedConcurrently_ThrowsConflict() {
+    var retained = retainedResources(repairedLandingZoneRequest(), null, null, 0);
+    when(landingZoneDao.getRetainedLandingZoneResources(landingZoneId))
+        .thenReturn(Optional.of(retained));
+    when(landingZoneDao.startLandingZoneRepair(landingZoneId, null, "repairJobId"))
+        .thenReturn(Optional.empty());
+
+    Assertions.assertThrows(
+        LandingZoneRepairConflict.class,
+        () ->
+            landingZoneService.startLandingZoneRepairJob(
+                bearerToken, "repairJobId", landingZoneId, "create-result"));
+    verify(landingZoneJobService, times(0)).newJob();
+  }
+
+  @Test
+  void startLandingZoneRepairJob_CleanupStarted_ThrowsConflict() {
+    var retained = retainedResources(repairedLandingZoneRequest(), null, null, 1);
+    when(landingZoneDao.getRetainedLandingZoneResources(landingZoneId))
+        .thenReturn(Optional.of(retained));
+
+    Assertions.assertThrows(
+        LandingZoneRepairConflict.class,
+        () ->
+            landingZoneService.startLandingZoneRepairJob(
+                bearerToken, "repairJobId", landingZoneId, "create-result"));
+    verify(landingZoneDao, times(0)).startLandingZoneRepair(any(), any(), any());
+  }
+
+  @Test
+  void startLandingZoneRepairJob_NothingRetained_ThrowsNotFound() {
+    when(landingZoneDao.getRetainedLandingZoneResources(landingZoneId))
+        .thenReturn(Optional.empty());
+
+    Assertions.assertThrows(
+        LandingZoneNotFoundException.class,
+        () ->
+            landingZoneService.startLandingZoneRepairJob(
+                bearerToken, "repairJobId", landingZoneId, "create-result"));
+    verify(landingZoneJobService, times(0)).newJob();
+  }
+
   @Test
   void startLandingZoneDeletionJob_JobIsSubmitted() {
     var landingZoneId = UUID.randomUUID();
@@ -318,6 +424,8 @@ public class LandingZoneServiceTest {
     LandingZoneJobBuilder mockJobBuilder = createMockJobBuilder(OperationType.DELETE);
     when(mockJobBuilder.addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId))
         .thenReturn(mockJobBuilder);
+    when(mockJobBuilder.addParameter(LandingZoneFlightMapKeys.SOFT_DELETE, false))
+        .thenReturn(mockJobBuilder);
     when(mockJobBuilder.addParameter(JobMapKeys.RESULT_PATH.getKeyName(), resultPath))
         .thenReturn(mockJobBuilder);
     when(landingZoneJobService.newJob()).thenReturn(mockJobBuilder);
@@ -329,6 +437,28 @@ public class LandingZoneServiceTest {
     verify(mockJobBuilder, times(1)).submit();
   }
 
+  @Test
+  void startLandingZoneDeletionJob_softDeleteEnabled_JobIsSubmittedAsSoftDelete() {
+    var landingZoneId = UUID.randomUUID();
+    String resultPath = "delete-result";
+
+    when(teardownConfiguration.isSoftDeleteEnabled()).thenReturn(true);
+    LandingZoneJobBuilder mockJobBuilder = createMockJobBuilder(OperationType.DELETE);
+    when(mockJobBuilder.addParameter(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneId))
+        .thenReturn(mockJobBuilder);
+    when(mockJobBuilder.addParameter(LandingZoneFlightMapKeys.SOFT_DELETE, true))
+        .thenReturn(mockJobBuilder);
+    when(mockJobBuilder.addParameter(JobMapKeys.RESULT_PATH.getKeyName(), resultPath))
+        .thenReturn(mockJobBuilder);
+    when(landingZoneJobService.newJob()).thenReturn(mockJobBuilder);
+
+    landingZoneService.startLandingZoneDeletionJob(
+        bearerToken, "newJobId", landingZoneId, resultPath);
+
+    verify(mockJobBuilder, times(1)).addParameter(LandingZoneFlightMapKeys.SOFT_DELETE, true);
+    verify(mockJobBuilder, times(1)).submit();
+  }
+
   @Test
   void listResourcesByPurpose_Success() {
     LandingZoneRecord landingZoneRecord = createLandingZoneRecord();
@@ -853,6 +983,7 @@ public class LandingZoneServiceTest {
     when(mockJobBuilder.flightClass(any())).thenReturn(mockJobBuilder);
     when(mockJobBuilder.bearerToken(any())).thenReturn(mockJobBuilder);
     when(mockJobBuilder.operationType(operationType)).thenReturn(mockJobBuilder);
+    when(mockJobBuilder.admissionScope(any(), any())).thenReturn(mockJobBuilder);
     return mockJobBuilder;
   }
 
@@ -881,4 +1012,35 @@ public class LandingZoneServiceTest {
         .region(subnet.vNetRegion())
         .build();
   }
+
+  private LandingZoneRequest repairedLandingZoneRequest() {
+    return LandingZoneRequest.builder()
+        .definition(
+            StepsDefinitionFactoryType.CROMWELL_BASE_DEFINITION_STEPS_PROVIDER_TYPE.getValue())
+        .version("V1")
+        .parameters(Map.of())
+        .billingProfileId(billingProfileId)
+        .landingZoneId(landingZoneId)
+        .build();
+  }
+
+  private static RetainedLandingZoneResources retainedResources(
+      LandingZoneRequest landingZoneRequest,
+      String repairJobId,
+      OffsetDateTime repairStartedDate,
+      int cleanupAttempts) {
+    var requestMap = new FlightMap();
+    requestMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, landingZoneRequest);
+    return new RetainedLandingZoneResources(
+        landingZoneId,
+        new LandingZoneTarget("tenant", "subscription", "mrg"),
+        requestMap.getRaw(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS),
+        Map.of(),
+        "failedFlightId",
+        2,
+        createdDate,
+        repairJobId,
+        repairStartedDate,
+        cleanupAttempts);
+  }
 }
@@ -0,0 +1,329 @@
+package bio.terra.landingzone.service.landingzone.azure;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.db.model.LandingZoneTeardown;
+import bio.terra.landingzone.db.model.LandingZoneTeardownBacklog;
+import bio.terra.landingzone.db.model.RetainedLandingZoneResources;
+import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.configuration.LandingZoneTeardownConfiguration;
+import bio.terra.landingzone.library.landingzones.management.LandingZoneManager;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeleteResult;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletion;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletionPlan;
+import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import com.azure.core.management.exception.ManagementError;
+import com.azure.core.management.exception.ManagementException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class LandingZoneTeardownReaperTest {
+  private static final Instant NOW = Instant.parse("2026-10-19T12:00:00Z");
+  private static final ResourceDeletion STORAGE =
+      new ResourceDeletion("storage", "storageType", null, List.of());
+  private static final ResourceDeletion VNET =
+      new ResourceDeletion("vnet", "vnetType", null, List.of());
+
+  @Mock private LandingZoneDao landingZoneDao;
+  @Mock private LandingZoneManagerProvider landingZoneManagerProvider;
+  @Mock private LandingZoneManager landingZoneManager;
+
+  private LandingZoneTeardownConfiguration teardownConfig;
+  private LandingZoneTeardownReaper reaper;
+
+  @BeforeEach
+  void setUp() {
+    teardownConfig = new LandingZoneTeardownConfiguration();
+    teardownConfig.setMaxConcurrentTeardowns(2);
+    teardownConfig.setMaxAttempts(5);
+    teardownConfig.setInitialRetryDelay(Duration.ofMinutes(1));
+    teardownConfig.setMaxRetryDelay(Duration.ofMinutes(10));
+    reaper =
+        new LandingZoneTeardownReaper(
+            landingZoneDao,
+            landingZoneManagerProvider,
+            teardownConfig,
+            Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @Test
+  void sweep_claimsNoMoreTeardownsThanFreeSlots() {
+    var first = teardown(attachedLandingZone(), 1);
+    var second = teardown(attachedLandingZone(), 1);
+    when(landingZoneDao.getLandingZoneTeardownBacklog(5))
+        .thenReturn(new LandingZoneTeardownBacklog(5, 0, NOW.atOffset(ZoneOffset.UTC)));
+    when(landingZoneDao.claimLandingZoneTeardowns(2, teardownConfig.getTeardownLease(), 5))
+        .thenReturn(List.of(first, second));
+    List<Runnable> running = new ArrayList<>();
+
+    reaper.sweep(running::add);
+    // both slots are taken, so nothing more is claimed
+    reaper.sweep(running::add);
+
+    assertThat(running, hasSize(2));
+    assertThat(reaper.getInFlight(), equalTo(2L));
+    verify(landingZoneDao, times(1)).claimLandingZoneTeardowns(anyInt(), any(), anyInt());
+
+    running.forEach(Runnable::run);
+
+    assertThat(reaper.getInFlight(), equalTo(0L));
+    verify(landingZoneDao).deleteLandingZone(first.landingZone().landingZoneId());
+    verify(landingZoneDao).deleteLandingZone(second.landingZone().landingZoneId());
+    verify(landingZoneManagerProvider, never()).createLandingZoneManager(any());
+  }
+
+  @Test
+  void sweep_nothingPending_doesNotClaim() {
+    when(landingZoneDao.getLandingZoneTeardownBacklog(5))
+        .thenReturn(new LandingZoneTeardownBacklog(0, 0, null));
+
+    reaper.sweep(Runnable::run);
+
+    verify(landingZoneDao, never()).claimLandingZoneTeardowns(anyInt(), any(), anyInt());
+    assertThat(reaper.getOldestPendingSeconds(), equalTo(0L));
+  }
+
+  @Test
+  void sweep_reportsAgeOfOldestPendingTeardown() {
+    when(landingZoneDao.getLandingZoneTeardownBacklog(5))
+        .thenReturn(
+            new LandingZoneTeardownBacklog(
+                1, 1, NOW.minus(Duration.ofMinutes(3)).atOffset(ZoneOffset.UTC)));
+    when(landingZoneDao.claimLandingZoneTeardowns(2, teardownConfig.getTeardownLease(), 5))
+        .thenReturn(List.of());
+
+    reaper.sweep(Runnable::run);
+
+    assertThat(reaper.getOldestPendingSeconds(), equalTo(180L));
+  }
+
+  @Test
+  void sweep_claimsCleanupsWithSlotsLeftByTeardowns() {
+    var teardown = teardown(attachedLandingZone(), 1);
+    var retained = retainedResources(1);
+    when(landingZoneDao.getLandingZoneTeardownBacklog(5))
+        .thenReturn(new LandingZoneTeardownBacklog(1, 0, NOW.atOffset(ZoneOffset.UTC)));
+    when(landingZoneDao.claimLandingZoneTeardowns(2, teardownConfig.getTeardownLease(), 5))
+        .thenReturn(List.of(teardown));
+    when(landingZoneDao.claimRetainedResourcesCleanups(
+            1,
+            teardownConfig.getRetainedResourcesExpiry(),
+            teardownConfig.getTeardownLease(),
+            5))
+        .thenReturn(List.of(retained));
+    List<Runnable> running = new ArrayList<>();
+
+    reaper.sweep(running::add);
+
+    assertThat(running, hasSize(2));
+    assertThat(reaper.getInFlight(), equalTo(2L));
+  }
+
+  @Test
+  void cleanUp_deletesResourcesAndThenTheRecord() throws LandingZoneRuleDeleteException {
+    var retained = retainedResources(1);
+    when(landingZoneManagerProvider.createLandingZoneManager(retained.landingZoneTarget()))
+        .thenReturn(landingZoneManager);
+    when(landingZoneManager.planResourcesDeletion(retained.landingZoneId().toString()))
+        .thenReturn(new ResourceDeletionPlan(List.of(STORAGE), List.of(VNET)));
+    when(landingZoneManager.deleteResources(List.of(STORAGE)))
+        .thenReturn(List.of(new ResourceDeleteResult(STORAGE.resourceId(), null)));
+    when(landingZoneManager.deleteResources(List.of(VNET)))
+        .thenReturn(List.of(new ResourceDeleteResult(VNET.resourceId(), null)));
+
+    reaper.cleanUp(retained);
+
+    var inOrder = inOrder(landingZoneManager, landingZoneDao);
+    inOrder.verify(landingZoneManager).deleteResources(List.of(STORAGE));
+    inOrder.verify(landingZoneManager).deleteResources(List.of(VNET));
+    inOrder.verify(landingZoneDao).deleteRetainedLandingZoneResources(retained.landingZoneId());
+  }
+
+  @Test
+  void cleanUp_landingZoneCreatedSince_keepsResources() {
+    var retained = retainedResources(1);
+    when(landingZoneDao.getLandingZoneIfExists(retained.landingZoneId()))
+        .thenReturn(Optional.of(landingZone(Map.of())));
+
+    reaper.cleanUp(retained);
+
+    verify(landingZoneManagerProvider, never()).createLandingZoneManager(any());
+    verify(landingZoneDao).deleteRetainedLandingZoneResources(retained.landingZoneId());
+  }
+
+  @Test
+  void cleanUp_failed_schedulesRetryWithBackoff() throws LandingZoneRuleDeleteException {
+    var retained = retainedResources(2);
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenReturn(landingZoneManager);
+    when(landingZoneManager.planResourcesDeletion(retained.landingZoneId().toString()))
+        .thenThrow(new LandingZoneRuleDeleteException("storage account has containers"));
+
+    reaper.cleanUp(retained);
+
+    verify(landingZoneDao, never()).deleteRetainedLandingZoneResources(any());
+    verify(landingZoneDao)
+        .scheduleRetainedResourcesCleanup(retained.landingZoneId(), Duration.ofMinutes(2));
+  }
+
+  @Test
+  void tearDown_deletesTiersInOrderAndThenTheRecord() throws LandingZoneRuleDeleteException {
+    var landingZone = landingZone(Map.of());
+    mockPlan(landingZone, new ResourceDeletionPlan(List.of(STORAGE), List.of(VNET)));
+    when(landingZoneManager.deleteResources(List.of(STORAGE)))
+        .thenReturn(List.of(new ResourceDeleteResult(STORAGE.resourceId(), null)));
+    when(landingZoneManager.deleteResources(List.of(VNET)))
+        .thenReturn(List.of(new ResourceDeleteResult(VNET.resourceId(), null)));
+
+    reaper.tearDown(teardown(landingZone, 1));
+
+    var inOrder = inOrder(landingZoneManager, landingZoneDao);
+    inOrder.verify(landingZoneManager).deleteResources(List.of(STORAGE));
+    inOrder.verify(landingZoneManager).deleteResources(List.of(VNET));
+    inOrder.verify(landingZoneDao).deleteLandingZone(landingZone.landingZoneId());
+  }
+
+  @Test
+  void tearDown_failedTier_schedulesRetryWithBackoff() throws LandingZoneRuleDeleteException {
+    var landingZone = landingZone(Map.of());
+    mockPlan(landingZone, new ResourceDeletionPlan(List.of(STORAGE), List.of(VNET)));
+    var failure = new ManagementException("in use", null, new ManagementError("InUse", "in use"));
+    when(landingZoneManager.deleteResources(List.of(STORAGE)))
+        .thenReturn(List.of(new ResourceDeleteResult(STORAGE.resourceId(), failure)));
+
+    reaper.tearDown(teardown(landingZone, 3));
+
+    // the base resources wait for the dependent ones
+    verify(landingZoneManager, never()).deleteResources(List.of(VNET));
+    verify(landingZoneDao, never()).deleteLandingZone(any());
+    verify(landingZoneDao)
+        .scheduleLandingZoneTeardown(landingZone.landingZoneId(), Duration.ofMinutes(4));
+  }
+
+  @Test
+  void tearDown_deleteRulesFail_schedulesRetry() throws LandingZoneRuleDeleteException {
+    var landingZone = landingZone(Map.of());
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenReturn(landingZoneManager);
+    when(landingZoneManager.planResourcesDeletion(landingZone.landingZoneId().toString()))
+        .thenThrow(new LandingZoneRuleDeleteException("storage account has containers"));
+
+    reaper.tearDown(teardown(landingZone, 1));
+
+    verify(landingZoneManager, never()).deleteResources(anyList());
+    verify(landingZoneDao)
+        .scheduleLandingZoneTeardown(landingZone.landingZoneId(), Duration.ofMinutes(1));
+  }
+
+  @Test
+  void tearDown_resourceGroupInaccessible_deletesRecord() {
+    var landingZone = landingZone(Map.of());
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenThrow(
+            new ManagementException(
+                "unauthed", null, new ManagementError("AuthorizationFailed", "unauthed")));
+
+    reaper.tearDown(teardown(landingZone, 1));
+
+    verify(landingZoneDao).deleteLandingZone(landingZone.landingZoneId());
+  }
+
+  @Test
+  void tearDown_attemptsUsedUp_doesNotScheduleRetry() throws LandingZoneRuleDeleteException {
+    var landingZone = landingZone(Map.of());
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenReturn(landingZoneManager);
+    when(landingZoneManager.planResourcesDeletion(landingZone.landingZoneId().toString()))
+        .thenThrow(new LandingZoneRuleDeleteException("storage account has containers"));
+
+    reaper.tearDown(teardown(landingZone, 5));
+
+    verify(landingZoneDao, never()).scheduleLandingZoneTeardown(any(), any());
+    verify(landingZoneDao, never()).deleteLandingZone(any());
+  }
+
+  @Test
+  void retryDelay_doublesUpToTheMaximum() {
+    assertThat(reaper.retryDelay(1), equalTo(Duration.ofMinutes(1)));
+    assertThat(reaper.retryDelay(2), equalTo(Duration.ofMinutes(2)));
+    assertThat(reaper.retryDelay(4), equalTo(Duration.ofMinutes(8)));
+    assertThat(reaper.retryDelay(5), equalTo(Duration.ofMinutes(10)));
+    assertThat(reaper.retryDelay(100), equalTo(Duration.ofMinutes(10)));
+  }
+
+  private void mockPlan(LandingZoneRecord landingZone, ResourceDeletionPlan plan)
+      throws LandingZoneRuleDeleteException {
+    when(landingZoneManagerProvider.createLandingZoneManager(
+            new LandingZoneTarget(
+                landingZone.tenantId(),
+                landingZone.subscriptionId(),
+                landingZone.resourceGroupId())))
+        .thenReturn(landingZoneManager);
+    when(landingZoneManager.planResourcesDeletion(landingZone.landingZoneId().toString()))
+        .thenReturn(plan);
+  }
+
+  private static LandingZoneTeardown teardown(LandingZoneRecord landingZone, int attempts) {
+    return new LandingZoneTeardown(
+        landingZone, OffsetDateTime.ofInstant(NOW.minusSeconds(60), ZoneOffset.UTC), attempts);
+  }
+
+  private static RetainedLandingZoneResources retainedResources(int cleanupAttempts) {
+    return new RetainedLandingZoneResources(
+        UUID.randomUUID(),
+        new LandingZoneTarget("tenant", "subscription", "mrg"),
+        "request",
+        Map.of(),
+        "failedFlight",
+        0,
+        OffsetDateTime.ofInstant(NOW.minus(Duration.ofDays(8)), ZoneOffset.UTC),
+        null,
+        null,
+        cleanupAttempts);
+  }
+
+  private static LandingZoneRecord attachedLandingZone() {
+    return landingZone(Map.of(LandingZoneFlightMapKeys.ATTACH, "true"));
+  }
+
+  private static LandingZoneRecord landingZone(Map<String, String> properties) {
+    return LandingZoneRecord.builder()
+        .landingZoneId(UUID.randomUUID())
+        .tenantId("tenant")
+        .subscriptionId("subscription")
+        .resourceGroupId("mrg")
+        .billingProfileId(UUID.randomUUID())
+        .properties(properties)
+        .build();
+  }
+}
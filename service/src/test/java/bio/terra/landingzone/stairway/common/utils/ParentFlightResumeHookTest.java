@@ -0,0 +1,54 @@
+package bio.terra.landingzone.stairway.common.utils;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.stairway.FlightFilter;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.Stairway;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class ParentFlightResumeHookTest {
+  private static final int BATCH = ParentFlightResumeHook.SWEEP_BATCH_SIZE;
+
+  @Mock private Stairway stairway;
+
+  @Test
+  void resumeWaitingFlights_resumesEveryPage() throws Exception {
+    when(stairway.getFlights(eq(0), eq(BATCH), any(FlightFilter.class)))
+        .thenReturn(waitingFlights(0, BATCH));
+    when(stairway.getFlights(eq(BATCH), eq(BATCH), any(FlightFilter.class)))
+        .thenReturn(waitingFlights(BATCH, 3));
+    when(stairway.resume(anyString())).thenReturn(true);
+
+    new ParentFlightResumeHook().resumeWaitingFlights(stairway);
+
+    verify(stairway, times(BATCH + 3)).resume(anyString());
+    verify(stairway).resume("flight" + (BATCH + 2));
+    verify(stairway, times(2)).getFlights(anyInt(), eq(BATCH), any(FlightFilter.class));
+  }
+
+  private static List<FlightState> waitingFlights(int first, int count) {
+    return IntStream.range(first, first + count)
+        .mapToObj(
+            i -> {
+              var flightState = new FlightState();
+              flightState.setFlightId("flight" + i);
+              return flightState;
+            })
+        .toList();
+  }
+}
@@ -0,0 +1,139 @@
+package bio.terra.landingzone.stairway.common.utils;
+
+import static bio.terra.landingzone.job.model.StepTiming.STAIRWAY_STEP;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.db.FlightTimelineDao;
+import bio.terra.landingzone.job.model.StepTiming;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.Direction;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.HookAction;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class StepTimingHookTest {
+  private static final String FLIGHT_ID = "flightId";
+  private static final String STEP_CLASS = "bio.terra.landingzone.SomeStep";
+  private static final String INNER_STEP_CLASS = "bio.terra.landingzone.InnerStep";
+  private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Mock private FlightTimelineDao flightTimelineDao;
+  @Mock private Clock clock;
+  @Mock private FlightContext flightContext;
+
+  private StepTimingHook stepTimingHook;
+
+  @BeforeEach
+  void setUp() {
+    stepTimingHook = new StepTimingHook(flightTimelineDao, clock);
+    lenient().when(flightContext.getFlightId()).thenReturn(FLIGHT_ID);
+    lenient().when(flightContext.getInputParameters()).thenReturn(new FlightMap());
+    lenient().when(flightContext.getStepClassName()).thenReturn(STEP_CLASS);
+    lenient().when(flightContext.getStepIndex()).thenReturn(2);
+    lenient().when(flightContext.getDirection()).thenReturn(Direction.DO);
+  }
+
+  @Test
+  void endStep_recordsEveryAttempt() {
+    when(clock.instant()).thenReturn(T0, T0.plusSeconds(5), T0.plusSeconds(10), T0.plusSeconds(30));
+    stepTimingHook.startFlight(flightContext);
+
+    // first attempt and one retry of the same step
+    stepTimingHook.startStep(flightContext);
+    stepTimingHook.endStep(flightContext);
+    stepTimingHook.startStep(flightContext);
+    stepTimingHook.endStep(flightContext);
+
+    verify(flightTimelineDao)
+        .upsertStepTiming(stepTiming(STAIRWAY_STEP, STEP_CLASS, T0, T0.plusSeconds(5)), null);
+    verify(flightTimelineDao)
+        .upsertStepTiming(
+            stepTiming(STAIRWAY_STEP, STEP_CLASS, T0.plusSeconds(10), T0.plusSeconds(30)), null);
+  }
+
+  @Test
+  void endStep_subFlightStepIsPartOfParentTimeline() {
+    var inputParameters = new FlightMap();
+    inputParameters.put(LandingZoneFlightMapKeys.PARENT_FLIGHT_ID, "parentFlightId");
+    when(flightContext.getInputParameters()).thenReturn(inputParameters);
+    when(clock.instant()).thenReturn(T0, T0.plusSeconds(5));
+
+    stepTimingHook.startStep(flightContext);
+    stepTimingHook.endStep(flightContext);
+
+    verify(flightTimelineDao)
+        .upsertStepTiming(
+            stepTiming(STAIRWAY_STEP, STEP_CLASS, T0, T0.plusSeconds(5)), "parentFlightId");
+  }
+
+  @Test
+  void timeInnerStep_recordsEveryAttempt() throws InterruptedException {
+    when(clock.instant()).thenReturn(T0, T0.plusSeconds(5), T0.plusSeconds(10), T0.plusSeconds(30));
+
+    var retried =
+        stepTimingHook.timeInnerStep(
+            flightContext,
+            3,
+            INNER_STEP_CLASS,
+            0,
+            () -> new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY));
+    var succeeded =
+        stepTimingHook.timeInnerStep(
+            flightContext, 3, INNER_STEP_CLASS, 1, StepResult::getStepResultSuccess);
+
+    assertThat(retried.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_RETRY));
+    assertThat(succeeded.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    verify(flightTimelineDao)
+        .upsertStepTiming(stepTiming(3, INNER_STEP_CLASS, T0, T0.plusSeconds(5)), null);
+    verify(flightTimelineDao)
+        .upsertStepTiming(
+            stepTiming(3, INNER_STEP_CLASS, T0.plusSeconds(10), T0.plusSeconds(30)), null);
+  }
+
+  @Test
+  void deleteExpiredTimelines_removesTimelinesOlderThanRetention() {
+    when(clock.instant()).thenReturn(T0);
+
+    stepTimingHook.deleteExpiredTimelines(Duration.ofDays(7));
+
+    verify(flightTimelineDao).deleteTimelinesEndedBefore(T0.minus(Duration.ofDays(7)));
+  }
+
+  @Test
+  void endStep_timelineFailureDoesNotFailFlight() {
+    when(clock.instant()).thenReturn(T0, T0.plusSeconds(1));
+    doThrow(new RuntimeException("database down"))
+        .when(flightTimelineDao)
+        .upsertStepTiming(any(), isNull());
+
+    stepTimingHook.startStep(flightContext);
+
+    assertThat(stepTimingHook.endStep(flightContext), equalTo(HookAction.CONTINUE));
+  }
+
+  private static StepTiming stepTiming(
+      int innerStepIndex, String stepClassName, Instant started, Instant ended) {
+    return new StepTiming(
+        FLIGHT_ID, 2, innerStepIndex, stepClassName, "DO", started, ended, /* attempts= */ 1);
+  }
+}
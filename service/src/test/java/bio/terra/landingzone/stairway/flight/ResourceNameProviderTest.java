@@ -13,6 +13,7 @@ import bio.terra.landingzone.stairway.flight.exception.ResourceNameGenerationExc
 import bio.terra.stairway.FlightContext;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -95,6 +96,16 @@ class ResourceNameProviderTest {
       protected Optional<String> getResourceId(FlightContext context) {
         return Optional.empty();
       }
+
+      @Override
+      public Set<String> getConsumedKeys() {
+        return Set.of();
+      }
+
+      @Override
+      public Set<String> getProducedKeys() {
+        return Set.of();
+      }
     };
   }
 }
@@ -0,0 +1,108 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.job.JobMapKeys;
+import bio.terra.landingzone.service.landingzone.azure.model.DeployedLandingZone;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.exception.LandingZoneCreateException;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.FlightState;
+import bio.terra.stairway.FlightStatus;
+import bio.terra.stairway.Stairway;
+import bio.terra.stairway.StepStatus;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class AwaitCreateLandingResourcesZoneFlightStepTest {
+  private static final String JOB_ID_KEY =
+      LandingZoneFlightMapKeys.CREATE_LANDING_ZONE_RESOURCES_INNER_FLIGHT_JOB_ID;
+  private static final String SUB_FLIGHT_ID = "resFlight_12345678_abcd";
+
+  @Mock private FlightContext flightContext;
+  @Mock private Stairway stairway;
+  @Mock private FlightState subFlightState;
+
+  private FlightMap workingMap;
+  private AwaitCreateLandingResourcesZoneFlightStep step;
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    workingMap = new FlightMap();
+    workingMap.put(JOB_ID_KEY, SUB_FLIGHT_ID);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    when(flightContext.getStairway()).thenReturn(stairway);
+    when(stairway.getFlightState(SUB_FLIGHT_ID)).thenReturn(subFlightState);
+    step = new AwaitCreateLandingResourcesZoneFlightStep(JOB_ID_KEY);
+  }
+
+  @Test
+  void doStep_runningSubFlightParksTheFlight() throws InterruptedException {
+    when(subFlightState.isActive()).thenReturn(true);
+
+    var result = step.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_WAIT));
+    assertThat(
+        workingMap.get(AwaitCreateLandingResourcesZoneFlightStep.WAIT_STARTED_AT_KEY, Long.class),
+        notNullValue());
+  }
+
+  @Test
+  void doStep_subFlightRunningTooLongFails() throws InterruptedException {
+    when(subFlightState.isActive()).thenReturn(true);
+    long startedAt =
+        System.currentTimeMillis()
+            - AwaitCreateLandingResourcesZoneFlightStep.SUB_FLIGHT_TIMEOUT.toMillis()
+            - 1;
+    workingMap.put(AwaitCreateLandingResourcesZoneFlightStep.WAIT_STARTED_AT_KEY, startedAt);
+
+    var result = step.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+    assertThat(result.getException().get(), instanceOf(LandingZoneCreateException.class));
+  }
+
+  @Test
+  void doStep_failedSubFlightFails() throws InterruptedException {
+    when(subFlightState.isActive()).thenReturn(false);
+    when(subFlightState.getFlightStatus()).thenReturn(FlightStatus.ERROR);
+    when(subFlightState.getException()).thenReturn(Optional.empty());
+
+    var result = step.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+    assertThat(result.getException().get(), instanceOf(LandingZoneCreateException.class));
+  }
+
+  @Test
+  void doStep_succeededSubFlightCopiesResult() throws InterruptedException {
+    var deployedLandingZone = new DeployedLandingZone(UUID.randomUUID(), List.of());
+    var resultMap = new FlightMap();
+    resultMap.put(JobMapKeys.RESPONSE.getKeyName(), deployedLandingZone);
+    when(subFlightState.isActive()).thenReturn(false);
+    when(subFlightState.getFlightStatus()).thenReturn(FlightStatus.SUCCESS);
+    when(subFlightState.getResultMap()).thenReturn(Optional.of(resultMap));
+
+    var result = step.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(
+        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeployedLandingZone.class).id(),
+        equalTo(deployedLandingZone.id()));
+  }
+}
@@ -2,12 +2,16 @@ package bio.terra.landingzone.stairway.flight.create;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.Mockito.when;
 
 import bio.terra.landingzone.common.utils.LandingZoneFlightBeanBag;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
 import bio.terra.landingzone.stairway.flight.FlightTestUtils;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.landingzone.stairway.flight.StepsDefinitionFactoryType;
+import bio.terra.landingzone.stairway.flight.create.resource.step.ValidateLandingZoneParametersStep;
 import bio.terra.stairway.FlightMap;
 import bio.terra.stairway.Step;
 import java.util.List;
@@ -38,12 +42,19 @@ class CreateLandingZoneFlightTest {
     FlightMap inputParameters =
         FlightTestUtils.prepareFlightInputParameters(
             Map.of(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, defaultLandingZoneRequest));
+    when(mockApplicationContext.getJobConfiguration())
+        .thenReturn(new LandingZoneJobConfiguration());
 
     createLandingZoneFlight = new CreateLandingZoneFlight(inputParameters, mockApplicationContext);
 
     var steps = createLandingZoneFlight.getSteps();
-    assertThat(steps.size(), equalTo(5));
+    assertThat(steps.size(), equalTo(4));
     validateSteps(steps, isAttaching);
+    assertThat(
+        getPreludeSteps(steps).stream()
+            .filter(s -> s instanceof ValidateLandingZoneParametersStep)
+            .count(),
+        equalTo(1L));
   }
 
   @Test
@@ -58,13 +69,20 @@ class CreateLandingZoneFlightTest {
     createLandingZoneFlight = new CreateLandingZoneFlight(inputParameters, mockApplicationContext);
 
     var steps = createLandingZoneFlight.getSteps();
-    assertThat(steps.size(), equalTo(3));
+    assertThat(steps.size(), equalTo(2));
     validateSteps(steps, isAttaching);
+    assertThat(getPreludeSteps(steps).size(), equalTo(2));
   }
 
   void validateSteps(List<Step> steps, boolean isAttaching) {
-    assertThat(steps.stream().filter(s -> s instanceof CreateSamResourceStep).count(), equalTo(1L));
-    assertThat(steps.stream().filter(s -> s instanceof GetBillingProfileStep).count(), equalTo(1L));
+    // the Sam resource and the billing profile are handled concurrently in the first step
+    var preludeSteps = getPreludeSteps(steps);
+    assertThat(
+        preludeSteps.stream().filter(s -> s instanceof CreateSamResourceStep).count(),
+        equalTo(1L));
+    assertThat(
+        preludeSteps.stream().filter(s -> s instanceof GetBillingProfileStep).count(),
+        equalTo(1L));
     if (!isAttaching) {
       assertThat(
           steps.stream().filter(s -> s instanceof CreateLandingZoneResourcesFlightStep).count(),
@@ -80,6 +98,11 @@ class CreateLandingZoneFlightTest {
         equalTo(1L));
   }
 
+  private List<Step> getPreludeSteps(List<Step> steps) {
+    assertThat(steps.get(0), instanceOf(ParallelStepGroup.class));
+    return ((ParallelStepGroup) steps.get(0)).getSteps();
+  }
+
   LandingZoneRequest createDefaultLandingZoneRequest(boolean isAttaching) {
     return new LandingZoneRequest(
         StepsDefinitionFactoryType.CROMWELL_BASE_DEFINITION_STEPS_PROVIDER_TYPE.getValue(),
@@ -154,7 +154,7 @@ public class CreateLandingZoneResourcesFlightIntegrationTest extends BaseIntegra
         LandingZoneRequestFixtures.createCromwellLZRequest(landingZoneId, profile.getId());
 
     landingZoneService.startLandingZoneResourceCreationJob(
-        jobId.toString(), request, profile, landingZoneId, bearerToken, resultPath);
+        jobId.toString(), request, profile, landingZoneId, bearerToken, resultPath, null);
 
     await()
         .atMost(Duration.ofMinutes(LZ_CREATED_AWAIT_TIMEOUT_MINUTES))
@@ -473,7 +473,7 @@ public class CreateLandingZoneResourcesFlightIntegrationTest extends BaseIntegra
         LandingZoneRequestFixtures.createProtectedDataLZRequest(landingZoneId, profile.getId());
 
     landingZoneService.startLandingZoneResourceCreationJob(
-        jobId.toString(), request, profile, landingZoneId, bearerToken, "");
+        jobId.toString(), request, profile, landingZoneId, bearerToken, "", null);
 
     await()
         .atMost(Duration.ofMinutes(LZ_CREATED_AWAIT_TIMEOUT_MINUTES))
@@ -1,14 +1,26 @@
 package bio.terra.landingzone.stairway.flight.create;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 import bio.terra.landingzone.common.utils.LandingZoneFlightBeanBag;
+import bio.terra.landingzone.library.configuration.AzureCustomerUsageConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneAzureConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
 import bio.terra.landingzone.service.landingzone.azure.model.LandingZoneRequest;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.landingzone.stairway.flight.StepsDefinitionFactoryType;
+import bio.terra.landingzone.stairway.flight.create.resource.step.CheckBatchAccountQuotaStep;
+import bio.terra.landingzone.stairway.flight.create.resource.step.CheckResourceNameAvailabilityStep;
+import bio.terra.landingzone.stairway.flight.create.resource.step.CheckSkuAvailabilityStep;
+import bio.terra.landingzone.stairway.flight.create.resource.step.ResourceStepFixture;
 import bio.terra.landingzone.stairway.flight.exception.LandingZoneCreateException;
 import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.Step;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,6 +61,67 @@ class CreateLandingZoneResourcesFlightTest {
         () -> new CreateLandingZoneResourcesFlight(mockInputParameters, mockApplicationContext));
   }
 
+  @Test
+  void testInstantiationOfCreationRunsPreflightChecksFirst() {
+    var inputParameters = createInputParameters();
+    // the job builder stores absent parameters as null
+    inputParameters.put(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, null);
+    setupBeanBag();
+
+    var flight = new CreateLandingZoneResourcesFlight(inputParameters, mockApplicationContext);
+
+    List<Step> steps = flight.getSteps();
+    assertThat(steps.get(0), instanceOf(ParallelStepGroup.class));
+    var checks = ((ParallelStepGroup) steps.get(0)).getSteps();
+    assertThat(checks.size(), equalTo(3));
+    assertThat(checks.get(0), instanceOf(CheckSkuAvailabilityStep.class));
+    assertThat(checks.get(1), instanceOf(CheckBatchAccountQuotaStep.class));
+    assertThat(checks.get(2), instanceOf(CheckResourceNameAvailabilityStep.class));
+  }
+
+  @Test
+  void testInstantiationOfRepairSkipsPreflightChecks() {
+    var inputParameters = createInputParameters();
+    inputParameters.put(LandingZoneFlightMapKeys.RETAIN_RESOURCES_ON_FAILURE, true);
+    inputParameters.put(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, 1);
+    setupBeanBag();
+
+    var flight = new CreateLandingZoneResourcesFlight(inputParameters, mockApplicationContext);
+
+    List<Step> steps = flight.getSteps();
+    assertThat(steps.get(0), instanceOf(RetainLandingZoneResourcesStep.class));
+    assertThat(
+        steps.stream()
+            .filter(ParallelStepGroup.class::isInstance)
+            .flatMap(step -> ((ParallelStepGroup) step).getSteps().stream())
+            .filter(CheckSkuAvailabilityStep.class::isInstance)
+            .count(),
+        equalTo(0L));
+  }
+
+  private FlightMap createInputParameters() {
+    var inputParameters = new FlightMap();
+    inputParameters.put(
+        LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, createDefaultLandingZoneRequest());
+    inputParameters.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, UUID.randomUUID());
+    inputParameters.put(
+        LandingZoneFlightMapKeys.BILLING_PROFILE, ResourceStepFixture.createDefaultProfileModel());
+    inputParameters.put(LandingZoneFlightMapKeys.PREFLIGHT_CHECKS, true);
+    return inputParameters;
+  }
+
+  private void setupBeanBag() {
+    var azureConfiguration = new LandingZoneAzureConfiguration();
+    azureConfiguration.setManagedAppClientId(UUID.randomUUID().toString());
+    azureConfiguration.setManagedAppClientSecret("secret");
+    azureConfiguration.setManagedAppTenantId(UUID.randomUUID().toString());
+    when(mockApplicationContext.getAzureConfiguration()).thenReturn(azureConfiguration);
+    when(mockApplicationContext.getAzureCustomerUsageConfiguration())
+        .thenReturn(new AzureCustomerUsageConfiguration());
+    when(mockApplicationContext.getJobConfiguration())
+        .thenReturn(new LandingZoneJobConfiguration());
+  }
+
   private LandingZoneRequest createDefaultLandingZoneRequest() {
     return new LandingZoneRequest(
         StepsDefinitionFactoryType.CROMWELL_BASE_DEFINITION_STEPS_PROVIDER_TYPE.getValue(),
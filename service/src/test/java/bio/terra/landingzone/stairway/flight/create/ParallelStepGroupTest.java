@@ -0,0 +1,227 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.common.utils.RetryRules;
+import bio.terra.landingzone.stairway.common.utils.StepTimingHook;
+import bio.terra.landingzone.stairway.common.utils.StepTimingHook.InnerStepAttempt;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.RetryRule;
+import bio.terra.stairway.RetryRuleFixedInterval;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class ParallelStepGroupTest {
+  @Mock private FlightContext flightContext;
+  @Mock private StepTimingHook stepTimingHook;
+
+  private FlightMap workingMap;
+  private final List<String> undone = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    workingMap = new FlightMap();
+    workingMap.put("input", "value");
+    lenient().when(flightContext.getWorkingMap()).thenReturn(workingMap);
+  }
+
+  @Test
+  void doStep_runsStepsConcurrentlyAndMergesProducedEntries() throws InterruptedException {
+    // both steps wait for each other, so the group only succeeds if they run at the same time
+    var latch = new CountDownLatch(2);
+    var group =
+        new ParallelStepGroup(
+            List.of(
+                withRetry(new TestStep("first", latch, StepStatus.STEP_RESULT_SUCCESS)),
+                withRetry(new TestStep("second", latch, StepStatus.STEP_RESULT_SUCCESS))),
+            2,
+            null);
+
+    var result = group.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(workingMap.get("first", String.class), equalTo("value"));
+    assertThat(workingMap.get("second", String.class), equalTo("value"));
+  }
+
+  @Test
+  void doStep_failedStepFailsGroup() throws InterruptedException {
+    var group =
+        new ParallelStepGroup(
+            List.of(
+                withRetry(new TestStep("first", null, StepStatus.STEP_RESULT_SUCCESS)),
+                withRetry(new TestStep("second", null, StepStatus.STEP_RESULT_FAILURE_FATAL))),
+            2,
+            null);
+
+    var result = group.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+    // entries of the successful step are kept for undo
+    assertThat(workingMap.get("first", String.class), equalTo("value"));
+  }
+
+  @Test
+  void undoStep_undoesStepsInReverseOrder() throws InterruptedException {
+    var group =
+        new ParallelStepGroup(
+            List.of(
+                withRetry(new TestStep("first", null, StepStatus.STEP_RESULT_SUCCESS)),
+                withRetry(new TestStep("second", null, StepStatus.STEP_RESULT_SUCCESS))),
+            2,
+            null);
+
+    var result = group.undoStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(undone, contains("second", "first"));
+  }
+
+  @Test
+  void undoStep_parallelUndo_undoesStepsConcurrently() throws InterruptedException {
+    // both undos wait for each other, so the group only succeeds if they run at the same time
+    var latch = new CountDownLatch(2);
+    var group =
+        new ParallelStepGroup(
+            List.of(
+                withRetry(new TestStep("first", latch, StepStatus.STEP_RESULT_SUCCESS)),
+                withRetry(new TestStep("second", latch, StepStatus.STEP_RESULT_SUCCESS))),
+            2,
+            true,
+            null);
+
+    var result = group.undoStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(undone, containsInAnyOrder("first", "second"));
+  }
+
+  @Test
+  void constructor_undeclaredStepIsRejected() {
+    List<Pair<Step, RetryRule>> steps = List.of(withRetry(mock(Step.class)));
+
+    assertThrows(IllegalArgumentException.class, () -> new ParallelStepGroup(steps, 2, null));
+  }
+
+  @Test
+  void doStep_everyAttemptOfInnerStepsIsTimed() throws InterruptedException {
+    when(stepTimingHook.timeInnerStep(any(), anyInt(), anyString(), anyInt(), any()))
+        .thenAnswer(invocation -> invocation.<InnerStepAttempt>getArgument(4).run());
+    var group =
+        new ParallelStepGroup(
+            List.of(
+                withRetry(new TestStep("first", null, StepStatus.STEP_RESULT_SUCCESS)),
+                Pair.of(
+                    new RetryOnceStep("second"),
+                    new RetryRuleFixedInterval(/* intervalSeconds= */ 0, /* maxCount= */ 1))),
+            2,
+            stepTimingHook);
+
+    var result = group.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    verify(stepTimingHook).timeInnerStep(any(), eq(1), eq(TestStep.class.getName()), eq(0), any());
+    verify(stepTimingHook)
+        .timeInnerStep(any(), eq(2), eq(RetryOnceStep.class.getName()), eq(0), any());
+    verify(stepTimingHook)
+        .timeInnerStep(any(), eq(2), eq(RetryOnceStep.class.getName()), eq(1), any());
+  }
+
+  private static Pair<Step, RetryRule> withRetry(Step step) {
+    return Pair.of(step, RetryRules.shortExponential());
+  }
+
+  private class TestStep implements Step, WorkingMapDependencies {
+    private final String name;
+    private final CountDownLatch latch;
+    private final StepStatus status;
+
+    TestStep(String name, CountDownLatch latch, StepStatus status) {
+      this.name = name;
+      this.latch = latch;
+      this.status = status;
+    }
+
+    @Override
+    public StepResult doStep(FlightContext context) throws InterruptedException {
+      if (!awaitOtherSteps()) {
+        return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL);
+      }
+      context.getWorkingMap().put(name, context.getWorkingMap().get("input", String.class));
+      return new StepResult(status);
+    }
+
+    @Override
+    public StepResult undoStep(FlightContext context) throws InterruptedException {
+      if (!awaitOtherSteps()) {
+        return new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL);
+      }
+      undone.add(name);
+      return StepResult.getStepResultSuccess();
+    }
+
+    private boolean awaitOtherSteps() throws InterruptedException {
+      if (latch == null) {
+        return true;
+      }
+      latch.countDown();
+      return latch.await(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Set<String> getConsumedKeys() {
+      return Set.of("input");
+    }
+
+    @Override
+    public Set<String> getProducedKeys() {
+      return Set.of(name);
+    }
+  }
+
+  private class RetryOnceStep extends TestStep {
+    private boolean retried;
+
+    RetryOnceStep(String name) {
+      super(name, null, StepStatus.STEP_RESULT_SUCCESS);
+    }
+
+    @Override
+    public StepResult doStep(FlightContext context) throws InterruptedException {
+      if (!retried) {
+        retried = true;
+        return new StepResult(StepStatus.STEP_RESULT_FAILURE_RETRY);
+      }
+      return super.doStep(context);
+    }
+  }
+}
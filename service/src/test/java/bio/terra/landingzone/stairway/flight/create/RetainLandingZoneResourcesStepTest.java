@@ -0,0 +1,125 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.db.model.RetainedLandingZoneResources;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.create.resource.step.ResourceStepFixture;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.StepStatus;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class RetainLandingZoneResourcesStepTest {
+  private static final UUID LANDING_ZONE_ID = UUID.randomUUID();
+
+  @Mock private LandingZoneDao landingZoneDao;
+  @Mock private FlightContext flightContext;
+
+  private FlightMap inputMap;
+  private FlightMap workingMap;
+  private RetainLandingZoneResourcesStep step;
+
+  @BeforeEach
+  void setUp() {
+    inputMap = new FlightMap();
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, LANDING_ZONE_ID);
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS, "request");
+    workingMap = new FlightMap();
+    when(flightContext.getInputParameters()).thenReturn(inputMap);
+    step = new RetainLandingZoneResourcesStep(landingZoneDao, Set.of("vnetId", "aksId"));
+  }
+
+  @Test
+  void doStep_notRepairing_restoresNothing() throws InterruptedException {
+    var result = step.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    verify(landingZoneDao, never()).getRetainedLandingZoneResources(any());
+  }
+
+  @Test
+  void doStep_repairing_restoresRetainedEntries() throws InterruptedException {
+    inputMap.put(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, 1);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    var retainedMap = new FlightMap();
+    retainedMap.put("vnetId", "vnet");
+    retainedMap.put("unknown", "value");
+    when(landingZoneDao.getRetainedLandingZoneResources(LANDING_ZONE_ID))
+        .thenReturn(
+            Optional.of(
+                new RetainedLandingZoneResources(
+                    LANDING_ZONE_ID,
+                    new LandingZoneTarget("tenant", "subscription", "mrg"),
+                    "request",
+                    Map.of(
+                        "vnetId",
+                        retainedMap.getRaw("vnetId"),
+                        "unknown",
+                        retainedMap.getRaw("unknown")),
+                    "failedFlight",
+                    1,
+                    OffsetDateTime.now(),
+                    null,
+                    null,
+                    0)));
+
+    var result = step.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(workingMap.get("vnetId", String.class), equalTo("vnet"));
+    // only the entries of the resource steps are restored
+    assertThat(workingMap.containsKey("unknown"), equalTo(false));
+  }
+
+  @Test
+  void doStep_repairingWithoutRetainedResources_failsFatally() throws InterruptedException {
+    inputMap.put(LandingZoneFlightMapKeys.REPAIR_ATTEMPT, 1);
+    when(landingZoneDao.getRetainedLandingZoneResources(LANDING_ZONE_ID))
+        .thenReturn(Optional.empty());
+
+    var result = step.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+  }
+
+  @Test
+  void undoStep_savesEntriesOfCompletedSteps() throws InterruptedException {
+    var billingProfile = ResourceStepFixture.createDefaultProfileModel();
+    inputMap.put(LandingZoneFlightMapKeys.BILLING_PROFILE, billingProfile);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    when(flightContext.getFlightId()).thenReturn("failedFlight");
+    workingMap.put("vnetId", "vnet");
+    workingMap.put("other", "value");
+
+    var result = step.undoStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    verify(landingZoneDao)
+        .retainLandingZoneResources(
+            LANDING_ZONE_ID,
+            LandingZoneTarget.fromBillingProfile(billingProfile),
+            inputMap.getRaw(LandingZoneFlightMapKeys.LANDING_ZONE_CREATE_PARAMS),
+            Map.of("vnetId", workingMap.getRaw("vnetId")),
+            "failedFlight");
+  }
+}
@@ -0,0 +1,95 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class RetainedResourceStepTest {
+  @Mock private FlightContext flightContext;
+
+  private FlightMap workingMap;
+  private Step step;
+  private RetainedResourceStep retainedStep;
+
+  @BeforeEach
+  void setUp() {
+    workingMap = new FlightMap();
+    step = mock(Step.class, withSettings().extraInterfaces(WorkingMapDependencies.class));
+    retainedStep = new RetainedResourceStep(step);
+  }
+
+  @Test
+  void doStep_completedStepIsMarked() throws InterruptedException {
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    when(step.doStep(flightContext)).thenReturn(StepResult.getStepResultSuccess());
+
+    var result = retainedStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(workingMap.containsKey(completedKey()), equalTo(true));
+  }
+
+  @Test
+  void doStep_failedStepIsNotMarked() throws InterruptedException {
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    when(step.doStep(flightContext))
+        .thenReturn(new StepResult(StepStatus.STEP_RESULT_FAILURE_FATAL));
+
+    var result = retainedStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+    assertThat(workingMap.containsKey(completedKey()), equalTo(false));
+  }
+
+  @Test
+  void doStep_stepCompletedInPreviousAttemptIsSkipped() throws InterruptedException {
+    workingMap.put(completedKey(), true);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+
+    var result = retainedStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    verify(step, never()).doStep(any());
+  }
+
+  @Test
+  void undoStep_keepsResources() throws InterruptedException {
+    var result = retainedStep.undoStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    verify(step, never()).undoStep(any());
+  }
+
+  @Test
+  void getProducedKeys_includesCompletionMarker() {
+    when(((WorkingMapDependencies) step).getProducedKeys()).thenReturn(Set.of("resourceId"));
+
+    assertThat(retainedStep.getProducedKeys(), containsInAnyOrder("resourceId", completedKey()));
+  }
+
+  private String completedKey() {
+    return RetainedResourceStep.COMPLETED_KEY_PREFIX + step.getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,141 @@
+package bio.terra.landingzone.stairway.flight.create;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.Mockito.mock;
+
+import bio.terra.landingzone.common.utils.RetryRules;
+import bio.terra.landingzone.library.configuration.LandingZoneProtectedDataConfiguration;
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import bio.terra.landingzone.library.landingzones.definition.factories.ParametersResolver;
+import bio.terra.landingzone.stairway.flight.CromwellStepsDefinitionProvider;
+import bio.terra.landingzone.stairway.flight.ResourceNameProvider;
+import bio.terra.landingzone.stairway.flight.WorkingMapDependencies;
+import bio.terra.landingzone.stairway.flight.create.resource.step.EnableAksContainerInsightsStep;
+import bio.terra.landingzone.stairway.flight.create.resource.step.GetManagedResourceGroupInfo;
+import bio.terra.landingzone.stairway.flight.create.resource.step.ValidateLandingZoneParametersStep;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.RetryRule;
+import bio.terra.stairway.Step;
+import bio.terra.stairway.StepResult;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit")
+class StepsExecutionPlanTest {
+
+  @Test
+  void build_independentStepsShareStage() {
+    var first = new TestStep(Set.of(), Set.of("a"));
+    var second = new TestStep(Set.of(), Set.of("b"));
+    var third = new TestStep(Set.of("a", "b"), Set.of("c"));
+
+    var plan = StepsExecutionPlan.build(withRetry(first, second, third), 4);
+
+    assertThat(plan.getStages(), hasSize(2));
+    assertThat(steps(plan.getStages().get(0)), contains(first, second));
+    assertThat(steps(plan.getStages().get(1)), contains(third));
+    assertThat(plan.getCriticalPath(), contains(first, third));
+    assertThat(plan.getSpeedup(), equalTo(1.5));
+  }
+
+  @Test
+  void build_stepWritingEntryReadByEarlierStepKeepsOrder() {
+    var reader = new TestStep(Set.of("a"), Set.of());
+    var writer = new TestStep(Set.of(), Set.of("a"));
+
+    var plan = StepsExecutionPlan.build(withRetry(reader, writer), 4);
+
+    assertThat(plan.getStages(), hasSize(2));
+  }
+
+  @Test
+  void build_undeclaredStepIsBarrier() {
+    var first = new TestStep(Set.of(), Set.of("a"));
+    var barrier = mock(Step.class);
+    var last = new TestStep(Set.of(), Set.of("b"));
+
+    var plan = StepsExecutionPlan.build(withRetry(first, barrier, last), 4);
+
+    assertThat(plan.getStages(), hasSize(3));
+    assertThat(plan.getSpeedup(), equalTo(1.0));
+  }
+
+  @Test
+  void getParallelLength_boundedByMaxParallelism() {
+    var plan =
+        StepsExecutionPlan.build(
+            withRetry(
+                new TestStep(Set.of(), Set.of("a")),
+                new TestStep(Set.of(), Set.of("b")),
+                new TestStep(Set.of(), Set.of("c"))),
+            2);
+
+    assertThat(plan.getStages(), hasSize(1));
+    assertThat(plan.getParallelLength(), equalTo(2));
+  }
+
+  @Test
+  void build_cromwellStepsRunInParallelStages() {
+    var steps =
+        new CromwellStepsDefinitionProvider()
+            .get(
+                mock(ArmManagers.class),
+                mock(ParametersResolver.class),
+                new ResourceNameProvider(UUID.randomUUID()),
+                mock(LandingZoneProtectedDataConfiguration.class));
+
+    var plan = StepsExecutionPlan.build(steps, 4);
+
+    assertThat(plan.getSequentialLength(), equalTo(steps.size()));
+    assertThat(
+        steps(plan.getStages().get(0)).stream().map(Object::getClass).toList(),
+        contains(ValidateLandingZoneParametersStep.class, GetManagedResourceGroupInfo.class));
+    // container insights has to be enabled after all other AKS configuration
+    var lastStage = plan.getStages().get(plan.getStages().size() - 1);
+    assertThat(lastStage, hasSize(1));
+    assertThat(lastStage.get(0).getLeft(), instanceOf(EnableAksContainerInsightsStep.class));
+    assertThat(plan.getSpeedup(), greaterThan(2.0));
+  }
+
+  private static List<Pair<Step, RetryRule>> withRetry(Step... steps) {
+    return List.of(steps).stream()
+        .map(step -> Pair.of(step, RetryRules.shortExponential()))
+        .toList();
+  }
+
+  private static List<Step> steps(List<Pair<Step, RetryRule>> stage) {
+    return stage.stream().map(Pair::getLeft).toList();
+  }
+
+  private record TestStep(Set<String> consumedKeys, Set<String> producedKeys)
+      implements Step, WorkingMapDependencies {
+    @Override
+    public StepResult doStep(FlightContext context) {
+      return StepResult.getStepResultSuccess();
+    }
+
+    @Override
+    public StepResult undoStep(FlightContext context) {
+      return StepResult.getStepResultSuccess();
+    }
+
+    @Override
+    public Set<String> getConsumedKeys() {
+      return consumedKeys;
+    }
+
+    @Override
+    public Set<String> getProducedKeys() {
+      return producedKeys;
+    }
+  }
+}
@@ -3,6 +3,7 @@ package bio.terra.landingzone.stairway.flight.create;
 import bio.terra.landingzone.common.utils.LandingZoneFlightBeanBag;
 import bio.terra.landingzone.common.utils.RetryRules;
 import bio.terra.landingzone.stairway.flight.delete.DeleteLandingZoneResourcesStep;
+import bio.terra.landingzone.stairway.flight.delete.PlanLandingZoneResourcesDeletionStep;
 import bio.terra.stairway.Flight;
 import bio.terra.stairway.FlightMap;
 
@@ -31,8 +32,20 @@ public class TestDeleteLandingZoneResourcesFlight extends Flight {
 
   private void addDeleteSteps(LandingZoneFlightBeanBag flightBeanBag) {
     addStep(
-        new DeleteLandingZoneResourcesStep(
+        new PlanLandingZoneResourcesDeletionStep(
             flightBeanBag.getAzureLandingZoneManagerProvider(), flightBeanBag.getLandingZoneDao()),
         RetryRules.shortExponential());
+    addStep(
+        new DeleteLandingZoneResourcesStep(
+            flightBeanBag.getAzureLandingZoneManagerProvider(),
+            flightBeanBag.getLandingZoneDao(),
+            DeleteLandingZoneResourcesStep.Tier.DEPENDENT_RESOURCES),
+        RetryRules.cloudLongRunning());
+    addStep(
+        new DeleteLandingZoneResourcesStep(
+            flightBeanBag.getAzureLandingZoneManagerProvider(),
+            flightBeanBag.getLandingZoneDao(),
+            DeleteLandingZoneResourcesStep.Tier.BASE_RESOURCES),
+        RetryRules.cloudLongRunning());
   }
 }
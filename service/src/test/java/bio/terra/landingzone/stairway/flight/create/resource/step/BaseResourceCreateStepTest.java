@@ -2,6 +2,7 @@ package bio.terra.landingzone.stairway.flight.create.resource.step;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
@@ -10,9 +11,15 @@ import bio.terra.landingzone.stairway.flight.ResourceNameRequirements;
 import bio.terra.profile.model.ProfileModel;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.StepStatus;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.management.exception.ManagementError;
+import com.azure.core.management.exception.ManagementException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -25,31 +32,12 @@ public class BaseResourceCreateStepTest extends BaseStepTest {
   @Test
   void testDoStepThrowsInterruptedException() {
     var step =
-        new BaseResourceCreateStep(
-            mockArmManagers, mockParametersResolver, mockResourceNameProvider) {
-          @Override
-          public List<ResourceNameRequirements> getResourceNameRequirements() {
-            return null;
-          }
-
-          @Override
-          protected void createResource(FlightContext context, ArmManagers armManagers) {
-            throw new RuntimeException("Interrupted", new InterruptedException());
-          }
-
-          @Override
-          protected void deleteResource(String resourceId) {}
-
-          @Override
-          protected String getResourceType() {
-            return null;
-          }
-
-          @Override
-          protected Optional<String> getResourceId(FlightContext context) {
-            return Optional.empty();
-          }
-        };
+        testStep(
+            () -> {
+              throw new RuntimeException("Interrupted", new InterruptedException());
+            },
+            resourceId -> {},
+            Optional.empty());
 
     FlightMap inputParamsMap = new FlightMap();
     inputParamsMap.put(
@@ -59,4 +47,83 @@ public class BaseResourceCreateStepTest extends BaseStepTest {
     Assertions.assertThrows(InterruptedException.class, () -> step.doStep(mockFlightContext));
     assertThat(Thread.currentThread().isInterrupted(), equalTo(true));
   }
+
+  @Test
+  void testUndoStepResourceAlreadyDeletedSucceeds() throws InterruptedException {
+    var notFound = azureException(404, "NotFound");
+    var step =
+        testStep(
+            () -> {},
+            resourceId -> {
+              throw notFound;
+            },
+            Optional.of("resourceId"));
+
+    var result = step.undoStep(mockFlightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+  }
+
+  @Test
+  void testUndoStepDeleteFailureRetries() throws InterruptedException {
+    var conflict = azureException(409, "Conflict");
+    var step =
+        testStep(
+            () -> {},
+            resourceId -> {
+              throw conflict;
+            },
+            Optional.of("resourceId"));
+
+    var result = step.undoStep(mockFlightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_RETRY));
+  }
+
+  private BaseResourceCreateStep testStep(
+      Runnable create, Consumer<String> delete, Optional<String> resourceId) {
+    return new BaseResourceCreateStep(
+        mockArmManagers, mockParametersResolver, mockResourceNameProvider) {
+      @Override
+      public List<ResourceNameRequirements> getResourceNameRequirements() {
+        return null;
+      }
+
+      @Override
+      protected void createResource(FlightContext context, ArmManagers armManagers) {
+        create.run();
+      }
+
+      @Override
+      protected void deleteResource(String resourceId) {
+        delete.accept(resourceId);
+      }
+
+      @Override
+      protected String getResourceType() {
+        return null;
+      }
+
+      @Override
+      protected Optional<String> getResourceId(FlightContext context) {
+        return resourceId;
+      }
+
+      @Override
+      public Set<String> getConsumedKeys() {
+        return Set.of();
+      }
+
+      @Override
+      public Set<String> getProducedKeys() {
+        return Set.of();
+      }
+    };
+  }
+
+  private static ManagementException azureException(int statusCode, String code) {
+    HttpResponse response = mock(HttpResponse.class);
+    when(response.getStatusCode()).thenReturn(statusCode);
+    return new ManagementException(code, response, new ManagementError(code, code));
+  }
 }
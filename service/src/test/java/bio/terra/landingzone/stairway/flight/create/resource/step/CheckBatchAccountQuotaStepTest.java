@@ -0,0 +1,91 @@
+package bio.terra.landingzone.stairway.flight.create.resource.step;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import com.azure.core.http.rest.PagedIterable;
+import com.azure.resourcemanager.batch.BatchManager;
+import com.azure.resourcemanager.batch.models.BatchAccount;
+import com.azure.resourcemanager.batch.models.BatchAccounts;
+import com.azure.resourcemanager.batch.models.BatchLocationQuota;
+import com.azure.resourcemanager.batch.models.Locations;
+import com.azure.resourcemanager.resources.models.ResourceGroup;
+import com.azure.resourcemanager.resources.models.ResourceGroups;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class CheckBatchAccountQuotaStepTest extends BaseStepTest {
+  private static final String REGION = "eastus";
+
+  @Mock private ResourceGroups mockResourceGroups;
+  @Mock private ResourceGroup mockResourceGroup;
+  @Mock private BatchManager mockBatchManager;
+  @Mock private Locations mockLocations;
+  @Mock private BatchLocationQuota mockBatchLocationQuota;
+  @Mock private BatchAccounts mockBatchAccounts;
+
+  private CheckBatchAccountQuotaStep checkBatchAccountQuotaStep;
+
+  @BeforeEach
+  void setup() {
+    var billingProfile = ResourceStepFixture.createDefaultProfileModel();
+    setupFlightContext(
+        mockFlightContext, Map.of(LandingZoneFlightMapKeys.BILLING_PROFILE, billingProfile), null);
+    when(mockResourceGroup.regionName()).thenReturn(REGION);
+    when(mockResourceGroups.getByName(billingProfile.getManagedResourceGroupId()))
+        .thenReturn(mockResourceGroup);
+    when(mockAzureResourceManager.resourceGroups()).thenReturn(mockResourceGroups);
+    when(mockArmManagers.azureResourceManager()).thenReturn(mockAzureResourceManager);
+    when(mockLocations.getQuotas(REGION)).thenReturn(mockBatchLocationQuota);
+    when(mockBatchManager.locations()).thenReturn(mockLocations);
+    when(mockArmManagers.batchManager()).thenReturn(mockBatchManager);
+    checkBatchAccountQuotaStep = new CheckBatchAccountQuotaStep(mockArmManagers);
+  }
+
+  @Test
+  void doStep_quotaHasHeadroom_succeeds() throws InterruptedException {
+    when(mockBatchLocationQuota.accountQuota()).thenReturn(2);
+    setupBatchAccounts(List.of(batchAccount(REGION), batchAccount("westus")));
+
+    StepResult stepResult = checkBatchAccountQuotaStep.doStep(mockFlightContext);
+
+    assertThat(stepResult, equalTo(StepResult.getStepResultSuccess()));
+  }
+
+  @Test
+  void doStep_quotaReached_failsFatally() throws InterruptedException {
+    when(mockBatchLocationQuota.accountQuota()).thenReturn(1);
+    setupBatchAccounts(List.of(batchAccount(REGION)));
+
+    StepResult stepResult = checkBatchAccountQuotaStep.doStep(mockFlightContext);
+
+    assertThat(stepResult.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+  }
+
+  private void setupBatchAccounts(List<BatchAccount> batchAccounts) {
+    @SuppressWarnings("unchecked")
+    PagedIterable<BatchAccount> pagedIterable = mock(PagedIterable.class);
+    when(pagedIterable.stream()).thenReturn(batchAccounts.stream());
+    when(mockBatchAccounts.list()).thenReturn(pagedIterable);
+    when(mockBatchManager.batchAccounts()).thenReturn(mockBatchAccounts);
+  }
+
+  private static BatchAccount batchAccount(String region) {
+    var batchAccount = mock(BatchAccount.class);
+    when(batchAccount.regionName()).thenReturn(region);
+    return batchAccount;
+  }
+}
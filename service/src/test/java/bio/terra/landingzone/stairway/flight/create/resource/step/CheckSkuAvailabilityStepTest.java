@@ -0,0 +1,107 @@
+package bio.terra.landingzone.stairway.flight.create.resource.step;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.library.landingzones.definition.factories.CromwellBaseResourcesFactory;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.landingzone.stairway.flight.utils.RegionalSkuCatalog;
+import bio.terra.landingzone.stairway.flight.utils.RegionalSkuCatalog.RegionalSkus;
+import bio.terra.profile.model.ProfileModel;
+import bio.terra.stairway.StepResult;
+import bio.terra.stairway.StepStatus;
+import com.azure.core.management.exception.ManagementError;
+import com.azure.core.management.exception.ManagementException;
+import com.azure.resourcemanager.resources.models.ResourceGroup;
+import com.azure.resourcemanager.resources.models.ResourceGroups;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class CheckSkuAvailabilityStepTest extends BaseStepTest {
+  private static final String REGION = "eastus";
+  private static final String AKS_MACHINE_TYPE = "Standard_D4as_v4";
+  private static final String POSTGRES_SKU = "Standard_B2s";
+
+  @Mock private RegionalSkuCatalog mockRegionalSkuCatalog;
+  @Mock private ResourceGroups mockResourceGroups;
+  @Mock private ResourceGroup mockResourceGroup;
+
+  private ProfileModel billingProfile;
+  private CheckSkuAvailabilityStep checkSkuAvailabilityStep;
+
+  @BeforeEach
+  void setup() {
+    billingProfile = ResourceStepFixture.createDefaultProfileModel();
+    setupFlightContext(
+        mockFlightContext, Map.of(LandingZoneFlightMapKeys.BILLING_PROFILE, billingProfile), null);
+    when(mockResourceGroup.regionName()).thenReturn(REGION);
+    when(mockResourceGroups.getByName(billingProfile.getManagedResourceGroupId()))
+        .thenReturn(mockResourceGroup);
+    when(mockAzureResourceManager.resourceGroups()).thenReturn(mockResourceGroups);
+    when(mockArmManagers.azureResourceManager()).thenReturn(mockAzureResourceManager);
+    checkSkuAvailabilityStep =
+        new CheckSkuAvailabilityStep(
+            mockArmManagers, mockParametersResolver, mockRegionalSkuCatalog);
+  }
+
+  @Test
+  void doStep_skusAvailable_succeeds() throws InterruptedException {
+    setupParameters();
+    setupCatalog(new RegionalSkus(Set.of(AKS_MACHINE_TYPE), Set.of(POSTGRES_SKU)));
+
+    StepResult stepResult = checkSkuAvailabilityStep.doStep(mockFlightContext);
+
+    assertThat(stepResult, equalTo(StepResult.getStepResultSuccess()));
+  }
+
+  @Test
+  void doStep_aksMachineTypeUnavailable_failsFatally() throws InterruptedException {
+    setupParameters();
+    setupCatalog(new RegionalSkus(Set.of("Standard_D2as_v4"), Set.of(POSTGRES_SKU)));
+
+    StepResult stepResult = checkSkuAvailabilityStep.doStep(mockFlightContext);
+
+    assertThat(stepResult.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+    assertThat(
+        stepResult.getException().orElseThrow().getMessage(), containsString(AKS_MACHINE_TYPE));
+  }
+
+  @Test
+  void doStep_catalogUnavailable_skipsCheck() throws InterruptedException {
+    var failure = new ManagementException("forbidden", null, new ManagementError("Forbidden", ""));
+    when(mockRegionalSkuCatalog.getSkus(
+            eq(billingProfile.getSubscriptionId().toString()), eq(REGION), any()))
+        .thenThrow(failure);
+
+    StepResult stepResult = checkSkuAvailabilityStep.doStep(mockFlightContext);
+
+    assertThat(stepResult, equalTo(StepResult.getStepResultSuccess()));
+  }
+
+  private void setupParameters() {
+    when(mockParametersResolver.getValue(
+            CromwellBaseResourcesFactory.ParametersNames.AKS_MACHINE_TYPE.name()))
+        .thenReturn(AKS_MACHINE_TYPE);
+    when(mockParametersResolver.getValue(
+            CromwellBaseResourcesFactory.ParametersNames.POSTGRES_SERVER_SKU.name()))
+        .thenReturn(POSTGRES_SKU);
+  }
+
+  private void setupCatalog(RegionalSkus skus) {
+    when(mockRegionalSkuCatalog.getSkus(
+            eq(billingProfile.getSubscriptionId().toString()), eq(REGION), any()))
+        .thenReturn(skus);
+  }
+}
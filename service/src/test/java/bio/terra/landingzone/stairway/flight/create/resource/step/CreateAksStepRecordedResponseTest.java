@@ -0,0 +1,272 @@
+package bio.terra.landingzone.stairway.flight.create.resource.step;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.library.landingzones.definition.ArmManagers;
+import bio.terra.landingzone.library.landingzones.definition.factories.CromwellBaseResourcesFactory;
+import bio.terra.landingzone.stairway.common.model.TargetManagedResourceGroup;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.StepStatus;
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.management.AzureEnvironment;
+import com.azure.core.management.profile.AzureProfile;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs CreateAksStep through the Azure SDK against a recorded ARM response, to verify what is
+ * actually sent to Azure: the cluster has to be created with workload identity and the OIDC issuer
+ * in a single request, instead of being updated right after creation.
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class CreateAksStepRecordedResponseTest extends BaseStepTest {
+  private static final String SUBSCRIPTION_ID = "00000000-0000-0000-0000-000000000001";
+  private static final String TENANT_ID = "00000000-0000-0000-0000-000000000003";
+  private static final String AKS_NAME = "lzaks";
+  private static final String ISSUER_URL =
+      "https://eastus.oic.prod-aks.azure.com/00000000-0000-0000-0000-000000000003/"
+          + "4e5f6a7b-0000-0000-0000-000000000004/";
+
+  // response of PUT managedClusters/lzaks, api-version 2023-07-01; ids are anonymized
+  private static final String CREATED_MANAGED_CLUSTER =
+      """
+      {
+        "id": "/subscriptions/00000000-0000-0000-0000-000000000001/resourcegroups/mrg\
+      /providers/Microsoft.ContainerService/managedClusters/lzaks",
+        "location": "eastus",
+        "name": "lzaks",
+        "tags": {
+          "WLZ-ID": "00000000-0000-0000-0000-000000000002",
+          "WLZ-PURPOSE": "SHARED_RESOURCE"
+        },
+        "type": "Microsoft.ContainerService/ManagedClusters",
+        "properties": {
+          "provisioningState": "Succeeded",
+          "powerState": {"code": "Running"},
+          "kubernetesVersion": "1.27.7",
+          "currentKubernetesVersion": "1.27.7",
+          "dnsPrefix": "lzaksdns",
+          "fqdn": "lzaksdns-2b3c4d5e.hcp.eastus.azmk8s.io",
+          "agentPoolProfiles": [
+            {
+              "name": "lzpool",
+              "count": 1,
+              "vmSize": "Standard_A2_v2",
+              "osDiskSizeGB": 128,
+              "osDiskType": "Managed",
+              "vnetSubnetID": "/subscriptions/00000000-0000-0000-0000-000000000001\
+      /resourceGroups/mrg/providers/Microsoft.Network/virtualNetworks/lzvnet/subnets/AKS_SUBNET",
+              "maxPods": 30,
+              "type": "VirtualMachineScaleSets",
+              "enableAutoScaling": false,
+              "provisioningState": "Succeeded",
+              "powerState": {"code": "Running"},
+              "mode": "System",
+              "osType": "Linux",
+              "osSKU": "Ubuntu"
+            }
+          ],
+          "servicePrincipalProfile": {"clientId": "msi"},
+          "nodeResourceGroup": "MC_mrg_lzaks_eastus",
+          "enableRBAC": true,
+          "networkProfile": {
+            "networkPlugin": "kubenet",
+            "podCidr": "10.244.0.0/16",
+            "serviceCidr": "10.0.0.0/16",
+            "dnsServiceIP": "10.0.0.10",
+            "outboundType": "loadBalancer",
+            "loadBalancerSku": "Standard"
+          },
+          "maxAgentPools": 100,
+          "securityProfile": {"workloadIdentity": {"enabled": true}},
+          "oidcIssuerProfile": {
+            "enabled": true,
+            "issuerURL": "https://eastus.oic.prod-aks.azure.com\
+      /00000000-0000-0000-0000-000000000003/4e5f6a7b-0000-0000-0000-000000000004/"
+          }
+        },
+        "identity": {
+          "type": "SystemAssigned",
+          "principalId": "00000000-0000-0000-0000-000000000005",
+          "tenantId": "00000000-0000-0000-0000-000000000003"
+        },
+        "sku": {"name": "Base", "tier": "Free"}
+      }
+      """;
+
+  private static final String NOT_RECORDED =
+      "{\"error\": {\"code\": \"NotFound\", \"message\": \"No recorded response.\"}}";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private RecordedResponseHttpClient httpClient;
+  private CreateAksStep testStep;
+
+  @BeforeEach
+  void setup() {
+    httpClient = new RecordedResponseHttpClient();
+    TokenCredential credential =
+        request -> Mono.just(new AccessToken("token", OffsetDateTime.now().plusHours(1)));
+    var azureResourceManager =
+        AzureResourceManager.configure()
+            .withHttpClient(httpClient)
+            .authenticate(
+                credential, new AzureProfile(TENANT_ID, SUBSCRIPTION_ID, AzureEnvironment.AZURE))
+            .withSubscription(SUBSCRIPTION_ID);
+    var armManagers =
+        new ArmManagers(azureResourceManager, null, null, null, null, null, null, null);
+    testStep = new CreateAksStep(armManagers, mockParametersResolver, mockResourceNameProvider);
+  }
+
+  @Test
+  void doStep_createsClusterWithWorkloadIdentityInOneRequest() throws Exception {
+    when(mockResourceNameProvider.getName(anyString())).thenReturn(AKS_NAME);
+    when(mockParametersResolver.getValue(
+            CromwellBaseResourcesFactory.ParametersNames.AKS_MACHINE_TYPE.name()))
+        .thenReturn("Standard_A2_v2");
+    when(mockParametersResolver.getValue(
+            CromwellBaseResourcesFactory.ParametersNames.AKS_NODE_COUNT.name()))
+        .thenReturn("1");
+    when(mockParametersResolver.getValue(
+            CromwellBaseResourcesFactory.ParametersNames.AKS_AUTOSCALING_ENABLED.name()))
+        .thenReturn("false");
+    setupFlightContext(
+        mockFlightContext,
+        Map.of(
+            LandingZoneFlightMapKeys.BILLING_PROFILE,
+            ResourceStepFixture.createDefaultProfileModel(),
+            LandingZoneFlightMapKeys.LANDING_ZONE_ID,
+            UUID.randomUUID()),
+        Map.of(
+            CreateVnetStep.VNET_ID,
+            "/subscriptions/"
+                + SUBSCRIPTION_ID
+                + "/resourceGroups/mrg/providers/Microsoft.Network/virtualNetworks/lzvnet",
+            GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+            new TargetManagedResourceGroup("mrg", "eastus")));
+
+    var stepResult = testStep.doStep(mockFlightContext);
+
+    assertThat(stepResult.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    // a single long-running operation, no update of the new cluster
+    var writes =
+        httpClient.getRequests().stream()
+            .filter(request -> request.getHttpMethod() != HttpMethod.GET)
+            .toList();
+    assertThat(writes.stream().map(HttpRequest::getHttpMethod).toList(), contains(HttpMethod.PUT));
+    JsonNode managedCluster = objectMapper.readTree(writes.get(0).getBodyAsBinaryData().toString());
+    assertThat(
+        managedCluster.at("/properties/securityProfile/workloadIdentity/enabled").asBoolean(),
+        equalTo(true));
+    assertThat(
+        managedCluster.at("/properties/oidcIssuerProfile/enabled").asBoolean(), equalTo(true));
+    var workingMap = mockFlightContext.getWorkingMap();
+    assertThat(
+        workingMap.get(CreateAksStep.AKS_OIDC_ISSUER_URL, String.class), equalTo(ISSUER_URL));
+    assertThat(
+        workingMap.get(CreateAksStep.AKS_ID, String.class),
+        equalTo(objectMapper.readTree(CREATED_MANAGED_CLUSTER).get("id").asText()));
+  }
+
+  /** Answers requests for the managed cluster with the recorded response and records them. */
+  private static class RecordedResponseHttpClient implements HttpClient {
+    private final List<HttpRequest> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Mono<HttpResponse> send(HttpRequest request) {
+      requests.add(request);
+      boolean managedCluster =
+          request
+              .getUrl()
+              .getPath()
+              .toLowerCase(Locale.ROOT)
+              .endsWith("/managedclusters/" + AKS_NAME);
+      return Mono.just(
+          managedCluster
+              ? new RecordedResponse(request, 200, CREATED_MANAGED_CLUSTER)
+              : new RecordedResponse(request, 404, NOT_RECORDED));
+    }
+
+    List<HttpRequest> getRequests() {
+      return requests;
+    }
+  }
+
+  private static class RecordedResponse extends HttpResponse {
+    private final int statusCode;
+    private final byte[] body;
+    private final HttpHeaders headers =
+        new HttpHeaders().set(HttpHeaderName.CONTENT_TYPE, "application/json");
+
+    RecordedResponse(HttpRequest request, int statusCode, String body) {
+      super(request);
+      this.statusCode = statusCode;
+      this.body = body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    @Override
+    @Deprecated
+    public String getHeaderValue(String name) {
+      return headers.getValue(HttpHeaderName.fromString(name));
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    @Override
+    public Flux<ByteBuffer> getBody() {
+      return Flux.just(ByteBuffer.wrap(body));
+    }
+
+    @Override
+    public Mono<byte[]> getBodyAsByteArray() {
+      return Mono.just(body);
+    }
+
+    @Override
+    public Mono<String> getBodyAsString() {
+      return getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Mono<String> getBodyAsString(Charset charset) {
+      return Mono.just(new String(body, charset));
+    }
+  }
+}
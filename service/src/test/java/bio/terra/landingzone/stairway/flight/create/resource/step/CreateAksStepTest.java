@@ -29,7 +29,6 @@ import com.azure.resourcemanager.containerservice.models.KubernetesCluster;
 import com.azure.resourcemanager.containerservice.models.KubernetesClusterAgentPool;
 import com.azure.resourcemanager.containerservice.models.KubernetesClusters;
 import com.azure.resourcemanager.containerservice.models.ManagedClusterOidcIssuerProfile;
-import com.azure.resourcemanager.containerservice.models.ManagedClusterSecurityProfile;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -59,7 +58,9 @@ class CreateAksStepTest extends BaseStepTest {
   private KubernetesCluster.DefinitionStages.WithLinuxRootUsername
       mockK8sDefinitionStageWithLinuxRootUsername;
 
-  @Mock private KubernetesCluster.DefinitionStages.WithCreate mockK8sDefinitionStageWithCreate;
+  @Mock(extraInterfaces = KubernetesCluster.class)
+  private KubernetesCluster.DefinitionStages.WithCreate mockK8sDefinitionStageWithCreate;
+
   @Mock private KubernetesClusterAgentPool.DefinitionStages.Blank mockK8sAPDefinitionStagesBlank;
 
   @Mock
@@ -110,6 +111,7 @@ class CreateAksStepTest extends BaseStepTest {
     verifyNoMoreInteractions(mockK8sDefinitionStageWithCreate);
     verifyBasicTags(tagsCaptor.getValue(), LANDING_ZONE_ID);
     verifyOmsAgentAddonProfileNotSet();
+    verifyWorkloadIdentityEnabledOnCreate();
   }
 
   @ParameterizedTest
@@ -140,6 +142,14 @@ class CreateAksStepTest extends BaseStepTest {
     assertThrows(MissingRequiredFieldsException.class, () -> testStep.doStep(mockFlightContext));
   }
 
+  private void verifyWorkloadIdentityEnabledOnCreate() {
+    var managedCluster = ((KubernetesCluster) mockK8sDefinitionStageWithCreate).innerModel();
+    assertThat(managedCluster.securityProfile().workloadIdentity().enabled(), equalTo(true));
+    assertThat(managedCluster.oidcIssuerProfile().enabled(), equalTo(true));
+    // the cluster is not updated after creation
+    verify(mockKubernetesCluster, never()).update();
+  }
+
   private void verifyOmsAgentAddonProfileNotSet() {
     verify(mockK8sDefinitionStageWithCreate, never()).withAddOnProfiles(any());
   }
@@ -189,14 +199,11 @@ class CreateAksStepTest extends BaseStepTest {
   }
 
   private void setupMocksForEnablingWorkloadIdentity() {
-    KubernetesCluster.Update mockK8sUpdate = mock(KubernetesCluster.Update.class);
+    when(((KubernetesCluster) mockK8sDefinitionStageWithCreate).innerModel())
+        .thenReturn(new ManagedClusterInner());
     ManagedClusterInner mockManagedClusterInner = mock(ManagedClusterInner.class);
-    ManagedClusterSecurityProfile mockManagedClusterSecurityProfile =
-        mock(ManagedClusterSecurityProfile.class);
     ManagedClusterOidcIssuerProfile mockManagedClusterOidcIssuerProfile =
         mock(ManagedClusterOidcIssuerProfile.class);
-    when(mockKubernetesCluster.update()).thenReturn(mockK8sUpdate);
-    when(mockManagedClusterInner.securityProfile()).thenReturn(mockManagedClusterSecurityProfile);
     when(mockManagedClusterOidcIssuerProfile.issuerUrl()).thenReturn("issuerUrl");
     when(mockManagedClusterInner.oidcIssuerProfile())
         .thenReturn(mockManagedClusterOidcIssuerProfile);
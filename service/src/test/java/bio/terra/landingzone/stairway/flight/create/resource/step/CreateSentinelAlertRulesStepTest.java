@@ -2,11 +2,13 @@ package bio.terra.landingzone.stairway.flight.create.resource.step;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -22,6 +24,7 @@ import bio.terra.stairway.StepStatus;
 import com.azure.core.management.exception.ManagementError;
 import com.azure.core.management.exception.ManagementException;
 import com.azure.resourcemanager.securityinsights.fluent.models.AlertRuleInner;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -150,4 +153,93 @@ class CreateSentinelAlertRulesStepTest extends BaseStepTest {
 
     assertEquals(StepStatus.STEP_RESULT_FAILURE_RETRY, result.getStepStatus());
   }
+
+  @Test
+  void doStep_retriesRuleWithinStepOnTransientError() throws InterruptedException {
+    setupFlightContext(
+        mockFlightContext,
+        Map.of(
+            LandingZoneFlightMapKeys.BILLING_PROFILE,
+            new ProfileModel().id(UUID.randomUUID()),
+            LandingZoneFlightMapKeys.LANDING_ZONE_ID,
+            LANDING_ZONE_ID),
+        Map.of(
+            GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+            ResourceStepFixture.createDefaultMrg(),
+            CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_RESOURCE_KEY,
+            buildLandingZoneResource()));
+    var flakyRuleId = UUID.randomUUID().toString();
+    when(mockLandingZoneProtectedDataConfiguration.getSentinelMlRuleTemplateIds())
+        .thenReturn(List.of(flakyRuleId));
+    when(mockLandingZoneProtectedDataConfiguration.getSentinelAlertRuleMaxAttempts())
+        .thenReturn(3);
+    doThrow(new ManagementException("error", null, new ManagementError("SemanticError", "error")))
+        .doNothing()
+        .when(mockAlertRuleAdapter)
+        .createAlertRule(any(), eq(flakyRuleId), anyString(), anyString());
+    var createSentinelAlertRulesStep =
+        new CreateSentinelAlertRulesStep(
+            mockArmManagers,
+            mockParametersResolver,
+            mockResourceNameProvider,
+            mockAlertRuleAdapter,
+            mockLandingZoneProtectedDataConfiguration,
+            Duration.ZERO);
+
+    var result = createSentinelAlertRulesStep.doStep(mockFlightContext);
+
+    // the rule is retried within the step, so the step itself doesn't need a retry
+    assertThat(result, equalTo(StepResult.getStepResultSuccess()));
+    verify(mockAlertRuleAdapter, times(2))
+        .createAlertRule(any(), eq(flakyRuleId), anyString(), anyString());
+    assertThat(
+        List.of(
+            mockFlightContext
+                .getWorkingMap()
+                .get(CreateSentinelAlertRulesStep.APPLIED_ALERT_RULES, String[].class)),
+        hasItem(flakyRuleId));
+  }
+
+  @Test
+  void doStep_retryOnlyReappliesFailedRules() throws InterruptedException {
+    setupFlightContext(
+        mockFlightContext,
+        Map.of(
+            LandingZoneFlightMapKeys.BILLING_PROFILE,
+            new ProfileModel().id(UUID.randomUUID()),
+            LandingZoneFlightMapKeys.LANDING_ZONE_ID,
+            LANDING_ZONE_ID),
+        Map.of(
+            GetManagedResourceGroupInfo.TARGET_MRG_KEY,
+            ResourceStepFixture.createDefaultMrg(),
+            CreateLogAnalyticsWorkspaceStep.LOG_ANALYTICS_RESOURCE_KEY,
+            buildLandingZoneResource()));
+    var failingRuleId = UUID.randomUUID().toString();
+    var mlRuleIds = List.of(UUID.randomUUID().toString(), failingRuleId);
+    when(mockLandingZoneProtectedDataConfiguration.getSentinelMlRuleTemplateIds())
+        .thenReturn(mlRuleIds);
+    doThrow(new ManagementException("error", null, new ManagementError("BadRequest", "error")))
+        .doNothing()
+        .when(mockAlertRuleAdapter)
+        .createAlertRule(any(), eq(failingRuleId), anyString(), anyString());
+    var createSentinelAlertRulesStep =
+        new CreateSentinelAlertRulesStep(
+            mockArmManagers,
+            mockParametersResolver,
+            mockResourceNameProvider,
+            mockAlertRuleAdapter,
+            mockLandingZoneProtectedDataConfiguration);
+
+    var firstResult = createSentinelAlertRulesStep.doStep(mockFlightContext);
+    var secondResult = createSentinelAlertRulesStep.doStep(mockFlightContext);
+
+    assertEquals(StepStatus.STEP_RESULT_FAILURE_RETRY, firstResult.getStepStatus());
+    assertThat(secondResult, equalTo(StepResult.getStepResultSuccess()));
+    verify(mockAlertRuleAdapter, times(1))
+        .createAlertRule(any(), eq(mlRuleIds.get(0)), anyString(), anyString());
+    verify(mockAlertRuleAdapter, times(2))
+        .createAlertRule(any(), eq(failingRuleId), anyString(), anyString());
+    verify(mockAlertRuleAdapter, times(1))
+        .createAlertRule(any(), eq("UnauthorizedFileAccessAttempts"), anyString(), anyString());
+  }
 }
@@ -1,35 +1,35 @@
 package bio.terra.landingzone.stairway.flight.delete;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import bio.terra.landingzone.db.LandingZoneDao;
-import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
-import bio.terra.landingzone.db.model.LandingZoneRecord;
 import bio.terra.landingzone.job.JobMapKeys;
 import bio.terra.landingzone.library.LandingZoneManagerProvider;
 import bio.terra.landingzone.library.landingzones.management.LandingZoneManager;
-import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeleteResult;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletion;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletionPlan;
 import bio.terra.landingzone.model.LandingZoneTarget;
 import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
 import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
 import bio.terra.stairway.FlightContext;
 import bio.terra.stairway.FlightMap;
 import bio.terra.stairway.StepStatus;
+import com.azure.core.http.HttpResponse;
 import com.azure.core.management.exception.ManagementError;
 import com.azure.core.management.exception.ManagementException;
-import java.time.OffsetDateTime;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -41,148 +41,211 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 @Tag("unit")
 public class DeleteLandingZoneResourcesStepTest {
+  private static final ResourceDeletion STORAGE =
+      new ResourceDeletion("storage", "storageType", "storagePe", List.of());
+  private static final ResourceDeletion BATCH =
+      new ResourceDeletion("batch", "batchType", null, List.of());
+  private static final ResourceDeletion VNET =
+      new ResourceDeletion("vnet", "vnetType", null, List.of());
+  private static final LandingZoneTarget TARGET =
+      new LandingZoneTarget("tenant", "subscription", "mrg");
 
   @Mock private LandingZoneManagerProvider landingZoneManagerProvider;
-  @Mock private LandingZoneDao landingZoneDao;
   @Mock private LandingZoneManager landingZoneManager;
+  @Mock private LandingZoneDao landingZoneDao;
   @Mock private FlightContext flightContext;
   private FlightMap workingMap;
-  private FlightMap inputMap;
+  private final UUID landingZoneId = UUID.randomUUID();
+  private final UUID billingProfileId = UUID.randomUUID();
 
   @BeforeEach
   void setup() {
     workingMap = new FlightMap();
-    inputMap = new FlightMap();
+    workingMap.put(
+        LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN,
+        new ResourceDeletionPlan(List.of(STORAGE, BATCH), List.of(VNET)));
+    workingMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_TARGET, TARGET);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    when(landingZoneDao.getDeletedLandingZoneResources(landingZoneId)).thenReturn(List.of());
   }
 
   @Test
-  void doStep_deletesLandingZoneResources()
-      throws LandingZoneRuleDeleteException, InterruptedException {
-    var landingZoneRecord = buildLandingZoneRecord(Collections.emptyMap());
-    var deleteStep = new DeleteLandingZoneResourcesStep(landingZoneManagerProvider, landingZoneDao);
-    var deletedResources = List.of("deletedResource1", "deletedResource2");
-    when(flightContext.getInputParameters()).thenReturn(inputMap);
-    when(flightContext.getWorkingMap()).thenReturn(workingMap);
-    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
-    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+  void doStep_deletesTierAndRecordsDeletedResources() throws InterruptedException {
+    setDeletedResources(List.of());
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
         .thenReturn(landingZoneManager);
-    when(landingZoneDao.getLandingZoneRecord(eq(landingZoneRecord.landingZoneId())))
-        .thenReturn(landingZoneRecord);
-    when(landingZoneManager.deleteResources(eq(landingZoneRecord.landingZoneId().toString())))
-        .thenReturn(deletedResources);
+    mockDeleteResources(
+        List.of(STORAGE, BATCH),
+        new ResourceDeleteResult(STORAGE.resourceId(), null),
+        new ResourceDeleteResult(BATCH.resourceId(), null));
 
-    var result = deleteStep.doStep(flightContext);
+    var result = dependentResourcesStep().doStep(flightContext);
 
     assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
-    assertThat(
-        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class),
-        equalTo(
-            new DeletedLandingZone(
-                landingZoneRecord.landingZoneId(),
-                deletedResources,
-                landingZoneRecord.billingProfileId())));
-    verify(landingZoneManager, times(1))
-        .deleteResources(landingZoneRecord.landingZoneId().toString());
+    assertThat(getDeletedResources(), contains(STORAGE.resourceId(), BATCH.resourceId()));
+    verify(landingZoneDao).recordDeletedLandingZoneResource(landingZoneId, STORAGE.resourceId());
+    verify(landingZoneDao).recordDeletedLandingZoneResource(landingZoneId, BATCH.resourceId());
   }
 
   @Test
-  void doStep_handlesInterrupted() throws LandingZoneRuleDeleteException, InterruptedException {
-    var landingZoneRecord = buildLandingZoneRecord(Collections.emptyMap());
-    var deleteStep = new DeleteLandingZoneResourcesStep(landingZoneManagerProvider, landingZoneDao);
-    when(flightContext.getInputParameters()).thenReturn(inputMap);
-    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
-    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+  void doStep_resourcesDeletedByEarlierAttemptAreSkipped() throws InterruptedException {
+    setDeletedResources(List.of(STORAGE.resourceId()));
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
         .thenReturn(landingZoneManager);
-    when(landingZoneDao.getLandingZoneRecord(eq(landingZoneRecord.landingZoneId())))
-        .thenReturn(landingZoneRecord);
-    when(landingZoneManager.deleteResources(eq(landingZoneRecord.landingZoneId().toString())))
-        .thenThrow(new RuntimeException("Interrupted", new InterruptedException()));
+    mockDeleteResources(List.of(BATCH), new ResourceDeleteResult(BATCH.resourceId(), null));
 
-    Assertions.assertThrows(InterruptedException.class, () -> deleteStep.doStep(flightContext));
-    assertThat(Thread.currentThread().isInterrupted(), equalTo(true));
+    var result = dependentResourcesStep().doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(getDeletedResources(), contains(STORAGE.resourceId(), BATCH.resourceId()));
   }
 
   @Test
-  void doStep_deletesDbRecordWhenCloudResourcesAreInaccessible()
-      throws LandingZoneRuleDeleteException, InterruptedException {
-    var landingZoneRecord = buildLandingZoneRecord(Collections.emptyMap());
-    var deleteStep = new DeleteLandingZoneResourcesStep(landingZoneManagerProvider, landingZoneDao);
-    when(flightContext.getInputParameters()).thenReturn(inputMap);
-    when(flightContext.getWorkingMap()).thenReturn(workingMap);
-    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
-    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+  void doStep_resourcesRecordedByInterruptedAttemptAreSkipped() throws InterruptedException {
+    // the attempt ended before the working map was saved, but STORAGE was recorded when deleted
+    setDeletedResources(List.of());
+    when(landingZoneDao.getDeletedLandingZoneResources(landingZoneId))
+        .thenReturn(List.of(STORAGE.resourceId()));
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
+        .thenReturn(landingZoneManager);
+    mockDeleteResources(List.of(BATCH), new ResourceDeleteResult(BATCH.resourceId(), null));
+
+    var result = dependentResourcesStep().doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(getDeletedResources(), contains(STORAGE.resourceId(), BATCH.resourceId()));
+  }
+
+  @Test
+  void doStep_tierAlreadyDeleted_doesNotCallAzure() throws InterruptedException {
+    setDeletedResources(List.of(STORAGE.resourceId(), BATCH.resourceId()));
+
+    var result = dependentResourcesStep().doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    verify(landingZoneManager, never()).deleteResources(anyList(), any());
+  }
+
+  @Test
+  void doStep_transientFailure_retriesAndKeepsProgress() throws InterruptedException {
+    setDeletedResources(List.of());
+    var serverBusy = azureException(503, "ServerBusy");
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
+        .thenReturn(landingZoneManager);
+    mockDeleteResources(
+        List.of(STORAGE, BATCH),
+        new ResourceDeleteResult(STORAGE.resourceId(), null),
+        new ResourceDeleteResult(BATCH.resourceId(), serverBusy));
+
+    var result = dependentResourcesStep().doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_RETRY));
+    assertThat(getDeletedResources(), contains(STORAGE.resourceId()));
+    verify(landingZoneDao).recordDeletedLandingZoneResource(landingZoneId, STORAGE.resourceId());
+    verify(landingZoneDao, never())
+        .recordDeletedLandingZoneResource(landingZoneId, BATCH.resourceId());
+  }
+
+  @Test
+  void doStep_nonTransientFailure_failsFatally() throws InterruptedException {
+    setDeletedResources(List.of());
+    var subnetInUse = azureException(409, "InUseSubnet");
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
+        .thenReturn(landingZoneManager);
+    mockDeleteResources(List.of(VNET), new ResourceDeleteResult(VNET.resourceId(), subnetInUse));
+
+    var result = baseResourcesStep().doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+  }
+
+  @Test
+  void doStep_resourceGroupInaccessible_succeeds() throws InterruptedException {
+    setDeletedResources(List.of());
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
         .thenThrow(
             new ManagementException(
                 "unauthed", null, new ManagementError("AuthorizationFailed", "unauthed")));
-    when(landingZoneDao.getLandingZoneRecord(landingZoneRecord.landingZoneId()))
-        .thenReturn(landingZoneRecord);
 
-    var result = deleteStep.doStep(flightContext);
+    var result = baseResourcesStep().doStep(flightContext);
 
     assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
-    assertThat(
-        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class),
-        equalTo(
-            new DeletedLandingZone(
-                landingZoneRecord.landingZoneId(),
-                Collections.emptyList(),
-                landingZoneRecord.billingProfileId())));
-    verify(landingZoneManager, times(0))
-        .deleteResources(landingZoneRecord.landingZoneId().toString());
   }
 
   @Test
-  void doStep_doesNotDeleteResourcesForAttachedLandingZone()
-      throws LandingZoneRuleDeleteException, InterruptedException {
-    var landingZoneRecord = buildLandingZoneRecord(Map.of(LandingZoneFlightMapKeys.ATTACH, "true"));
-    var deleteStep = new DeleteLandingZoneResourcesStep(landingZoneManagerProvider, landingZoneDao);
-    when(flightContext.getInputParameters()).thenReturn(inputMap);
-    when(flightContext.getWorkingMap()).thenReturn(workingMap);
-    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
-    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+  void doStep_resourceGroupInaccessibleWithOtherFailure_fails() throws InterruptedException {
+    setDeletedResources(List.of());
+    var unauthed =
+        new ManagementException(
+            "unauthed", null, new ManagementError("AuthorizationFailed", "unauthed"));
+    var subnetInUse = azureException(409, "InUseSubnet");
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
         .thenReturn(landingZoneManager);
-    when(landingZoneDao.getLandingZoneRecord(eq(landingZoneRecord.landingZoneId())))
-        .thenReturn(landingZoneRecord);
+    mockDeleteResources(
+        List.of(STORAGE, BATCH),
+        new ResourceDeleteResult(STORAGE.resourceId(), unauthed),
+        new ResourceDeleteResult(BATCH.resourceId(), subnetInUse));
 
-    var result = deleteStep.doStep(flightContext);
+    var result = dependentResourcesStep().doStep(flightContext);
 
-    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
-    assertThat(
-        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class),
-        equalTo(
-            new DeletedLandingZone(
-                landingZoneRecord.landingZoneId(),
-                Collections.emptyList(),
-                landingZoneRecord.billingProfileId())));
-    verify(landingZoneManager, times(0)).deleteResources(anyString());
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
   }
 
   @Test
-  void doStep_failsIfLzNotFound() throws InterruptedException {
-    var lzId = UUID.randomUUID();
-    var deleteStep = new DeleteLandingZoneResourcesStep(landingZoneManagerProvider, landingZoneDao);
-    when(flightContext.getInputParameters()).thenReturn(inputMap);
-    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, lzId);
-    when(landingZoneDao.getLandingZoneRecord(lzId))
-        .thenThrow(new LandingZoneNotFoundException("not found"));
+  void doStep_handlesInterrupted() {
+    setDeletedResources(List.of());
+    when(landingZoneManagerProvider.createLandingZoneManager(TARGET))
+        .thenReturn(landingZoneManager);
+    when(landingZoneManager.deleteResources(eq(List.of(VNET)), any()))
+        .thenThrow(new RuntimeException("Interrupted", new InterruptedException()));
+
+    Assertions.assertThrows(
+        InterruptedException.class, () -> baseResourcesStep().doStep(flightContext));
+    assertThat(Thread.currentThread().isInterrupted(), equalTo(true));
+  }
 
-    var result = deleteStep.doStep(flightContext);
+  private DeleteLandingZoneResourcesStep dependentResourcesStep() {
+    return new DeleteLandingZoneResourcesStep(
+        landingZoneManagerProvider,
+        landingZoneDao,
+        DeleteLandingZoneResourcesStep.Tier.DEPENDENT_RESOURCES);
+  }
 
-    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+  private DeleteLandingZoneResourcesStep baseResourcesStep() {
+    return new DeleteLandingZoneResourcesStep(
+        landingZoneManagerProvider,
+        landingZoneDao,
+        DeleteLandingZoneResourcesStep.Tier.BASE_RESOURCES);
+  }
+
+  // answers like the manager: each result is passed to the callback before the tier returns
+  @SuppressWarnings("unchecked")
+  private void mockDeleteResources(
+      List<ResourceDeletion> resources, ResourceDeleteResult... results) {
+    when(landingZoneManager.deleteResources(eq(resources), any()))
+        .thenAnswer(
+            invocation -> {
+              var onResult = (Consumer<ResourceDeleteResult>) invocation.getArgument(1);
+              List.of(results).forEach(onResult);
+              return List.of(results);
+            });
+  }
+
+  private void setDeletedResources(List<String> deletedResources) {
+    workingMap.put(
+        JobMapKeys.RESPONSE.getKeyName(),
+        new DeletedLandingZone(landingZoneId, deletedResources, billingProfileId));
+  }
+
+  private List<String> getDeletedResources() {
+    return workingMap
+        .get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class)
+        .deleteResources();
   }
 
-  private LandingZoneRecord buildLandingZoneRecord(Map<String, String> properties) {
-    return new LandingZoneRecord(
-        UUID.randomUUID(),
-        "fake",
-        "fake",
-        "fake",
-        "fake",
-        "fake",
-        UUID.randomUUID(),
-        OffsetDateTime.now(),
-        Optional.empty(),
-        Optional.empty(),
-        properties);
+  private static ManagementException azureException(int statusCode, String code) {
+    HttpResponse response = mock(HttpResponse.class);
+    when(response.getStatusCode()).thenReturn(statusCode);
+    return new ManagementException(code, response, new ManagementError(code, code));
   }
 }
@@ -0,0 +1,220 @@
+package bio.terra.landingzone.stairway.flight.delete;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.db.LandingZoneDao;
+import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
+import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.job.JobMapKeys;
+import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.landingzones.management.LandingZoneManager;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletion;
+import bio.terra.landingzone.library.landingzones.management.ResourceDeletionPlan;
+import bio.terra.landingzone.library.landingzones.management.deleterules.LandingZoneRuleDeleteException;
+import bio.terra.landingzone.model.LandingZoneTarget;
+import bio.terra.landingzone.service.landingzone.azure.model.DeletedLandingZone;
+import bio.terra.landingzone.stairway.flight.LandingZoneFlightMapKeys;
+import bio.terra.stairway.FlightContext;
+import bio.terra.stairway.FlightMap;
+import bio.terra.stairway.StepStatus;
+import com.azure.core.management.exception.ManagementError;
+import com.azure.core.management.exception.ManagementException;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class PlanLandingZoneResourcesDeletionStepTest {
+
+  @Mock private LandingZoneManagerProvider landingZoneManagerProvider;
+  @Mock private LandingZoneDao landingZoneDao;
+  @Mock private LandingZoneManager landingZoneManager;
+  @Mock private FlightContext flightContext;
+  private FlightMap workingMap;
+  private FlightMap inputMap;
+  private PlanLandingZoneResourcesDeletionStep planStep;
+
+  @BeforeEach
+  void setup() {
+    workingMap = new FlightMap();
+    inputMap = new FlightMap();
+    planStep = new PlanLandingZoneResourcesDeletionStep(landingZoneManagerProvider, landingZoneDao);
+  }
+
+  @Test
+  void doStep_persistsDeletionPlan() throws LandingZoneRuleDeleteException, InterruptedException {
+    var landingZoneRecord = buildLandingZoneRecord(Collections.emptyMap());
+    var plan =
+        new ResourceDeletionPlan(
+            List.of(new ResourceDeletion("storage", "storageType", "storagePe", List.of())),
+            List.of(new ResourceDeletion("vnet", "vnetType", null, List.of())));
+    when(flightContext.getInputParameters()).thenReturn(inputMap);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenReturn(landingZoneManager);
+    when(landingZoneDao.getLandingZoneRecord(eq(landingZoneRecord.landingZoneId())))
+        .thenReturn(landingZoneRecord);
+    when(landingZoneManager.planResourcesDeletion(landingZoneRecord.landingZoneId().toString()))
+        .thenReturn(plan);
+
+    var result = planStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(
+        workingMap.get(LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN, ResourceDeletionPlan.class),
+        equalTo(plan));
+    assertThat(
+        workingMap.get(LandingZoneFlightMapKeys.LANDING_ZONE_TARGET, LandingZoneTarget.class),
+        equalTo(
+            new LandingZoneTarget(
+                landingZoneRecord.tenantId(),
+                landingZoneRecord.subscriptionId(),
+                landingZoneRecord.resourceGroupId())));
+    assertThat(
+        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class),
+        equalTo(
+            new DeletedLandingZone(
+                landingZoneRecord.landingZoneId(),
+                Collections.emptyList(),
+                landingZoneRecord.billingProfileId())));
+  }
+
+  @Test
+  void doStep_deleteRulesFail_failsFatally()
+      throws LandingZoneRuleDeleteException, InterruptedException {
+    var landingZoneRecord = buildLandingZoneRecord(Collections.emptyMap());
+    when(flightContext.getInputParameters()).thenReturn(inputMap);
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenReturn(landingZoneManager);
+    when(landingZoneDao.getLandingZoneRecord(eq(landingZoneRecord.landingZoneId())))
+        .thenReturn(landingZoneRecord);
+    when(landingZoneManager.planResourcesDeletion(landingZoneRecord.landingZoneId().toString()))
+        .thenThrow(new LandingZoneRuleDeleteException("storage account has containers"));
+
+    var result = planStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+    assertThat(
+        workingMap.containsKey(LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN), equalTo(false));
+  }
+
+  @Test
+  void doStep_handlesInterrupted() throws LandingZoneRuleDeleteException, InterruptedException {
+    var landingZoneRecord = buildLandingZoneRecord(Collections.emptyMap());
+    when(flightContext.getInputParameters()).thenReturn(inputMap);
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenReturn(landingZoneManager);
+    when(landingZoneDao.getLandingZoneRecord(eq(landingZoneRecord.landingZoneId())))
+        .thenReturn(landingZoneRecord);
+    when(landingZoneManager.planResourcesDeletion(landingZoneRecord.landingZoneId().toString()))
+        .thenThrow(new RuntimeException("Interrupted", new InterruptedException()));
+
+    Assertions.assertThrows(InterruptedException.class, () -> planStep.doStep(flightContext));
+    assertThat(Thread.currentThread().isInterrupted(), equalTo(true));
+  }
+
+  @Test
+  void doStep_deletesDbRecordWhenCloudResourcesAreInaccessible()
+      throws LandingZoneRuleDeleteException, InterruptedException {
+    var landingZoneRecord = buildLandingZoneRecord(Collections.emptyMap());
+    when(flightContext.getInputParameters()).thenReturn(inputMap);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
+    when(landingZoneManagerProvider.createLandingZoneManager(any(LandingZoneTarget.class)))
+        .thenThrow(
+            new ManagementException(
+                "unauthed", null, new ManagementError("AuthorizationFailed", "unauthed")));
+    when(landingZoneDao.getLandingZoneRecord(landingZoneRecord.landingZoneId()))
+        .thenReturn(landingZoneRecord);
+
+    var result = planStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(
+        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class),
+        equalTo(
+            new DeletedLandingZone(
+                landingZoneRecord.landingZoneId(),
+                Collections.emptyList(),
+                landingZoneRecord.billingProfileId())));
+    assertThat(
+        workingMap.get(LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN, ResourceDeletionPlan.class),
+        equalTo(ResourceDeletionPlan.empty()));
+    verify(landingZoneManager, times(0)).planResourcesDeletion(anyString());
+  }
+
+  @Test
+  void doStep_doesNotDeleteResourcesForAttachedLandingZone()
+      throws LandingZoneRuleDeleteException, InterruptedException {
+    var landingZoneRecord = buildLandingZoneRecord(Map.of(LandingZoneFlightMapKeys.ATTACH, "true"));
+    when(flightContext.getInputParameters()).thenReturn(inputMap);
+    when(flightContext.getWorkingMap()).thenReturn(workingMap);
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, landingZoneRecord.landingZoneId());
+    when(landingZoneDao.getLandingZoneRecord(eq(landingZoneRecord.landingZoneId())))
+        .thenReturn(landingZoneRecord);
+
+    var result = planStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_SUCCESS));
+    assertThat(
+        workingMap.get(JobMapKeys.RESPONSE.getKeyName(), DeletedLandingZone.class),
+        equalTo(
+            new DeletedLandingZone(
+                landingZoneRecord.landingZoneId(),
+                Collections.emptyList(),
+                landingZoneRecord.billingProfileId())));
+    assertThat(
+        workingMap.get(LandingZoneFlightMapKeys.RESOURCE_DELETION_PLAN, ResourceDeletionPlan.class),
+        equalTo(ResourceDeletionPlan.empty()));
+    verify(landingZoneManager, times(0)).planResourcesDeletion(anyString());
+  }
+
+  @Test
+  void doStep_failsIfLzNotFound() throws InterruptedException {
+    var lzId = UUID.randomUUID();
+    when(flightContext.getInputParameters()).thenReturn(inputMap);
+    inputMap.put(LandingZoneFlightMapKeys.LANDING_ZONE_ID, lzId);
+    when(landingZoneDao.getLandingZoneRecord(lzId))
+        .thenThrow(new LandingZoneNotFoundException("not found"));
+
+    var result = planStep.doStep(flightContext);
+
+    assertThat(result.getStepStatus(), equalTo(StepStatus.STEP_RESULT_FAILURE_FATAL));
+  }
+
+  private LandingZoneRecord buildLandingZoneRecord(Map<String, String> properties) {
+    return new LandingZoneRecord(
+        UUID.randomUUID(),
+        "fake",
+        "fake",
+        "fake",
+        "fake",
+        "fake",
+        UUID.randomUUID(),
+        OffsetDateTime.now(),
+        Optional.empty(),
+        Optional.empty(),
+        properties);
+  }
+}
@@ -0,0 +1,154 @@
+package bio.terra.landingzone.stairway.flight.utils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.library.LandingZoneManagerProvider;
+import bio.terra.landingzone.library.configuration.AzureCustomerUsageConfiguration;
+import bio.terra.landingzone.library.configuration.LandingZoneProtectedDataConfiguration;
+import bio.terra.landingzone.stairway.flight.utils.AlertRuleTemplateCatalog.TemplateSource;
+import com.azure.resourcemanager.securityinsights.models.ScheduledAlertRuleTemplate;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class AlertRuleTemplateCatalogTest {
+  private static final String TEMPLATE_ID = "templateId";
+  private static final Duration TTL = Duration.ofHours(24);
+
+  @Mock private LandingZoneProtectedDataConfiguration protectedDataConfiguration;
+  @Mock private LandingZoneManagerProvider landingZoneManagerProvider;
+  @Mock private AzureCustomerUsageConfiguration azureCustomerUsageConfiguration;
+  @Mock private TemplateSource templateSource;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private AlertRuleTemplateCatalog catalog;
+
+  @BeforeEach
+  void setUp() {
+    when(protectedDataConfiguration.getSentinelAlertRuleTemplateTtl()).thenReturn(TTL);
+    Ticker ticker =
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos.get();
+          }
+        };
+    catalog =
+        new AlertRuleTemplateCatalog(
+            protectedDataConfiguration,
+            landingZoneManagerProvider,
+            azureCustomerUsageConfiguration,
+            ticker);
+  }
+
+  @Test
+  void getTemplate_readsTemplateOnce() {
+    var template = new ScheduledAlertRuleTemplate().withVersion("1.0.0");
+    when(templateSource.fetch(TEMPLATE_ID)).thenReturn(template);
+
+    var first = catalog.getTemplate(TEMPLATE_ID, templateSource);
+    var second = catalog.getTemplate(TEMPLATE_ID, templateSource);
+
+    assertThat(first, sameInstance(template));
+    assertThat(second, sameInstance(template));
+    verify(templateSource, times(1)).fetch(TEMPLATE_ID);
+  }
+
+  @Test
+  void getTemplate_expiredTemplateIsReadAgain() {
+    var oldTemplate = new ScheduledAlertRuleTemplate().withVersion("1.0.0");
+    var newTemplate = new ScheduledAlertRuleTemplate().withVersion("1.1.0");
+    when(templateSource.fetch(TEMPLATE_ID)).thenReturn(oldTemplate).thenReturn(newTemplate);
+    catalog.getTemplate(TEMPLATE_ID, templateSource);
+
+    nanos.addAndGet(TTL.plusMinutes(1).toNanos());
+
+    assertThat(catalog.getTemplate(TEMPLATE_ID, templateSource), sameInstance(newTemplate));
+    verify(templateSource, times(2)).fetch(TEMPLATE_ID);
+  }
+
+  @Test
+  void getTemplate_returnsRequestedVersion() {
+    var oldTemplate = new ScheduledAlertRuleTemplate().withVersion("1.0.0");
+    var newTemplate = new ScheduledAlertRuleTemplate().withVersion("1.1.0");
+    when(templateSource.fetch(TEMPLATE_ID)).thenReturn(oldTemplate).thenReturn(newTemplate);
+    catalog.getTemplate(TEMPLATE_ID, templateSource);
+    catalog.refresh(templateSource);
+
+    assertThat(
+        catalog.getTemplate(TEMPLATE_ID, "1.0.0", templateSource), sameInstance(oldTemplate));
+    assertThat(
+        catalog.getTemplate(TEMPLATE_ID, "1.1.0", templateSource), sameInstance(newTemplate));
+    verify(templateSource, times(2)).fetch(TEMPLATE_ID);
+  }
+
+  @Test
+  void getTemplate_unavailableVersionThrows() {
+    when(templateSource.fetch(TEMPLATE_ID))
+        .thenReturn(new ScheduledAlertRuleTemplate().withVersion("1.1.0"));
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> catalog.getTemplate(TEMPLATE_ID, "1.0.0", templateSource));
+  }
+
+  @Test
+  void refresh_replacesTemplateWithNewVersion() {
+    var oldTemplate = new ScheduledAlertRuleTemplate().withVersion("1.0.0");
+    var newTemplate = new ScheduledAlertRuleTemplate().withVersion("1.1.0");
+    when(templateSource.fetch(TEMPLATE_ID)).thenReturn(oldTemplate).thenReturn(newTemplate);
+    catalog.getTemplate(TEMPLATE_ID, templateSource);
+
+    catalog.refresh(templateSource);
+
+    assertThat(catalog.getTemplate(TEMPLATE_ID, templateSource), sameInstance(newTemplate));
+    verify(templateSource, times(2)).fetch(TEMPLATE_ID);
+  }
+
+  @Test
+  void refresh_keepsTemplateWhichCannotBeRead() {
+    var template = new ScheduledAlertRuleTemplate().withVersion("1.0.0");
+    when(templateSource.fetch(TEMPLATE_ID))
+        .thenReturn(template)
+        .thenThrow(new RuntimeException("throttled"));
+    catalog.getTemplate(TEMPLATE_ID, templateSource);
+
+    catalog.refresh(templateSource);
+
+    assertThat(catalog.getTemplate(TEMPLATE_ID, templateSource), sameInstance(template));
+    verify(templateSource, times(2)).fetch(TEMPLATE_ID);
+  }
+
+  @Test
+  void refresh_withoutWorkspaceDoesNotUseFlightSources() {
+    when(templateSource.fetch(TEMPLATE_ID))
+        .thenReturn(new ScheduledAlertRuleTemplate().withVersion("1.0.0"));
+    catalog.getTemplate(TEMPLATE_ID, templateSource);
+
+    catalog.refresh();
+
+    verify(templateSource, times(1)).fetch(TEMPLATE_ID);
+    verifyNoInteractions(landingZoneManagerProvider);
+  }
+
+  @Test
+  void warmUp_withoutWorkspaceDoesNothing() {
+    catalog.warmUp();
+
+    verifyNoInteractions(landingZoneManagerProvider);
+  }
+}
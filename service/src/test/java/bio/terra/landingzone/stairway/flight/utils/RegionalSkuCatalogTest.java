@@ -0,0 +1,55 @@
+package bio.terra.landingzone.stairway.flight.utils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bio.terra.landingzone.library.configuration.LandingZoneJobConfiguration;
+import bio.terra.landingzone.stairway.flight.utils.RegionalSkuCatalog.RegionalSkus;
+import bio.terra.landingzone.stairway.flight.utils.RegionalSkuCatalog.SkuSource;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+class RegionalSkuCatalogTest {
+  private static final RegionalSkus SKUS =
+      new RegionalSkus(Set.of("Standard_D4as_v4"), Set.of("Standard_B2s"));
+
+  @Mock private SkuSource skuSource;
+
+  private RegionalSkuCatalog catalog;
+
+  @BeforeEach
+  void setUp() {
+    catalog = new RegionalSkuCatalog(new LandingZoneJobConfiguration());
+  }
+
+  @Test
+  void getSkus_readsRegionOncePerSubscription() {
+    when(skuSource.fetch("eastus")).thenReturn(SKUS);
+
+    var first = catalog.getSkus("subscription", "eastus", skuSource);
+    var second = catalog.getSkus("subscription", "EastUS", skuSource);
+    catalog.getSkus("otherSubscription", "eastus", skuSource);
+
+    assertThat(first, sameInstance(SKUS));
+    assertThat(second, sameInstance(SKUS));
+    verify(skuSource, times(2)).fetch("eastus");
+  }
+
+  @Test
+  void regionalSkus_compareNamesCaseInsensitively() {
+    assertThat(SKUS.isVmSizeAvailable("standard_d4as_v4"), equalTo(true));
+    assertThat(SKUS.isVmSizeAvailable("Standard_D8as_v4"), equalTo(false));
+    assertThat(SKUS.isPostgresSkuAvailable("STANDARD_B2S"), equalTo(true));
+  }
+}
@@ -5,8 +5,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import bio.terra.landingzone.db.exception.DuplicateLandingZoneException;
 import bio.terra.landingzone.db.exception.LandingZoneNotFoundException;
 import bio.terra.landingzone.db.model.LandingZoneRecord;
+import bio.terra.landingzone.db.model.LandingZoneTeardown;
+import bio.terra.landingzone.db.model.RetainedLandingZoneResources;
+import bio.terra.landingzone.model.LandingZoneTarget;
 import bio.terra.landingzone.testutils.LibraryTestBase;
 import bio.terra.landingzone.testutils.TestFixtures;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -28,6 +32,8 @@ public class DeployedLandingZoneDaoTest extends LibraryTestBase {
   private static final String DESCRIPTION = "lzDescription";
   private static final Map<String, String> properties = Map.of("key1", "value1");
   private static final OffsetDateTime CREATED_DATE = Instant.now().atOffset(ZoneOffset.UTC);
+  private static final LandingZoneTarget RETAINED_TARGET =
+      new LandingZoneTarget(TENANT, SUBSCRIPTION, RESOURCE_GROUP);
   @Autowired private LandingZoneDao landingZoneDao;
 
   @Test
@@ -317,6 +323,177 @@ public class DeployedLandingZoneDaoTest extends LibraryTestBase {
     assertFalse(landingZoneDao.deleteLandingZone(notExistingLzId));
   }
 
+  @Test
+  public void recordDeletedLandingZoneResource_isRemovedWithLandingZone() {
+    UUID expectedLzId = UUID.randomUUID();
+    try {
+      landingZoneDao.createLandingZone(createLandingZoneRecord(expectedLzId, UUID.randomUUID()));
+
+      landingZoneDao.recordDeletedLandingZoneResource(expectedLzId, "storage");
+      landingZoneDao.recordDeletedLandingZoneResource(expectedLzId, "batch");
+      // recording a resource again has no effect
+      landingZoneDao.recordDeletedLandingZoneResource(expectedLzId, "storage");
+
+      assertEquals(
+          List.of("storage", "batch"), landingZoneDao.getDeletedLandingZoneResources(expectedLzId));
+    } finally {
+      landingZoneDao.deleteLandingZone(expectedLzId);
+    }
+    assertTrue(landingZoneDao.getDeletedLandingZoneResources(expectedLzId).isEmpty());
+  }
+
+  @Test
+  public void markLandingZoneDeleting_hidesLandingZone() {
+    UUID expectedLzId = UUID.randomUUID();
+    UUID billingProfileId = UUID.randomUUID();
+    try {
+      landingZoneDao.createLandingZone(createLandingZoneRecord(expectedLzId, billingProfileId));
+
+      assertTrue(landingZoneDao.markLandingZoneDeleting(expectedLzId));
+
+      assertTrue(landingZoneDao.getLandingZoneIfExists(expectedLzId).isEmpty());
+      assertTrue(landingZoneDao.getLandingZoneMatchingIdList(List.of(expectedLzId)).isEmpty());
+      assertTrue(
+          landingZoneDao.getLandingZoneByBillingProfileIdIfExists(billingProfileId).isEmpty());
+      // a landing zone is marked only once
+      assertFalse(landingZoneDao.markLandingZoneDeleting(expectedLzId));
+    } finally {
+      landingZoneDao.deleteLandingZone(expectedLzId);
+    }
+  }
+
+  @Test
+  public void claimLandingZoneTeardowns_claimsDueTeardownOnce() {
+    UUID expectedLzId = UUID.randomUUID();
+    try {
+      landingZoneDao.createLandingZone(createLandingZoneRecord(expectedLzId, UUID.randomUUID()));
+      // live landing zones are not torn down
+      assertFalse(claimed(expectedLzId, 10).isPresent());
+      landingZoneDao.markLandingZoneDeleting(expectedLzId);
+
+      var teardown = claimed(expectedLzId, 10);
+      assertTrue(teardown.isPresent());
+      assertEquals(1, teardown.get().attempts());
+      assertEquals(RESOURCE_GROUP, teardown.get().landingZone().resourceGroupId());
+      // the teardown is leased to the first claim
+      assertFalse(claimed(expectedLzId, 10).isPresent());
+
+      landingZoneDao.scheduleLandingZoneTeardown(expectedLzId, Duration.ZERO);
+      assertEquals(2, claimed(expectedLzId, 10).get().attempts());
+
+      landingZoneDao.scheduleLandingZoneTeardown(expectedLzId, Duration.ZERO);
+      // the attempts are used up
+      assertFalse(claimed(expectedLzId, 2).isPresent());
+      var backlog = landingZoneDao.getLandingZoneTeardownBacklog(2);
+      assertTrue(backlog.pending() >= 1);
+      assertTrue(backlog.exhausted() >= 1);
+      assertNotNull(backlog.oldestDeletingDate());
+    } finally {
+      landingZoneDao.deleteLandingZone(expectedLzId);
+    }
+  }
+
+  @Test
+  public void retainLandingZoneResources_countsRepairAttempts() {
+    UUID landingZoneId = UUID.randomUUID();
+    try {
+      assertTrue(landingZoneDao.getRetainedLandingZoneResources(landingZoneId).isEmpty());
+      assertTrue(landingZoneDao.startLandingZoneRepair(landingZoneId, null, "repair1").isEmpty());
+
+      landingZoneDao.retainLandingZoneResources(
+          landingZoneId,
+          RETAINED_TARGET,
+          "{\"definition\":\"lz\"}",
+          Map.of("vnetId", "\"vnet\""),
+          "flight1");
+      var repair = landingZoneDao.startLandingZoneRepair(landingZoneId, null, "repair1").get();
+      assertEquals(1, repair.repairAttempts());
+      assertEquals("repair1", repair.repairJobId());
+      assertTrue(repair.isRepairStarted());
+      // a caller which missed the first repair can't start another one
+      assertTrue(landingZoneDao.startLandingZoneRepair(landingZoneId, null, "repair2").isEmpty());
+
+      // a failed repair replaces the retained resources and keeps the attempts
+      landingZoneDao.retainLandingZoneResources(
+          landingZoneId,
+          RETAINED_TARGET,
+          "{\"definition\":\"lz\"}",
+          Map.of("vnetId", "\"vnet\"", "aksId", "\"aks\""),
+          "flight2");
+      var retained = landingZoneDao.getRetainedLandingZoneResources(landingZoneId).get();
+      assertEquals("flight2", retained.failedFlightId());
+      assertEquals(Map.of("vnetId", "\"vnet\"", "aksId", "\"aks\""), retained.workingMap());
+      assertEquals(RETAINED_TARGET, retained.landingZoneTarget());
+      assertEquals(1, retained.repairAttempts());
+      assertFalse(retained.isRepairStarted());
+      assertEquals(
+          2,
+          landingZoneDao
+              .startLandingZoneRepair(landingZoneId, "repair1", "repair2")
+              .get()
+              .repairAttempts());
+    } finally {
+      landingZoneDao.deleteRetainedLandingZoneResources(landingZoneId);
+    }
+    assertTrue(landingZoneDao.getRetainedLandingZoneResources(landingZoneId).isEmpty());
+  }
+
+  @Test
+  public void claimRetainedResourcesCleanups_claimsAbandonedResources() {
+    UUID landingZoneId = UUID.randomUUID();
+    try {
+      landingZoneDao.retainLandingZoneResources(
+          landingZoneId, RETAINED_TARGET, "{\"definition\":\"lz\"}", Map.of(), "flight1");
+      assertFalse(cleanupClaimed(landingZoneId, Duration.ofDays(1)).isPresent());
+
+      var cleanup = cleanupClaimed(landingZoneId, Duration.ZERO);
+      assertTrue(cleanup.isPresent());
+      assertEquals(1, cleanup.get().cleanupAttempts());
+      assertEquals(RETAINED_TARGET, cleanup.get().landingZoneTarget());
+      // leased
+      assertFalse(cleanupClaimed(landingZoneId, Duration.ZERO).isPresent());
+      // the landing zone can't be repaired anymore
+      assertTrue(landingZoneDao.startLandingZoneRepair(landingZoneId, null, "repair1").isEmpty());
+
+      landingZoneDao.scheduleRetainedResourcesCleanup(landingZoneId, Duration.ZERO);
+      assertEquals(2, cleanupClaimed(landingZoneId, Duration.ZERO).get().cleanupAttempts());
+    } finally {
+      landingZoneDao.deleteRetainedLandingZoneResources(landingZoneId);
+    }
+  }
+
+  private Optional<RetainedLandingZoneResources> cleanupClaimed(
+      UUID landingZoneId, Duration expiry) {
+    // other tests may leave retained resources behind
+    return landingZoneDao
+        .claimRetainedResourcesCleanups(100, expiry, Duration.ofHours(1), 10)
+        .stream()
+        .filter(r -> r.landingZoneId().equals(landingZoneId))
+        .findFirst();
+  }
+
+  private Optional<LandingZoneTeardown> claimed(UUID landingZoneId, int maxAttempts) {
+    // other tests may leave deleting landing zones behind
+    return landingZoneDao.claimLandingZoneTeardowns(100, Duration.ofHours(1), maxAttempts).stream()
+        .filter(t -> t.landingZone().landingZoneId().equals(landingZoneId))
+        .findFirst();
+  }
+
+  private LandingZoneRecord createLandingZoneRecord(UUID landingZoneId, UUID billingProfileId) {
+    return TestFixtures.createLandingZone(
+        landingZoneId,
+        RESOURCE_GROUP,
+        DEFINITION,
+        VERSION,
+        DISPLAY_NAME,
+        DESCRIPTION,
+        properties,
+        SUBSCRIPTION,
+        TENANT,
+        billingProfileId,
+        CREATED_DATE);
+  }
+
   private void verifyOffsetDateTime(OffsetDateTime expected, OffsetDateTime actual) {
     // There is loss of precision of timestamp while reading from database:
     // expected: <2022-11-01T18:25:47.060745593Z> but was: <2022-11-01T18:25:47.060746Z>
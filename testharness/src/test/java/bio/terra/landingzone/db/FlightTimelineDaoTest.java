@@ -0,0 +1,136 @@
+package bio.terra.landingzone.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import bio.terra.landingzone.job.model.StepTiming;
+import bio.terra.landingzone.testutils.LibraryTestBase;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class FlightTimelineDaoTest extends LibraryTestBase {
+  private static final String STEP_CLASS = "bio.terra.landingzone.SomeStep";
+  private static final Instant STARTED = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  @Autowired private FlightTimelineDao flightTimelineDao;
+
+  @Test
+  public void upsertStepTiming_retryKeepsStartAndCountsAttempts() {
+    String flightId = UUID.randomUUID().toString();
+    try {
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(flightId, 0, "DO", STARTED, STARTED.plusSeconds(1)), null);
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(flightId, 0, "DO", STARTED.plusSeconds(5), STARTED.plusSeconds(9)), null);
+
+      List<StepTiming> timeline = flightTimelineDao.getTimeline(flightId);
+
+      assertEquals(
+          List.of(
+              new StepTiming(
+                  flightId,
+                  0,
+                  StepTiming.STAIRWAY_STEP,
+                  STEP_CLASS,
+                  "DO",
+                  STARTED,
+                  STARTED.plusSeconds(9),
+                  2)),
+          timeline);
+    } finally {
+      flightTimelineDao.deleteTimeline(flightId);
+    }
+  }
+
+  @Test
+  public void getTimeline_ordersStepsByStart() {
+    String flightId = UUID.randomUUID().toString();
+    try {
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(flightId, 1, "UNDO", STARTED.plusSeconds(2), STARTED.plusSeconds(3)), null);
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(flightId, 1, "DO", STARTED, STARTED.plusSeconds(1)), null);
+
+      List<StepTiming> timeline = flightTimelineDao.getTimeline(flightId);
+
+      assertEquals(2, timeline.size());
+      assertEquals("DO", timeline.get(0).direction());
+      assertEquals("UNDO", timeline.get(1).direction());
+    } finally {
+      flightTimelineDao.deleteTimeline(flightId);
+    }
+  }
+
+  @Test
+  public void getTimeline_includesSubFlightAndInnerSteps() {
+    String flightId = UUID.randomUUID().toString();
+    String subFlightId = UUID.randomUUID().toString();
+    try {
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(flightId, 0, "DO", STARTED, STARTED.plusSeconds(4)), null);
+      flightTimelineDao.upsertStepTiming(
+          new StepTiming(
+              flightId, 0, 1, STEP_CLASS, "DO", STARTED, STARTED.plusSeconds(2), /* attempts= */ 1),
+          null);
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(subFlightId, 0, "DO", STARTED.plusSeconds(5), STARTED.plusSeconds(6)),
+          flightId);
+
+      List<StepTiming> timeline = flightTimelineDao.getTimeline(flightId);
+
+      assertEquals(3, timeline.size());
+      assertEquals(StepTiming.STAIRWAY_STEP, timeline.get(0).innerStepIndex());
+      assertEquals(1, timeline.get(1).innerStepIndex());
+      assertEquals(subFlightId, timeline.get(2).flightId());
+      // the sub-flight's own timeline doesn't include its parent
+      assertEquals(1, flightTimelineDao.getTimeline(subFlightId).size());
+    } finally {
+      flightTimelineDao.deleteTimeline(flightId);
+      flightTimelineDao.deleteTimeline(subFlightId);
+    }
+  }
+
+  @Test
+  public void deleteTimelinesEndedBefore_keepsFlightsWithRecentSteps() {
+    String expiredFlightId = UUID.randomUUID().toString();
+    String recentFlightId = UUID.randomUUID().toString();
+    Instant cutoff = STARTED.plusSeconds(10);
+    try {
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(expiredFlightId, 0, "DO", STARTED, STARTED.plusSeconds(1)), null);
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(recentFlightId, 0, "DO", STARTED, STARTED.plusSeconds(1)), null);
+      flightTimelineDao.upsertStepTiming(
+          stepTiming(recentFlightId, 1, "DO", STARTED.plusSeconds(2), cutoff.plusSeconds(1)), null);
+
+      flightTimelineDao.deleteTimelinesEndedBefore(cutoff);
+
+      assertTrue(flightTimelineDao.getTimeline(expiredFlightId).isEmpty());
+      assertEquals(2, flightTimelineDao.getTimeline(recentFlightId).size());
+    } finally {
+      flightTimelineDao.deleteTimeline(expiredFlightId);
+      flightTimelineDao.deleteTimeline(recentFlightId);
+    }
+  }
+
+  @Test
+  public void getTimeline_unknownFlightIsEmpty() {
+    assertTrue(flightTimelineDao.getTimeline(UUID.randomUUID().toString()).isEmpty());
+  }
+
+  private static StepTiming stepTiming(
+      String flightId, int stepIndex, String direction, Instant started, Instant ended) {
+    return new StepTiming(
+        flightId,
+        stepIndex,
+        StepTiming.STAIRWAY_STEP,
+        STEP_CLASS,
+        direction,
+        started,
+        ended,
+        /* attempts= */ 1);
+  }
+}
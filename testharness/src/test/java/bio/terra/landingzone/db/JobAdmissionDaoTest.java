@@ -0,0 +1,97 @@
+package bio.terra.landingzone.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import bio.terra.landingzone.db.model.JobAdmission;
+import bio.terra.landingzone.testutils.LibraryTestBase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+
+public class JobAdmissionDaoTest extends LibraryTestBase {
+  private static final UUID BILLING_PROFILE_A = UUID.randomUUID();
+  private static final UUID BILLING_PROFILE_B = UUID.randomUUID();
+
+  @Autowired private JobAdmissionDao jobAdmissionDao;
+
+  private final List<String> jobIds = new ArrayList<>();
+
+  @AfterEach
+  void cleanUp() {
+    jobIds.forEach(jobAdmissionDao::deleteJobAdmission);
+  }
+
+  @Test
+  public void enqueueJob_billingProfilesTakeTurns() {
+    String a1 = enqueue(BILLING_PROFILE_A, false);
+    String a2 = enqueue(BILLING_PROFILE_A, false);
+    String a3 = enqueue(BILLING_PROFILE_A, false);
+    String b1 = enqueue(BILLING_PROFILE_B, false);
+
+    // b1 was queued last but B has no job ahead of it, so it goes before A's backlog
+    assertEquals(List.of(a1, b1, a2, a3), queuedJobIds());
+  }
+
+  @Test
+  public void enqueueJob_highPriorityJobGoesFirst() {
+    String create = enqueue(BILLING_PROFILE_A, false);
+    String delete = enqueue(BILLING_PROFILE_B, true);
+
+    assertEquals(List.of(delete, create), queuedJobIds());
+  }
+
+  @Test
+  public void enqueueJob_duplicateJobIdIsRejected() {
+    String jobId = enqueue(BILLING_PROFILE_A, false);
+
+    assertThrows(
+        DuplicateKeyException.class,
+        () -> jobAdmissionDao.enqueueJob(jobId, BILLING_PROFILE_B, null, false, 1.0));
+  }
+
+  @Test
+  public void admitJob_admitsJobSelectedByPolicy() {
+    String jobId = enqueue(BILLING_PROFILE_A, false);
+
+    JobAdmission held = jobAdmissionDao.admitJob(jobId, queue -> Set.of()).orElseThrow();
+    JobAdmission admitted = jobAdmissionDao.admitJob(jobId, queue -> Set.of(jobId)).orElseThrow();
+
+    assertFalse(held.isAdmitted());
+    assertTrue(admitted.isAdmitted());
+    assertTrue(
+        jobAdmissionDao.getAdmissionQueue().stream()
+            .anyMatch(job -> job.jobId().equals(jobId) && job.isAdmitted()));
+  }
+
+  @Test
+  public void admitJob_unknownJobIsEmpty() {
+    assertTrue(jobAdmissionDao.admitJob(UUID.randomUUID().toString(), queue -> Set.of()).isEmpty());
+  }
+
+  @Test
+  public void deleteJobAdmission_removesJob() {
+    String jobId = enqueue(BILLING_PROFILE_A, false);
+
+    assertTrue(jobAdmissionDao.deleteJobAdmission(jobId));
+    assertFalse(jobAdmissionDao.deleteJobAdmission(jobId));
+  }
+
+  private String enqueue(UUID billingProfileId, boolean highPriority) {
+    String jobId = UUID.randomUUID().toString();
+    jobIds.add(jobId);
+    jobAdmissionDao.enqueueJob(jobId, billingProfileId, null, highPriority, 1.0);
+    return jobId;
+  }
+
+  private List<String> queuedJobIds() {
+    return jobAdmissionDao.getAdmissionQueue().stream()
+        .map(JobAdmission::jobId)
+        .filter(jobIds::contains)
+        .toList();
+  }
+}
@@ -0,0 +1,123 @@
+package bio.terra.landingzone.job;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import bio.terra.common.db.DataSourceInitializer;
+import bio.terra.landingzone.library.configuration.stairway.LandingZoneStairwayDatabaseConfiguration;
+import bio.terra.landingzone.testutils.LibraryTestBase;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class PostgresWorkQueueTest extends LibraryTestBase {
+  private static final Duration POLL_INTERVAL = Duration.ofSeconds(5);
+
+  @Autowired private LandingZoneStairwayDatabaseConfiguration stairwayDatabaseConfiguration;
+
+  private PostgresWorkQueue workQueue;
+  private PostgresWorkQueue otherInstanceQueue;
+
+  @BeforeEach
+  void setUp() {
+    var dataSource = DataSourceInitializer.initializeDataSource(stairwayDatabaseConfiguration);
+    workQueue = new PostgresWorkQueue(dataSource, stairwayDatabaseConfiguration, POLL_INTERVAL);
+    otherInstanceQueue =
+        new PostgresWorkQueue(dataSource, stairwayDatabaseConfiguration, POLL_INTERVAL);
+    workQueue.initialize();
+    workQueue.purgeQueueForTesting();
+  }
+
+  @AfterEach
+  void tearDown() {
+    workQueue.purgeQueueForTesting();
+  }
+
+  @Test
+  public void dispatchMessages_eachMessageIsDispatchedOnce() throws Exception {
+    workQueue.enqueueMessage("m1");
+    workQueue.enqueueMessage("m2");
+    workQueue.enqueueMessage("m3");
+
+    List<String> dispatched = new ArrayList<>();
+    workQueue.dispatchMessages(2, dispatched::add);
+    otherInstanceQueue.dispatchMessages(2, dispatched::add);
+
+    assertEquals(List.of("m1", "m2", "m3"), dispatched);
+  }
+
+  @Test
+  public void dispatchMessages_rejectedMessageStaysQueued() throws Exception {
+    workQueue.enqueueMessage("m1");
+
+    workQueue.dispatchMessages(1, message -> false);
+    List<String> dispatched = new ArrayList<>();
+    otherInstanceQueue.dispatchMessages(1, dispatched::add);
+
+    assertEquals(List.of("m1"), dispatched);
+  }
+
+  @Test
+  public void dispatchMessages_failingMessageDoesNotBlockOthers() throws Exception {
+    workQueue.enqueueMessage("poison");
+    workQueue.enqueueMessage("m2");
+
+    List<String> dispatched = new ArrayList<>();
+    workQueue.dispatchMessages(
+        2,
+        message -> {
+          if (message.equals("poison")) {
+            throw new IllegalStateException("cannot deserialize");
+          }
+          return dispatched.add(message);
+        });
+
+    assertEquals(List.of("m2"), dispatched);
+  }
+
+  @Test
+  public void dispatchMessages_repeatedlyFailingMessageIsDeadLettered() throws Exception {
+    workQueue.enqueueMessage("poison");
+    for (int attempt = 0; attempt < PostgresWorkQueue.MAX_ATTEMPTS; attempt++) {
+      workQueue.dispatchMessages(
+          1,
+          message -> {
+            throw new IllegalStateException("cannot deserialize");
+          });
+    }
+    workQueue.enqueueMessage("m2");
+
+    List<String> dispatched = new ArrayList<>();
+    otherInstanceQueue.dispatchMessages(2, dispatched::add);
+
+    assertEquals(List.of("m2"), dispatched);
+  }
+
+  @Test
+  public void dispatchMessages_idleInstanceIsWokenByEnqueue() throws Exception {
+    List<String> dispatched = new ArrayList<>();
+    // the first call finds the queue empty and waits for a notification
+    var idleInstance =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                otherInstanceQueue.dispatchMessages(1, dispatched::add);
+                otherInstanceQueue.dispatchMessages(1, dispatched::add);
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    TimeUnit.MILLISECONDS.sleep(500);
+
+    workQueue.enqueueMessage("m1");
+
+    // without the notification the first call would only return after the poll interval
+    idleInstance.get(POLL_INTERVAL.toMillis() / 2, TimeUnit.MILLISECONDS);
+    assertEquals(List.of("m1"), dispatched);
+  }
+}